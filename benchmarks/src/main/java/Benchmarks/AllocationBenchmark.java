@@ -0,0 +1,168 @@
+package Benchmarks;
+
+import Model.Country;
+import Model.CurrentState;
+import Model.Map;
+import Model.MapGenerator;
+import Model.Orders;
+import Model.Player;
+import Utils.CommandHandler;
+import View.MapView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The hot operations whose cost is mostly garbage: command parsing, country lookup by ID, rendering the map,
+ * taking the next order and executing it. Run them with the allocation profile of the benchmark pom, which
+ * adds JMH's GC profiler (the gc.alloc.rate.norm column is bytes allocated per operation) and a JFR
+ * recording of the allocation sites. The numbers of the last release are kept in baselines/allocation.md.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AllocationBenchmark {
+
+    /** Number of orders queued and taken by one invocation of {@link #nextOrder()}. */
+    private static final int ORDERS = 100;
+
+    /** Commands parsed in turn, as typed at the prompt. */
+    private static final String[] COMMANDS = {
+            "loadmap canada.map",
+            "gameplayer -add Alice -add Bob -remove Carol",
+            "editcountry -add Quebec Canada -remove Ontario",
+            "editneighbour -add Quebec Ontario",
+            "deploy Quebec 5"
+    };
+
+    /** Number of countries in the generated map. */
+    @Param({"1000", "10000"})
+    public int d_countryCount;
+
+    /** The map. */
+    private Map d_map;
+    /** The game showing the map. */
+    private CurrentState d_state;
+    /** A player owning every country. */
+    private Player d_player;
+    /** Country IDs probed in turn. */
+    private int[] d_ids;
+    /** Deploy orders executed in turn, on countries spread over the player's list. */
+    private Orders[] d_deployOrders;
+    /** Position in the probe arrays. */
+    private int d_cursor;
+    /** The console, while silenced. */
+    private PrintStream d_output;
+
+    /**
+     * Generates the map and the orders, and silences the console.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        d_output = BenchmarkGames.silenceOutput();
+        d_map = BenchmarkMaps.generated(MapGenerator.Topology.GRID, d_countryCount,
+                Math.max(1, d_countryCount / 100), 4);
+        d_state = BenchmarkGames.game(d_map, 0);
+        d_player = new Player("Player1");
+        List<Country> l_countries = d_map.getD_mapCountries();
+        d_player.getD_currentCountries().addAll(l_countries);
+        d_ids = new int[1024];
+        d_deployOrders = new Orders[1024];
+        for (int i = 0; i < d_ids.length; i++) {
+            Country l_country = l_countries.get((int) ((long) i * 7919 % l_countries.size()));
+            d_ids[i] = l_country.getD_countryID();
+            d_deployOrders[i] = new Orders("deploy", l_country.getD_countryName(), 1);
+        }
+    }
+
+    /**
+     * Restores the console.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkGames.restoreOutput(d_output);
+    }
+
+    /**
+     * Advances the probe cursor.
+     *
+     * @return the next probe position
+     */
+    private int next() {
+        d_cursor = (d_cursor + 1) & 1023;
+        return d_cursor;
+    }
+
+    /**
+     * Parses a command into its operations, as every command handler of the game does.
+     *
+     * @return the operations
+     */
+    @Benchmark
+    public List<java.util.Map<String, String>> getListOfOperations() {
+        return new CommandHandler(COMMANDS[next() % COMMANDS.length]).getListOfOperations();
+    }
+
+    /**
+     * Looks up a country by ID.
+     *
+     * @return the country
+     */
+    @Benchmark
+    public Country getCountryById() {
+        return d_map.getCountryById(d_ids[next()]);
+    }
+
+    /**
+     * Renders the whole map to the silenced console.
+     */
+    @Benchmark
+    public void showMap() {
+        new MapView(d_state).showMap();
+    }
+
+    /**
+     * Queues {@value #ORDERS} orders and takes them back one by one; the score is per order taken.
+     *
+     * @return the last order taken
+     */
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public Orders nextOrder() {
+        List<Orders> l_orders = d_player.getD_orders();
+        for (int i = 0; i < ORDERS; i++) {
+            l_orders.add(d_deployOrders[i]);
+        }
+        Orders l_last = null;
+        for (int i = 0; i < ORDERS; i++) {
+            l_last = d_player.nextOrder();
+        }
+        return l_last;
+    }
+
+    /**
+     * Executes a deploy order of one army.
+     */
+    @Benchmark
+    public void execute() {
+        d_deployOrders[next()].execute(d_player);
+    }
+}
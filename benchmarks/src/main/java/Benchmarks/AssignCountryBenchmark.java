@@ -0,0 +1,83 @@
+package Benchmarks;
+
+import Controller.PlayerController;
+import Model.CurrentState;
+import Model.MapGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PlayerController#assignCountry(CurrentState)}: dealing the countries out, printing them
+ * and working out which continents each player holds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AssignCountryBenchmark {
+
+    /** Number of countries in the generated map. */
+    @Param({"1000", "10000", "100000"})
+    public int d_countryCount;
+
+    /** Number of players. */
+    @Param({"4"})
+    public int d_playerCount;
+
+    /** The controller under test. */
+    private final PlayerController d_controller = new PlayerController(BenchmarkGames.NULL_OUTPUT);
+    /** The game. */
+    private CurrentState d_state;
+    /** The console, while silenced. */
+    private PrintStream d_output;
+
+    /**
+     * Generates the map, adds the players and silences the console.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        d_output = BenchmarkGames.silenceOutput();
+        d_state = BenchmarkGames.game(BenchmarkMaps.generated(MapGenerator.Topology.GEOMETRIC, d_countryCount,
+                Math.max(1, d_countryCount / 100), 4), d_playerCount);
+    }
+
+    /**
+     * Takes the countries back from the players before each assignment.
+     */
+    @Setup(Level.Invocation)
+    public void resetPlayers() {
+        BenchmarkGames.resetPlayers(d_state);
+    }
+
+    /**
+     * Restores the console.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkGames.restoreOutput(d_output);
+    }
+
+    /**
+     * Assigns the countries, as the assigncountries command does.
+     */
+    @Benchmark
+    public void assignCountry() {
+        d_controller.assignCountry(d_state);
+    }
+}
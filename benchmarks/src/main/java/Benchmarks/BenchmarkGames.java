@@ -0,0 +1,99 @@
+package Benchmarks;
+
+import Controller.PlayerController;
+import Model.Country;
+import Model.CurrentState;
+import Model.Map;
+import Model.Player;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+
+/**
+ * Sets up games on synthetic maps for the benchmarks of the game phases, and silences the console they
+ * print to.
+ */
+public final class BenchmarkGames {
+
+    /** Seed of every game, so that every run deals the countries the same way. */
+    private static final long SEED = 42;
+
+    /** Console sink dropping everything written to it, the output of every game set up here. */
+    public static final PrintStream NULL_OUTPUT = new PrintStream(OutputStream.nullOutputStream());
+
+    private BenchmarkGames() {
+    }
+
+    /**
+     * Sends {@link System#out} to a sink that drops everything, so that a benchmark measures building the
+     * output rather than the terminal.
+     *
+     * @return the previous {@link System#out}, to give back to {@link #restoreOutput(PrintStream)}
+     */
+    public static PrintStream silenceOutput() {
+        PrintStream l_previous = System.out;
+        System.setOut(NULL_OUTPUT);
+        return l_previous;
+    }
+
+    /**
+     * Restores {@link System#out}.
+     *
+     * @param p_output the stream returned by {@link #silenceOutput()}
+     */
+    public static void restoreOutput(PrintStream p_output) {
+        System.setOut(p_output);
+    }
+
+    /**
+     * Creates a game state holding a map and players without countries.
+     *
+     * @param p_map         the map
+     * @param p_playerCount the number of players
+     * @return the game state
+     */
+    public static CurrentState game(Map p_map, int p_playerCount) {
+        CurrentState l_state = new CurrentState();
+        l_state.setD_output(NULL_OUTPUT);
+        l_state.setD_seed(SEED);
+        l_state.setD_map(p_map);
+        l_state.setD_players(new ArrayList<>());
+        for (int p = 1; p <= p_playerCount; p++) {
+            l_state.addOrRemovePlayer("add", "Player" + p);
+        }
+        return l_state;
+    }
+
+    /**
+     * Creates a game state in which the countries have been assigned and the armies handed out, as after
+     * the assigncountries command.
+     *
+     * @param p_map         the map
+     * @param p_playerCount the number of players
+     * @return the game state
+     */
+    public static CurrentState assignedGame(Map p_map, int p_playerCount) {
+        CurrentState l_state = game(p_map, p_playerCount);
+        PlayerController l_controller = new PlayerController(NULL_OUTPUT);
+        l_controller.assignCountry(l_state);
+        l_controller.assignArmies(l_state);
+        return l_state;
+    }
+
+    /**
+     * Takes every country away from the players, so that they can be assigned again.
+     *
+     * @param p_state the game state
+     */
+    public static void resetPlayers(CurrentState p_state) {
+        for (Player l_player : p_state.getD_players()) {
+            l_player.setD_currentCountries(new ArrayList<>());
+            l_player.getD_currentContinents().clear();
+            l_player.setD_orders(new ArrayList<>());
+        }
+        for (Country l_country : p_state.getD_map().getD_mapCountries()) {
+            l_country.setD_armies(0);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package Benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of the benchmark jar. It takes the options of the JMH command line, but writes the results as
+ * JSON unless another result format is asked for, so that runs of different releases can be compared.
+ */
+public final class BenchmarkMain {
+    /** File the results are written to when no result file is given. */
+    public static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    private BenchmarkMain() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param p_args JMH command line options, for example a benchmark name pattern or "-p d_countryCount=1000"
+     * @throws Exception if JMH fails
+     */
+    public static void main(String[] p_args) throws Exception {
+        List<String> l_args = new ArrayList<>(Arrays.asList(p_args));
+        if (!l_args.contains("-rf")) {
+            l_args.add("-rf");
+            l_args.add("json");
+        }
+        if (!l_args.contains("-rff")) {
+            l_args.add("-rff");
+            l_args.add(DEFAULT_RESULT_FILE);
+        }
+        org.openjdk.jmh.Main.main(l_args.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,128 @@
+package Benchmarks;
+
+import Model.Continent;
+import Model.Country;
+import Model.Map;
+import Model.MapFileParser;
+import Model.MapFileWriter;
+import Model.MapGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds synthetic maps in memory for the benchmarks.
+ */
+public final class BenchmarkMaps {
+    /** Seed of the generated maps, fixed so that every run measures the same maps. */
+    public static final long SEED = 42;
+
+    private BenchmarkMaps() {
+    }
+
+    /**
+     * Builds a valid map shaped as a ladder: each country borders the previous and next country, and every
+     * other country also borders the country two places ahead. Continents are contiguous blocks of countries.
+     *
+     * @param p_countryCount   the number of countries
+     * @param p_continentCount the number of continents
+     * @return the map
+     */
+    public static Map ladder(int p_countryCount, int p_continentCount) {
+        List<Continent> l_continents = new ArrayList<>(p_continentCount);
+        for (int c = 1; c <= p_continentCount; c++) {
+            l_continents.add(new Continent(c, "Continent" + c, c % 10 + 1));
+        }
+
+        int l_blockSize = Math.max(1, (p_countryCount + p_continentCount - 1) / p_continentCount);
+        List<Country> l_countries = new ArrayList<>(p_countryCount);
+        for (int i = 1; i <= p_countryCount; i++) {
+            int l_continentId = Math.min(p_continentCount, (i - 1) / l_blockSize + 1);
+            Country l_country = new Country(i, "Country" + i, l_continentId);
+            List<Integer> l_neighbours = new ArrayList<>(3);
+            if (i > 1) {
+                l_neighbours.add(i - 1);
+            }
+            if (i < p_countryCount) {
+                l_neighbours.add(i + 1);
+            }
+            if (i % 2 == 1 && i + 2 <= p_countryCount) {
+                l_neighbours.add(i + 2);
+            }
+            if (i % 2 == 1 && i > 2) {
+                l_neighbours.add(i - 2);
+            }
+            l_country.setD_neighbouringCountriesId(l_neighbours);
+            l_countries.add(l_country);
+            l_continents.get(l_continentId - 1).setCountry(l_country);
+        }
+        return new Map("ladder-" + p_countryCount + ".map", l_countries, l_continents);
+    }
+
+    /**
+     * Generates a map file with {@link MapGenerator} and the fixed {@link #SEED}.
+     *
+     * @param p_topology       the shape of the graph
+     * @param p_countryCount   the number of countries
+     * @param p_continentCount the number of continents
+     * @param p_averageDegree  the average number of neighbours per country
+     * @return the file contents
+     */
+    public static byte[] generatedText(MapGenerator.Topology p_topology, int p_countryCount, int p_continentCount,
+                                       double p_averageDegree) {
+        ByteArrayOutputStream l_out = new ByteArrayOutputStream(p_countryCount * 48);
+        try {
+            new MapGenerator(p_topology, p_countryCount, p_continentCount, p_averageDegree, SEED)
+                    .write(Channels.newChannel(l_out));
+        } catch (IOException l_e) {
+            throw new UncheckedIOException(l_e);
+        }
+        return l_out.toByteArray();
+    }
+
+    /**
+     * Generates a map with {@link #generatedText(MapGenerator.Topology, int, int, double)} and loads it.
+     *
+     * @param p_topology       the shape of the graph
+     * @param p_countryCount   the number of countries
+     * @param p_continentCount the number of continents
+     * @param p_averageDegree  the average number of neighbours per country
+     * @return the map
+     */
+    public static Map generated(MapGenerator.Topology p_topology, int p_countryCount, int p_continentCount,
+                                double p_averageDegree) {
+        Map l_map = new Map();
+        new MapFileParser().parse(generatedText(p_topology, p_countryCount, p_continentCount, p_averageDegree), l_map);
+        return l_map;
+    }
+
+    /**
+     * Generates a map with {@link #generated(MapGenerator.Topology, int, int, double)} and saves it to a
+     * temporary file that is deleted when the JVM exits.
+     *
+     * @param p_topology       the shape of the graph
+     * @param p_countryCount   the number of countries
+     * @param p_continentCount the number of continents
+     * @param p_averageDegree  the average number of neighbours per country
+     * @param p_extension      the file extension, ".map" or {@link Model.BinaryMapFormat#EXTENSION}
+     * @return the absolute path of the file
+     */
+    public static Path generatedFile(MapGenerator.Topology p_topology, int p_countryCount, int p_continentCount,
+                                     double p_averageDegree, String p_extension) {
+        try {
+            Path l_file = Files.createTempFile("warzone-benchmark-", p_extension).toAbsolutePath();
+            l_file.toFile().deleteOnExit();
+            Map l_map = generated(p_topology, p_countryCount, p_continentCount, p_averageDegree);
+            new MapFileWriter().save(l_map, l_file, true);
+            return l_file;
+        } catch (IOException l_e) {
+            throw new UncheckedIOException(l_e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package Benchmarks;
+
+import Model.Map;
+import Model.MapFileParser;
+import Model.MapGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how loading an in-memory map scales with the number of threads parsing its borders section.
+ * A thread count of 0 parses the whole file on the calling thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BorderParsingBenchmark {
+
+    /** Number of countries in the synthetic map. */
+    @Param({"1000000"})
+    public int d_countryCount;
+
+    /** Shape of the synthetic map. */
+    @Param({"GRID", "SCALE_FREE"})
+    public MapGenerator.Topology d_topology;
+
+    /** Number of threads parsing the borders section. */
+    @Param({"0", "1", "2", "4", "8"})
+    public int d_threads;
+
+    /** The map file contents. */
+    private byte[] d_file;
+    /** The pool parsing the borders, or null for sequential parsing. */
+    private ForkJoinPool d_pool;
+
+    /**
+     * Writes the map file and starts the pool.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        d_file = BenchmarkMaps.generatedText(d_topology, d_countryCount, Math.max(1, d_countryCount / 1000), 4);
+        d_pool = d_threads == 0 ? null : new ForkJoinPool(d_threads);
+    }
+
+    /**
+     * Stops the pool.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (d_pool != null) {
+            d_pool.shutdown();
+        }
+    }
+
+    /**
+     * Loads the whole map.
+     *
+     * @return the loaded map
+     */
+    @Benchmark
+    public Map load() {
+        Map l_map = new Map();
+        new MapFileParser(d_pool).parse(d_file, l_map);
+        return l_map;
+    }
+}
@@ -0,0 +1,79 @@
+package Benchmarks;
+
+import Controller.MapController;
+import Model.CurrentState;
+import Model.Map;
+import Model.MapCache;
+import Model.MapGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link MapController#loadMap(CurrentState, String)} on generated map files in both formats. The
+ * map cache is turned off in the forked JVM, so every load reads and parses the file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-D" + MapCache.BUDGET_PROPERTY + "=0")
+public class LoadMapBenchmark {
+
+    /** Number of countries in the generated map. */
+    @Param({"1000", "10000", "100000"})
+    public int d_countryCount;
+
+    /** Extension of the map file, which selects its format. */
+    @Param({".map", ".bmap"})
+    public String d_extension;
+
+    /** The controller under test. */
+    private final MapController d_controller = new MapController(BenchmarkGames.NULL_OUTPUT);
+    /** Absolute path of the map file. */
+    private String d_file;
+    /** The console, while silenced. */
+    private PrintStream d_output;
+
+    /**
+     * Writes the map file.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        d_file = BenchmarkMaps.generatedFile(MapGenerator.Topology.GRID, d_countryCount,
+                Math.max(1, d_countryCount / 100), 4, d_extension).toString();
+        d_output = BenchmarkGames.silenceOutput();
+    }
+
+    /**
+     * Restores the console.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkGames.restoreOutput(d_output);
+    }
+
+    /**
+     * Loads the map into a new game.
+     *
+     * @return the loaded map
+     */
+    @Benchmark
+    public Map loadMap() {
+        return d_controller.loadMap(new CurrentState(), d_file);
+    }
+}
@@ -0,0 +1,115 @@
+package Benchmarks;
+
+import Model.Country;
+import Model.Map;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the country and continent lookups of {@link Map} across map sizes.
+ * The cost per lookup should stay flat as the number of countries grows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapLookupBenchmark {
+
+    /** Number of countries in the synthetic map. */
+    @Param({"100", "10000", "100000"})
+    public int d_countryCount;
+
+    /** The map under test. */
+    private Map d_map;
+    /** Country IDs probed by the benchmarks, cycled through. */
+    private int[] d_ids;
+    /** Country names probed by the benchmarks, in upper case to exercise the case-insensitive index. */
+    private String[] d_names;
+    /** Continent names probed by the benchmarks. */
+    private String[] d_continentNames;
+    /** Position in the probe arrays. */
+    private int d_cursor;
+
+    /**
+     * Builds the map and warms the indexes.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        d_map = BenchmarkMaps.ladder(d_countryCount, Math.max(1, d_countryCount / 50));
+        d_ids = new int[1024];
+        d_names = new String[1024];
+        d_continentNames = new String[1024];
+        java.util.SplittableRandom l_random = new java.util.SplittableRandom(42);
+        for (int i = 0; i < d_ids.length; i++) {
+            d_ids[i] = 1 + l_random.nextInt(d_countryCount);
+            d_names[i] = ("Country" + d_ids[i]).toUpperCase();
+            d_continentNames[i] = d_map.getD_mapContinents().get(l_random.nextInt(d_map.getD_mapContinents().size())).getD_continentName();
+        }
+        d_map.getCountryById(1);
+        d_map.getContinentByName(d_continentNames[0]);
+    }
+
+    /**
+     * Advances the probe cursor.
+     *
+     * @return the next probe position
+     */
+    private int next() {
+        d_cursor = (d_cursor + 1) & 1023;
+        return d_cursor;
+    }
+
+    /**
+     * Looks up a country by ID.
+     *
+     * @return the country
+     */
+    @Benchmark
+    public Country countryById() {
+        return d_map.getCountryById(d_ids[next()]);
+    }
+
+    /**
+     * Looks up a country by name, ignoring case.
+     *
+     * @return the country
+     */
+    @Benchmark
+    public Country countryByName() {
+        return d_map.getCountryByName(d_names[next()]);
+    }
+
+    /**
+     * Looks up a country name by ID.
+     *
+     * @return the name
+     */
+    @Benchmark
+    public String countryNameById() {
+        return d_map.getCountryNameById(d_ids[next()]);
+    }
+
+    /**
+     * Looks up a continent ID by name.
+     *
+     * @return the continent ID
+     */
+    @Benchmark
+    public int continentIdByName() {
+        return d_map.getContinentIDByName(d_continentNames[next()]);
+    }
+}
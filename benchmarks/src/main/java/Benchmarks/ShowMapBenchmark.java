@@ -0,0 +1,69 @@
+package Benchmarks;
+
+import Model.CurrentState;
+import Model.MapGenerator;
+import View.MapView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link MapView#showMap()} with the console sent to a null sink, so that only formatting the map
+ * is timed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShowMapBenchmark {
+
+    /** Number of countries in the generated map. */
+    @Param({"1000", "10000", "100000"})
+    public int d_countryCount;
+
+    /** The game showing the map. */
+    private CurrentState d_state;
+    /** The console, while silenced. */
+    private PrintStream d_output;
+
+    /**
+     * Generates the map and silences the console.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        d_output = BenchmarkGames.silenceOutput();
+        d_state = BenchmarkGames.game(BenchmarkMaps.generated(MapGenerator.Topology.GRID, d_countryCount,
+                Math.max(1, d_countryCount / 100), 4), 0);
+    }
+
+    /**
+     * Restores the console.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkGames.restoreOutput(d_output);
+    }
+
+    /**
+     * Shows the map, as the showmap command does.
+     */
+    @Benchmark
+    public void showMap() {
+        new MapView(d_state).showMap();
+    }
+}
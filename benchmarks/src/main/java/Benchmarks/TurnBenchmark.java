@@ -0,0 +1,142 @@
+package Benchmarks;
+
+import Controller.PlayerController;
+import Model.CurrentState;
+import Model.MapGenerator;
+import Model.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the turn of the game started by assigncountries: issuing deploy orders through
+ * {@link PlayerController#createDeployOrder(String, Player)} and a whole turn in which every player deploys
+ * all their armies one at a time, in turn as the game asks for them, and the orders are then executed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TurnBenchmark {
+
+    /** Number of orders issued by one invocation of {@link #createDeployOrder()}. */
+    private static final int ORDERS = 100;
+
+    /** Number of countries in the generated map. */
+    @Param({"1000", "10000", "100000"})
+    public int d_countryCount;
+
+    /** Number of players. */
+    @Param({"4"})
+    public int d_playerCount;
+
+    /** The controller under test. */
+    private final PlayerController d_controller = new PlayerController(BenchmarkGames.NULL_OUTPUT);
+    /** The game, with the countries assigned. */
+    private CurrentState d_state;
+    /** Armies each player gets per turn. */
+    private int[] d_armies;
+    /** Deploy commands of each player for a whole turn, one army each, spread over their countries. */
+    private String[][] d_turnCommands;
+    /** Deploy commands of the first player, spread over their countries. */
+    private String[] d_commands;
+    /** The console, while silenced. */
+    private PrintStream d_output;
+
+    /**
+     * Generates the map, assigns the countries and prepares the commands.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        d_output = BenchmarkGames.silenceOutput();
+        d_state = BenchmarkGames.assignedGame(BenchmarkMaps.generated(MapGenerator.Topology.GEOMETRIC, d_countryCount,
+                Math.max(1, d_countryCount / 100), 4), d_playerCount);
+        List<Player> l_players = d_state.getD_players();
+        d_armies = new int[l_players.size()];
+        d_turnCommands = new String[l_players.size()][];
+        for (int p = 0; p < l_players.size(); p++) {
+            d_armies[p] = l_players.get(p).getD_unallocatedArmies();
+            d_turnCommands[p] = deployCommands(l_players.get(p), d_armies[p]);
+        }
+        d_commands = deployCommands(l_players.get(0), ORDERS);
+    }
+
+    /**
+     * Builds deploy commands of one army each, spread evenly over the countries of a player.
+     *
+     * @param p_player the player
+     * @param p_count  the number of commands
+     * @return the commands
+     */
+    private static String[] deployCommands(Player p_player, int p_count) {
+        int l_owned = p_player.getD_currentCountries().size();
+        String[] l_commands = new String[p_count];
+        for (int i = 0; i < p_count; i++) {
+            int l_index = (int) ((long) i * l_owned / p_count);
+            l_commands[i] = "deploy " + p_player.getD_currentCountries().get(l_index).getD_countryName() + " 1";
+        }
+        return l_commands;
+    }
+
+    /**
+     * Restores the console.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkGames.restoreOutput(d_output);
+    }
+
+    /**
+     * Issues {@value #ORDERS} deploy orders for the first player; the score is per order.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public void createDeployOrder() {
+        Player l_player = d_state.getD_players().get(0);
+        l_player.setD_unallocatedArmies(ORDERS);
+        l_player.setD_orders(new ArrayList<>());
+        for (String l_command : d_commands) {
+            d_controller.createDeployOrder(l_command, l_player);
+        }
+    }
+
+    /**
+     * Plays a whole deploy turn: the players deploy their armies in turn, one order each per round as the
+     * game loop asks for them, then every order is executed.
+     */
+    @Benchmark
+    public void deployAndExecute() {
+        List<Player> l_players = d_state.getD_players();
+        for (int p = 0; p < l_players.size(); p++) {
+            l_players.get(p).setD_unallocatedArmies(d_armies[p]);
+        }
+        int[] l_issued = new int[l_players.size()];
+        while (d_controller.isUnallocatedArmiesExist(d_state)) {
+            for (int p = 0; p < l_players.size(); p++) {
+                Player l_player = l_players.get(p);
+                if (l_player.getD_unallocatedArmies() > 0) {
+                    d_controller.createDeployOrder(d_turnCommands[p][l_issued[p]++], l_player);
+                }
+            }
+        }
+        d_controller.executeOrders(d_state);
+    }
+}
@@ -0,0 +1,71 @@
+package Benchmarks;
+
+import Model.Map;
+import Model.MapGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Map#validateMap()} as the validatemap command runs it, both on a map whose graph has to
+ * be rebuilt and on a map that was already checked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidateMapBenchmark {
+
+    /** Number of countries in the generated map. */
+    @Param({"1000", "10000", "100000"})
+    public int d_countryCount;
+
+    /** Shape of the generated map. */
+    @Param({"GRID", "SCALE_FREE"})
+    public MapGenerator.Topology d_topology;
+
+    /** The map under test. */
+    private Map d_map;
+
+    /**
+     * Generates the map.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        d_map = BenchmarkMaps.generated(d_topology, d_countryCount, Math.max(1, d_countryCount / 100), 4);
+    }
+
+    /**
+     * Validates the map after dropping its graph, as after an edit made outside the edit commands.
+     *
+     * @return whether the map is valid
+     */
+    @Benchmark
+    public boolean validateRebuilt() {
+        d_map.invalidateGraph();
+        return d_map.validateMap();
+    }
+
+    /**
+     * Validates the map again without changing it.
+     *
+     * @return whether the map is valid
+     */
+    @Benchmark
+    public boolean validateUnchanged() {
+        return d_map.validateMap();
+    }
+}
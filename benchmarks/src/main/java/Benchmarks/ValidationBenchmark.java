@@ -0,0 +1,72 @@
+package Benchmarks;
+
+import Model.MapGenerator;
+import Model.MapGraph;
+import Model.MapValidationReport;
+import Model.MapValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares sequential and parallel continent checks of {@link MapValidator} on generated maps of each topology.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    /** Number of countries in the synthetic map. */
+    @Param({"10000", "200000"})
+    public int d_countryCount;
+
+    /** Number of continents in the synthetic map. */
+    @Param({"16", "500"})
+    public int d_continentCount;
+
+    /** Shape of the synthetic map. */
+    @Param({"GRID", "GEOMETRIC", "SCALE_FREE", "CHAIN"})
+    public MapGenerator.Topology d_topology;
+
+    /** Whether the continents are checked in parallel. */
+    @Param({"false", "true"})
+    public boolean d_parallel;
+
+    /** The graph under test. */
+    private MapGraph d_graph;
+    /** The validator under test. */
+    private MapValidator d_validator;
+
+    /**
+     * Builds the graph once per trial.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        d_graph = BenchmarkMaps.generated(d_topology, d_countryCount, d_continentCount, 4).getGraph();
+        d_validator = new MapValidator(d_parallel);
+    }
+
+    /**
+     * Validates the whole map.
+     *
+     * @return the report
+     */
+    @Benchmark
+    public MapValidationReport validate() {
+        return d_validator.validate(d_graph);
+    }
+}
@@ -0,0 +1,302 @@
+package Controller;
+
+import Model.StateDigest;
+import Utils.CommandTokenizer;
+import Utils.LatencyHistogram;
+import Utils.ParsedCommand;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Headless runner of command scripts, for replaying recorded sessions and load runs.
+ * <p>
+ * A script holds the commands of one session, one per line, exactly as they would be typed at the prompt;
+ * blank lines and lines starting with {@code #} are skipped. A session ends at {@code exit} or at the end
+ * of its script, so a stream of sessions is their scripts one after another, each ended by {@code exit}.
+ * Every session gets a fresh {@link MainGameEngine}, runs without prompts and never exits the JVM. The
+ * runner times every command into a {@link LatencyHistogram} per command name and reports, for every
+ * session, the {@link StateDigest} of its final state. With a seed, every session makes the same random choices,
+ * so replaying a script gives the same digests.
+ * </p>
+ */
+public final class BatchRunner {
+    /** Command that ends a session. */
+    private static final String EXIT = "exit";
+    /** Histogram key of lines that are not a registered command. */
+    private static final String UNKNOWN = "(unknown)";
+
+    /**
+     * The outcome of one session.
+     */
+    public static final class SessionResult {
+        /** Number of commands run. */
+        private final int d_commandCount;
+        /** Number of commands the engine rejected or that failed with an exception. */
+        private final int d_errorCount;
+        /** The phase the game ended in. */
+        private final GamePhase d_phase;
+        /** The digest of the final state. */
+        private final String d_digest;
+
+        /**
+         * Creates a session result.
+         *
+         * @param p_commandCount number of commands run
+         * @param p_errorCount   number of commands rejected or failed
+         * @param p_phase        the phase the game ended in
+         * @param p_digest       the digest of the final state
+         */
+        SessionResult(int p_commandCount, int p_errorCount, GamePhase p_phase, String p_digest) {
+            d_commandCount = p_commandCount;
+            d_errorCount = p_errorCount;
+            d_phase = p_phase;
+            d_digest = p_digest;
+        }
+
+        /**
+         * Gets the number of commands run.
+         *
+         * @return the command count
+         */
+        public int getCommandCount() {
+            return d_commandCount;
+        }
+
+        /**
+         * Gets the number of commands the engine rejected or that failed with an exception.
+         *
+         * @return the error count
+         */
+        public int getErrorCount() {
+            return d_errorCount;
+        }
+
+        /**
+         * Gets the phase the game ended in.
+         *
+         * @return the phase
+         */
+        public GamePhase getPhase() {
+            return d_phase;
+        }
+
+        /**
+         * Gets the digest of the final state.
+         *
+         * @return the digest, in hexadecimal
+         */
+        public String getDigest() {
+            return d_digest;
+        }
+    }
+
+    /** Latency of the commands run so far, by command name. */
+    private final Map<String, LatencyHistogram> d_histograms = new TreeMap<>();
+    /** Latency of every command run so far. */
+    private final LatencyHistogram d_total = new LatencyHistogram();
+    /** Digest of the final digests of every session so far, in order. */
+    private final MessageDigest d_runDigest;
+    /** Number of sessions run. */
+    private int d_sessionCount;
+    /** Number of commands the engine rejected or that failed with an exception. */
+    private long d_errorCount;
+    /** Where the sessions report to the user: the standard output when verbose, otherwise nowhere. */
+    private final PrintStream d_console;
+    /** The seed of every session, or null for a random seed per session. */
+    private Long d_seed;
+    /** The line being timed, reused for every line. */
+    private final ParsedCommand d_parsedCommand = new ParsedCommand();
+
+    /**
+     * Creates a runner.
+     *
+     * @param p_verbose whether to show the game's console output
+     */
+    public BatchRunner(boolean p_verbose) {
+        d_console = p_verbose ? System.out : new PrintStream(OutputStream.nullOutputStream());
+        try {
+            d_runDigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException l_e) {
+            throw new IllegalStateException("SHA-256 is not available.", l_e);
+        }
+    }
+
+    /**
+     * Seeds the random choices of every session from now on.
+     *
+     * @param p_seed the seed, or null for a random seed per session
+     */
+    public void setSeed(Long p_seed) {
+        d_seed = p_seed;
+    }
+
+    /**
+     * Runs scripts, each file holding one or more sessions, and prints the report. Without files the
+     * sessions are read from standard input.
+     *
+     * @param p_args {@code [-verbose] [-seed number] [script...]}
+     */
+    public static void main(String[] p_args) {
+        int l_first = p_args.length > 0 && p_args[0].equals("-verbose") ? 1 : 0;
+        BatchRunner l_runner = new BatchRunner(l_first == 1);
+        if (p_args.length > l_first + 1 && p_args[l_first].equals("-seed")) {
+            try {
+                l_runner.setSeed(Long.parseLong(p_args[l_first + 1]));
+            } catch (NumberFormatException l_e) {
+                System.out.println("Error : Invalid seed: " + p_args[l_first + 1]);
+                return;
+            }
+            l_first += 2;
+        }
+        PrintStream l_report = System.out;
+        long l_start = System.nanoTime();
+        try {
+            if (l_first == p_args.length) {
+                l_runner.runAll(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)), l_report);
+            }
+            for (int i = l_first; i < p_args.length; i++) {
+                try (BufferedReader l_reader = Files.newBufferedReader(Path.of(p_args[i]), StandardCharsets.UTF_8)) {
+                    l_runner.runAll(l_reader, l_report);
+                }
+            }
+        } catch (IOException l_e) {
+            l_report.println("Error : Unable to read script: " + l_e.getMessage());
+        }
+        l_runner.report(l_report, System.nanoTime() - l_start);
+    }
+
+    /**
+     * Runs every session of a script, printing one line per session.
+     *
+     * @param p_script the script
+     * @param p_report where to print the session lines
+     * @throws IOException if the script cannot be read
+     */
+    public void runAll(BufferedReader p_script, PrintStream p_report) throws IOException {
+        SessionResult l_result;
+        while ((l_result = runSession(p_script)) != null) {
+            p_report.println("Session " + d_sessionCount + ": " + l_result.getCommandCount() + " commands, "
+                    + l_result.getErrorCount() + " errors, " + l_result.getPhase() + ", digest "
+                    + l_result.getDigest());
+        }
+    }
+
+    /**
+     * Runs the next session of a script.
+     *
+     * @param p_script the script, read up to and including the {@code exit} ending the session
+     * @return the outcome, or null if the script held no further command
+     * @throws IOException if the script cannot be read
+     */
+    public SessionResult runSession(BufferedReader p_script) throws IOException {
+        MainGameEngine l_engine = new MainGameEngine(p_script, d_console);
+        if (d_seed != null) {
+            l_engine.getCurrentState().setD_seed(d_seed);
+        }
+        int l_commands = 0;
+        int l_errors = 0;
+        String l_line;
+        while ((l_line = p_script.readLine()) != null) {
+            String l_command = l_line.trim();
+            if (l_command.isEmpty() || l_command.startsWith("#")) {
+                continue;
+            }
+            if (l_command.equalsIgnoreCase(EXIT)) {
+                break;
+            }
+            l_commands++;
+            if (!runCommand(l_engine, l_command)) {
+                l_errors++;
+            }
+        }
+        if (l_commands == 0 && l_line == null) {
+            return null;
+        }
+        String l_digest = StateDigest.of(l_engine.getCurrentState());
+        l_engine.closeGame();
+        d_sessionCount++;
+        d_errorCount += l_errors;
+        d_runDigest.update(l_digest.getBytes(StandardCharsets.US_ASCII));
+        return new SessionResult(l_commands, l_errors, l_engine.getPhase(), l_digest);
+    }
+
+    /**
+     * Runs and times one command.
+     *
+     * @param p_engine  the engine
+     * @param p_command the command line
+     * @return false if the engine rejected the command or it failed with an exception
+     */
+    private boolean runCommand(MainGameEngine p_engine, String p_command) {
+        long l_start = System.nanoTime();
+        ParsedCommand l_command = CommandTokenizer.tokenize(p_command, d_parsedCommand);
+        CommandRegistry.Entry l_entry = p_engine.getCommandRegistry().lookup(l_command);
+        boolean l_succeeded;
+        try {
+            l_succeeded = p_engine.commandHandler(l_command);
+        } catch (Exception l_e) {
+            l_succeeded = false;
+            d_console.println("An error occurred: " + l_e.getMessage());
+        }
+        long l_elapsed = System.nanoTime() - l_start;
+        d_histograms.computeIfAbsent(l_entry == null ? UNKNOWN : l_entry.getName(), p_name -> new LatencyHistogram())
+                .record(l_elapsed);
+        d_total.record(l_elapsed);
+        return l_succeeded;
+    }
+
+    /**
+     * Gets the latency of the commands run so far.
+     *
+     * @return the histograms by command name
+     */
+    public Map<String, LatencyHistogram> getHistograms() {
+        return d_histograms;
+    }
+
+    /**
+     * Gets the digest of the final digests of every session so far, in order; two runs of the same scripts
+     * that end every session in the same state have the same run digest.
+     *
+     * @return the digest, in hexadecimal
+     */
+    public String getRunDigest() {
+        try {
+            return HexFormat.of().formatHex(((MessageDigest) d_runDigest.clone()).digest());
+        } catch (CloneNotSupportedException l_e) {
+            throw new IllegalStateException("SHA-256 digest cannot be copied.", l_e);
+        }
+    }
+
+    /**
+     * Prints the totals, the latency histogram of every command and the run digest.
+     *
+     * @param p_report       where to print
+     * @param p_elapsedNanos the wall-clock time of the run
+     */
+    public void report(PrintStream p_report, long p_elapsedNanos) {
+        double l_seconds = p_elapsedNanos / 1e9;
+        p_report.println(String.format(Locale.ROOT, "Sessions: %d, commands: %d, errors: %d, time: %.3f s, %.0f sessions/min",
+                d_sessionCount, d_total.getCount(), d_errorCount, l_seconds,
+                l_seconds == 0 ? 0 : d_sessionCount * 60 / l_seconds));
+        p_report.println("Command latency:");
+        for (Map.Entry<String, LatencyHistogram> l_entry : d_histograms.entrySet()) {
+            p_report.println(String.format(Locale.ROOT, "  %-16s %s", l_entry.getKey(), l_entry.getValue()));
+        }
+        p_report.println(String.format(Locale.ROOT, "  %-16s %s", "all", d_total));
+        p_report.println("Run digest: " + getRunDigest());
+    }
+}
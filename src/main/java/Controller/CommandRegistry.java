@@ -0,0 +1,288 @@
+package Controller;
+
+import Utils.ParsedCommand;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Table of the commands a game accepts, keyed by command name.
+ * <p>
+ * Every {@link Entry} carries what is needed to check a command before running it: whether a map must be
+ * loaded, the phase the command belongs to and the options it takes with the number of arguments of each,
+ * so a line is looked up, validated and dispatched once. Lookups hash the command word in place, with the
+ * same hash as {@link String#hashCode()}, and probe an open-addressed table of the interned names, so they
+ * create no string. New commands, such as those of plugins, are added with {@link #register(Entry)}.
+ * </p>
+ */
+public final class CommandRegistry {
+
+    /**
+     * Runs a command once it has been validated.
+     */
+    @FunctionalInterface
+    public interface CommandAction {
+        /**
+         * Runs the command.
+         *
+         * @param p_command the parsed command line
+         * @throws Exception if the command fails
+         */
+        void execute(ParsedCommand p_command) throws Exception;
+    }
+
+    /**
+     * A command and its precomputed metadata.
+     */
+    public static final class Entry {
+        /** The interned command name. */
+        private final String d_name;
+        /** Whether a map must be loaded before the command runs. */
+        private final boolean d_requiresMap;
+        /** The phase the command is valid in. */
+        private final GamePhase d_phase;
+        /** How to use the command, shown when it is given the wrong options. */
+        private final String d_usage;
+        /** What the command does. */
+        private final CommandAction d_action;
+        /** Names of the options the command takes; {@link ParsedCommand#POSITIONAL} for plain arguments. */
+        private String[] d_optionNames = new String[0];
+        /** Number of arguments of each option. */
+        private int[] d_arities = new int[0];
+
+        /**
+         * Creates a command that takes no options; add them with {@link #option(String, int)}.
+         *
+         * @param p_name        the command name
+         * @param p_requiresMap whether a map must be loaded first
+         * @param p_phase       the phase the command is valid in
+         * @param p_usage       how to use the command
+         * @param p_action      what the command does
+         */
+        public Entry(String p_name, boolean p_requiresMap, GamePhase p_phase, String p_usage,
+                     CommandAction p_action) {
+            if (p_name == null || p_name.isEmpty() || p_phase == null || p_action == null) {
+                throw new IllegalArgumentException("A command needs a name, a phase and an action.");
+            }
+            d_name = p_name.intern();
+            d_requiresMap = p_requiresMap;
+            d_phase = p_phase;
+            d_usage = p_usage;
+            d_action = p_action;
+        }
+
+        /**
+         * Adds an option the command takes. A command taking options must be given at least one of them.
+         *
+         * @param p_optionName the option name, without dash, or {@link ParsedCommand#POSITIONAL} for
+         *                     arguments given right after the command name
+         * @param p_arity      the number of arguments of the option
+         * @return this entry
+         */
+        public Entry option(String p_optionName, int p_arity) {
+            if (p_arity < 0) {
+                throw new IllegalArgumentException("Negative arity for option " + p_optionName + ".");
+            }
+            int l_count = d_optionNames.length;
+            d_optionNames = Arrays.copyOf(d_optionNames, l_count + 1);
+            d_arities = Arrays.copyOf(d_arities, l_count + 1);
+            d_optionNames[l_count] = p_optionName.intern();
+            d_arities[l_count] = p_arity;
+            return this;
+        }
+
+        /**
+         * Gets the command name.
+         *
+         * @return the interned name
+         */
+        public String getName() {
+            return d_name;
+        }
+
+        /**
+         * Checks whether the command needs a loaded map.
+         *
+         * @return true if a map is required
+         */
+        public boolean requiresMap() {
+            return d_requiresMap;
+        }
+
+        /**
+         * Gets the phase the command is valid in.
+         *
+         * @return the phase
+         */
+        public GamePhase getPhase() {
+            return d_phase;
+        }
+
+        /**
+         * Gets how to use the command.
+         *
+         * @return the usage
+         */
+        public String getUsage() {
+            return d_usage;
+        }
+
+        /**
+         * Gets the number of arguments an option takes.
+         *
+         * @param p_optionName the option name
+         * @return the arity, or -1 if the command has no such option
+         */
+        public int getArity(String p_optionName) {
+            for (int i = 0; i < d_optionNames.length; i++) {
+                if (d_optionNames[i].equals(p_optionName)) {
+                    return d_arities[i];
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Checks that a parsed line gives the options of this command, each with its number of arguments.
+         *
+         * @param p_command the parsed line
+         * @return true if the options and arguments match
+         */
+        public boolean accepts(ParsedCommand p_command) {
+            int l_optionCount = p_command.optionCount();
+            if (l_optionCount == 0) {
+                return d_optionNames.length == 0;
+            }
+            for (int i = 0; i < l_optionCount; i++) {
+                if (!acceptsOption(p_command, i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Checks one option of a parsed line.
+         *
+         * @param p_command the parsed line
+         * @param p_option  the option index
+         * @return true if the command takes the option with that many arguments
+         */
+        private boolean acceptsOption(ParsedCommand p_command, int p_option) {
+            for (int k = 0; k < d_optionNames.length; k++) {
+                if (p_command.isOption(p_option, d_optionNames[k])) {
+                    return p_command.argumentCount(p_option) == d_arities[k];
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Runs the command.
+         *
+         * @param p_command the parsed line
+         * @throws Exception if the command fails
+         */
+        public void execute(ParsedCommand p_command) throws Exception {
+            d_action.execute(p_command);
+        }
+    }
+
+    /** The entries, in registration order. */
+    private final List<Entry> d_entries = new ArrayList<>();
+    /** Open-addressed table of the entries by name hash; its length is a power of two. */
+    private Entry[] d_table = new Entry[16];
+
+    /**
+     * Adds a command.
+     *
+     * @param p_entry the command
+     * @return the command
+     * @throws IllegalArgumentException if a command of that name is already registered
+     */
+    public Entry register(Entry p_entry) {
+        if (lookup(p_entry.getName()) != null) {
+            throw new IllegalArgumentException("Command " + p_entry.getName() + " is already registered.");
+        }
+        d_entries.add(p_entry);
+        if (d_entries.size() * 2 > d_table.length) {
+            d_table = new Entry[d_table.length * 2];
+            for (Entry l_entry : d_entries) {
+                insert(l_entry);
+            }
+        } else {
+            insert(p_entry);
+        }
+        return p_entry;
+    }
+
+    /**
+     * Finds the command of a parsed line without creating a string.
+     *
+     * @param p_command the parsed line
+     * @return the command, or null if none has that name
+     */
+    public Entry lookup(ParsedCommand p_command) {
+        if (p_command.isEmpty()) {
+            return null;
+        }
+        int l_mask = d_table.length - 1;
+        for (int i = spread(p_command.commandHashCode()) & l_mask; d_table[i] != null; i = (i + 1) & l_mask) {
+            if (p_command.isCommand(d_table[i].getName())) {
+                return d_table[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds a command by name.
+     *
+     * @param p_name the command name
+     * @return the command, or null if none has that name
+     */
+    public Entry lookup(String p_name) {
+        int l_mask = d_table.length - 1;
+        for (int i = spread(p_name.hashCode()) & l_mask; d_table[i] != null; i = (i + 1) & l_mask) {
+            if (d_table[i].getName().equals(p_name)) {
+                return d_table[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the registered commands.
+     *
+     * @return the commands, in registration order
+     */
+    public List<Entry> getEntries() {
+        return Collections.unmodifiableList(d_entries);
+    }
+
+    /**
+     * Puts an entry into the first free slot of its probe sequence.
+     *
+     * @param p_entry the entry
+     */
+    private void insert(Entry p_entry) {
+        int l_mask = d_table.length - 1;
+        int i = spread(p_entry.getName().hashCode()) & l_mask;
+        while (d_table[i] != null) {
+            i = (i + 1) & l_mask;
+        }
+        d_table[i] = p_entry;
+    }
+
+    /**
+     * Mixes the high bits of a hash into the low ones used as table index.
+     *
+     * @param p_hash the hash
+     * @return the mixed hash
+     */
+    private static int spread(int p_hash) {
+        return p_hash ^ (p_hash >>> 16);
+    }
+}
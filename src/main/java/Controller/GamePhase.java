@@ -0,0 +1,13 @@
+package Controller;
+
+/**
+ * The phases of a game, each accepting its own commands.
+ */
+public enum GamePhase {
+    /** Loading and editing the map, adding players and assigning countries. */
+    STARTUP,
+    /** Players issuing their orders for the turn. */
+    ISSUE_ORDERS,
+    /** The orders have been executed and the game has ended. */
+    GAME_OVER
+}
@@ -0,0 +1,223 @@
+package Controller;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Game server speaking the command grammar of the console over TCP, one game session per connection.
+ * <p>
+ * The protocol is line based. The client sends commands one per line, exactly as typed at the prompt. The
+ * server answers each command with the game's output followed by a line holding a single {@value #END}; the
+ * first such response, sent on connection, holds the prompt. The session, and the connection, end on
+ * {@code exit}, when the game is over or when the client disconnects.
+ * </p>
+ * <p>
+ * Every connection runs its {@link GameSession} on a virtual thread of the {@link SessionManager}, reading
+ * and writing its socket channel in blocking mode. Output is batched: it collects in a buffer that is written
+ * to the channel when the engine reports the response to a command complete, or when the buffer fills, so a
+ * command's output costs one write. Responses are framed per command, not per read from the socket, so a
+ * client sending several commands at once gets one response for each.
+ * </p>
+ */
+public final class GameServer implements AutoCloseable {
+    /** Port the server listens on when none is given. */
+    public static final int DEFAULT_PORT = 4000;
+    /** Line ending every response. */
+    public static final String END = ".";
+    /** Size of the output buffer of a connection. */
+    private static final int OUTPUT_BUFFER = 16 * 1024;
+
+    /** Runs the sessions. */
+    private final SessionManager d_sessions;
+    /** The listening channel. */
+    private final ServerSocketChannel d_serverChannel;
+    /** The open connections. */
+    private final Set<SocketChannel> d_connections = ConcurrentHashMap.newKeySet();
+    /** Accepts the connections. */
+    private final Thread d_acceptor;
+
+    /**
+     * Starts a server.
+     *
+     * @param p_address  the address to listen on; port 0 picks a free port
+     * @param p_sessions runs the session of every connection
+     * @throws IOException if the address cannot be bound
+     */
+    public GameServer(InetSocketAddress p_address, SessionManager p_sessions) throws IOException {
+        d_sessions = p_sessions;
+        d_serverChannel = ServerSocketChannel.open();
+        d_serverChannel.bind(p_address, 1024);
+        d_acceptor = Thread.ofVirtual().name("game-server-acceptor").start(this::acceptConnections);
+    }
+
+    /**
+     * Runs a server on the loopback interface until the process is stopped, printing the session report
+     * every ten seconds.
+     *
+     * @param p_args {@code [port]}
+     */
+    public static void main(String[] p_args) {
+        try (SessionManager l_sessions = new SessionManager();
+             GameServer l_server = new GameServer(new InetSocketAddress("localhost",
+                     p_args.length > 0 ? Integer.parseInt(p_args[0]) : DEFAULT_PORT), l_sessions)) {
+            System.out.println("Game server listening on " + l_server.getAddress());
+            while (true) {
+                Thread.sleep(10_000);
+                System.out.println(l_sessions.report());
+            }
+        } catch (NumberFormatException | IOException l_e) {
+            System.out.println(l_e.getMessage());
+        } catch (InterruptedException l_e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets the address the server listens on.
+     *
+     * @return the address, with the port actually bound
+     * @throws IOException if the server is closed
+     */
+    public InetSocketAddress getAddress() throws IOException {
+        return (InetSocketAddress) d_serverChannel.getLocalAddress();
+    }
+
+    /**
+     * Accepts connections until the server is closed, starting a session for each.
+     */
+    private void acceptConnections() {
+        while (d_serverChannel.isOpen()) {
+            try {
+                SocketChannel l_channel = d_serverChannel.accept();
+                l_channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                d_connections.add(l_channel);
+                ResponseOutput l_output = new ResponseOutput(l_channel);
+                BufferedReader l_input = new BufferedReader(new InputStreamReader(
+                        Channels.newInputStream(l_channel), StandardCharsets.UTF_8));
+                d_sessions.start(l_input, new PrintStream(l_output, false, StandardCharsets.UTF_8),
+                        l_output::endResponse, () -> disconnect(l_channel, l_output));
+            } catch (IOException l_e) {
+                if (d_serverChannel.isOpen()) {
+                    System.out.println("Error while accepting a connection: " + l_e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends what is left of the output of an ended session and closes its connection.
+     *
+     * @param p_channel the connection
+     * @param p_output  its output
+     */
+    private void disconnect(SocketChannel p_channel, ResponseOutput p_output) {
+        try {
+            p_output.flush();
+        } catch (IOException l_e) {
+            // The client has gone; there is nobody left to tell.
+        }
+        try {
+            p_channel.close();
+        } catch (IOException l_e) {
+            // Closing a socket only fails if it is already broken.
+        }
+        d_connections.remove(p_channel);
+    }
+
+    /**
+     * Stops accepting connections and closes the open ones, which ends their sessions.
+     *
+     * @throws IOException if the listening channel cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        d_serverChannel.close();
+        for (SocketChannel l_channel : d_connections) {
+            l_channel.close();
+        }
+        try {
+            d_acceptor.join();
+        } catch (InterruptedException l_e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Output of a connection, buffered until the response to a command is complete.
+     */
+    private static final class ResponseOutput extends OutputStream {
+        /** The connection. */
+        private final SocketChannel d_channel;
+        /** The output not yet written to the connection. */
+        private final ByteBuffer d_buffer = ByteBuffer.allocate(OUTPUT_BUFFER);
+        /** The last byte written. */
+        private int d_lastByte = '\n';
+
+        /**
+         * Creates the output of a connection.
+         *
+         * @param p_channel the connection
+         */
+        ResponseOutput(SocketChannel p_channel) {
+            d_channel = p_channel;
+        }
+
+        @Override
+        public void write(int p_byte) throws IOException {
+            if (!d_buffer.hasRemaining()) {
+                flush();
+            }
+            d_buffer.put((byte) p_byte);
+            d_lastByte = p_byte & 0xFF;
+        }
+
+        @Override
+        public void write(byte[] p_bytes, int p_offset, int p_length) throws IOException {
+            while (p_length > 0) {
+                if (!d_buffer.hasRemaining()) {
+                    flush();
+                }
+                int l_count = Math.min(p_length, d_buffer.remaining());
+                d_buffer.put(p_bytes, p_offset, l_count);
+                p_offset += l_count;
+                p_length -= l_count;
+                d_lastByte = p_bytes[p_offset - 1] & 0xFF;
+            }
+        }
+
+        /**
+         * Ends the response to the command just run and sends it.
+         *
+         * @throws IOException if the connection is broken
+         */
+        void endResponse() throws IOException {
+            if (d_lastByte != '\n') {
+                write('\n');
+            }
+            write(END.getBytes(StandardCharsets.US_ASCII), 0, END.length());
+            write('\n');
+            flush();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            d_buffer.flip();
+            while (d_buffer.hasRemaining()) {
+                d_channel.write(d_buffer);
+            }
+            d_buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package Controller;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.function.Consumer;
+
+/**
+ * One game played in a JVM that may host many: its own {@link MainGameEngine} reading commands from the
+ * session's input and writing to the session's output. A session is meant to run on a thread of its own,
+ * usually a virtual thread started by {@link SessionManager}.
+ */
+public final class GameSession implements Runnable {
+    /** The number of the session. */
+    private final int d_id;
+    /** The game. */
+    private final MainGameEngine d_engine;
+    /** The output of the session. */
+    private final PrintStream d_output;
+    /** Called once the session has ended. */
+    private final Consumer<GameSession> d_onEnd;
+
+    /**
+     * Creates a session.
+     *
+     * @param p_id     the number of the session
+     * @param p_input  the commands of the session
+     * @param p_output the output of the session
+     * @param p_onEnd  called on the session's thread once it has ended
+     */
+    public GameSession(int p_id, BufferedReader p_input, PrintStream p_output, Consumer<GameSession> p_onEnd) {
+        this(p_id, p_input, p_output, () -> { }, p_onEnd);
+    }
+
+    /**
+     * Creates a session told when the response to each command is complete.
+     *
+     * @param p_id              the number of the session
+     * @param p_input           the commands of the session
+     * @param p_output          the output of the session
+     * @param p_commandListener told on the session's thread after the response to each command
+     * @param p_onEnd           called on the session's thread once it has ended
+     */
+    public GameSession(int p_id, BufferedReader p_input, PrintStream p_output,
+                       MainGameEngine.CommandListener p_commandListener, Consumer<GameSession> p_onEnd) {
+        d_id = p_id;
+        d_engine = new MainGameEngine(p_input, p_output);
+        d_engine.setCommandListener(p_commandListener);
+        d_output = p_output;
+        d_onEnd = p_onEnd;
+    }
+
+    /**
+     * Plays the game until the input ends, the player exits or the game is over.
+     */
+    @Override
+    public void run() {
+        try {
+            d_engine.play();
+        } catch (IOException l_e) {
+            d_output.println("An error occurred: " + l_e.getMessage());
+        } finally {
+            d_output.flush();
+            d_onEnd.accept(this);
+        }
+    }
+
+    /**
+     * Gets the number of the session.
+     *
+     * @return the session number
+     */
+    public int getId() {
+        return d_id;
+    }
+
+    /**
+     * Gets the game of the session.
+     *
+     * @return the engine
+     */
+    public MainGameEngine getEngine() {
+        return d_engine;
+    }
+}
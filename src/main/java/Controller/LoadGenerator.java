@@ -0,0 +1,250 @@
+package Controller;
+
+import Utils.LatencyHistogram;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Load-generating client of the {@link GameServer}.
+ * <p>
+ * Every simulated client has a connection of its own, on a virtual thread, and plays a script over it again
+ * and again: it sends a command, waits for the end of the response and times the round trip. When the
+ * script is done or the server ends the session, the client reconnects and starts over, until the run time
+ * is up. Blank lines and lines starting with {@code #} in the script are skipped.
+ * </p>
+ */
+public final class LoadGenerator {
+
+    /**
+     * Totals of a run.
+     */
+    public static final class Result {
+        /** Round-trip time of every command. */
+        private final LatencyHistogram d_latency;
+        /** Number of sessions played. */
+        private final long d_sessionCount;
+        /** Length of the run, in nanoseconds. */
+        private final long d_elapsedNanos;
+
+        /**
+         * Creates the totals of a run.
+         *
+         * @param p_latency      round-trip time of every command
+         * @param p_sessionCount number of sessions played
+         * @param p_elapsedNanos length of the run, in nanoseconds
+         */
+        Result(LatencyHistogram p_latency, long p_sessionCount, long p_elapsedNanos) {
+            d_latency = p_latency;
+            d_sessionCount = p_sessionCount;
+            d_elapsedNanos = p_elapsedNanos;
+        }
+
+        /**
+         * Gets the round-trip time of every command.
+         *
+         * @return the latency histogram
+         */
+        public LatencyHistogram getLatency() {
+            return d_latency;
+        }
+
+        /**
+         * Gets the number of sessions played.
+         *
+         * @return the session count
+         */
+        public long getSessionCount() {
+            return d_sessionCount;
+        }
+
+        /**
+         * Gets the number of commands answered per second.
+         *
+         * @return the throughput
+         */
+        public double getCommandsPerSecond() {
+            return d_latency.getCount() / (d_elapsedNanos / 1e9);
+        }
+
+        /**
+         * Summarises the run.
+         *
+         * @return the throughput and latency
+         */
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "Commands: %d in %.3f s, %.0f commands/s, %d sessions%n"
+                            + "Latency: %s%nLatency p99: %.1fus",
+                    d_latency.getCount(), d_elapsedNanos / 1e9, getCommandsPerSecond(), d_sessionCount,
+                    d_latency, d_latency.getPercentile(99) / 1000.0);
+        }
+    }
+
+    /** The server. */
+    private final InetSocketAddress d_address;
+    /** The commands of a session. */
+    private final List<String> d_script;
+
+    /**
+     * Creates a load generator.
+     *
+     * @param p_address the server
+     * @param p_script  the script played by every client, one command per line
+     */
+    public LoadGenerator(InetSocketAddress p_address, List<String> p_script) {
+        d_address = p_address;
+        d_script = new ArrayList<>();
+        for (String l_line : p_script) {
+            String l_command = l_line.trim();
+            if (!l_command.isEmpty() && !l_command.startsWith("#")) {
+                d_script.add(l_command);
+            }
+        }
+    }
+
+    /**
+     * Runs clients against a server and prints the throughput and latency.
+     *
+     * @param p_args {@code <host> <port> <clients> <seconds> <script>}
+     */
+    public static void main(String[] p_args) {
+        if (p_args.length != 5) {
+            System.out.println("Usage: LoadGenerator <host> <port> <clients> <seconds> <script>");
+            return;
+        }
+        try {
+            LoadGenerator l_generator = new LoadGenerator(new InetSocketAddress(p_args[0], Integer.parseInt(p_args[1])),
+                    Files.readAllLines(Path.of(p_args[4])));
+            System.out.println(l_generator.run(Integer.parseInt(p_args[2]), (long) (Double.parseDouble(p_args[3]) * 1e9)));
+        } catch (NumberFormatException | IOException l_e) {
+            System.out.println(l_e.getMessage());
+        }
+    }
+
+    /**
+     * Runs clients until the time is up.
+     *
+     * @param p_clients       the number of concurrent clients
+     * @param p_durationNanos how long to run, in nanoseconds
+     * @return the totals
+     */
+    public Result run(int p_clients, long p_durationNanos) {
+        long l_start = System.nanoTime();
+        long l_deadline = l_start + p_durationNanos;
+        List<Client> l_clients = new ArrayList<>();
+        try (ExecutorService l_executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < p_clients; i++) {
+                Client l_client = new Client(l_deadline);
+                l_clients.add(l_client);
+                l_executor.execute(l_client);
+            }
+        }
+        LatencyHistogram l_latency = new LatencyHistogram();
+        long l_sessions = 0;
+        for (Client l_client : l_clients) {
+            l_latency.add(l_client.d_latency);
+            l_sessions += l_client.d_sessionCount;
+        }
+        return new Result(l_latency, l_sessions, System.nanoTime() - l_start);
+    }
+
+    /**
+     * One simulated client.
+     */
+    private final class Client implements Runnable {
+        /** When to stop. */
+        private final long d_deadline;
+        /** Round-trip time of the commands of this client. */
+        private final LatencyHistogram d_latency = new LatencyHistogram();
+        /** Number of sessions played. */
+        private long d_sessionCount;
+
+        /**
+         * Creates a client.
+         *
+         * @param p_deadline when to stop, on the {@link System#nanoTime()} clock
+         */
+        Client(long p_deadline) {
+            d_deadline = p_deadline;
+        }
+
+        /**
+         * Plays sessions until the deadline.
+         */
+        @Override
+        public void run() {
+            while (System.nanoTime() < d_deadline) {
+                try {
+                    playSession();
+                    d_sessionCount++;
+                } catch (IOException l_e) {
+                    System.out.println("Client error: " + l_e.getMessage());
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Plays the script over a new connection, stopping early if the server ends the session.
+         *
+         * @throws IOException if the connection fails
+         */
+        private void playSession() throws IOException {
+            try (SocketChannel l_channel = SocketChannel.open(d_address)) {
+                l_channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                BufferedReader l_input = new BufferedReader(new InputStreamReader(
+                        Channels.newInputStream(l_channel), StandardCharsets.UTF_8));
+                if (!readResponse(l_input)) {
+                    return;
+                }
+                for (String l_command : d_script) {
+                    if (System.nanoTime() >= d_deadline) {
+                        return;
+                    }
+                    ByteBuffer l_request = StandardCharsets.UTF_8.encode(l_command + "\n");
+                    long l_sent = System.nanoTime();
+                    while (l_request.hasRemaining()) {
+                        l_channel.write(l_request);
+                    }
+                    boolean l_open = readResponse(l_input);
+                    d_latency.record(System.nanoTime() - l_sent);
+                    if (!l_open) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Reads a response up to its end line.
+         *
+         * @param p_input the connection
+         * @return false if the server closed the connection instead
+         * @throws IOException if the connection fails
+         */
+        private boolean readResponse(BufferedReader p_input) throws IOException {
+            String l_line;
+            while ((l_line = p_input.readLine()) != null) {
+                if (l_line.equals(GameServer.END)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
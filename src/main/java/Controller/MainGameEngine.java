@@ -1,18 +1,18 @@
 package Controller;
 
 import Model.CurrentState;
-import Model.Orders;
 import Model.Player;
-import Utils.CommandHandler;
+import Utils.CommandTokenizer;
+import Utils.LatencyHistogram;
+import Utils.ParsedCommand;
 import View.MapView;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Scanner;
-import java.util.Set;
 
 /**
  * The {@code MainGameEngine} class serves as the main controller for handling game commands and logic.
@@ -21,422 +21,530 @@ import java.util.Set;
 public class MainGameEngine {
 
     /** The map controller for handling map-related commands. */
-    MapController d_mapController=new MapController();
+    MapController d_mapController;
     /** The player controller for managing player-related actions. */
-    PlayerController d_playerController=new PlayerController();
+    PlayerController d_playerController;
     /** The current state of the game. */
     CurrentState d_currentGameState = new CurrentState();
+    /** The commands the game accepts. */
+    private final CommandRegistry d_commandRegistry = new CommandRegistry();
+    /** The phase the game is in. */
+    private GamePhase d_phase = GamePhase.STARTUP;
+    /** Index of the player whose turn it is while orders are issued. */
+    private int d_currentPlayer;
+    /** The last command line, reused for every line read. */
+    private final ParsedCommand d_parsedCommand = new ParsedCommand();
+    /** The commands of this session. */
+    private final BufferedReader d_input;
+    /** Where this session reports to the user. */
+    private final PrintStream d_output;
+    /** Told each time the response to a command has been written. */
+    private CommandListener d_commandListener = () -> { };
 
     /**
-     * The main entry point of the application.
+     * Listener told each time the engine has written the whole response to a command, the prompt for the
+     * next one included, and is about to wait for the next command. It is also told once before the first
+     * command, after the first prompt.
+     */
+    @FunctionalInterface
+    public interface CommandListener {
+        /**
+         * Called on the session's thread once the response to a command is complete.
+         *
+         * @throws IOException if the response cannot be sent
+         */
+        void commandDone() throws IOException;
+    }
+    /** Time taken by each command of this session. */
+    private final LatencyHistogram d_commandLatency = new LatencyHistogram();
+    /** Time taken by each command given while orders are issued. */
+    private final LatencyHistogram d_turnLatency = new LatencyHistogram();
+
+    /**
+     * Creates the engine of the game played on the console.
+     */
+    public MainGameEngine() {
+        this(new BufferedReader(new InputStreamReader(System.in)));
+    }
+
+    /**
+     * Creates the engine of one game session reading its commands from the given input and reporting on
+     * the standard output.
+     *
+     * @param p_input the commands of the session
+     */
+    public MainGameEngine(BufferedReader p_input) {
+        this(p_input, System.out);
+    }
+
+    /**
+     * Creates the engine of one game session reading its commands from the given input and reporting on
+     * the given output. The controllers, the game state, its map and the map view all write to that output,
+     * whichever thread they run on, so sessions sharing the JVM never see each other's output.
+     *
+     * @param p_input  the commands of the session
+     * @param p_output the output of the session
+     */
+    public MainGameEngine(BufferedReader p_input, PrintStream p_output) {
+        d_input = p_input;
+        d_output = p_output;
+        d_mapController = new MapController(p_output);
+        d_playerController = new PlayerController(p_output);
+        d_currentGameState.setD_output(p_output);
+        registerCommands();
+    }
+
+    /**
+     * The main entry point of the application. With {@code -batch} as first argument the remaining
+     * arguments are passed to {@link BatchRunner}, which runs command scripts without prompts.
      *
      * @param args The command-line arguments.
      */
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("-batch")) {
+            BatchRunner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         MainGameEngine l_mainGameEngine = new MainGameEngine();
         l_mainGameEngine.startGame();
+        System.exit(0);
     }
 
     /**
-     * Starts the game and continuously listens for player commands.
+     * Starts the game on the console: shows the command description, then plays.
      */
     private void startGame(){
-        BufferedReader l_bufferedReader = new BufferedReader(new InputStreamReader(System.in));
-        commandDescription();
+        try {
+            if (commandDescription()) {
+                play();
+            }
+        } catch (IOException e) {
+            System.err.println("An error occurred: " + e.getMessage());
+        }
+    }
 
+    /**
+     * Reads and runs commands until the user exits, the input ends or the game is over. Every command is
+     * timed; a failing command is reported and the session goes on.
+     *
+     * @throws IOException If the input cannot be read.
+     */
+    public void play() throws IOException {
         while (true) {
-            System.out.print("Enter your command: ");
+            d_output.print(getPrompt());
+            d_commandListener.commandDone();
+            String l_inputCommand = d_input.readLine();
+            if (l_inputCommand == null || l_inputCommand.trim().equalsIgnoreCase("exit")) {
+                d_output.println("Exiting the game. Goodbye!");
+                closeGame();
+                return;
+            }
+            GamePhase l_phase = d_phase;
+            long l_start = System.nanoTime();
             try {
-                String l_inputCommand = l_bufferedReader.readLine();
-                if (l_inputCommand.equalsIgnoreCase("exit")) {
-                    System.out.println("Exiting the game. Goodbye!");
-                    System.exit(0);
-                } else {
-                    commandHandler(l_inputCommand);
-                }
+                commandHandler(l_inputCommand);
             } catch (Exception e) {
-                System.err.println("An error occurred: " + e.getMessage());
+                d_output.println("An error occurred: " + e.getMessage());
+            }
+            long l_elapsed = System.nanoTime() - l_start;
+            d_commandLatency.record(l_elapsed);
+            if (l_phase == GamePhase.ISSUE_ORDERS) {
+                d_turnLatency.record(l_elapsed);
+            }
+            if (d_phase == GamePhase.GAME_OVER) {
+                return;
             }
         }
     }
 
     /**
-     * Displays a list of available game commands and their descriptions.
+     * Sets the listener told each time the response to a command is complete, such as the connection of a
+     * remote session sending the response.
+     *
+     * @param p_commandListener the listener
      */
-    private void commandDescription() {
-        System.out.println("================================== COMMAND Description ===================================");
-        System.out.println("1. Initiate the Map:");
-        System.out.println("   - Loads an existing map file into the game.");
-        System.out.println("   - Usage: 'loadmap <your_filename(.map)>'");
-        System.out.println("   - Example: 'loadmap world.map'");
-        System.out.println();
-        System.out.println("2. Edit the Map:");
-        System.out.println("   - Opens an existing map for editing or creates a new one if the file does not exist.");
-        System.out.println("   - Allows adding, modifying, or deleting continents, countries, and connections.");
-        System.out.println("   - Usage: 'editmap <filename>(.map)'");
-        System.out.println("   - Example: 'editmap mycustommap.map'");
-        System.out.println();
-        System.out.println("3. Validate the Map:");
-        System.out.println("   - Checks if the map is correctly structured.");
-        System.out.println("   - Ensures all countries are connected, continents are properly defined, and no isolated territories exist.");
-        System.out.println("   - Usage: 'validatemap'");
-        System.out.println();
-        System.out.println("4. Show the Map:");
-        System.out.println("   - Displays the current map in a structured text format on the command line.");
-        System.out.println("   - Shows continents, countries, and their neighboring connections.");
-        System.out.println("   - Usage: 'showmap'");
-        System.out.println();
-        System.out.println("5. Save the Map:");
-        System.out.println("   - Saves the current map exactly as it was edited, preserving all changes.");
-        System.out.println("   - The saved map can be reloaded later for further modifications or gameplay.");
-        System.out.println("   - Usage: 'savemap <filename>'");
-        System.out.println("   - Example: 'savemap editedworld.map'");
-        System.out.println();
-        System.out.println("6. Edit the Continent:");
-        System.out.println("   - Adds or removes a continent from the map.");
-        System.out.println("   - Adding a continent: 'editcontinent -add <continent_name> <control_value>'");
-        System.out.println("   - Removing a continent: 'editcontinent -remove <continent_name>'");
-        System.out.println("   - Example: 'editcontinent -add Europe 5'");
-        System.out.println();
-        System.out.println("7. Edit the Country:");
-        System.out.println("   - Adds or removes a country from the map.");
-        System.out.println("   - Adding a country: 'editcountry -add <country_name> <continent_name>'");
-        System.out.println("   - Removing a country: 'editcountry -remove <country_name>'");
-        System.out.println("   - Example: 'editcountry -add France Europe'");
-        System.out.println();
-        System.out.println("8. Edit the Neighbour:");
-        System.out.println("   - Manages adjacency between countries.");
-        System.out.println("   - Adding a connection: 'editneighbour -add <country_1> <country_2>'");
-        System.out.println("   - Removing a connection: 'editneighbour -remove <country_1> <country_2>'");
-        System.out.println("   - Example: 'editneighbour -add France Germany'");
-        System.out.println();
-        System.out.println("9. Add or Remove a Player:");
-        System.out.println("   - Adds or removes a player in the game.");
-        System.out.println("   - Adding: 'gameplayer -add <player_name>'");
-        System.out.println("   - Removing: 'gameplayer -remove <player_name>'");
-        System.out.println("   - Example: 'gameplayer -add Alex'");
-        System.out.println();
-        System.out.println("10. Assign Countries to Players:");
-        System.out.println("   - Distributes all countries among players and assigns initial armies.");
-        System.out.println("   - Must be done before starting the game.");
-        System.out.println("   - Usage: 'assigncountries'");
-        System.out.println();
-        System.out.println("11. Exit the Game:");
-        System.out.println("   - Closes the game and ends the session.");
-        System.out.println("   - Usage: 'exit'");
-        System.out.println();
-
-        Scanner scanner = new Scanner(System.in);
+    public void setCommandListener(CommandListener p_commandListener) {
+        d_commandListener = p_commandListener;
+    }
+
+    /**
+     * Gets the time taken by every command played so far.
+     *
+     * @return the command latency
+     */
+    public LatencyHistogram getCommandLatency() {
+        return d_commandLatency;
+    }
+
+    /**
+     * Gets the time taken by every command played while orders were issued, the last one including the
+     * execution of the orders.
+     *
+     * @return the turn latency
+     */
+    public LatencyHistogram getTurnLatency() {
+        return d_turnLatency;
+    }
+
+    /**
+     * Gets the prompt for the next command: the player whose turn it is while orders are issued.
+     *
+     * @return the prompt
+     */
+    private String getPrompt() {
+        if (d_phase == GamePhase.ISSUE_ORDERS) {
+            Player l_player = d_currentGameState.getD_players().get(d_currentPlayer);
+            return "Enter command to deploy armies on the map for Player: " + l_player.getD_playerName()
+                    + " | Armies left: " + l_player.getD_unallocatedArmies() + System.lineSeparator();
+        }
+        return "Enter your command: ";
+    }
+
+    /**
+     * Gets the current state of the game.
+     *
+     * @return the current state
+     */
+    public CurrentState getCurrentState() {
+        return d_currentGameState;
+    }
+
+    /**
+     * Closes the map of the game, as leaving the game does.
+     */
+    public void closeGame() {
+        d_mapController.closeMap(d_currentGameState);
+    }
+
+    /**
+     * Displays a list of available game commands and their descriptions, and waits for the user to confirm.
+     *
+     * @return false if the input ended before the user confirmed
+     * @throws IOException If the input cannot be read.
+     */
+    private boolean commandDescription() throws IOException {
+        d_output.println("================================== COMMAND Description ===================================");
+        d_output.println("1. Initiate the Map:");
+        d_output.println("   - Loads an existing map file into the game.");
+        d_output.println("   - Usage: 'loadmap <your_filename(.map)>'");
+        d_output.println("   - Example: 'loadmap world.map'");
+        d_output.println();
+        d_output.println("2. Edit the Map:");
+        d_output.println("   - Opens an existing map for editing or creates a new one if the file does not exist.");
+        d_output.println("   - Allows adding, modifying, or deleting continents, countries, and connections.");
+        d_output.println("   - Usage: 'editmap <filename>(.map)'");
+        d_output.println("   - Example: 'editmap mycustommap.map'");
+        d_output.println();
+        d_output.println("3. Validate the Map:");
+        d_output.println("   - Checks if the map is correctly structured.");
+        d_output.println("   - Ensures all countries are connected, continents are properly defined, and no isolated territories exist.");
+        d_output.println("   - Usage: 'validatemap'");
+        d_output.println();
+        d_output.println("4. Show the Map:");
+        d_output.println("   - Displays the current map in a structured text format on the command line.");
+        d_output.println("   - Shows continents, countries, and their neighboring connections.");
+        d_output.println("   - Usage: 'showmap'");
+        d_output.println();
+        d_output.println("5. Save the Map:");
+        d_output.println("   - Saves the current map exactly as it was edited, preserving all changes.");
+        d_output.println("   - The saved map can be reloaded later for further modifications or gameplay.");
+        d_output.println("   - Usage: 'savemap <filename>'");
+        d_output.println("   - Example: 'savemap editedworld.map'");
+        d_output.println();
+        d_output.println("6. Edit the Continent:");
+        d_output.println("   - Adds or removes a continent from the map.");
+        d_output.println("   - Adding a continent: 'editcontinent -add <continent_name> <control_value>'");
+        d_output.println("   - Removing a continent: 'editcontinent -remove <continent_name>'");
+        d_output.println("   - Example: 'editcontinent -add Europe 5'");
+        d_output.println();
+        d_output.println("7. Edit the Country:");
+        d_output.println("   - Adds or removes a country from the map.");
+        d_output.println("   - Adding a country: 'editcountry -add <country_name> <continent_name>'");
+        d_output.println("   - Removing a country: 'editcountry -remove <country_name>'");
+        d_output.println("   - Example: 'editcountry -add France Europe'");
+        d_output.println();
+        d_output.println("8. Edit the Neighbour:");
+        d_output.println("   - Manages adjacency between countries.");
+        d_output.println("   - Adding a connection: 'editneighbour -add <country_1> <country_2>'");
+        d_output.println("   - Removing a connection: 'editneighbour -remove <country_1> <country_2>'");
+        d_output.println("   - Example: 'editneighbour -add France Germany'");
+        d_output.println();
+        d_output.println("9. Add or Remove a Player:");
+        d_output.println("   - Adds or removes a player in the game.");
+        d_output.println("   - Adding: 'gameplayer -add <player_name>'");
+        d_output.println("   - Removing: 'gameplayer -remove <player_name>'");
+        d_output.println("   - Example: 'gameplayer -add Alex'");
+        d_output.println();
+        d_output.println("10. Assign Countries to Players:");
+        d_output.println("   - Distributes all countries among players and assigns initial armies.");
+        d_output.println("   - Must be done before starting the game.");
+        d_output.println("   - Usage: 'assigncountries'");
+        d_output.println();
+        d_output.println("11. Exit the Game:");
+        d_output.println("   - Closes the game and ends the session.");
+        d_output.println("   - Usage: 'exit'");
+        d_output.println();
+
         String userInput;
 
         do {
-            System.out.print("Do you understand all the commands? Press 'y' or 'Y' to continue: ");
-            userInput = scanner.nextLine().trim();
-        } while (!userInput.equalsIgnoreCase("y"));
+            d_output.print("Do you understand all the commands? Press 'y' or 'Y' to continue: ");
+            userInput = d_input.readLine();
+            if (userInput == null) {
+                return false;
+            }
+        } while (!userInput.trim().equalsIgnoreCase("y"));
 
-        System.out.println("Continuing the game...");
+        d_output.println("Continuing the game...");
+        return true;
     }
 
     /**
-     * Handles the execution of commands entered by the user.
+     * Registers the commands of the game with their map requirement, phase and options.
+     */
+    private void registerCommands() {
+        d_commandRegistry.register(new CommandRegistry.Entry("loadmap", false, GamePhase.STARTUP,
+                "loadmap file_name.map", this::loadMap).option(ParsedCommand.POSITIONAL, 1));
+        d_commandRegistry.register(new CommandRegistry.Entry("editmap", false, GamePhase.STARTUP,
+                "editmap file_name.map", this::editMap).option(ParsedCommand.POSITIONAL, 1));
+        d_commandRegistry.register(new CommandRegistry.Entry("editcountry", true, GamePhase.STARTUP,
+                "editcountry -add country_name continent_name -remove country_name", this::editCountry)
+                .option("add", 2).option("remove", 1));
+        d_commandRegistry.register(new CommandRegistry.Entry("editcontinent", true, GamePhase.STARTUP,
+                "editcontinent -add continent_name control_value -remove continent_name", this::editContinent)
+                .option("add", 2).option("remove", 1));
+        d_commandRegistry.register(new CommandRegistry.Entry("editneighbour", true, GamePhase.STARTUP,
+                "editneighbour -add country_1 country_2 -remove country_1 country_2", this::editNeighbourCountry)
+                .option("add", 2).option("remove", 2));
+        d_commandRegistry.register(new CommandRegistry.Entry("showmap", true, GamePhase.STARTUP,
+                "showmap", p_command -> new MapView(d_currentGameState).showMap()));
+        d_commandRegistry.register(new CommandRegistry.Entry("gameplayer", true, GamePhase.STARTUP,
+                "gameplayer -add player_name -remove player_name", this::gamePlayer)
+                .option("add", 1).option("remove", 1));
+        d_commandRegistry.register(new CommandRegistry.Entry("assigncountries", true, GamePhase.STARTUP,
+                "assigncountries", this::assignCountries));
+        d_commandRegistry.register(new CommandRegistry.Entry("validatemap", true, GamePhase.STARTUP,
+                "validatemap", this::validateMap));
+        d_commandRegistry.register(new CommandRegistry.Entry("savemap", true, GamePhase.STARTUP,
+                "savemap file_name.map", this::saveMap).option(ParsedCommand.POSITIONAL, 1));
+        d_commandRegistry.register(new CommandRegistry.Entry("deploy", true, GamePhase.ISSUE_ORDERS,
+                "deploy country_name num_of_armies", this::deploy).option(ParsedCommand.POSITIONAL, 2));
+    }
+
+    /**
+     * Gets the commands the game accepts, to which further commands can be registered.
      *
-     * @param p_inputCommand The command entered by the user.
-     * @throws Exception If an invalid command is entered.
+     * @return the command registry
      */
-    private void commandHandler(String p_inputCommand) throws Exception {
-        CommandHandler l_commandHandler =new CommandHandler(p_inputCommand);
-        String l_mainCommand = l_commandHandler.getMainCommand();
-        boolean l_isMapAvailable = (d_currentGameState.getD_map() != null);
-
-        Set<String> requiresMap = Set.of(
-                "editcountry", "editcontinent", "editneighbour",
-                "showmap", "gameplayer", "assigncountries",
-                "validatemap", "savemap"
-        );
-
-        if (requiresMap.contains(l_mainCommand) && !l_isMapAvailable) {
-            System.out.println("Error: Map not available. Use 'loadmap' or 'editmap' first.");
-            return;
-        }
+    public CommandRegistry getCommandRegistry() {
+        return d_commandRegistry;
+    }
 
-        switch (l_mainCommand) {
-            case "loadmap":
-                loadMap(l_commandHandler);
-                break;
-            case "editmap":
-                editMap(l_commandHandler);
-                break;
-            case "editcountry":
-                editCountry(l_commandHandler);
-                break;
-            case "editcontinent":
-                editContinent(l_commandHandler);
-                break;
-            case "editneighbour":
-                editNeighbourCountry(l_commandHandler);
-                break;
-            case "showmap":
-                new MapView(d_currentGameState).showMap();
-                break;
-            case "gameplayer":
-                gamePlayer(l_commandHandler);
-                break;
-            case "assigncountries":
-                assignCountries(l_commandHandler);
-                break;
-            case "validatemap":
-                validateMap(l_commandHandler);
-                break;
-            case "savemap":
-                saveMap(l_commandHandler);
-                break;
-            default:
-                System.out.println("Invalid command. Please check the command menu and try again.");
-                break;
-        }
+    /**
+     * Gets the phase the game is in.
+     *
+     * @return the phase
+     */
+    public GamePhase getPhase() {
+        return d_phase;
     }
 
     /**
-     * Saves the current map to a file.
+     * Handles the execution of commands entered by the user. The command is looked up in the registry and
+     * checked against its map requirement, phase and options before it runs.
      *
-     * @param p_commandHandler The command handler containing the filename argument.
+     * @param p_inputCommand The command entered by the user.
+     * @return false if the command was rejected, true if it ran.
+     * @throws Exception If the command fails.
      */
-    private void saveMap(CommandHandler p_commandHandler) {
-        List<Map<String,String>> l_listOfOperations=p_commandHandler.getListOfOperations();
-        System.out.println(l_listOfOperations);
+    boolean commandHandler(String p_inputCommand) throws Exception {
+        return commandHandler(CommandTokenizer.tokenize(p_inputCommand, d_parsedCommand));
+    }
 
-        if (l_listOfOperations == null || l_listOfOperations.isEmpty()) {
-            System.out.println("Save map command is not correct. Use 'savemap filename' command.");
+    /**
+     * Handles the execution of an already tokenized command. The command is looked up in the registry and
+     * checked against its map requirement, phase and options before it runs; a command that is unknown,
+     * belongs to another phase, needs a map that is not loaded or does not match its usage is reported and
+     * rejected.
+     *
+     * @param p_command The parsed command, only read while the command runs.
+     * @return false if the command was rejected, true if it ran.
+     * @throws Exception If the command fails.
+     */
+    boolean commandHandler(ParsedCommand p_command) throws Exception {
+        CommandRegistry.Entry l_entry = d_commandRegistry.lookup(p_command);
+
+        if (l_entry == null) {
+            d_output.println("Invalid command. Please check the command menu and try again.");
+        } else if (l_entry.getPhase() != d_phase) {
+            d_output.println("Error: '" + l_entry.getName() + "' cannot be used in the " + d_phase + " phase.");
+        } else if (l_entry.requiresMap() && d_currentGameState.getD_map() == null) {
+            d_output.println("Error: Map not available. Use 'loadmap' or 'editmap' first.");
+        } else if (!l_entry.accepts(p_command)) {
+            d_output.println("Invalid command for " + l_entry.getName() + ". Use '" + l_entry.getUsage() + "' command.");
         } else {
-            for(Map<String,String> l_singleOperation : l_listOfOperations){
-                if(l_singleOperation.containsKey("Arguments") && l_singleOperation.get("Arguments")!=null){
-                    boolean l_isMapSaved = d_mapController.saveMap(d_currentGameState, l_singleOperation.get("Arguments"));
-                    if(l_isMapSaved){
-                        System.out.println("Map : "+d_currentGameState.getD_map().getD_mapName()+" saved successfully.");
-                    }
-                    else{
-                        System.out.println("An error occured while saving the map.");
-                    }
-                }
-                else {
-                    System.out.println("Save map command is not correct. Use 'savemap filename' command.");
-                }
-            }
+            l_entry.execute(p_command);
+            return true;
         }
+        return false;
     }
 
     /**
-     * Validates the current map structure.
+     * Saves the current map to a file.
      *
-     * @param p_commandHandler The command handler to process the validation request.
+     * @param p_command The parsed command holding the filename.
      */
-    private void validateMap(CommandHandler p_commandHandler) {
-        List<Map<String,String>> l_listOfOperations=p_commandHandler.getListOfOperations();
-        if (l_listOfOperations != null && !l_listOfOperations.isEmpty()) {
-            System.out.println("Validate map command is not correct. Use 'validatemap' command.");
-            return;
+    private void saveMap(ParsedCommand p_command) {
+        boolean l_isMapSaved = d_mapController.saveMap(d_currentGameState, p_command.arguments(0));
+        if(l_isMapSaved){
+            d_output.println("Map : "+d_currentGameState.getD_map().getD_mapName()+" saved successfully.");
         }
-
-        Model.Map l_map = d_currentGameState.getD_map();
-        if (l_map == null) {
-            System.out.println("Map not Found!");
-            return;
+        else{
+            d_output.println("An error occured while saving the map.");
         }
+    }
 
-        if (l_map.validateMap()) {
-            System.out.println("Map is Valid");
+    /**
+     * Validates the current map structure.
+     *
+     * @param p_command The parsed command.
+     */
+    private void validateMap(ParsedCommand p_command) {
+        if (d_currentGameState.getD_map().validateMap()) {
+            d_output.println("Map is Valid");
         } else {
-            System.out.println("Map is not Valid");
+            d_output.println("Map is not Valid");
         }
     }
 
     /**
-     * Assigns countries to players and starts the game.
+     * Assigns countries to players and starts the turn.
      *
-     * @param p_commandHandler The command handler to process the assignment request.
-     * @throws IOException If an I/O error occurs.
+     * @param p_command The parsed command.
      */
-    private void assignCountries(CommandHandler p_commandHandler) throws IOException {
-        List<Map<String,String>> l_listOfOperations=p_commandHandler.getListOfOperations();
-        System.out.println(l_listOfOperations);
-        if (l_listOfOperations == null || l_listOfOperations.isEmpty()) {
-            d_playerController.assignCountry(d_currentGameState);
-            d_playerController.assignArmies(d_currentGameState);
-            playGame();
-        }
+    private void assignCountries(ParsedCommand p_command) {
+        d_playerController.assignCountry(d_currentGameState);
+        d_playerController.assignArmies(d_currentGameState);
+        playGame();
     }
 
     /**
-     * Starts the game, allowing players to deploy armies and execute orders.
-     *
-     * @throws IOException If an I/O error occurs.
+     * Starts the game: the players then deploy their armies in turn, one deploy command each.
      */
-    private void playGame() throws IOException {
+    private void playGame() {
         if (d_currentGameState.getD_players() == null || d_currentGameState.getD_players().isEmpty()) {
-            System.out.println("No players in the game.");
+            d_output.println("No players in the game.");
             return;
         }
 
-        System.out.println("➡ Deploy armies: 'deploy <country> <num_of_armies>'");
+        d_phase = GamePhase.ISSUE_ORDERS;
+        d_output.println("➡ Deploy armies: 'deploy <country> <num_of_armies>'");
+        d_currentPlayer = -1;
+        nextPlayer();
+    }
 
-        while (d_playerController.isUnallocatedArmiesExist(d_currentGameState)) {
-            for (Player l_eachPlayer : d_currentGameState.getD_players()) {
-                if (l_eachPlayer.getD_unallocatedArmies() > 0) {
-                    l_eachPlayer.issueOrder();
-                }
-            }
+    /**
+     * Issues a deploy order for the player whose turn it is, then passes the turn on.
+     *
+     * @param p_command The parsed command holding the country and the number of armies.
+     */
+    private void deploy(ParsedCommand p_command) {
+        if (!p_command.isIntArgument(0, 1) || p_command.intArgument(0, 1) <= 0) {
+            d_output.println("Invalid command format. Please provide a valid command.");
+            return;
         }
+        Player l_player = d_currentGameState.getD_players().get(d_currentPlayer);
+        d_playerController.createDeployOrder(p_command, l_player);
+        nextPlayer();
+    }
 
-        while (d_playerController.isUnexecutedOrdersExist(d_currentGameState)) {
-            for (Player l_eachPlayer : d_currentGameState.getD_players()) {
-                Orders l_orderToExecute = l_eachPlayer.nextOrder();
-                if (l_orderToExecute != null) {
-                    l_orderToExecute.execute(l_eachPlayer); // Throws IOException if execution fails
-                }
-            }
+    /**
+     * Passes the turn to the next player with armies left, in order, or executes the orders and ends the game
+     * once every army is deployed.
+     */
+    private void nextPlayer() {
+        List<Player> l_players = d_currentGameState.getD_players();
+        if (!d_playerController.isUnallocatedArmiesExist(d_currentGameState)) {
+            d_playerController.executeOrders(d_currentGameState);
+            d_phase = GamePhase.GAME_OVER;
+            d_output.println("All orders have been executed successfully.");
+            d_output.println("Thank you for playing the game");
+            return;
         }
-
-        System.out.println("All orders have been executed successfully.");
-        System.out.println("Thank you for playing the game");
-        System.exit(0);
+        do {
+            d_currentPlayer = (d_currentPlayer + 1) % l_players.size();
+        } while (l_players.get(d_currentPlayer).getD_unallocatedArmies() <= 0);
     }
 
     /**
      * Adds or removes players based on the command.
      *
-     * @param p_commandHandler The command handler containing player operations.
+     * @param p_command The parsed command holding the player operations.
      */
-    private void gamePlayer(CommandHandler p_commandHandler) {
-        List<Map<String,String>> l_listOfOperations=p_commandHandler.getListOfOperations();
-        System.out.println(l_listOfOperations);
-        if (l_listOfOperations == null || l_listOfOperations.isEmpty()) {
-            System.out.println("Wrong command entered, Please enter the correct 'gameplayer' command.");
-        }
-        else {
-            for (Map<String, String> l_eachMap : l_listOfOperations) {
-                if (l_eachMap.containsKey("Operation") && l_eachMap.containsKey("Arguments")) {
-                    d_currentGameState.addOrRemovePlayer(l_eachMap.get("Operation"), l_eachMap.get("Arguments"));
-                }
-            }
+    private void gamePlayer(ParsedCommand p_command) {
+        for (int i = 0; i < p_command.optionCount(); i++) {
+            d_currentGameState.addOrRemovePlayer(p_command.optionName(i), p_command.arguments(i));
         }
     }
 
     /**
      * Edits the neighboring country relationships.
      *
-     * @param p_commandHandler The command handler containing neighbor modifications.
-     * @throws Exception If an invalid command is entered.
+     * @param p_command The parsed command holding the neighbour operations.
      */
-    private void editNeighbourCountry(CommandHandler p_commandHandler) throws  Exception {
-        List<Map<String,String>> l_listOfOperations=p_commandHandler.getListOfOperations();
-        System.out.println(l_listOfOperations);
-        if(l_listOfOperations == null || l_listOfOperations.isEmpty()){
-            throw new Exception("Invalid command entered for editmap.");
-        }else {
-            for (Map<String ,String > l_singleOperation : l_listOfOperations){
-                if(l_singleOperation.containsKey("Operation") && l_singleOperation.get("Operation")!=null && l_singleOperation.containsKey("Arguments") && l_singleOperation.get("Arguments")!=null){
-                    d_mapController.editNeighbourCountry(d_currentGameState,l_singleOperation.get("Operation"),l_singleOperation.get("Arguments"));
-                }
-            }
+    private void editNeighbourCountry(ParsedCommand p_command) {
+        for (int i = 0; i < p_command.optionCount(); i++) {
+            d_mapController.editNeighbourCountry(d_currentGameState, p_command.optionName(i), p_command.arguments(i));
         }
     }
 
     /**
      * Edits the continents on the map based on the provided command.
      *
-     * @param p_commandHandler The command handler containing continent modification details.
-     * @throws Exception If an invalid command is provided.
+     * @param p_command The parsed command holding the continent operations.
      */
-    private void editContinent(CommandHandler p_commandHandler) throws Exception {
-        List<Map<String,String>> l_listOfOperations = p_commandHandler.getListOfOperations();
-        System.out.println(l_listOfOperations);
-
-        if (l_listOfOperations.isEmpty()) {
-            throw new Exception("Invalid Command for edit Continent");
-        }
-
-        for (Map<String, String> l_singleOperation : l_listOfOperations) {
-            String l_operation = l_singleOperation.get("Operation");
-            String l_arguments = l_singleOperation.get("Arguments");
-
-            if (l_operation != null && !l_operation.isEmpty() && l_arguments != null && !l_arguments.isEmpty()) {
-                d_mapController.editContinent(d_currentGameState, l_operation, l_arguments);
-            } else {
-                throw new Exception("Missing or invalid 'Operation' or 'Arguments' in command.");
-            }
+    private void editContinent(ParsedCommand p_command) {
+        for (int i = 0; i < p_command.optionCount(); i++) {
+            d_mapController.editContinent(d_currentGameState, p_command.optionName(i), p_command.arguments(i));
         }
     }
 
     /**
      * Edits the countries on the map based on the provided command.
      *
-     * @param p_commandHandler The command handler containing country modification details.
-     * @throws Exception If an invalid command is provided.
+     * @param p_command The parsed command holding the country operations.
      */
-    private void editCountry(CommandHandler p_commandHandler) throws Exception {
-        List<Map<String,String>> l_listOfOperations=p_commandHandler.getListOfOperations();
-        System.out.println(l_listOfOperations);
-        if (l_listOfOperations.isEmpty()) {
-            throw new Exception("Invalid Command for edit Country");
+    private void editCountry(ParsedCommand p_command) {
+        for (int i = 0; i < p_command.optionCount(); i++) {
+            d_mapController.editCountry(d_currentGameState, p_command.optionName(i), p_command.arguments(i));
         }
-
-        for (Map<String, String> l_singleOperation : l_listOfOperations) {
-            String l_operation = l_singleOperation.get("Operation");
-            String l_arguments = l_singleOperation.get("Arguments");
-
-            if (l_operation != null && !l_operation.isEmpty() && l_arguments != null && !l_arguments.isEmpty()) {
-                d_mapController.editCountry(d_currentGameState, l_operation, l_arguments);
-            } else {
-                throw new Exception("Missing or invalid 'Operation' or 'Arguments' in command.");
-            }
-        }
-
     }
 
     /**
-     * Edits the map based on the provided command.
+     * Opens a map for editing, creating it if the file does not exist.
      *
-     * @param p_commandHandler The command handler containing map modification details.
-     * @throws Exception If an invalid command is provided.
+     * @param p_command The parsed command holding the filename.
+     * @throws IOException If the map cannot be opened.
      */
-    private void editMap(CommandHandler p_commandHandler) throws Exception {
-        List<Map<String,String>> l_listOfOperations=p_commandHandler.getListOfOperations();
-        System.out.println(l_listOfOperations);
-        if (l_listOfOperations == null || l_listOfOperations.isEmpty()) {
-            throw new Exception("Invalid Command for edit map");
-        }
-
-        for (Map<String, String> l_singleOperation : l_listOfOperations) {
-            if (!p_commandHandler.checkRequiredKey("Arguments", l_singleOperation)) {
-                throw new Exception("Invalid Command for edit map operation");
-            }
-            d_mapController.editMap(d_currentGameState, l_singleOperation.get("Arguments"));
-        }
+    private void editMap(ParsedCommand p_command) throws IOException {
+        d_mapController.closeMap(d_currentGameState);
+        d_mapController.editMap(d_currentGameState, p_command.arguments(0));
     }
 
     /**
      * Loads a game map from a file.
      *
-     * @param p_commandHandler The command handler with map loading arguments.
-     * @throws Exception If an error occurs while loading the map.
+     * @param p_command The parsed command holding the filename.
      */
-    private void loadMap(CommandHandler p_commandHandler) throws Exception{
-        List<Map<String,String>> l_listOfOperations=p_commandHandler.getListOfOperations();
-        System.out.println(l_listOfOperations);
-        if(l_listOfOperations == null || l_listOfOperations.isEmpty()){
-            throw new Exception("Invalid command for loadmap. Use 'loadmap file_name.map' command");
+    private void loadMap(ParsedCommand p_command) {
+        d_mapController.closeMap(d_currentGameState);
+        Model.Map l_map =d_mapController.loadMap(d_currentGameState,p_command.arguments(0));
+        d_output.println(l_map);
+        if(l_map.validateMap()){
+            d_output.println("Map is valid.");
         }
-        for(Map<String,String> l_singleOperation : l_listOfOperations){
-            if(l_singleOperation.containsKey("Arguments")&& l_singleOperation.get("Arguments")!=null){
-                Model.Map l_map =d_mapController.loadMap(d_currentGameState,l_singleOperation.get("Arguments"));
-                System.out.println(l_map);
-                if(l_map.validateMap()){
-                    System.out.println("Map is valid.");
-                }
-                else{
-                    System.out.println("Map is not valid.");
-                }
-            }
+        else{
+            d_output.println("Map is not valid.");
         }
     }
 }
@@ -1,16 +1,20 @@
 package Controller;
 
-import Model.Continent;
+import Model.BinaryMapFormat;
 import Model.Country;
 import Model.CurrentState;
 import Model.Map;
+import Model.MapCache;
+import Model.MapDeltaLog;
+import Model.MapFileParser;
+import Model.MapFileWriter;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.stream.Collectors;
 /**
  * Controller Class MapController.
  * <p>
@@ -19,214 +23,114 @@ import java.util.stream.Collectors;
  */
 public class MapController {
     /**
-     * Loads a map from a file and updates the current state.
-     *
-     * @param p_currentState the current state object to update with the loaded map
-     * @param p_fileName     the name of the map file
-     * @return the loaded Map object
+     * System property that makes {@link #loadMap(CurrentState, String)} memory-map map files.
      */
-    public Map loadMap(CurrentState p_currentState, String p_fileName){
-        Map l_map=new Map();
-        List<String> l_fileLines=loadFile(p_fileName);
-
-        if(!l_fileLines.isEmpty()){
-            List<String> l_continentData=getContinentData(l_fileLines);
-            List<String> l_countryData=getCountryData(l_fileLines);
-            List<String> l_borderData=getBorderData(l_fileLines);
-
-            List<Continent> l_continents = modifyContinentData(l_continentData);
-            List<Country> l_countries = modifyCountryData(l_countryData);
-
-            l_countries = updateCountryBorders(l_borderData,l_countries);
-            l_continents = updateContinentCountries(l_continents,l_countries);
-
-            l_map.setD_mapContinents(l_continents);
-            l_map.setD_mapCountries(l_countries);
-            l_map.setD_mapName(p_fileName);
-            p_currentState.setD_map(l_map);
-        }
-        return l_map;
-    }
+    public static final String MEMORY_MAPPED_PROPERTY = "warzone.map.mmap";
     /**
-     * Updates the continents by adding the corresponding countries to each continent.
-     *
-     * @param p_continents the list of continents to update
-     * @param p_countries  the list of countries to be assigned to continents
-     * @return the updated list of continents with countries added
+     * Writer saving the maps, reusing its buffer from one save to the next.
      */
-    private List<Continent> updateContinentCountries(List<Continent> p_continents, List<Country> p_countries) {
-        for(Country l_country : p_countries){
-            for(Continent l_continent:p_continents){
-                if(l_country.getD_continentID().equals(l_continent.getD_continentID())){
-                    l_continent.setCountry(l_country);
-                }
-            }
-        }
-        return p_continents;
-    }
+    private final MapFileWriter d_mapWriter = new MapFileWriter();
     /**
-     * Updates the border information for each country based on the provided border data.
-     *
-     * @param p_borderData the list of border data strings
-     * @param p_countries  the list of countries to update with neighbouring country IDs
-     * @return the updated list of countries with border information set
+     * Where the controller and the maps it loads report to the user.
      */
-    private List<Country> updateCountryBorders(List<String> p_borderData, List<Country> p_countries) {
-        LinkedHashMap<Integer,List<Integer>> l_borderDataMap =new LinkedHashMap<>();
-
-        for (String l_eachCountryNeighbour : p_borderData) {
-            if (l_eachCountryNeighbour == null || l_eachCountryNeighbour.isEmpty())
-                continue;
-
-            String[] l_borderDataSplit = l_eachCountryNeighbour.split(" ");
-            if (l_borderDataSplit.length < 2)
-                continue;
-
-            int l_countryId;
-            List<Integer> l_neighbourCountries = new ArrayList<>();
-
-            try {
-                l_countryId = Integer.parseInt(l_borderDataSplit[0]);
-                for (int i = 1; i < l_borderDataSplit.length; i++) {
-                    l_neighbourCountries.add(Integer.parseInt(l_borderDataSplit[i]));
-                }
-            } catch (NumberFormatException e) {
-                continue;
-            }
-
-            l_borderDataMap.put(l_countryId, l_neighbourCountries);
-        }
+    private final PrintStream d_output;
 
-        for (Country l_eachCountry : p_countries) {
-            l_eachCountry.setD_neighbouringCountriesId(l_borderDataMap.getOrDefault(l_eachCountry.getD_countryID(), new ArrayList<>()));
-        }
-
-        return p_countries;
-    }
     /**
-     * Parses and modifies the country data from file lines.
-     *
-     * @param p_countryData the list of strings representing country data
-     * @return the list of Country objects created from the data
+     * Creates a controller reporting on the standard output.
      */
-    private List<Country> modifyCountryData(List<String> p_countryData) {
-        List<Country> l_countries =new ArrayList<>();
-
-        for(String l_country:p_countryData){
-            String[] l_splitCountryData= l_country.split(" ");
-            if(l_splitCountryData.length < 3)
-                continue;
-
-            String l_countryName = l_splitCountryData[1];
-            int l_countryId,l_continentId;
-
-            try{
-                l_countryId =Integer.parseInt(l_splitCountryData[0]);
-                l_continentId=Integer.parseInt(l_splitCountryData[2]);
-            } catch (NumberFormatException l_e) {
-                continue;
-            }
-            l_countries.add(new Country(l_countryId,l_countryName,l_continentId));
-        }
-        return l_countries;
+    public MapController() {
+        this(System.out);
     }
     /**
-     * Parses and modifies the continent data from file lines.
+     * Creates a controller reporting on the output of a game session.
      *
-     * @param p_continentData the list of strings representing continent data
-     * @return the list of Continent objects created from the data
+     * @param p_output the output of the session
      */
-    private List<Continent> modifyContinentData(List<String> p_continentData) {
-        List<Continent> l_continents =new ArrayList<>();
-        int l_continentIds=1;
-
-        for(String l_continent:p_continentData){
-            String[] l_splitContinentData=l_continent.split(" ");
-            if(l_splitContinentData.length <2)
-                continue;
-
-            String l_continentName=l_splitContinentData[0];
-            int l_continentValue;
-            try{
-                l_continentValue=Integer.parseInt(l_splitContinentData[1]);
-            }
-            catch (NumberFormatException l_e){
-                continue;
-            }
-
-            l_continents.add(new Continent(l_continentIds,l_continentName,l_continentValue));
-            l_continentIds++;
-        }
-        return l_continents;
+    public MapController(PrintStream p_output) {
+        this.d_output = p_output;
     }
-    /**
-     * Extracts the border data section from the file lines.
-     *
-     * @param p_fileLines the list of all lines in the file
-     * @return the list of border data strings
-     */
-    private List<String> getBorderData(List<String> p_fileLines) {
-        int l_startIndex=p_fileLines.indexOf("[Borders]")+1;
-        int l_endIndex=p_fileLines.size();
 
-        return (l_startIndex>0 && l_endIndex>l_startIndex) ? p_fileLines.subList(l_startIndex,l_endIndex) : new ArrayList<>();
-    }
     /**
-     * Extracts the country data section from the file lines.
+     * Loads a map from a file and updates the current state.
      *
-     * @param p_fileLines the list of all lines in the file
-     * @return the list of country data strings
+     * @param p_currentState the current state object to update with the loaded map
+     * @param p_fileName     the name of the map file
+     * @return the loaded Map object
      */
-    private List<String> getCountryData(List<String> p_fileLines) {
-        int l_startIndex=p_fileLines.indexOf("[Countries]")+1;
-        int l_endIndex=p_fileLines.indexOf("[Borders]")-1;
-
-        return (l_startIndex>0 && l_endIndex>l_startIndex) ? p_fileLines.subList(l_startIndex,l_endIndex) : new ArrayList<>();
+    public Map loadMap(CurrentState p_currentState, String p_fileName){
+        return loadMap(p_currentState, p_fileName, Boolean.getBoolean(MEMORY_MAPPED_PROPERTY));
     }
     /**
-     * Extracts the continent data section from the file lines.
+     * Loads a map from a file and updates the current state, optionally memory-mapping the file. A mapped
+     * file is parsed in place and country names are only decoded when first asked for, which makes loading
+     * maps with hundreds of thousands of countries much cheaper. Files ending in
+     * {@link BinaryMapFormat#EXTENSION} are read in the binary format. Unless memory-mapped, files go
+     * through the shared {@link MapCache}, so loading an unchanged file again only copies the parsed map.
+     * Edits saved in the file's {@link MapDeltaLog} are replayed on top.
      *
-     * @param p_fileLines the list of all lines in the file
-     * @return the list of continent data strings
+     * @param p_currentState the current state object to update with the loaded map
+     * @param p_fileName     the name of the map file
+     * @param p_memoryMapped whether to memory-map the file instead of streaming it
+     * @return the loaded Map object
      */
-    private List<String> getContinentData(List<String> p_fileLines) {
-        int l_startIndex=p_fileLines.indexOf("[Continents]")+1;
-        int l_endIndex=p_fileLines.indexOf("[Countries]")-1;
-
-        return (l_startIndex>0 && l_endIndex>l_startIndex) ? p_fileLines.subList(l_startIndex,l_endIndex) : new ArrayList<>();
+    public Map loadMap(CurrentState p_currentState, String p_fileName, boolean p_memoryMapped){
+        Map l_map=new Map();
+        l_map.setD_output(d_output);
+
+        try{
+            boolean l_loaded;
+            Path l_path = Paths.get(getFilePath(p_fileName));
+            if(p_memoryMapped && BinaryMapFormat.isBinary(p_fileName)){
+                l_loaded = BinaryMapFormat.read(readMapped(l_path), l_map);
+            } else if(p_memoryMapped){
+                l_loaded = new MapFileParser().parseMapped(l_path, l_map);
+            } else {
+                l_loaded = MapCache.shared().load(l_path, l_map);
+            }
+            if(l_loaded){
+                MapDeltaLog.apply(l_path, l_map);
+                l_map.setD_mapName(p_fileName);
+                p_currentState.setD_map(l_map);
+            }
+        }
+        catch (FileNotFoundException | NoSuchFileException l_e){
+            d_output.println("Error : File "+p_fileName +" not found!");
+        }
+        catch (IOException l_e){
+            d_output.println("Error : Unable to read file "+p_fileName+" .");
+        }
+        return l_map;
     }
     /**
-     * Loads the file content from the given filename.
+     * Memory-maps the whole of a binary map file.
      *
-     * @param p_filename the name of the file to load
-     * @return the list of lines read from the file
+     * @param p_path the file
+     * @return the file contents
+     * @throws IOException if the file cannot be mapped
      */
-    private List<String> loadFile(String p_filename){
-        String l_fileLocation = getFilePath(p_filename);
-        List<String> l_fileLines =new ArrayList<>();
-
-        try(BufferedReader l_reader = new BufferedReader(new FileReader(l_fileLocation))){
-            l_fileLines=l_reader.lines().collect(Collectors.toList());
-        }
-        catch (FileNotFoundException l_e){
-            System.out.println("Error : File "+p_filename +" not found!");
+    private ByteBuffer readMapped(Path p_path) throws IOException {
+        try(FileChannel l_channel = FileChannel.open(p_path)){
+            return l_channel.map(FileChannel.MapMode.READ_ONLY, 0, l_channel.size());
         }
-        catch (IOException l_e){
-            System.out.println("Error : Unable to read file "+p_filename+" .");
-        }
-        return l_fileLines;
     }
     /**
-     * Constructs the file path for the given map file.
+     * Constructs the file path for the given map file. Absolute paths are used as they are, so that
+     * generated maps can be loaded from outside the maps directory.
      *
      * @param p_fileName the name of the file
      * @return the constructed file path as a string
      */
     private String getFilePath(String p_fileName){
+        if(Paths.get(p_fileName).isAbsolute()){
+            return p_fileName;
+        }
         return Paths.get("src","main","Maps",p_fileName).toString();
     }
     /**
-     * Saves the current map state to a file.
+     * Saves the current map state to a file, in the binary format if the name ends in
+     * {@link BinaryMapFormat#EXTENSION} and as text otherwise. The file is replaced atomically, so a failed
+     * save leaves the previous version in place. If the map was loaded from or last saved to the same file,
+     * only the edits made since are appended to its {@link MapDeltaLog}.
      *
      * @param p_currentState the current state containing the map to save
      * @param p_arguments    the expected map filename
@@ -237,30 +141,43 @@ public class MapController {
             Map l_map = p_currentState.getD_map();
 
             if (l_map == null || !l_map.validateMap()) {
-                System.out.println("Either the map is not present or it is invalid.");
+                d_output.println("Either the map is not present or it is invalid.");
                 return false;
             }
 
             if (!l_map.getD_mapName().equals(p_arguments)) {
-                System.out.println("Filename mismatch! Expected: " + l_map.getD_mapName());
+                d_output.println("Filename mismatch! Expected: " + l_map.getD_mapName());
                 return false;
             }
 
-            String l_filePath = getFilePath(p_arguments);
-            try (FileOutputStream l_writer = new FileOutputStream(l_filePath, false)) {
-                l_writer.write("".getBytes()); // Clear file
-
-                if (!writeContinents(l_writer, l_map)) return false;
-                if (!writeCountries(l_writer, l_map)) return false;
-                if (!writeBorders(l_writer, l_map)) return false;
-            }
+            // Names still held in a memory-mapped copy of the file must be read before it is overwritten.
+            l_map.decodeCountryNames();
+            if (!hasSections(l_map)) return false;
 
+            d_mapWriter.save(l_map, Paths.get(getFilePath(p_arguments)), true);
             return true;
         } catch (IOException p_exception) {
-            System.out.println("Error while saving map: " + p_exception.getMessage());
+            d_output.println("Error while saving map: " + p_exception.getMessage());
             return false;
         }
     }
+    /**
+     * Folds the edit log of the current map back into its file, for instance before another map is opened
+     * or the game exits. Unsaved edits are not written.
+     *
+     * @param p_currentState the current state containing the map being edited
+     */
+    public void closeMap(CurrentState p_currentState) {
+        Map l_map = p_currentState.getD_map();
+        if (l_map == null || l_map.getD_mapName() == null) {
+            return;
+        }
+        try {
+            d_mapWriter.compact(l_map, Paths.get(getFilePath(l_map.getD_mapName())));
+        } catch (IOException p_exception) {
+            d_output.println("Error while compacting map: " + p_exception.getMessage());
+        }
+    }
     /**
      * Edits the map by either creating a new file or loading an existing one.
      *
@@ -273,90 +190,39 @@ public class MapController {
         File l_fileToEdit = new File(l_fileLocation);
 
         if (l_fileToEdit.createNewFile()) {
-            System.out.println("File has been created");
+            d_output.println("File has been created");
             Map l_map = new Map();
             l_map.setD_mapName(p_editFileName);
             p_currentState.setD_map(l_map);
         } else {
-            System.out.println("File already exists");
+            d_output.println("File already exists");
             Map l_map = this.loadMap(p_currentState, p_editFileName);
             l_map.setD_mapName(p_editFileName);
             p_currentState.setD_map(l_map);
         }
     }
     /**
-     * Writes the continent data to the map file.
+     * Checks that a map has the continents, countries and borders every map file needs.
      *
-     * @param p_writer the file output stream to write data to
-     * @param p_map    the map object containing continent data
-     * @return true if continents are written successfully, false otherwise
-     * @throws IOException if an I/O error occurs during writing
+     * @param p_map the map to save
+     * @return true if the map can be saved, false otherwise
      */
-    private boolean writeContinents(FileOutputStream p_writer, Map p_map) throws IOException {
+    private boolean hasSections(Map p_map) {
         if (p_map.getD_mapContinents() == null || p_map.getD_mapContinents().isEmpty()) {
-            System.out.println("No Continents in this map. Can't save an incorrect map.");
-            return false;
-        }
-
-        p_writer.write((System.lineSeparator() + "[Continents]" + System.lineSeparator()).getBytes());
-        for (Continent l_eachContinent : p_map.getD_mapContinents()) {
-            String l_content = l_eachContinent.getD_continentName() + " " + l_eachContinent.getD_continentValue();
-            p_writer.write((l_content + System.lineSeparator()).getBytes());
-        }
-        return true;
-    }
-    /**
-     * Writes the country data to the map file.
-     *
-     * @param p_writer the file output stream to write data to
-     * @param p_map    the map object containing country data
-     * @return true if countries are written successfully, false otherwise
-     * @throws IOException if an I/O error occurs during writing
-     */
-    private boolean writeCountries(FileOutputStream p_writer, Map p_map) throws IOException {
-        if (p_map.getD_mapCountries() == null || p_map.getD_mapCountries().isEmpty()) {
-            System.out.println("No Countries in this map. Can't save an incorrect map.");
+            d_output.println("No Continents in this map. Can't save an incorrect map.");
             return false;
         }
-
-        p_writer.write((System.lineSeparator() + "[Countries]" + System.lineSeparator()).getBytes());
-        for (Country l_eachCountry : p_map.getD_mapCountries()) {
-            String l_content = l_eachCountry.getD_countryID() + " " + l_eachCountry.getD_countryName() + " " + l_eachCountry.getD_continentID();
-            p_writer.write((l_content + System.lineSeparator()).getBytes());
-        }
-        return true;
-    }
-    /**
-     * Writes the border data to the map file.
-     *
-     * @param p_writer the file output stream to write data to
-     * @param p_map    the map object containing border data
-     * @return true if borders are written successfully, false otherwise
-     * @throws IOException if an I/O error occurs during writing
-     */
-    private boolean writeBorders(FileOutputStream p_writer, Map p_map) throws IOException {
         if (p_map.getD_mapCountries() == null || p_map.getD_mapCountries().isEmpty()) {
-            System.out.println("Borders cannot be saved without countries.");
+            d_output.println("No Countries in this map. Can't save an incorrect map.");
             return false;
         }
-
-        p_writer.write((System.lineSeparator() + "[Borders]" + System.lineSeparator()).getBytes());
-        boolean hasBorders = false;
-
         for (Country l_eachCountry : p_map.getD_mapCountries()) {
             if (l_eachCountry.getD_neighbouringCountriesId() != null && !l_eachCountry.getD_neighbouringCountriesId().isEmpty()) {
-                String l_borderEntry = l_eachCountry.getD_countryID() + " " +
-                        String.join(" ", l_eachCountry.getD_neighbouringCountriesId().stream().map(String::valueOf).toArray(String[]::new));
-                p_writer.write((l_borderEntry + System.lineSeparator()).getBytes());
-                hasBorders = true;
+                return true;
             }
         }
-
-        if (!hasBorders) {
-            System.out.println("No borders defined. This is not a connected graph.");
-            return false;
-        }
-        return true;
+        d_output.println("No borders defined. This is not a connected graph.");
+        return false;
     }
     /**
      * Edits the country information in the current map based on the specified operation.
@@ -397,19 +263,19 @@ public class MapController {
 
                 p_mapToUpdate.addCountry(countryName, continentName);
             } else {
-                System.out.println("Error: Invalid format. Use 'add <country> <continent>'.");
+                d_output.println("Error: Invalid format. Use 'add <country> <continent>'.");
             }
         } else if (p_operation.equals("remove")) {
             if (splitArgs.length == 1) {
                 String countryName = splitArgs[0];
 
                 p_mapToUpdate.removeCountry(countryName);
-                System.out.println("Country " + countryName + " removed successfully!");
+                d_output.println("Country " + countryName + " removed successfully!");
             } else {
-                System.out.println("Error: Invalid format. Use 'remove <country>'.");
+                d_output.println("Error: Invalid format. Use 'remove <country>'.");
             }
         } else {
-            System.out.println("Error: Invalid operation. Use 'add' or 'remove'.");
+            d_output.println("Error: Invalid operation. Use 'add' or 'remove'.");
         }
         return p_mapToUpdate;
     }
@@ -425,7 +291,7 @@ public class MapController {
         String[] l_args = p_arguments.split(" ");
 
         if (l_args.length != 2) {
-            System.out.println("Invalid arguments. Please provide exactly two country IDs.");
+            d_output.println("Invalid arguments. Please provide exactly two country IDs.");
             return p_mapToUpdate;
         }
 
@@ -434,7 +300,7 @@ public class MapController {
             l_countryID = Integer.parseInt(l_args[0]);
             l_neighbourID = Integer.parseInt(l_args[1]);
         } catch (NumberFormatException e) {
-            System.out.println("Invalid input: Country IDs must be integers.");
+            d_output.println("Invalid input: Country IDs must be integers.");
             return p_mapToUpdate;
         }
 
@@ -445,7 +311,7 @@ public class MapController {
             p_mapToUpdate.removeNeighbour(l_countryID, l_neighbourID);
         }
         else {
-            System.out.println("Invalid operation. Please use 'add' or 'remove'.");
+            d_output.println("Invalid operation. Please use 'add' or 'remove'.");
         }
         return p_mapToUpdate;
     }
@@ -487,20 +353,20 @@ public class MapController {
                     int controlValue = Integer.parseInt(splitArgs[1]);
                     p_mapToUpdate.addContinent(continentName, controlValue);
                 } catch (NumberFormatException e) {
-                    System.out.println("Error: Control value must be a valid integer.");
+                    d_output.println("Error: Control value must be a valid integer.");
                 }
             } else {
-                System.out.println("Error: Invalid format. Use '-add <continent> <controlValue>'.");
+                d_output.println("Error: Invalid format. Use '-add <continent> <controlValue>'.");
             }
         } else if (p_operation.equals("remove")) {
             if (splitArgs.length == 1) {
                 String continentName = splitArgs[0];
                 p_mapToUpdate.removeContinent(continentName);
             } else {
-                System.out.println("Error: Invalid format. Use '-remove <continent>'.");
+                d_output.println("Error: Invalid format. Use '-remove <continent>'.");
             }
         } else {
-            System.out.println("Error: Invalid operation. Use 'add' or 'remove'.");
+            d_output.println("Error: Invalid operation. Use 'add' or 'remove'.");
         }
 
         return p_mapToUpdate;
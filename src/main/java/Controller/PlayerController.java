@@ -1,16 +1,39 @@
 package Controller;
 
 import Model.*;
+import Utils.CommandTokenizer;
+import Utils.ParsedCommand;
 
-import java.util.ArrayList;
-import java.util.HashSet;
+import java.io.PrintStream;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.Set;
 /**
  * The PlayerController class manages player actions such as assigning countries,
  * distributing armies, and creating orders.
  */
 public class PlayerController {
+    /** The last order command parsed, reused for every order. */
+    private final ParsedCommand d_parsedOrder = new ParsedCommand();
+    /** Where the controller reports to the user. */
+    private final PrintStream d_output;
+
+    /**
+     * Creates a controller reporting on the standard output.
+     */
+    public PlayerController() {
+        this(System.out);
+    }
+
+    /**
+     * Creates a controller reporting on the output of a game session.
+     *
+     * @param p_output the output of the session
+     */
+    public PlayerController(PrintStream p_output) {
+        this.d_output = p_output;
+    }
+
     /**
      * Assigns countries to players based on the number of available players and countries.
      *
@@ -18,11 +41,11 @@ public class PlayerController {
      */
     public void assignCountry(CurrentState p_currentState) {
         if(p_currentState.getD_players() == null || p_currentState.getD_players().isEmpty()) {
-            System.out.println("No players found. Please add players using 'gameplayer -add playerName' command first.");
+            d_output.println("No players found. Please add players using 'gameplayer -add playerName' command first.");
             return;
         }
         if(p_currentState.getD_map() == null || p_currentState.getD_map().getD_mapCountries() == null) {
-            System.out.println("Map data is missing. Ensure a valid map is loaded before assigning countries");
+            d_output.println("Map data is missing. Ensure a valid map is loaded before assigning countries");
         }
 
         List<Player> l_players = p_currentState.getD_players();
@@ -31,32 +54,41 @@ public class PlayerController {
         int l_playerCount = l_players.size();
         int l_countryCount = l_countries.size();
         if (l_playerCount > l_countryCount) {
-            System.out.println("More players than available countries. Reduce player count or add more countries.");
+            d_output.println("More players than available countries. Reduce player count or add more countries.");
         }
 
+        OwnershipTable l_ownership = new OwnershipTable(l_countries, p_currentState.getD_map().getD_mapContinents());
+        for(Player l_player : l_players) {
+            l_ownership.addPlayer(l_player);
+        }
+        p_currentState.setD_ownership(l_ownership);
+
         int l_countriesPerPlayer = Math.floorDiv(l_countryCount, l_playerCount);
 
-        randomCountryDistribution(l_players, l_countries, l_countriesPerPlayer);
+        randomCountryDistribution(l_players, l_countries, l_countriesPerPlayer, p_currentState.getD_random());
 
         displayAssignedCountries(l_players);
 
         updatePlayerContinentOwnership(l_players, p_currentState.getD_map().getD_mapContinents());
     }
     /**
-     * Updates the player's ownership of continents based on country ownership.
+     * Updates the player's ownership of continents based on country ownership. The ownership table the players
+     * share keeps a counter of owned countries per player and continent, so this only reads the counters; it
+     * is needed after the continent sets were changed by hand.
      *
      * @param p_Players The list of players.
      * @param p_MapContinents The list of continents in the map.
      */
     public void updatePlayerContinentOwnership(List<Player> p_Players, List<Continent> p_MapContinents) {
+        OwnershipTable l_ownership = OwnershipTable.shared(p_Players, p_MapContinents);
         for(Player l_player : p_Players) {
-            List<Country> l_countriesOwnedByPlayer = l_player.getD_currentCountries();
-            if(l_countriesOwnedByPlayer == null || l_countriesOwnedByPlayer.isEmpty()) {
-                continue;
-            }
             for(Continent l_continent : p_MapContinents) {
-                if(new HashSet<>(l_countriesOwnedByPlayer).containsAll(l_continent.getD_countries())) {
+                Set<Continent> l_continents = l_player.getD_currentContinents();
+                boolean l_controlled = l_ownership.controls(l_player, l_continent);
+                if(l_controlled && (l_continents == null || !l_continents.contains(l_continent))) {
                     l_player.setContinent(l_continent);
+                } else if(!l_controlled && l_continents != null) {
+                    l_continents.remove(l_continent);
                 }
             }
         }
@@ -79,42 +111,57 @@ public class PlayerController {
                     l_output.append(l_country.getD_countryName()).append(" ");
                 }
             }
-            System.out.println(l_output.toString().trim());
+            d_output.println(l_output.toString().trim());
         }
     }
     /**
-     * Distributes countries randomly among players.
+     * Distributes countries randomly among players, with an unseeded random number generator.
      *
      * @param p_Players The list of players.
      * @param p_Countries The list of countries.
      * @param p_CountriesPerPlayer The number of countries per player.
      */
     public void randomCountryDistribution(List<Player> p_Players, List<Country> p_Countries, int p_CountriesPerPlayer) {
-        List<Country> l_unassignedCountries = new ArrayList<>(p_Countries);
-
-        if(l_unassignedCountries.isEmpty()) {
-            System.out.println("No Countries in the map.");
+        randomCountryDistribution(p_Players, p_Countries, p_CountriesPerPlayer, new SplittableRandom());
+    }
+    /**
+     * Distributes countries randomly among players, in linear time: the country indexes are shuffled in place
+     * with a Fisher-Yates shuffle and the countries are then dealt round-robin, so every player gets
+     * {@code p_CountriesPerPlayer} countries when there are enough and the rest go one each to the first
+     * players. The same random number generator state always gives the same distribution.
+     *
+     * @param p_Players The list of players.
+     * @param p_Countries The list of countries.
+     * @param p_CountriesPerPlayer The number of countries per player.
+     * @param p_random The random number generator, such as the one of the game.
+     */
+    public void randomCountryDistribution(List<Player> p_Players, List<Country> p_Countries, int p_CountriesPerPlayer,
+                                          SplittableRandom p_random) {
+        if(p_Countries.isEmpty()) {
+            d_output.println("No Countries in the map.");
             return;
         }
-        Random rand = new Random();
-
-        for (Player l_Player : p_Players) {
-            if(l_Player.getD_currentCountries() == null) {
-                l_Player.setD_currentCountries(new ArrayList<>());
-            }
-            for (int i = 0; i < p_CountriesPerPlayer && !l_unassignedCountries.isEmpty(); i++) {
-                int l_randomIndex = rand.nextInt(l_unassignedCountries.size());
-                l_Player.getD_currentCountries().add(l_unassignedCountries.get(l_randomIndex));
-                l_unassignedCountries.remove(l_randomIndex);
-            }
+        if(p_Players.isEmpty()) {
+            return;
+        }
+        int[] l_order = new int[p_Countries.size()];
+        for(int i = 0; i < l_order.length; i++) {
+            l_order[i] = i;
+        }
+        for(int i = l_order.length - 1; i > 0; i--) {
+            int l_randomIndex = p_random.nextInt(i + 1);
+            int l_index = l_order[i];
+            l_order[i] = l_order[l_randomIndex];
+            l_order[l_randomIndex] = l_index;
         }
 
-        if(!l_unassignedCountries.isEmpty()) {
-            randomCountryDistribution(p_Players, l_unassignedCountries, 1);
+        for(int i = 0; i < l_order.length; i++) {
+            p_Players.get(i % p_Players.size()).getD_currentCountries().add(p_Countries.get(l_order[i]));
         }
     }
     /**
-     * Gets the number of armies assigned to a player.
+     * Gets the number of armies assigned to a player: a third of their countries, at least 3, plus the bonus
+     * of every continent they control, read from their continent set.
      *
      * @param p_Player The player.
      * @return The number of armies.
@@ -124,12 +171,10 @@ public class PlayerController {
         if (p_Player.getD_currentCountries() != null && !p_Player.getD_currentCountries().isEmpty()){
             l_currentArmySize = Math.max(3, Math.round((float)(p_Player.getD_currentCountries().size() / 3)));
         }
-        if (p_Player.getD_currentContinents() != null && !p_Player.getD_currentContinents().isEmpty()){
-            int l_ContinentValue = 0;
+        if (p_Player.getD_currentContinents() != null){
             for (Continent l_continent : p_Player.getD_currentContinents()) {
-                l_ContinentValue = l_continent.getD_continentValue();
+                l_currentArmySize += l_continent.getD_continentValue();
             }
-            l_currentArmySize += l_ContinentValue;
         }
         return l_currentArmySize;
     }
@@ -141,13 +186,13 @@ public class PlayerController {
     public void assignArmies(CurrentState p_CurrentState) {
         List<Player> l_players = p_CurrentState.getD_players();
         if(l_players == null || l_players.isEmpty()) {
-            System.out.println("No players found.");
+            d_output.println("No players found.");
             return;
         }
         for (Player l_player : l_players) {
             int l_NumberOfArmiesPerPlayer = getNumberOfArmies(l_player);
             l_player.setD_unallocatedArmies(l_NumberOfArmiesPerPlayer);
-            System.out.println("Player" + l_player.getD_playerName() + " got assigned: " + l_NumberOfArmiesPerPlayer + " armies.");
+            d_output.println("Player" + l_player.getD_playerName() + " got assigned: " + l_NumberOfArmiesPerPlayer + " armies.");
         }
     }
     /**
@@ -157,29 +202,37 @@ public class PlayerController {
      * @param p_Player The player issuing the order.
      */
     public void createDeployOrder(String p_OrderName, Player p_Player) {
-        List<Orders> l_orders;
-        if(p_Player.getD_orders() == null || p_Player.getD_orders().isEmpty()) {
-            l_orders = new ArrayList<>();
-        } else {
-            l_orders = p_Player.getD_orders();
+        createDeployOrder(CommandTokenizer.tokenize(p_OrderName, d_parsedOrder), p_Player);
+    }
+    /**
+     * Creates and validates a deploy order for a player from an already parsed
+     * {@code deploy <country> <armies>} command. The country is resolved once, by the constant-time ownership
+     * check of the player, and the order holds it, so executing the order needs no lookup.
+     *
+     * @param p_order The parsed order command.
+     * @param p_Player The player issuing the order.
+     */
+    public void createDeployOrder(ParsedCommand p_order, Player p_Player) {
+        if(p_order.optionCount() != 1 || !p_order.isPositional(0) || p_order.argumentCount(0) != 2
+                || !p_order.isIntArgument(0, 1) || p_order.intArgument(0, 1) <= 0) {
+            d_output.println("Invalid command format. Please provide a valid command.");
+            return;
         }
+        int l_numberOfArmiesToDeploy = p_order.intArgument(0, 1);
+        String l_countryName = p_order.argument(0, 0);
+        Country l_country = p_Player.getOwnedCountry(l_countryName);
 
-        String l_countryName = p_OrderName.split(" ")[1];
-        int l_numberOfArmiesToDeploy = Integer.parseInt(p_OrderName.split(" ")[2]);
-
-        if(!validateCountryOwnership(p_Player, l_countryName)){
-            System.out.println("Country " + l_countryName + " is not owned by " + p_Player.getD_playerName());
+        if(l_country == null){
+            d_output.println("Country " + l_countryName + " is not owned by " + p_Player.getD_playerName());
         } else if (!hasSufficientArmies(p_Player, l_numberOfArmiesToDeploy)) {
-            System.out.println("Player does not have enough armies to deploy.");
+            d_output.println("Player does not have enough armies to deploy.");
         } else {
-            Orders l_order = new Orders(p_OrderName.split(" ")[0], l_countryName, l_numberOfArmiesToDeploy);
-            l_orders.add(l_order);
-            p_Player.setD_orders(l_orders);
+            p_Player.getD_orders().add(new Orders(Orders.DEPLOY, l_country, l_numberOfArmiesToDeploy));
 
             Integer l_unallocatedArmies = p_Player.getD_unallocatedArmies() - l_numberOfArmiesToDeploy;
             p_Player.setD_unallocatedArmies(l_unallocatedArmies);
 
-            System.out.println("Order is added to queue for execution.");
+            d_output.println("Order is added to queue for execution.");
         }
 
     }
@@ -194,19 +247,19 @@ public class PlayerController {
         return p_Player.getD_unallocatedArmies() >= p_NumberOfArmiesToDeploy;
     }
     /**
-     * Validates if the player owns the specified country.
+     * Executes the issued orders, taking one order from each player in turn until none are left.
      *
-     * @param p_Player The player whose country ownership is being checked.
-     * @param p_CountryName The name of the country to validate.
-     * @return True if the player owns the country, otherwise false.
+     * @param p_currentState The current game state.
      */
-    private boolean validateCountryOwnership(Player p_Player, String p_CountryName) {
-        for(Country l_country : p_Player.getD_currentCountries()) {
-            if(l_country.getD_countryName().equals(p_CountryName)) {
-                return true;
+    public void executeOrders(CurrentState p_currentState) {
+        while (isUnexecutedOrdersExist(p_currentState)) {
+            for (Player l_eachPlayer : p_currentState.getD_players()) {
+                Orders l_orderToExecute = l_eachPlayer.nextOrder();
+                if (l_orderToExecute != null) {
+                    l_orderToExecute.execute(l_eachPlayer);
+                }
             }
         }
-        return false;
     }
     /**
      * Checks if any player has unallocated armies.
@@ -0,0 +1,204 @@
+package Controller;
+
+import Utils.LatencyHistogram;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hosts many independent {@link GameSession}s in one JVM, each on its own virtual thread.
+ * <p>
+ * Sessions share nothing but the read-only map cache; when one ends, the latency of its commands is merged
+ * into the manager's totals, from which {@link #report()} gives the throughput and the command and turn
+ * latency across all sessions. Closing the manager waits for every session to end.
+ * </p>
+ */
+public final class SessionManager implements AutoCloseable {
+    /** Runs every session on a virtual thread of its own. */
+    private final ExecutorService d_executor = Executors.newVirtualThreadPerTaskExecutor();
+    /** Number given to the next session. */
+    private final AtomicInteger d_nextId = new AtomicInteger(1);
+    /** Number of sessions started and not yet ended. */
+    private final AtomicInteger d_activeCount = new AtomicInteger();
+    /** When the manager was created. */
+    private final long d_startNanos = System.nanoTime();
+    /** Latency of the commands of the ended sessions. */
+    private final LatencyHistogram d_commandLatency = new LatencyHistogram();
+    /** Latency of the turns of the ended sessions. */
+    private final LatencyHistogram d_turnLatency = new LatencyHistogram();
+    /** Number of sessions ended. */
+    private int d_endedCount;
+    /** Number of ended sessions whose game was played to the end. */
+    private int d_completedGames;
+
+    /**
+     * Runs the same script in many concurrent sessions and prints the report.
+     *
+     * @param p_args {@code <sessions> <script>}
+     */
+    public static void main(String[] p_args) {
+        if (p_args.length != 2) {
+            System.out.println("Usage: SessionManager <sessions> <script>");
+            return;
+        }
+        try {
+            int l_sessions = Integer.parseInt(p_args[0]);
+            String l_script = Files.readString(Path.of(p_args[1]));
+            try (SessionManager l_manager = new SessionManager()) {
+                for (int i = 0; i < l_sessions; i++) {
+                    l_manager.start(new BufferedReader(new StringReader(l_script)),
+                            new PrintStream(OutputStream.nullOutputStream()));
+                }
+                l_manager.awaitAll();
+                System.out.println(l_manager.report());
+            }
+        } catch (NumberFormatException | IOException l_e) {
+            System.out.println(l_e.getMessage());
+        } catch (InterruptedException l_e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Starts a session on a new virtual thread.
+     *
+     * @param p_input  the commands of the session
+     * @param p_output the output of the session
+     * @return the session
+     */
+    public GameSession start(BufferedReader p_input, PrintStream p_output) {
+        return start(p_input, p_output, () -> { }, () -> { });
+    }
+
+    /**
+     * Starts a session on a new virtual thread, with a callback for the end of each command's response,
+     * such as sending it over the session's connection, and one for when the session ends, such as closing
+     * the connection.
+     *
+     * @param p_input           the commands of the session
+     * @param p_output          the output of the session
+     * @param p_commandListener told on the session's thread after the response to each command
+     * @param p_onEnd           run on the session's thread once it has ended
+     * @return the session
+     */
+    public GameSession start(BufferedReader p_input, PrintStream p_output,
+                             MainGameEngine.CommandListener p_commandListener, Runnable p_onEnd) {
+        GameSession l_session = new GameSession(d_nextId.getAndIncrement(), p_input, p_output, p_commandListener,
+                p_session -> {
+                    try {
+                        p_onEnd.run();
+                    } finally {
+                        ended(p_session);
+                    }
+                });
+        d_activeCount.incrementAndGet();
+        d_executor.execute(l_session);
+        return l_session;
+    }
+
+    /**
+     * Adds the latency of an ended session to the totals.
+     *
+     * @param p_session the session
+     */
+    private void ended(GameSession p_session) {
+        MainGameEngine l_engine = p_session.getEngine();
+        synchronized (this) {
+            d_commandLatency.add(l_engine.getCommandLatency());
+            d_turnLatency.add(l_engine.getTurnLatency());
+            d_endedCount++;
+            if (l_engine.getPhase() == GamePhase.GAME_OVER) {
+                d_completedGames++;
+            }
+            if (d_activeCount.decrementAndGet() == 0) {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Waits until no session is running.
+     *
+     * @throws InterruptedException if the wait is interrupted
+     */
+    public synchronized void awaitAll() throws InterruptedException {
+        while (d_activeCount.get() > 0) {
+            wait();
+        }
+    }
+
+    /**
+     * Gets the number of sessions running.
+     *
+     * @return the number of active sessions
+     */
+    public int getActiveCount() {
+        return d_activeCount.get();
+    }
+
+    /**
+     * Gets the number of sessions that have ended.
+     *
+     * @return the number of ended sessions
+     */
+    public synchronized int getEndedCount() {
+        return d_endedCount;
+    }
+
+    /**
+     * Gets a copy of the latency of the commands of the ended sessions.
+     *
+     * @return the command latency
+     */
+    public synchronized LatencyHistogram getCommandLatency() {
+        LatencyHistogram l_copy = new LatencyHistogram();
+        l_copy.add(d_commandLatency);
+        return l_copy;
+    }
+
+    /**
+     * Gets a copy of the latency of the turns of the ended sessions: the commands given while orders are
+     * issued, the last of each game including the execution of its orders.
+     *
+     * @return the turn latency
+     */
+    public synchronized LatencyHistogram getTurnLatency() {
+        LatencyHistogram l_copy = new LatencyHistogram();
+        l_copy.add(d_turnLatency);
+        return l_copy;
+    }
+
+    /**
+     * Reports the sessions ended so far: their number, the throughput since the manager was created and the
+     * command and turn latency.
+     *
+     * @return the report
+     */
+    public synchronized String report() {
+        double l_seconds = (System.nanoTime() - d_startNanos) / 1e9;
+        return String.format(Locale.ROOT, "Sessions: %d ended (%d games completed), %d active, %.3f s%n"
+                        + "Throughput: %.1f sessions/s, %.0f commands/s%n"
+                        + "Command latency: %s%n"
+                        + "Turn latency:    %s",
+                d_endedCount, d_completedGames, d_activeCount.get(), l_seconds,
+                d_endedCount / l_seconds, d_commandLatency.getCount() / l_seconds,
+                d_commandLatency, d_turnLatency);
+    }
+
+    /**
+     * Waits for every session to end and stops the threads.
+     */
+    @Override
+    public void close() {
+        d_executor.close();
+    }
+}
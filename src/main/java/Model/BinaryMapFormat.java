@@ -0,0 +1,273 @@
+package Model;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Compact binary map format, used for files ending in {@link #EXTENSION}.
+ * <p>
+ * All numbers are big-endian ints. The layout is:
+ * </p>
+ * <pre>
+ * magic "WZMB", version, flags
+ * string table:  count, then (byte length, UTF-8 bytes) per name
+ * continents:    count, then (ID, name index, bonus) per continent
+ * membership:    offsets[continents + 1], member country indexes
+ * countries:     count, IDs[count], name indexes[count], continent IDs[count]
+ * borders (CSR): offsets[countries + 1], neighbour IDs
+ * CRC32 of everything before it, as a long
+ * </pre>
+ * <p>
+ * Loading is a few bulk int reads with no tokenising. Bit 0 of the flags records that the map was valid
+ * when saved; if the checksum matches, the loaded map is marked as validated and {@link Map#validateMap()}
+ * answers without a search until the map is edited.
+ * </p>
+ */
+public final class BinaryMapFormat {
+    /** File name extension selecting this format. */
+    public static final String EXTENSION = ".bmap";
+    /** Current format version. */
+    public static final int VERSION = 1;
+
+    /** Magic number at the start of every file: "WZMB". */
+    private static final int MAGIC = 0x575A4D42;
+    /** Flag bit recording that the map was valid when saved. */
+    private static final int FLAG_VALIDATED = 1;
+
+    private BinaryMapFormat() {
+    }
+
+    /**
+     * Checks whether a file name selects the binary format.
+     *
+     * @param p_fileName the file name
+     * @return true if the name ends in {@link #EXTENSION}, ignoring case
+     */
+    public static boolean isBinary(String p_fileName) {
+        return p_fileName != null && p_fileName.regionMatches(true, p_fileName.length() - EXTENSION.length(),
+                EXTENSION, 0, EXTENSION.length());
+    }
+
+    /**
+     * Writes a map.
+     *
+     * @param p_map       the map to write
+     * @param p_output    the destination; not closed
+     * @param p_validated whether the map is known to be valid
+     * @throws IOException if writing fails
+     */
+    public static void write(Map p_map, OutputStream p_output, boolean p_validated) throws IOException {
+        write(MapTemplate.of(p_map, p_validated), p_output);
+    }
+
+    /**
+     * Writes a map snapshot.
+     *
+     * @param p_template the snapshot
+     * @param p_output   the destination; not closed
+     * @throws IOException if writing fails
+     */
+    static void write(MapTemplate p_template, OutputStream p_output) throws IOException {
+        int l_continentCount = p_template.d_continentIds.length;
+        int l_countryCount = p_template.d_countryIds.length;
+        CRC32 l_crc = new CRC32();
+        DataOutputStream l_out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(p_output, l_crc), 1 << 16));
+
+        l_out.writeInt(MAGIC);
+        l_out.writeInt(VERSION);
+        l_out.writeInt(p_template.d_validated ? FLAG_VALIDATED : 0);
+
+        l_out.writeInt(l_continentCount + l_countryCount);
+        for (String l_name : p_template.d_continentNames) {
+            writeString(l_out, l_name);
+        }
+        for (String l_name : p_template.d_countryNames) {
+            writeString(l_out, l_name);
+        }
+
+        l_out.writeInt(l_continentCount);
+        for (int c = 0; c < l_continentCount; c++) {
+            l_out.writeInt(p_template.d_continentIds[c]);
+            l_out.writeInt(c);
+            l_out.writeInt(p_template.d_continentValues[c]);
+        }
+        writeInts(l_out, p_template.d_memberOffsets);
+        writeInts(l_out, p_template.d_members);
+
+        l_out.writeInt(l_countryCount);
+        writeInts(l_out, p_template.d_countryIds);
+        for (int i = 0; i < l_countryCount; i++) {
+            l_out.writeInt(l_continentCount + i);
+        }
+        writeInts(l_out, p_template.d_countryContinentIds);
+        writeInts(l_out, p_template.d_borderOffsets);
+        writeInts(l_out, p_template.d_neighbourIds);
+
+        l_out.flush();
+        new DataOutputStream(p_output).writeLong(l_crc.getValue());
+        p_output.flush();
+    }
+
+    /**
+     * Writes an int array without its length.
+     *
+     * @param p_out    the destination
+     * @param p_values the ints
+     * @throws IOException if writing fails
+     */
+    private static void writeInts(DataOutputStream p_out, int[] p_values) throws IOException {
+        for (int l_value : p_values) {
+            p_out.writeInt(l_value);
+        }
+    }
+
+    /**
+     * Writes a length-prefixed UTF-8 string.
+     *
+     * @param p_out    the destination
+     * @param p_string the string, null being written as empty
+     * @throws IOException if writing fails
+     */
+    private static void writeString(DataOutputStream p_out, String p_string) throws IOException {
+        byte[] l_bytes = p_string == null ? new byte[0] : p_string.getBytes(StandardCharsets.UTF_8);
+        p_out.writeInt(l_bytes.length);
+        p_out.write(l_bytes);
+    }
+
+    /**
+     * Reads a map and stores its continents and countries in the given map.
+     *
+     * @param p_bytes the file contents
+     * @param p_map   the map to fill
+     * @return false if the input was empty, in which case the map is left untouched
+     * @throws IOException if the file is not a binary map of a supported version, or is corrupted
+     */
+    public static boolean read(ByteBuffer p_bytes, Map p_map) throws IOException {
+        MapTemplate l_template = readTemplate(p_bytes);
+        if (l_template == null) {
+            return false;
+        }
+        l_template.copyInto(p_map);
+        return true;
+    }
+
+    /**
+     * Reads a map snapshot.
+     *
+     * @param p_bytes the file contents
+     * @return the snapshot, or null if the input was empty
+     * @throws IOException if the file is not a binary map of a supported version, or is corrupted
+     */
+    static MapTemplate readTemplate(ByteBuffer p_bytes) throws IOException {
+        int l_length = p_bytes.remaining();
+        if (l_length == 0) {
+            return null;
+        }
+        if (l_length < 20) {
+            throw new IOException("Truncated binary map.");
+        }
+        ByteBuffer l_in = p_bytes.slice();
+        CRC32 l_crc = new CRC32();
+        l_crc.update(l_in.slice(0, l_length - 8));
+        if (l_in.getLong(l_length - 8) != l_crc.getValue()) {
+            throw new IOException("Binary map checksum mismatch.");
+        }
+        l_in.limit(l_length - 8);
+
+        try {
+            if (l_in.getInt() != MAGIC) {
+                throw new IOException("Not a binary map.");
+            }
+            int l_version = l_in.getInt();
+            if (l_version != VERSION) {
+                throw new IOException("Unsupported binary map version " + l_version + ".");
+            }
+            int l_flags = l_in.getInt();
+
+            String[] l_strings = new String[l_in.getInt()];
+            for (int i = 0; i < l_strings.length; i++) {
+                byte[] l_bytes = new byte[l_in.getInt()];
+                l_in.get(l_bytes);
+                l_strings[i] = new String(l_bytes, StandardCharsets.UTF_8);
+            }
+
+            int l_continentCount = l_in.getInt();
+            String[] l_continentNames = new String[l_continentCount];
+            int[] l_continentIds = new int[l_continentCount];
+            int[] l_continentValues = new int[l_continentCount];
+            for (int c = 0; c < l_continentCount; c++) {
+                l_continentIds[c] = l_in.getInt();
+                l_continentNames[c] = l_strings[l_in.getInt()];
+                l_continentValues[c] = l_in.getInt();
+            }
+            int[] l_memberOffsets = ints(l_in, l_continentCount + 1);
+            int[] l_members = ints(l_in, l_memberOffsets[l_continentCount]);
+
+            int l_countryCount = l_in.getInt();
+            int[] l_countryIds = ints(l_in, l_countryCount);
+            String[] l_countryNames = new String[l_countryCount];
+            for (int i = 0; i < l_countryCount; i++) {
+                l_countryNames[i] = l_strings[l_in.getInt()];
+            }
+            int[] l_countryContinentIds = ints(l_in, l_countryCount);
+            int[] l_borderOffsets = ints(l_in, l_countryCount + 1);
+            int[] l_neighbourIds = ints(l_in, l_borderOffsets[l_countryCount]);
+            if (l_in.hasRemaining()) {
+                throw new IOException("Unexpected data after the borders.");
+            }
+            checkOffsets(l_memberOffsets, l_members.length);
+            checkOffsets(l_borderOffsets, l_neighbourIds.length);
+            for (int l_member : l_members) {
+                if (l_member < 0 || l_member >= l_countryCount) {
+                    throw new IOException("Continent member out of range.");
+                }
+            }
+
+            return new MapTemplate(l_continentNames, l_continentIds, l_continentValues, l_memberOffsets, l_members,
+                    l_countryNames, l_countryIds, l_countryContinentIds, new int[l_countryCount], l_borderOffsets,
+                    l_neighbourIds, (l_flags & FLAG_VALIDATED) != 0);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+                 | NegativeArraySizeException l_e) {
+            throw new IOException("Malformed binary map.", l_e);
+        }
+    }
+
+    /**
+     * Checks that offsets start at zero, never decrease and end at the length of the array they index.
+     *
+     * @param p_offsets the offsets
+     * @param p_length  the length of the indexed array
+     * @throws IOException if the offsets are inconsistent
+     */
+    private static void checkOffsets(int[] p_offsets, int p_length) throws IOException {
+        if (p_offsets[0] != 0 || p_offsets[p_offsets.length - 1] != p_length) {
+            throw new IOException("Inconsistent offsets.");
+        }
+        for (int i = 1; i < p_offsets.length; i++) {
+            if (p_offsets[i] < p_offsets[i - 1]) {
+                throw new IOException("Inconsistent offsets.");
+            }
+        }
+    }
+
+    /**
+     * Reads an int array.
+     *
+     * @param p_in    the source
+     * @param p_count the number of ints
+     * @return the ints
+     */
+    private static int[] ints(ByteBuffer p_in, int p_count) {
+        int[] l_values = new int[p_count];
+        p_in.asIntBuffer().get(l_values);
+        p_in.position(p_in.position() + 4 * p_count);
+        return l_values;
+    }
+}
@@ -0,0 +1,106 @@
+package Model;
+
+/**
+ * Border lines of a map file, kept as primitive int arrays.
+ * <p>
+ * Each accepted line becomes a record of its owner country ID and its neighbour IDs. Records keep file
+ * order, so when a country has several lines the last record is the one that counts. Chunks of the
+ * {@code [Borders]} section parsed on different threads are joined with {@link #append(BorderRecords)}.
+ * </p>
+ */
+final class BorderRecords {
+    /** Country ID owning each record. */
+    private final IntArrayBuilder d_owners = new IntArrayBuilder();
+    /** Start of each record's neighbour IDs in {@link #d_ids}. */
+    private final IntArrayBuilder d_starts = new IntArrayBuilder();
+    /** Neighbour IDs of all records, back to back. */
+    private final IntArrayBuilder d_ids = new IntArrayBuilder();
+
+    /**
+     * Parses a {@code <id> <neighbour id>...} line. Lines with fewer than two tokens or a malformed number
+     * are skipped.
+     *
+     * @param p_tokenizer the tokenizer over the line's buffer
+     * @param p_start     the first byte of the line
+     * @param p_end       the byte after the line
+     */
+    void line(MapLineTokenizer p_tokenizer, int p_start, int p_end) {
+        if (!p_tokenizer.nextToken(p_start, p_end) || !p_tokenizer.parseToken()) {
+            return;
+        }
+        int l_owner = p_tokenizer.d_value;
+        int l_mark = d_ids.size();
+        while (p_tokenizer.nextToken(p_tokenizer.d_tokenEnd, p_end)) {
+            if (!p_tokenizer.parseToken()) {
+                d_ids.truncate(l_mark);
+                return;
+            }
+            d_ids.add(p_tokenizer.d_value);
+        }
+        if (d_ids.size() == l_mark) {
+            return;
+        }
+        d_owners.add(l_owner);
+        d_starts.add(l_mark);
+    }
+
+    /**
+     * Appends the records of a later part of the section.
+     *
+     * @param p_other the records that follow these in the file
+     */
+    void append(BorderRecords p_other) {
+        int l_shift = d_ids.size();
+        d_owners.addAll(p_other.d_owners, 0);
+        d_starts.addAll(p_other.d_starts, l_shift);
+        d_ids.addAll(p_other.d_ids, 0);
+    }
+
+    /**
+     * Gets the number of records.
+     *
+     * @return the number of records
+     */
+    int size() {
+        return d_owners.size();
+    }
+
+    /**
+     * Gets the owner country ID of a record.
+     *
+     * @param p_record the record
+     * @return the country ID
+     */
+    int owner(int p_record) {
+        return d_owners.array()[p_record];
+    }
+
+    /**
+     * Gets the start of a record's neighbour IDs in {@link #ids()}.
+     *
+     * @param p_record the record
+     * @return the start offset
+     */
+    int start(int p_record) {
+        return d_starts.array()[p_record];
+    }
+
+    /**
+     * Gets the end of a record's neighbour IDs in {@link #ids()}.
+     *
+     * @param p_record the record
+     * @return the end offset
+     */
+    int end(int p_record) {
+        return p_record + 1 < d_starts.size() ? d_starts.array()[p_record + 1] : d_ids.size();
+    }
+
+    /**
+     * Gets the neighbour IDs of all records.
+     *
+     * @return the backing array
+     */
+    int[] ids() {
+        return d_ids.array();
+    }
+}
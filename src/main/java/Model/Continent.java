@@ -1,5 +1,6 @@
 package Model;
 
+import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
 /**
@@ -139,12 +140,21 @@ public class Continent {
      * @param p_countryObject the p country object
      */
     public void removeCountry(Country p_countryObject){
+        removeCountry(p_countryObject, System.out);
+    }
+    /**
+     * Remove country, reporting a missing one on the given output.
+     *
+     * @param p_countryObject the p country object
+     * @param p_output        the output of the game
+     */
+    public void removeCountry(Country p_countryObject, PrintStream p_output){
         if (d_countries == null) {
-            System.out.println("No countries exist in this continent.");
+            p_output.println("No countries exist in this continent.");
             return;
         }
             if (!d_countries.remove(p_countryObject)) {
-                System.out.println("This country does not exist in this continent.");
+                p_output.println("This country does not exist in this continent.");
             }
     }
     /**
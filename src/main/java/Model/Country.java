@@ -1,5 +1,6 @@
 package Model;
 
+import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -9,8 +10,12 @@ import java.util.List;
 public class Country {
     /** The unique identifier for the country. */
     Integer d_countryID;
-    /** The name of the country. */
+    /** The name of the country, or null while it is still to be decoded from {@link #d_nameSource}. */
     String d_countryName;
+    /** Names of a memory-mapped map file holding this country's undecoded name, or null. */
+    MappedNames d_nameSource;
+    /** Position of this country's name in {@link #d_nameSource}. */
+    int d_nameIndex;
     /** The ID of the continent to which the country belongs. */
     Integer d_continentId;
     /** The list of neighboring country IDs. */
@@ -63,9 +68,23 @@ public class Country {
      *
      * @return The country name.
      */public String getD_countryName() {
+        MappedNames l_source = d_nameSource;
+        if (d_countryName == null && l_source != null) {
+            d_countryName = l_source.name(d_nameIndex);
+            d_nameSource = null;
+        }
         return d_countryName;
     }
 
+    /**
+     * Checks whether the name is held as a string, rather than still undecoded in a memory-mapped map file.
+     *
+     * @return True once the name has been decoded, or if it never had to be.
+     */
+    public boolean isNameDecoded() {
+        return d_nameSource == null;
+    }
+
     /**
      * Gets the list of neighboring country IDs.
      *
@@ -103,6 +122,7 @@ public class Country {
      */
     public void setD_countryName(String d_countryName) {
         this.d_countryName = d_countryName;
+        this.d_nameSource = null;
     }
 
     /**
@@ -132,7 +152,7 @@ public class Country {
     public String toString() {
         return "Country{" +
                 "d_countryID=" + d_countryID +
-                ", d_countryName='" + d_countryName + '\'' +
+                ", d_countryName='" + getD_countryName() + '\'' +
                 ", d_continentId=" + d_continentId +
                 ", d_neighbouringCountriesId=" + d_neighbouringCountriesId +
                 ", d_armies=" + d_armies +
@@ -145,11 +165,21 @@ public class Country {
      * @param p_neighbourID The ID of the neighboring country to add.
      */
     public void addCountryNeighbour(int p_neighbourID){
+        addCountryNeighbour(p_neighbourID, System.out);
+    }
+
+    /**
+     * Adds a neighboring country to the list, reporting a duplicate on the given output.
+     *
+     * @param p_neighbourID The ID of the neighboring country to add.
+     * @param p_output The output of the game.
+     */
+    public void addCountryNeighbour(int p_neighbourID, PrintStream p_output){
         if (d_neighbouringCountriesId == null) {
             d_neighbouringCountriesId = new ArrayList<>();
         }
         if (d_neighbouringCountriesId.contains(p_neighbourID)) {
-            System.out.println("Neighbour already exists.");
+            p_output.println("Neighbour already exists.");
         } else {
             d_neighbouringCountriesId.add(p_neighbourID);
         }
@@ -161,14 +191,24 @@ public class Country {
      * @param p_removeCountryId The ID of the neighboring country to remove.
      */
     public void removeCountryNeighbour(int p_removeCountryId){
+        removeCountryNeighbour(p_removeCountryId, System.out);
+    }
+
+    /**
+     * Removes a neighboring country from the list, reporting a missing one on the given output.
+     *
+     * @param p_removeCountryId The ID of the neighboring country to remove.
+     * @param p_output The output of the game.
+     */
+    public void removeCountryNeighbour(int p_removeCountryId, PrintStream p_output){
         if (d_neighbouringCountriesId == null || d_neighbouringCountriesId.isEmpty()) {
-            System.out.println("No neighbouring countries present.");
+            p_output.println("No neighbouring countries present.");
             return;
         }
         // Remove all occurrences that match p_removeCountryId.
         boolean removed = d_neighbouringCountriesId.removeIf(neighbour -> neighbour == p_removeCountryId);
         if (!removed) {
-            System.out.println("Country ID: " + p_removeCountryId + " is not a neighbour in the first place.");
+            p_output.println("Country ID: " + p_removeCountryId + " is not a neighbour in the first place.");
         }
     }
 }
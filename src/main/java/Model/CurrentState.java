@@ -1,7 +1,9 @@
 package Model;
 
+import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 
 /**
  * The {@code CurrentState} class represents the current state of the game, including the list of players and the game map.
@@ -11,6 +13,14 @@ public class CurrentState {
     List<Player> d_players;
     /** The game map. */
     Map d_map;
+    /** Who owns which country, once the countries are assigned. */
+    OwnershipTable d_ownership;
+    /** The seed of the random choices of the game, such as which player gets which country. */
+    long d_seed = new SplittableRandom().nextLong();
+    /** The random choices of the game, drawn from the seed. */
+    SplittableRandom d_random = new SplittableRandom(d_seed);
+    /** Where the game reports to the user. */
+    PrintStream d_output = System.out;
 
     /**
      * Gets the list of players in the game.
@@ -46,6 +56,77 @@ public class CurrentState {
      */
     public void setD_map(Map p_map) {
         this.d_map = p_map;
+        if (p_map != null) {
+            p_map.setD_output(d_output);
+        }
+    }
+
+    /**
+     * Gets the stream the game reports to the user on.
+     *
+     * @return The output of the game.
+     */
+    public PrintStream getD_output() {
+        return d_output;
+    }
+
+    /**
+     * Sets the stream the game, and the map it is played on, report to the user on.
+     *
+     * @param p_output The output of the game.
+     */
+    public void setD_output(PrintStream p_output) {
+        this.d_output = p_output;
+        if (d_map != null) {
+            d_map.setD_output(p_output);
+        }
+    }
+
+    /**
+     * Gets the ownership table of the game.
+     *
+     * @return The table, or null before the countries are assigned.
+     */
+    public OwnershipTable getD_ownership() {
+        return d_ownership;
+    }
+
+    /**
+     * Sets the ownership table of the game.
+     *
+     * @param p_ownership The ownership table to set.
+     */
+    public void setD_ownership(OwnershipTable p_ownership) {
+        this.d_ownership = p_ownership;
+    }
+
+    /**
+     * Gets the seed of the random choices of the game.
+     *
+     * @return The seed.
+     */
+    public long getD_seed() {
+        return d_seed;
+    }
+
+    /**
+     * Sets the seed of the random choices of the game and restarts them from it, so that a game replayed with
+     * the same seed and commands makes the same choices.
+     *
+     * @param p_seed The seed to set.
+     */
+    public void setD_seed(long p_seed) {
+        this.d_seed = p_seed;
+        this.d_random = new SplittableRandom(p_seed);
+    }
+
+    /**
+     * Gets the random choices of the game.
+     *
+     * @return The random number generator, seeded with the seed of the game.
+     */
+    public SplittableRandom getD_random() {
+        return d_random;
     }
 
     /**
@@ -62,7 +143,7 @@ public class CurrentState {
             removePlayer(p_player);
         }
         else {
-            System.out.println("Command is invalid. To add or remover player, use '-add playerName' or '-remove playerName'.");
+            d_output.println("Command is invalid. To add or remover player, use '-add playerName' or '-remove playerName'.");
         }
     }
 
@@ -76,16 +157,16 @@ public class CurrentState {
             String l_player = p_command.split(" ")[0];
 
             if(d_players == null || d_players.isEmpty()) {
-                System.out.println("No players found.");
+                d_output.println("No players found.");
                 return;
             }
 
             Player l_player_found = getPlayerFromName(l_player);
             if(l_player_found != null) {
                 d_players.remove(l_player_found);
-                System.out.println("Player " + l_player + " removed.");
+                d_output.println("Player " + l_player + " removed.");
             } else {
-                System.out.println("Player " + l_player + " not found.");
+                d_output.println("Player " + l_player + " not found.");
             }
         }
     }
@@ -117,12 +198,12 @@ public class CurrentState {
             if(d_players == null) {
                 d_players = new ArrayList<Player>();
             } else if (d_players.stream().anyMatch(p -> p.getD_playerName().equals(l_player))) {
-                System.out.println("Player " + l_player + " already exists.");
+                d_output.println("Player " + l_player + " already exists.");
                 return;
             }
 
             d_players.add(new Player(l_player));
-            System.out.println("Player " + l_player + " added.");
+            d_output.println("Player " + l_player + " added.");
         }
     }
 }
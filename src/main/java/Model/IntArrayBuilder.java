@@ -0,0 +1,80 @@
+package Model;
+
+import java.util.Arrays;
+
+/**
+ * Growable array of primitive ints, used by the map readers to collect values without boxing.
+ */
+final class IntArrayBuilder {
+    /** The values; only the first {@link #d_size} are used. */
+    private int[] d_values;
+    /** Number of values. */
+    private int d_size;
+
+    /**
+     * Creates an empty builder.
+     */
+    IntArrayBuilder() {
+        this.d_values = new int[16];
+    }
+
+    /**
+     * Appends a value.
+     *
+     * @param p_value the value
+     */
+    void add(int p_value) {
+        if (d_size == d_values.length) {
+            d_values = Arrays.copyOf(d_values, d_values.length * 2);
+        }
+        d_values[d_size++] = p_value;
+    }
+
+    /**
+     * Appends all values of another builder, adding a constant to each.
+     *
+     * @param p_other the values to append
+     * @param p_delta the constant added to each value
+     */
+    void addAll(IntArrayBuilder p_other, int p_delta) {
+        int l_size = d_size + p_other.d_size;
+        if (l_size > d_values.length) {
+            d_values = Arrays.copyOf(d_values, Math.max(l_size, d_values.length * 2));
+        }
+        if (p_delta == 0) {
+            System.arraycopy(p_other.d_values, 0, d_values, d_size, p_other.d_size);
+        } else {
+            for (int i = 0; i < p_other.d_size; i++) {
+                d_values[d_size + i] = p_other.d_values[i] + p_delta;
+            }
+        }
+        d_size = l_size;
+    }
+
+    /**
+     * Drops the values from a position on.
+     *
+     * @param p_size the number of values to keep
+     */
+    void truncate(int p_size) {
+        d_size = p_size;
+    }
+
+    /**
+     * Gets the number of values.
+     *
+     * @return the number of values
+     */
+    int size() {
+        return d_size;
+    }
+
+    /**
+     * Gets the backing array, whose first {@link #size()} entries are the values.
+     *
+     * @return the backing array
+     */
+    int[] array() {
+        return d_values;
+    }
+}
@@ -1,9 +1,8 @@
 package Model;
 
+import java.io.PrintStream;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
 
 /**
  * Represents a map containing countries and continents.
@@ -12,6 +11,18 @@ public class Map {
     String d_mapName;
     List<Country> d_mapCountries;
     List<Continent> d_mapContinents;
+    /** Adjacency graph of the map, built on demand and dropped whenever the map is edited. */
+    MapGraph d_graph;
+    /** ID and name indexes over the countries and continents. */
+    final MapIndex d_index = new MapIndex();
+    /** Connectivity kept up to date by the edit methods once validation has run, or null. */
+    MapConnectivity d_connectivity;
+    /** Whether the map was loaded from a checksummed file saved as valid and has not been edited since. */
+    boolean d_validated;
+    /** Edits made since the map was last loaded or saved. */
+    final MapJournal d_journal = new MapJournal();
+    /** Where the edit methods report to the user. */
+    PrintStream d_output = System.out;
 
     /**
      * Default constructor.
@@ -50,6 +61,24 @@ public class Map {
         this.d_mapName = d_mapName;
     }
 
+    /**
+     * Gets the stream the edit methods report to the user on.
+     *
+     * @return The output of the map.
+     */
+    public PrintStream getD_output() {
+        return d_output;
+    }
+
+    /**
+     * Sets the stream the edit methods report to the user on, such as the output of the game session.
+     *
+     * @param p_output The output of the map.
+     */
+    public void setD_output(PrintStream p_output) {
+        this.d_output = p_output;
+    }
+
     /**
      * Gets the list of continents in the map.
      *
@@ -66,6 +95,9 @@ public class Map {
      */
     public void setD_mapContinents(List<Continent> d_mapContinents) {
         this.d_mapContinents = d_mapContinents;
+        invalidateGraph();
+        d_connectivity = null;
+        d_journal.detach();
     }
 
     /**
@@ -84,6 +116,43 @@ public class Map {
      */
     public void setD_mapCountries(List<Country> d_mapCountries) {
         this.d_mapCountries = d_mapCountries;
+        invalidateGraph();
+        d_connectivity = null;
+        d_journal.detach();
+    }
+
+    /**
+     * Gets the adjacency graph of the map, building it if the map changed since it was last built.
+     *
+     * @return The compressed adjacency graph.
+     */
+    public MapGraph getGraph() {
+        if (d_graph == null) {
+            d_graph = MapGraph.build(d_mapCountries, d_mapContinents);
+        }
+        return d_graph;
+    }
+
+    /**
+     * Drops the cached adjacency graph so that it is rebuilt on next use, and forgets that the map was loaded
+     * as valid.
+     */
+    public void invalidateGraph() {
+        d_graph = null;
+        d_validated = false;
+    }
+
+    /**
+     * Decodes the country names that are still held in a memory-mapped map file, so that the file can be
+     * overwritten or deleted.
+     */
+    public void decodeCountryNames() {
+        if (d_mapCountries == null) {
+            return;
+        }
+        for (Country l_country : d_mapCountries) {
+            l_country.getD_countryName();
+        }
     }
 
     /**
@@ -101,129 +170,72 @@ public class Map {
     }
 
     /**
-     * Validates the map.
+     * Validates the map, printing every problem found.
      *
      * @return True if the map is valid, otherwise false.
      */
     public boolean validateMap() {
-        return validateCountriesAndContinents() && validateContinentSubgraph() && validateCountryConnections();
-    }
-
-    /**
-     * Validates that all countries are reachable.
-     *
-     * @return True if all countries are connected, otherwise false.
-     */
-    public boolean validateCountryConnections() {
-        if (d_mapCountries == null || d_mapCountries.isEmpty()) {
-            return false;
+        if (d_validated || getConnectivity().isValid()) {
+            return true;
         }
-
-        HashMap<Integer, Boolean> l_visited = new HashMap<>();
-        for (Country l_eachCountry : d_mapCountries) {
-            l_visited.put(l_eachCountry.getD_countryID(), false);
-        }
-
-        dfsCountry(d_mapCountries.getFirst(), l_visited);
-
-        for (java.util.Map.Entry<Integer, Boolean> l_entry : l_visited.entrySet()) {
-            if (!l_entry.getValue()) {
-                System.out.println("Country : " + Objects.requireNonNull(getCountryById(l_entry.getKey())).getD_countryName() + " is not reachable");
-            }
-        }
-
-        return !l_visited.containsValue(false);
-    }
-
-    /**
-     * Performs a depth-first search (DFS) to validate country connectivity.
-     *
-     * @param p_country The starting country.
-     * @param p_visited A map to track visited countries.
-     */
-    private void dfsCountry(Country p_country, HashMap<Integer, Boolean> p_visited) {
-        p_visited.put(p_country.getD_countryID(),true);
-        for(Country l_eachCountry : getAdjacentCountries(p_country)){
-            if(!p_visited.get(l_eachCountry.getD_countryID())){
-                dfsCountry(l_eachCountry,p_visited);
-            }
+        MapValidationReport l_report = getValidationReport();
+        for (String l_message : l_report.getMessages()) {
+            d_output.println(l_message);
         }
+        return l_report.isValid();
     }
 
     /**
-     * Retrieves the neighboring countries of a given country.
+     * Gets the incremental connectivity of the map, building it from the graph on first use. From then on
+     * the add and remove methods keep it up to date, so a map edited through them is validated without
+     * searching the whole graph again.
      *
-     * @param p_country The country whose neighbors are to be retrieved.
-     * @return List of neighboring countries.
+     * @return The connectivity tracker.
      */
-    private List<Country> getAdjacentCountries(Country p_country) {
-        List<Country> l_adjacentCountries = new ArrayList<>();
-        if (!p_country.getD_neighbouringCountriesId().isEmpty()) {
-            for (Integer l_neighbourId : p_country.getD_neighbouringCountriesId()) {
-                l_adjacentCountries.add(getCountryById(l_neighbourId));
-            }
+    public MapConnectivity getConnectivity() {
+        if (d_connectivity == null) {
+            d_connectivity = new MapConnectivity(getGraph());
         }
-        return l_adjacentCountries;
+        return d_connectivity;
     }
 
     /**
-     * Validates that each continent forms a connected subgraph.
+     * Validates the map without printing anything.
      *
-     * @return True if all continents are connected, otherwise false.
+     * @return The validation report listing every problem found.
      */
-    public boolean validateContinentSubgraph() {
-        for (Continent l_eachContinent : d_mapContinents) {
-            if (l_eachContinent.d_countries == null || l_eachContinent.d_countries.isEmpty()) {
-                System.out.println("Continent: " + l_eachContinent.getD_continentName() + " has no countries.");
-                return false;
-            }
-            if (!connectivityOfCountriesInContinent(l_eachContinent)) {
-                return false;
-            }
-        }
-        return true;
+    public MapValidationReport getValidationReport() {
+        return new MapValidator().validate(getGraph());
     }
 
     /**
-     * Checks connectivity of countries within a given continent.
+     * Validates that all countries are reachable.
      *
-     * @param p_EachContinent The continent to check.
-     * @return True if all countries in the continent are reachable, otherwise false.
+     * @return True if all countries are connected, otherwise false.
      */
-    private boolean connectivityOfCountriesInContinent(Continent p_EachContinent) {
-        HashMap<Integer, Boolean> l_visited = new HashMap<>();
-        for (Country l_eachCountry : p_EachContinent.d_countries) {
-            l_visited.put(l_eachCountry.d_countryID, false);
+    public boolean validateCountryConnections() {
+        if (d_mapCountries == null || d_mapCountries.isEmpty()) {
+            return false;
         }
 
-        dfsSubgraph(p_EachContinent.d_countries.getFirst(), l_visited, p_EachContinent);
-
-        for (java.util.Map.Entry<Integer, Boolean> l_entry : l_visited.entrySet()) {
-            if (!l_entry.getValue()) {
-                Country l_country = getCountryById(l_entry.getKey());
-                assert l_country != null;
-                System.out.println("Country : " + l_country.d_countryName + " is not reachable.");
-            }
+        MapValidationReport l_report = getValidationReport();
+        for (String l_message : l_report.getConnectionMessages()) {
+            d_output.println(l_message);
         }
-
-        return !l_visited.containsValue(false);
+        return l_report.isConnected();
     }
 
     /**
-     * Performs a depth-first search (DFS) to validate connectivity within a continent.
+     * Validates that each continent forms a connected subgraph.
      *
-     * @param p_country   The starting country.
-     * @param p_visited   A map to track visited countries.
-     * @param p_continent The continent being checked.
+     * @return True if all continents are connected, otherwise false.
      */
-    private void dfsSubgraph(Country p_country, HashMap<Integer, Boolean> p_visited, Continent p_continent) {
-        p_visited.put(p_country.d_countryID, true);
-        for (Country l_eachConnectedCountry : p_continent.getD_countries()) {
-            if (p_country.getD_neighbouringCountriesId().contains(l_eachConnectedCountry.getD_countryID()) &&
-                    !p_visited.get(l_eachConnectedCountry.getD_countryID())) {
-                dfsSubgraph(l_eachConnectedCountry, p_visited, p_continent);
-            }
+    public boolean validateContinentSubgraph() {
+        MapValidationReport l_report = getValidationReport();
+        for (String l_message : l_report.getContinentMessages()) {
+            d_output.println(l_message);
         }
+        return l_report.areContinentsConnected();
     }
 
     /**
@@ -232,21 +244,11 @@ public class Map {
      * @return True if the map contains valid data, otherwise false.
      */
     public boolean validateCountriesAndContinents() {
-        if (d_mapContinents == null || d_mapContinents.isEmpty()) {
-            System.out.println("Map does not have Continents");
-            return false;
-        }
-        if (d_mapCountries == null || d_mapCountries.isEmpty()) {
-            System.out.println("Map does not have Countries");
-            return false;
-        }
-        for (Country l_eachCountry : d_mapCountries) {
-            if (l_eachCountry.getD_neighbouringCountriesId().isEmpty() || l_eachCountry.getD_neighbouringCountriesId() == null) {
-                System.out.println("Country: " + l_eachCountry.getD_countryName() + " does not have any neighbours.");
-                return false;
-            }
+        MapValidationReport l_report = getValidationReport();
+        for (String l_message : l_report.getStructureMessages()) {
+            d_output.println(l_message);
         }
-        return true;
+        return l_report.isStructureValid();
     }
 
     /**
@@ -260,20 +262,39 @@ public class Map {
             d_mapContinents = new ArrayList<>();
         }
 
-        for (Continent l_continent : d_mapContinents) {
-            if (l_continent.getD_continentName().equals(p_mapContinentName)) {
-                System.out.println("Continent: " + p_mapContinentName + " already exists.");
-                return;
-            }
+        if (getContinentByName(p_mapContinentName) != null) {
+            d_output.println("Continent: " + p_mapContinentName + " already exists.");
+            return;
         }
 
         int l_mapContinentId = (d_mapContinents.isEmpty()) ? 1 : getMaxContinentID() + 1;
 
-        Continent l_newContinent = new Continent(l_mapContinentId, p_mapContinentName, p_continentValue);
-        d_mapContinents.add(l_newContinent);
-        System.out.println(d_mapContinents);
+        insertContinent(l_mapContinentId, p_mapContinentName, p_continentValue);
+        d_output.println(d_mapContinents);
+
+        d_output.println("Continent " + p_mapContinentName + " added successfully!");
+    }
 
-        System.out.println("Continent " + p_mapContinentName + " added successfully!");
+    /**
+     * Adds a continent without any check or message, keeping the indexes, connectivity and journal up to
+     * date.
+     *
+     * @param p_continentId    The ID of the new continent.
+     * @param p_continentName  The name of the new continent.
+     * @param p_continentValue The continent value.
+     */
+    void insertContinent(int p_continentId, String p_continentName, int p_continentValue) {
+        if (d_mapContinents == null) {
+            d_mapContinents = new ArrayList<>();
+        }
+        Continent l_newContinent = new Continent(p_continentId, p_continentName, p_continentValue);
+        d_mapContinents.add(l_newContinent);
+        d_index.continentAdded(d_mapContinents, l_newContinent);
+        invalidateGraph();
+        if (d_connectivity != null) {
+            d_connectivity.continentAdded(l_newContinent);
+        }
+        d_journal.continentAdded(p_continentName, p_continentValue);
     }
 
     /**
@@ -295,16 +316,34 @@ public class Map {
             return;
         }
 
+        deleteContinent(l_targetContinent);
+        d_output.println("Success: Continent '" + p_mapContinentName + "' has been removed.");
+    }
+
+    /**
+     * Removes a continent and its countries without any message, keeping the indexes, connectivity and
+     * journal up to date.
+     *
+     * @param p_continent The continent to remove.
+     */
+    void deleteContinent(Continent p_continent) {
         // Remove all neighboring references from countries before deleting them
-        if (l_targetContinent.getD_countries() != null && !l_targetContinent.getD_countries().isEmpty()) {
-            for (Country l_country : l_targetContinent.getD_countries()) {
+        if (p_continent.getD_countries() != null && !p_continent.getD_countries().isEmpty()) {
+            for (Country l_country : p_continent.getD_countries()) {
                 removeAllCountryNeighbours(l_country);
-                d_mapCountries.remove(l_country);
+                if (d_mapCountries.remove(l_country)) {
+                    d_index.countryRemoved(d_mapCountries, l_country);
+                }
             }
         }
 
-        d_mapContinents.remove(l_targetContinent);
-        System.out.println("Success: Continent '" + p_mapContinentName + "' has been removed.");
+        d_mapContinents.remove(p_continent);
+        d_index.continentRemoved(d_mapContinents, p_continent);
+        invalidateGraph();
+        if (d_connectivity != null) {
+            d_connectivity.continentRemoved(p_continent, p_continent.getD_countries());
+        }
+        d_journal.continentRemoved(p_continent.getD_continentName());
     }
 
     /**
@@ -312,18 +351,11 @@ public class Map {
      *
      * @return The highest continent ID.
      */
-    private int getMaxContinentID() {
+    int getMaxContinentID() {
         if (d_mapContinents == null || d_mapContinents.isEmpty()) {
             return 0;
         }
-
-        int l_max = 0;
-        for (Continent l_eachContinent : d_mapContinents) {
-            if (l_eachContinent.getD_continentID() > l_max) {
-                l_max = l_eachContinent.getD_continentID();  // Update max ID
-            }
-        }
-        return l_max;
+        return d_index.maxContinentId(d_mapContinents);
     }
 
     /**
@@ -337,13 +369,7 @@ public class Map {
             return null;
         }
 
-        for (Continent l_continent : d_mapContinents) {
-            if (l_continent.getD_continentName().equals(p_mapContinentName)) {
-                return l_continent;
-            }
-        }
-
-        return null; // Continent not found
+        return d_index.continentByName(d_mapContinents, p_mapContinentName);
     }
 
     /**
@@ -384,30 +410,47 @@ public class Map {
         }
 
         if (getCountryByName(p_countryName) != null) {
-            System.out.println("Country '" + p_countryName + "' already exists.");
+            d_output.println("Country '" + p_countryName + "' already exists.");
             return;
         }
 
         int l_continentID = getContinentIDByName(p_continentName);
         if (l_continentID == -1) {
-            System.out.println("Continent '" + p_continentName + "' does not exist.");
+            d_output.println("Continent '" + p_continentName + "' does not exist.");
             return;
         }
 
         int l_countryID = getMaxCountryID() + 1;
-        Country l_newCountry = new Country(l_countryID, p_countryName, l_continentID);
-        d_mapCountries.add(l_newCountry);
+        insertCountry(l_countryID, p_countryName, l_continentID);
 
-        if (d_mapContinents != null) {
-            for (Continent l_continent : d_mapContinents) {
-                if (l_continent.getD_continentID() == l_continentID) {
-                    l_continent.addCountry(l_newCountry);
-                    break;
-                }
-            }
+        d_output.println("Country '" + p_countryName + "' added successfully!");
+    }
+
+    /**
+     * Adds a country without any check or message, keeping the indexes, connectivity and journal up to
+     * date.
+     *
+     * @param p_countryID   The ID of the new country.
+     * @param p_countryName The name of the new country.
+     * @param p_continentID The ID of its continent.
+     */
+    void insertCountry(int p_countryID, String p_countryName, int p_continentID) {
+        if (d_mapCountries == null) {
+            d_mapCountries = new ArrayList<>();
         }
+        Country l_newCountry = new Country(p_countryID, p_countryName, p_continentID);
+        d_mapCountries.add(l_newCountry);
+        d_index.countryAdded(d_mapCountries, l_newCountry);
 
-        System.out.println("Country '" + p_countryName + "' added successfully!");
+        Continent l_continent = d_index.continentById(d_mapContinents, p_continentID);
+        if (l_continent != null) {
+            l_continent.addCountry(l_newCountry);
+        }
+        invalidateGraph();
+        if (d_connectivity != null) {
+            d_connectivity.countryAdded(l_newCountry);
+        }
+        d_journal.countryAdded(p_countryID, p_countryName, l_continent == null ? null : l_continent.getD_continentName());
     }
 
     /**
@@ -421,13 +464,7 @@ public class Map {
             return null;
         }
 
-        for (Country l_country : d_mapCountries) {
-            if (l_country.getD_countryName().equalsIgnoreCase(p_countryName)) {
-                return l_country;
-            }
-        }
-
-        return null;
+        return d_index.countryByName(d_mapCountries, p_countryName);
     }
 
     /**
@@ -439,14 +476,7 @@ public class Map {
         if (d_mapCountries == null || d_mapCountries.isEmpty()) {
             return 0;
         }
-
-        int l_max = 0;
-        for (Country l_eachCountry : d_mapCountries) {
-            if (l_eachCountry.getD_countryID() > l_max) {
-                l_max = l_eachCountry.getD_countryID();
-            }
-        }
-        return l_max;
+        return d_index.maxCountryId(d_mapCountries);
     }
 
     /**
@@ -455,18 +485,9 @@ public class Map {
      * @param p_continentName The name of the continent.
      * @return The continent ID if found, otherwise -1.
      */
-    private int getContinentIDByName(String p_continentName) {
-        if (d_mapContinents == null || d_mapContinents.isEmpty()) {
-            return -1;
-        }
-
-        for (Continent l_eachContinent : d_mapContinents) {
-            if (l_eachContinent.getD_continentName().equals(p_continentName)) {
-                return l_eachContinent.getD_continentID();
-            }
-        }
-
-        return -1;
+    public int getContinentIDByName(String p_continentName) {
+        Continent l_continent = getContinentByName(p_continentName);
+        return l_continent == null ? -1 : l_continent.getD_continentID();
     }
 
     /**
@@ -476,28 +497,41 @@ public class Map {
      */
     public void removeCountry(String p_removeCountryName) {
         if (d_mapCountries == null || d_mapCountries.isEmpty()) {
-            System.out.println("Country: " + p_removeCountryName + " does not exist.");
+            d_output.println("Country: " + p_removeCountryName + " does not exist.");
             return;
         }
 
         Country l_countryToRemove = getCountryByName(p_removeCountryName);
         if (l_countryToRemove == null) {
-            System.out.println("Country: " + p_removeCountryName + " does not exist.");
+            d_output.println("Country: " + p_removeCountryName + " does not exist.");
             return;
         }
 
+        deleteCountry(l_countryToRemove);
+        d_output.println("Country: " + p_removeCountryName + " removed successfully.");
+    }
+
+    /**
+     * Removes a country without any message, keeping the indexes, connectivity and journal up to date.
+     *
+     * @param p_country The country to remove.
+     */
+    void deleteCountry(Country p_country) {
         if (d_mapContinents != null) {
-            for (Continent l_eachContinent : d_mapContinents) {
-                if (Objects.equals(l_eachContinent.getD_continentID(), l_countryToRemove.getD_continentID())) {
-                    l_eachContinent.removeCountry(l_countryToRemove);
-                    break;
-                }
+            Continent l_continent = d_index.continentById(d_mapContinents, p_country.getD_continentID());
+            if (l_continent != null) {
+                l_continent.removeCountry(p_country, d_output);
             }
         }
 
-        removeCountryFromNeighbours(l_countryToRemove);
-        d_mapCountries.remove(l_countryToRemove);
-        System.out.println("Country: " + p_removeCountryName + " removed successfully.");
+        removeCountryFromNeighbours(p_country);
+        d_mapCountries.remove(p_country);
+        d_index.countryRemoved(d_mapCountries, p_country);
+        invalidateGraph();
+        if (d_connectivity != null) {
+            d_connectivity.countryRemoved(p_country);
+        }
+        d_journal.countryRemoved(p_country.getD_countryID());
     }
 
     /**
@@ -525,18 +559,12 @@ public class Map {
      * @param p_countryID The ID of the country to be retrieved.
      * @return The country object if found, otherwise null.
      */
-    private Country getCountryById(int p_countryID) {
+    public Country getCountryById(int p_countryID) {
         if (d_mapCountries == null || d_mapCountries.isEmpty()) {
             return null;
         }
 
-        for (Country country : d_mapCountries) {
-            if (country.getD_countryID() == p_countryID) {
-                return country;
-            }
-        }
-
-        return null;
+        return d_index.countryById(d_mapCountries, p_countryID);
     }
 
     /**
@@ -547,7 +575,7 @@ public class Map {
      */
     public void addNeighbour(int p_countryID, int p_neighbourID) {
         if (d_mapCountries == null || d_mapCountries.isEmpty()) {
-            System.out.println("No countries exist in the map.");
+            d_output.println("No countries exist in the map.");
             return;
         }
 
@@ -556,19 +584,18 @@ public class Map {
 
         if (l_country1 == null || l_country2 == null) {
             if (l_country1 == null) {
-                System.out.println("Country with ID: " + p_countryID + " does not exist.");
+                d_output.println("Country with ID: " + p_countryID + " does not exist.");
             }
             if (l_country2 == null) {
-                System.out.println("Country with ID: " + p_neighbourID + " does not exist.");
+                d_output.println("Country with ID: " + p_neighbourID + " does not exist.");
             }
             return;
         }
 
-        l_country1.addCountryNeighbour(p_neighbourID);
-        l_country2.addCountryNeighbour(p_countryID);
+        link(l_country1, l_country2);
 
-        System.out.println("Country " + p_neighbourID + " added as a neighbor to " + p_countryID);
-        System.out.println("Country " + p_countryID + " added as a neighbor to " + p_neighbourID);
+        d_output.println("Country " + p_neighbourID + " added as a neighbor to " + p_countryID);
+        d_output.println("Country " + p_countryID + " added as a neighbor to " + p_neighbourID);
     }
 
     /**
@@ -579,7 +606,7 @@ public class Map {
      */
     public void removeNeighbour(int p_countryID, int p_neighbourID) {
         if (d_mapCountries == null || d_mapCountries.isEmpty()) {
-            System.out.println("No country in Map.");
+            d_output.println("No country in Map.");
             return;
         }
 
@@ -588,19 +615,51 @@ public class Map {
 
         if (l_country == null || l_neighbour == null) {
             if (l_country == null) {
-                System.out.println("Country with ID: " + p_countryID + " does not exist in the Map.");
+                d_output.println("Country with ID: " + p_countryID + " does not exist in the Map.");
             }
             if (l_neighbour == null) {
-                System.out.println("Country with ID: " + p_neighbourID + " does not exist in the Map.");
+                d_output.println("Country with ID: " + p_neighbourID + " does not exist in the Map.");
             }
             return; // Stop execution if either country doesn't exist
         }
 
-        l_country.removeCountryNeighbour(p_neighbourID);
-        l_neighbour.removeCountryNeighbour(p_countryID);
+        unlink(l_country, l_neighbour);
 
-        System.out.println("Country " + p_neighbourID + " removed as a neighbor from " + p_countryID);
-        System.out.println("Country " + p_countryID + " removed as a neighbor from " + p_neighbourID);
+        d_output.println("Country " + p_neighbourID + " removed as a neighbor from " + p_countryID);
+        d_output.println("Country " + p_countryID + " removed as a neighbor from " + p_neighbourID);
+    }
+
+    /**
+     * Makes two countries neighbours without any message, keeping the connectivity and journal up to date.
+     *
+     * @param p_country   The first country.
+     * @param p_neighbour The second country.
+     */
+    void link(Country p_country, Country p_neighbour) {
+        p_country.addCountryNeighbour(p_neighbour.getD_countryID(), d_output);
+        p_neighbour.addCountryNeighbour(p_country.getD_countryID(), d_output);
+        invalidateGraph();
+        if (d_connectivity != null) {
+            d_connectivity.neighbourAdded(p_country, p_neighbour);
+        }
+        d_journal.neighbourAdded(p_country.getD_countryID(), p_neighbour.getD_countryID());
+    }
+
+    /**
+     * Stops two countries being neighbours without any message, keeping the connectivity and journal up to
+     * date.
+     *
+     * @param p_country   The first country.
+     * @param p_neighbour The second country.
+     */
+    void unlink(Country p_country, Country p_neighbour) {
+        p_country.removeCountryNeighbour(p_neighbour.getD_countryID(), d_output);
+        p_neighbour.removeCountryNeighbour(p_country.getD_countryID(), d_output);
+        invalidateGraph();
+        if (d_connectivity != null) {
+            d_connectivity.neighbourRemoved(p_country, p_neighbour);
+        }
+        d_journal.neighbourRemoved(p_country.getD_countryID(), p_neighbour.getD_countryID());
     }
 
     /**
@@ -610,11 +669,7 @@ public class Map {
      * @return The name of the country, or "null" if not found.
      */
     public String getCountryNameById(Integer p_neighbourID) {
-        for(Country l_eachCountry : d_mapCountries){
-            if(l_eachCountry.getD_countryID().equals(p_neighbourID)){
-                return l_eachCountry.getD_countryName();
-            }
-        }
-        return "null";
+        Country l_country = p_neighbourID == null ? null : getCountryById(p_neighbourID);
+        return l_country == null ? "null" : l_country.getD_countryName();
     }
 }
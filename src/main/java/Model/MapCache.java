@@ -0,0 +1,312 @@
+package Model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Cache of parsed and validated map files, shared by every load in the process.
+ * <p>
+ * Entries are keyed by file path and hold the file's size, modification time and content hash next to an
+ * immutable {@link MapTemplate}. A load of a cached file still streams it once to hash it, but when all three
+ * match it skips parsing and validation and only copies the template, so every caller gets its own
+ * countries, armies and neighbour lists. Entries are evicted least recently used first once their estimated
+ * size exceeds the memory budget; files larger than the budget bypass the cache, and a budget of zero turns
+ * caching off.
+ * </p>
+ */
+public final class MapCache {
+    /** System property holding the memory budget of the shared cache, in bytes. */
+    public static final String BUDGET_PROPERTY = "warzone.map.cache.bytes";
+    /** Memory budget of the shared cache when the property is not set. */
+    public static final long DEFAULT_BUDGET = 64L << 20;
+
+    /** Size of the buffer a cached file is hashed through. */
+    private static final int CHECKSUM_BUFFER_SIZE = 1 << 16;
+
+    /** The cache shared by the whole process. */
+    private static final MapCache SHARED = new MapCache(Long.getLong(BUDGET_PROPERTY, DEFAULT_BUDGET));
+
+    /**
+     * A cached file.
+     */
+    private static final class Entry {
+        /** The file size. */
+        final long d_size;
+        /** The last modification time, in milliseconds. */
+        final long d_modifiedTime;
+        /** The CRC32C of the contents. */
+        final long d_hash;
+        /** The parsed map. */
+        final MapTemplate d_template;
+        /** The estimated heap taken by the template. */
+        final long d_bytes;
+
+        /**
+         * Creates an entry.
+         *
+         * @param p_size         the file size
+         * @param p_modifiedTime the last modification time, in milliseconds
+         * @param p_hash         the CRC32C of the contents
+         * @param p_template     the parsed map
+         */
+        Entry(long p_size, long p_modifiedTime, long p_hash, MapTemplate p_template) {
+            d_size = p_size;
+            d_modifiedTime = p_modifiedTime;
+            d_hash = p_hash;
+            d_template = p_template;
+            d_bytes = p_template.estimateBytes();
+        }
+    }
+
+    /** Memory budget in bytes. */
+    private final long d_budget;
+    /** Cached files by absolute path, least recently used first. */
+    private final LinkedHashMap<Path, Entry> d_entries = new LinkedHashMap<>(16, 0.75f, true);
+    /** Estimated heap taken by all entries. */
+    private long d_bytes;
+    /** Number of loads served from the cache. */
+    private long d_hits;
+    /** Number of loads that had to parse the file. */
+    private long d_misses;
+
+    /**
+     * Creates a cache.
+     *
+     * @param p_budget the memory budget in bytes; zero or less disables caching
+     */
+    public MapCache(long p_budget) {
+        this.d_budget = p_budget;
+    }
+
+    /**
+     * Gets the cache shared by the whole process, sized by {@link #BUDGET_PROPERTY}.
+     *
+     * @return the shared cache
+     */
+    public static MapCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Checks whether the cache keeps anything.
+     *
+     * @return true if the budget is positive
+     */
+    public boolean isEnabled() {
+        return d_budget > 0;
+    }
+
+    /**
+     * Loads a map file, in the binary format if its name ends in {@link BinaryMapFormat#EXTENSION} and as
+     * text otherwise, and stores a private copy of its continents and countries in the given map. The map
+     * is marked as validated if the file describes a valid map.
+     * <p>
+     * The file is never held in memory as a whole: text is parsed through the streaming reader and binary
+     * files are memory-mapped, with the hash computed along the way. A file larger than the budget could
+     * not be kept anyway, so it is parsed without hashing and without touching the cache.
+     * </p>
+     *
+     * @param p_file the file
+     * @param p_map  the map to fill
+     * @return false if the file was empty, in which case the map is left untouched
+     * @throws IOException if the file cannot be read or is a corrupted binary map
+     */
+    public boolean load(Path p_file, Map p_map) throws IOException {
+        Path l_path = p_file.toAbsolutePath().normalize();
+        long l_size = Files.size(l_path);
+        long l_modifiedTime = Files.getLastModifiedTime(l_path).toMillis();
+        boolean l_binary = BinaryMapFormat.isBinary(l_path.getFileName().toString());
+
+        if (!isEnabled() || l_size > d_budget) {
+            countMiss();
+            return l_binary ? BinaryMapFormat.read(map(l_path), p_map) : parse(l_path, p_map, null);
+        }
+
+        Entry l_cached = candidate(l_path, l_size, l_modifiedTime);
+        if (l_cached != null && checksum(l_path) == l_cached.d_hash) {
+            countHit();
+            l_cached.d_template.copyInto(p_map);
+            return true;
+        }
+        countMiss();
+
+        CRC32C l_crc = new CRC32C();
+        MapTemplate l_template = null;
+        if (l_binary) {
+            ByteBuffer l_bytes = map(l_path);
+            l_crc.update(l_bytes.duplicate());
+            l_template = BinaryMapFormat.readTemplate(l_bytes);
+            if (l_template == null) {
+                return false;
+            }
+            l_template.copyInto(p_map);
+        } else if (!parse(l_path, p_map, l_crc)) {
+            return false;
+        }
+        boolean l_valid = p_map.d_validated || p_map.getConnectivity().isValid();
+        p_map.d_validated = l_valid;
+        if (l_template == null || l_template.d_validated != l_valid) {
+            l_template = MapTemplate.of(p_map, l_valid);
+        }
+        store(l_path, new Entry(l_size, l_modifiedTime, l_crc.getValue(), l_template));
+        return true;
+    }
+
+    /**
+     * Parses a text map file through the streaming reader.
+     *
+     * @param p_path the file
+     * @param p_map  the map to fill
+     * @param p_crc  the checksum to update with the file contents, or null
+     * @return false if the file was empty
+     * @throws IOException if the file cannot be read
+     */
+    private static boolean parse(Path p_path, Map p_map, CRC32C p_crc) throws IOException {
+        try (InputStream l_input = Files.newInputStream(p_path)) {
+            if (p_crc == null) {
+                return new MapFileParser().parse(l_input, p_map);
+            }
+            return new MapFileParser().parse(new CheckedInputStream(l_input, p_crc), p_map);
+        }
+    }
+
+    /**
+     * Memory-maps the whole of a binary map file.
+     *
+     * @param p_path the file
+     * @return the file contents
+     * @throws IOException if the file cannot be mapped
+     */
+    private static ByteBuffer map(Path p_path) throws IOException {
+        try (FileChannel l_channel = FileChannel.open(p_path, StandardOpenOption.READ)) {
+            return l_channel.map(FileChannel.MapMode.READ_ONLY, 0, l_channel.size());
+        }
+    }
+
+    /**
+     * Computes the CRC32C of a file through a fixed-size buffer.
+     *
+     * @param p_path the file
+     * @return the checksum
+     * @throws IOException if the file cannot be read
+     */
+    private static long checksum(Path p_path) throws IOException {
+        CRC32C l_crc = new CRC32C();
+        byte[] l_buffer = new byte[CHECKSUM_BUFFER_SIZE];
+        try (InputStream l_input = Files.newInputStream(p_path)) {
+            int l_read;
+            while ((l_read = l_input.read(l_buffer)) >= 0) {
+                l_crc.update(l_buffer, 0, l_read);
+            }
+        }
+        return l_crc.getValue();
+    }
+
+    /**
+     * Finds the entry of a file whose size and modification time have not changed. Its hash still has to
+     * be checked against the file.
+     *
+     * @param p_path         the absolute path
+     * @param p_size         the file size
+     * @param p_modifiedTime the last modification time
+     * @return the entry, or null if the file is not cached or has changed
+     */
+    private synchronized Entry candidate(Path p_path, long p_size, long p_modifiedTime) {
+        Entry l_entry = d_entries.get(p_path);
+        if (l_entry != null && l_entry.d_size == p_size && l_entry.d_modifiedTime == p_modifiedTime) {
+            return l_entry;
+        }
+        return null;
+    }
+
+    /**
+     * Counts a load served from the cache.
+     */
+    private synchronized void countHit() {
+        d_hits++;
+    }
+
+    /**
+     * Counts a load that had to parse its file.
+     */
+    private synchronized void countMiss() {
+        d_misses++;
+    }
+
+    /**
+     * Caches a file, replacing any older version of it, then evicts the least recently used entries until
+     * the cache fits its budget. A template larger than the whole budget is not kept.
+     *
+     * @param p_path  the absolute path
+     * @param p_entry the entry
+     */
+    private synchronized void store(Path p_path, Entry p_entry) {
+        Entry l_old = d_entries.remove(p_path);
+        if (l_old != null) {
+            d_bytes -= l_old.d_bytes;
+        }
+        if (p_entry.d_bytes > d_budget) {
+            return;
+        }
+        d_entries.put(p_path, p_entry);
+        d_bytes += p_entry.d_bytes;
+        Iterator<Entry> l_eldest = d_entries.values().iterator();
+        while (d_bytes > d_budget && l_eldest.hasNext()) {
+            d_bytes -= l_eldest.next().d_bytes;
+            l_eldest.remove();
+        }
+    }
+
+    /**
+     * Drops every entry. The counters are kept.
+     */
+    public synchronized void clear() {
+        d_entries.clear();
+        d_bytes = 0;
+    }
+
+    /**
+     * Gets the number of loads served from the cache.
+     *
+     * @return the hit count
+     */
+    public synchronized long getHits() {
+        return d_hits;
+    }
+
+    /**
+     * Gets the number of loads that had to parse their file.
+     *
+     * @return the miss count
+     */
+    public synchronized long getMisses() {
+        return d_misses;
+    }
+
+    /**
+     * Gets the number of cached files.
+     *
+     * @return the entry count
+     */
+    public synchronized int size() {
+        return d_entries.size();
+    }
+
+    /**
+     * Gets the estimated heap taken by the cached maps.
+     *
+     * @return the size in bytes
+     */
+    public synchronized long getBytes() {
+        return d_bytes;
+    }
+}
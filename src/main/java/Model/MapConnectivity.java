@@ -0,0 +1,528 @@
+package Model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Incrementally maintained connectivity of a {@link Map}, used to answer validation queries during map
+ * editing without a full graph search.
+ * <p>
+ * Two union-find forests are kept over the countries: one over all borders, and one over borders whose
+ * ends lie in the same continent, which partitions every continent into its connected parts. Together with
+ * per-continent member and component counts and the number of countries without neighbours, they decide
+ * {@link Map#validateMap()} in constant time.
+ * </p>
+ * <p>
+ * Adding continents, countries and borders is applied in near-constant time. Union-find cannot split
+ * sets, so removals mark the forests dirty: the next query rebuilds the global forest, but only the
+ * partitions of the continents touched by the removal, walking a member list kept per continent. Borders are treated as undirected, which matches the
+ * directed search of {@link MapValidator} only when every border is listed in both directions; if the map
+ * was loaded with one-way borders, {@link #isValid()} never claims the map is valid and the caller falls
+ * back to the full validation.
+ * </p>
+ */
+public class MapConnectivity {
+    /** Slot of each country by country ID. */
+    private final HashMap<Integer, Integer> d_slotByCountryId = new HashMap<>();
+    /** Slot of each continent by continent ID. */
+    private final HashMap<Integer, Integer> d_slotByContinentId = new HashMap<>();
+
+    /** Country in each slot, or null once removed. */
+    private Country[] d_countries = new Country[16];
+    /** Parent links of the global forest. */
+    private int[] d_parent = new int[16];
+    /** Parent links of the per-continent forest. */
+    private int[] d_continentParent = new int[16];
+    /** Number of resolvable neighbours of each country. */
+    private int[] d_degree = new int[16];
+    /** Continent slot of each country, or -1. */
+    private int[] d_continentOfCountry = new int[16];
+    /** Next country slot in the member list of the same continent, or -1. */
+    private int[] d_nextInContinent = new int[16];
+    /** Number of used country slots. */
+    private int d_countrySlots;
+
+    /** Whether each continent slot is still part of the map. */
+    private boolean[] d_continentLive = new boolean[4];
+    /** Number of countries in each continent. */
+    private int[] d_continentMembers = new int[4];
+    /** Number of connected parts of each continent. */
+    private int[] d_continentComponents = new int[4];
+    /** First country slot in the member list of each continent, or -1. Removed countries are unlinked lazily. */
+    private int[] d_continentHead = new int[4];
+    /** Number of used continent slots. */
+    private int d_continentSlots;
+
+    /** Number of countries still in the map. */
+    private int d_liveCountries;
+    /** Number of continents still in the map. */
+    private int d_liveContinents;
+    /** Number of connected components over all countries. */
+    private int d_components;
+    /** Number of countries without neighbours. */
+    private int d_isolated;
+    /** Number of continents without countries. */
+    private int d_emptyContinents;
+    /** Number of continents split into more than one part. */
+    private int d_splitContinents;
+
+    /** Whether every border was listed in both directions when the map was indexed. */
+    private boolean d_symmetric;
+    /** Whether the global forest and degree counts must be rebuilt. */
+    private boolean d_globalDirty;
+    /** Continent slots whose partition must be rebuilt. */
+    private final BitSet d_dirtyContinents = new BitSet();
+
+    /**
+     * Builds the connectivity of a map from its graph.
+     *
+     * @param p_graph the graph of the map
+     */
+    MapConnectivity(MapGraph p_graph) {
+        int l_count = p_graph.countryCount();
+        ensureCountryCapacity(l_count);
+        ensureContinentCapacity(p_graph.continentCount());
+
+        for (int c = 0; c < p_graph.continentCount(); c++) {
+            d_slotByContinentId.putIfAbsent(p_graph.continentAt(c).getD_continentID(), c);
+            d_continentLive[c] = true;
+            d_continentMembers[c] = p_graph.continentSize(c);
+            d_continentComponents[c] = p_graph.continentSize(c);
+            d_continentHead[c] = -1;
+        }
+        d_continentSlots = p_graph.continentCount();
+        d_liveContinents = d_continentSlots;
+
+        for (int i = 0; i < l_count; i++) {
+            d_slotByCountryId.putIfAbsent(p_graph.countryIdAt(i), i);
+            d_countries[i] = p_graph.countryAt(i);
+            d_parent[i] = i;
+            d_continentParent[i] = i;
+            d_degree[i] = p_graph.degree(i);
+            d_continentOfCountry[i] = p_graph.continentOf(i);
+            linkMember(i);
+            if (d_degree[i] == 0) {
+                d_isolated++;
+            }
+        }
+        d_countrySlots = l_count;
+        d_liveCountries = l_count;
+        d_components = l_count;
+
+        for (int i = 0; i < l_count; i++) {
+            for (int k = p_graph.neighbourStart(i), l_end = p_graph.neighbourEnd(i); k < l_end; k++) {
+                int l_neighbour = p_graph.neighbourAt(k);
+                if (union(d_parent, i, l_neighbour)) {
+                    d_components--;
+                }
+                int l_continent = d_continentOfCountry[i];
+                if (l_continent >= 0 && l_continent == d_continentOfCountry[l_neighbour] && union(d_continentParent, i, l_neighbour)) {
+                    d_continentComponents[l_continent]--;
+                }
+            }
+        }
+        for (int c = 0; c < d_continentSlots; c++) {
+            countContinent(c, 1);
+        }
+        d_symmetric = isSymmetric(p_graph);
+    }
+
+    /**
+     * Checks whether every border of a graph is listed in both directions.
+     *
+     * @param p_graph the graph
+     * @return true if the borders are symmetric
+     */
+    private static boolean isSymmetric(MapGraph p_graph) {
+        long[] l_edges = new long[p_graph.edgeCount()];
+        int l_edge = 0;
+        for (int i = 0; i < p_graph.countryCount(); i++) {
+            for (int k = p_graph.neighbourStart(i), l_end = p_graph.neighbourEnd(i); k < l_end; k++) {
+                l_edges[l_edge++] = ((long) i << 32) | p_graph.neighbourAt(k);
+            }
+        }
+        Arrays.sort(l_edges);
+        for (long l_key : l_edges) {
+            long l_reverse = ((l_key & 0xFFFFFFFFL) << 32) | (l_key >>> 32);
+            if (Arrays.binarySearch(l_edges, l_reverse) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Answers whether the map is valid, rebuilding the parts invalidated by removals first.
+     *
+     * @return true if the map is known to be valid; false if it is invalid or its borders are one-way
+     */
+    public boolean isValid() {
+        refresh();
+        return d_symmetric && d_liveContinents > 0 && d_liveCountries > 0 && d_isolated == 0
+                && d_emptyContinents == 0 && d_splitContinents == 0 && d_components == 1;
+    }
+
+    /**
+     * Records a continent that was added to the map.
+     *
+     * @param p_continent the new continent
+     */
+    void continentAdded(Continent p_continent) {
+        ensureContinentCapacity(d_continentSlots + 1);
+        int l_slot = d_continentSlots++;
+        d_slotByContinentId.putIfAbsent(p_continent.getD_continentID(), l_slot);
+        d_continentLive[l_slot] = true;
+        d_continentMembers[l_slot] = 0;
+        d_continentComponents[l_slot] = 0;
+        d_continentHead[l_slot] = -1;
+        d_liveContinents++;
+        countContinent(l_slot, 1);
+    }
+
+    /**
+     * Records a country that was added to the map.
+     *
+     * @param p_country the new country, with no neighbours yet
+     */
+    void countryAdded(Country p_country) {
+        ensureCountryCapacity(d_countrySlots + 1);
+        int l_slot = d_countrySlots++;
+        d_slotByCountryId.putIfAbsent(p_country.getD_countryID(), l_slot);
+        d_countries[l_slot] = p_country;
+        d_parent[l_slot] = l_slot;
+        d_continentParent[l_slot] = l_slot;
+        d_degree[l_slot] = 0;
+        d_liveCountries++;
+        d_components++;
+        d_isolated++;
+
+        Integer l_continent = d_slotByContinentId.get(p_country.getD_continentID());
+        int l_continentSlot = (l_continent != null && d_continentLive[l_continent]) ? l_continent : -1;
+        d_continentOfCountry[l_slot] = l_continentSlot;
+        linkMember(l_slot);
+        if (l_continentSlot >= 0) {
+            countContinent(l_continentSlot, -1);
+            d_continentMembers[l_continentSlot]++;
+            d_continentComponents[l_continentSlot]++;
+            countContinent(l_continentSlot, 1);
+        }
+    }
+
+    /**
+     * Records a border that was added in both directions between two countries.
+     *
+     * @param p_country   the first country
+     * @param p_neighbour the second country
+     */
+    void neighbourAdded(Country p_country, Country p_neighbour) {
+        Integer l_first = d_slotByCountryId.get(p_country.getD_countryID());
+        Integer l_second = d_slotByCountryId.get(p_neighbour.getD_countryID());
+        if (l_first == null || l_second == null) {
+            d_globalDirty = true;
+            return;
+        }
+        updateDegree(l_first);
+        updateDegree(l_second);
+        // The global forest is rebuilt from every border on the next query; the continent forest may still
+        // be clean and has to take the border now.
+        if (!d_globalDirty && union(d_parent, l_first, l_second)) {
+            d_components--;
+        }
+        int l_continent = d_continentOfCountry[l_first];
+        if (l_continent >= 0 && l_continent == d_continentOfCountry[l_second] && !d_dirtyContinents.get(l_continent)) {
+            if (find(d_continentParent, l_first) != find(d_continentParent, l_second)) {
+                countContinent(l_continent, -1);
+                union(d_continentParent, l_first, l_second);
+                d_continentComponents[l_continent]--;
+                countContinent(l_continent, 1);
+            }
+        }
+    }
+
+    /**
+     * Records a border that was removed in both directions between two countries.
+     *
+     * @param p_country   the first country
+     * @param p_neighbour the second country
+     */
+    void neighbourRemoved(Country p_country, Country p_neighbour) {
+        d_globalDirty = true;
+        Integer l_first = d_slotByCountryId.get(p_country.getD_countryID());
+        Integer l_second = d_slotByCountryId.get(p_neighbour.getD_countryID());
+        if (l_first != null && l_second != null) {
+            int l_continent = d_continentOfCountry[l_first];
+            if (l_continent >= 0 && l_continent == d_continentOfCountry[l_second]) {
+                d_dirtyContinents.set(l_continent);
+            }
+        }
+    }
+
+    /**
+     * Records a country that was removed from the map, together with its borders.
+     *
+     * @param p_country the removed country
+     */
+    void countryRemoved(Country p_country) {
+        Integer l_slot = d_slotByCountryId.get(p_country.getD_countryID());
+        if (l_slot == null || d_countries[l_slot] != p_country) {
+            d_globalDirty = true;
+            return;
+        }
+        retireCountry(l_slot);
+        d_globalDirty = true;
+    }
+
+    /**
+     * Records a continent that was removed from the map, together with its countries.
+     *
+     * @param p_continent the removed continent
+     * @param p_countries the countries that belonged to it
+     */
+    void continentRemoved(Continent p_continent, List<Country> p_countries) {
+        if (p_countries != null) {
+            for (Country l_country : p_countries) {
+                countryRemoved(l_country);
+            }
+        }
+        Integer l_slot = d_slotByContinentId.get(p_continent.getD_continentID());
+        if (l_slot != null && d_continentLive[l_slot]) {
+            countContinent(l_slot, -1);
+            d_continentLive[l_slot] = false;
+            d_slotByContinentId.remove(p_continent.getD_continentID());
+            d_dirtyContinents.clear(l_slot);
+            d_liveContinents--;
+        }
+        d_globalDirty = true;
+    }
+
+    /**
+     * Takes a country out of the slots and its continent's counts.
+     *
+     * @param p_slot the country slot
+     */
+    private void retireCountry(int p_slot) {
+        d_slotByCountryId.remove(d_countries[p_slot].getD_countryID());
+        d_countries[p_slot] = null;
+        d_liveCountries--;
+        int l_continent = d_continentOfCountry[p_slot];
+        if (l_continent >= 0 && d_continentLive[l_continent]) {
+            countContinent(l_continent, -1);
+            d_continentMembers[l_continent]--;
+            countContinent(l_continent, 1);
+            d_dirtyContinents.set(l_continent);
+        }
+        d_continentOfCountry[p_slot] = -1;
+    }
+
+    /**
+     * Rebuilds whatever the removals since the last query invalidated.
+     */
+    private void refresh() {
+        if (d_globalDirty) {
+            d_components = 0;
+            d_isolated = 0;
+            for (int i = 0; i < d_countrySlots; i++) {
+                d_parent[i] = i;
+                if (d_countries[i] != null) {
+                    d_components++;
+                    d_degree[i] = countDegree(i);
+                    if (d_degree[i] == 0) {
+                        d_isolated++;
+                    }
+                }
+            }
+            for (int i = 0; i < d_countrySlots; i++) {
+                if (d_countries[i] == null) {
+                    continue;
+                }
+                for (Integer l_neighbourId : d_countries[i].getD_neighbouringCountriesId()) {
+                    Integer l_neighbour = l_neighbourId == null ? null : d_slotByCountryId.get(l_neighbourId);
+                    if (l_neighbour != null && union(d_parent, i, l_neighbour)) {
+                        d_components--;
+                    }
+                }
+            }
+            d_globalDirty = false;
+        }
+        for (int c = d_dirtyContinents.nextSetBit(0); c >= 0; c = d_dirtyContinents.nextSetBit(c + 1)) {
+            rebuildContinent(c);
+        }
+        d_dirtyContinents.clear();
+    }
+
+    /**
+     * Rebuilds the partition of one continent from the borders of its countries, walking only its member
+     * list and unlinking the countries that have left it.
+     *
+     * @param p_continent the continent slot
+     */
+    private void rebuildContinent(int p_continent) {
+        if (!d_continentLive[p_continent]) {
+            return;
+        }
+        countContinent(p_continent, -1);
+        int l_components = 0;
+        int l_previous = -1;
+        for (int i = d_continentHead[p_continent]; i >= 0; i = d_nextInContinent[i]) {
+            if (d_countries[i] == null || d_continentOfCountry[i] != p_continent) {
+                if (l_previous < 0) {
+                    d_continentHead[p_continent] = d_nextInContinent[i];
+                } else {
+                    d_nextInContinent[l_previous] = d_nextInContinent[i];
+                }
+                continue;
+            }
+            d_continentParent[i] = i;
+            l_components++;
+            l_previous = i;
+        }
+        for (int i = d_continentHead[p_continent]; i >= 0; i = d_nextInContinent[i]) {
+            for (Integer l_neighbourId : d_countries[i].getD_neighbouringCountriesId()) {
+                Integer l_neighbour = l_neighbourId == null ? null : d_slotByCountryId.get(l_neighbourId);
+                if (l_neighbour != null && d_continentOfCountry[l_neighbour] == p_continent
+                        && union(d_continentParent, i, l_neighbour)) {
+                    l_components--;
+                }
+            }
+        }
+        d_continentComponents[p_continent] = l_components;
+        countContinent(p_continent, 1);
+    }
+
+    /**
+     * Puts a country at the head of the member list of its continent, if it has one.
+     *
+     * @param p_slot the country slot
+     */
+    private void linkMember(int p_slot) {
+        int l_continent = d_continentOfCountry[p_slot];
+        if (l_continent < 0) {
+            d_nextInContinent[p_slot] = -1;
+            return;
+        }
+        d_nextInContinent[p_slot] = d_continentHead[l_continent];
+        d_continentHead[l_continent] = p_slot;
+    }
+
+    /**
+     * Recounts the resolvable neighbours of a country and updates the number of isolated countries.
+     *
+     * @param p_slot the country slot
+     */
+    private void updateDegree(int p_slot) {
+        int l_degree = countDegree(p_slot);
+        if (d_degree[p_slot] == 0 && l_degree > 0) {
+            d_isolated--;
+        } else if (d_degree[p_slot] > 0 && l_degree == 0) {
+            d_isolated++;
+        }
+        d_degree[p_slot] = l_degree;
+    }
+
+    /**
+     * Counts the neighbours of a country that are still in the map.
+     *
+     * @param p_slot the country slot
+     * @return the number of neighbours
+     */
+    private int countDegree(int p_slot) {
+        int l_degree = 0;
+        for (Integer l_neighbourId : d_countries[p_slot].getD_neighbouringCountriesId()) {
+            if (l_neighbourId != null && d_slotByCountryId.containsKey(l_neighbourId)) {
+                l_degree++;
+            }
+        }
+        return l_degree;
+    }
+
+    /**
+     * Adds or removes a continent's contribution to the empty and split continent counts.
+     *
+     * @param p_continent the continent slot
+     * @param p_sign      1 to add the contribution, -1 to remove it
+     */
+    private void countContinent(int p_continent, int p_sign) {
+        if (!d_continentLive[p_continent]) {
+            return;
+        }
+        if (d_continentMembers[p_continent] == 0) {
+            d_emptyContinents += p_sign;
+        } else if (d_continentComponents[p_continent] > 1) {
+            d_splitContinents += p_sign;
+        }
+    }
+
+    /**
+     * Finds the root of a set, halving the path on the way.
+     *
+     * @param p_parent the forest
+     * @param p_slot   the country slot
+     * @return the root slot
+     */
+    private static int find(int[] p_parent, int p_slot) {
+        while (p_parent[p_slot] != p_slot) {
+            p_parent[p_slot] = p_parent[p_parent[p_slot]];
+            p_slot = p_parent[p_slot];
+        }
+        return p_slot;
+    }
+
+    /**
+     * Merges the sets of two countries.
+     *
+     * @param p_parent the forest
+     * @param p_first  the first country slot
+     * @param p_second the second country slot
+     * @return true if the countries were in different sets
+     */
+    private static boolean union(int[] p_parent, int p_first, int p_second) {
+        int l_first = find(p_parent, p_first);
+        int l_second = find(p_parent, p_second);
+        if (l_first == l_second) {
+            return false;
+        }
+        // Attach the higher root under the lower one; path halving keeps the trees shallow.
+        if (l_first < l_second) {
+            p_parent[l_second] = l_first;
+        } else {
+            p_parent[l_first] = l_second;
+        }
+        return true;
+    }
+
+    /**
+     * Grows the country arrays.
+     *
+     * @param p_capacity the required number of slots
+     */
+    private void ensureCountryCapacity(int p_capacity) {
+        if (p_capacity <= d_countries.length) {
+            return;
+        }
+        int l_capacity = Math.max(p_capacity, d_countries.length * 2);
+        d_countries = Arrays.copyOf(d_countries, l_capacity);
+        d_parent = Arrays.copyOf(d_parent, l_capacity);
+        d_continentParent = Arrays.copyOf(d_continentParent, l_capacity);
+        d_degree = Arrays.copyOf(d_degree, l_capacity);
+        d_continentOfCountry = Arrays.copyOf(d_continentOfCountry, l_capacity);
+        d_nextInContinent = Arrays.copyOf(d_nextInContinent, l_capacity);
+    }
+
+    /**
+     * Grows the continent arrays.
+     *
+     * @param p_capacity the required number of slots
+     */
+    private void ensureContinentCapacity(int p_capacity) {
+        if (p_capacity <= d_continentLive.length) {
+            return;
+        }
+        int l_capacity = Math.max(p_capacity, d_continentLive.length * 2);
+        d_continentLive = Arrays.copyOf(d_continentLive, l_capacity);
+        d_continentMembers = Arrays.copyOf(d_continentMembers, l_capacity);
+        d_continentComponents = Arrays.copyOf(d_continentComponents, l_capacity);
+        d_continentHead = Arrays.copyOf(d_continentHead, l_capacity);
+    }
+}
@@ -0,0 +1,232 @@
+package Model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of the edits saved on top of a map file, kept next to it with the suffix {@link #SUFFIX}.
+ * <p>
+ * The log starts with a header naming the size and modification time of the map file it applies to. Each
+ * save then appends one batch holding the {@link MapJournal} records made since the previous save, with a
+ * record count and a CRC32. Loading the map replays the batches on top of the file. A log that no longer
+ * matches its map file, for instance because the file was rewritten in full, is ignored, and a batch cut
+ * short by a crash ends the replay; in both cases the next save rewrites the whole file and drops the log.
+ * </p>
+ */
+public final class MapDeltaLog {
+    /** Suffix added to the map file name to get the name of its log. */
+    public static final String SUFFIX = ".delta";
+
+    /** Magic number at the start of every log: "WZMD". */
+    private static final int MAGIC = 0x575A4D44;
+    /** Current log version. */
+    private static final int VERSION = 1;
+    /** Size of the header: magic, version, map file size and modification time. */
+    private static final int HEADER_SIZE = 24;
+
+    private MapDeltaLog() {
+    }
+
+    /**
+     * Gets the log of a map file.
+     *
+     * @param p_file the map file
+     * @return the log file, which may not exist
+     */
+    public static Path deltaFile(Path p_file) {
+        return p_file.resolveSibling(p_file.getFileName() + SUFFIX);
+    }
+
+    /**
+     * Gets the size of a file.
+     *
+     * @param p_file the file
+     * @return its size, or zero if it does not exist
+     * @throws IOException if the size cannot be read
+     */
+    static long sizeOf(Path p_file) throws IOException {
+        try {
+            return Files.size(p_file);
+        } catch (NoSuchFileException l_e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Appends the journal records as one batch, creating the log if needed, and forces it to disk.
+     *
+     * @param p_delta        the log file
+     * @param p_journal      the records to append
+     * @param p_fileSize     the size of the map file
+     * @param p_fileModified the modification time of the map file
+     * @return the new size of the log
+     * @throws IOException if writing fails
+     */
+    static long append(Path p_delta, MapJournal p_journal, long p_fileSize, long p_fileModified) throws IOException {
+        byte[] l_records = p_journal.toByteArray();
+        CRC32 l_crc = new CRC32();
+        l_crc.update(l_records);
+        try (FileChannel l_channel = FileChannel.open(p_delta, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            boolean l_new = l_channel.size() == 0;
+            ByteBuffer l_batch = ByteBuffer.allocate((l_new ? HEADER_SIZE : 0) + 8 + l_records.length + 8);
+            if (l_new) {
+                l_batch.putInt(MAGIC).putInt(VERSION).putLong(p_fileSize).putLong(p_fileModified);
+            }
+            l_batch.putInt(l_records.length).putInt(p_journal.size()).put(l_records).putLong(l_crc.getValue());
+            l_batch.flip();
+            while (l_batch.hasRemaining()) {
+                l_channel.write(l_batch);
+            }
+            l_channel.force(false);
+            return l_channel.size();
+        }
+    }
+
+    /**
+     * Replays the log of a map file on a map just loaded from that file, and puts the map's journal in step
+     * with the two files.
+     *
+     * @param p_file the map file the map was loaded from
+     * @param p_map  the loaded map
+     * @return the number of records replayed
+     * @throws IOException if the files cannot be read
+     */
+    public static int apply(Path p_file, Map p_map) throws IOException {
+        Path l_file = p_file.toAbsolutePath();
+        BasicFileAttributes l_attributes = Files.readAttributes(l_file, BasicFileAttributes.class);
+        long l_fileSize = l_attributes.size();
+        long l_fileModified = l_attributes.lastModifiedTime().toMillis();
+        Path l_delta = deltaFile(l_file);
+        p_map.d_journal.clear();
+        if (!Files.exists(l_delta)) {
+            p_map.d_journal.synced(l_file, l_fileSize, l_fileModified, 0);
+            return 0;
+        }
+
+        ByteBuffer l_in = ByteBuffer.wrap(Files.readAllBytes(l_delta));
+        if (l_in.remaining() < HEADER_SIZE || l_in.getInt() != MAGIC || l_in.getInt() != VERSION
+                || l_in.getLong() != l_fileSize || l_in.getLong() != l_fileModified) {
+            p_map.d_output.println("Ignoring out-of-date edit log " + l_delta.getFileName() + ".");
+            p_map.d_journal.detach();
+            return 0;
+        }
+        int l_replayed = 0;
+        while (l_in.remaining() >= 8) {
+            int l_length = l_in.getInt();
+            int l_count = l_in.getInt();
+            if (l_length < 0 || l_in.remaining() < (long) l_length + 8) {
+                break;
+            }
+            ByteBuffer l_records = l_in.slice(l_in.position(), l_length);
+            CRC32 l_crc = new CRC32();
+            l_crc.update(l_records.duplicate());
+            l_in.position(l_in.position() + l_length);
+            if (l_in.getLong() != l_crc.getValue()) {
+                break;
+            }
+            for (int i = 0; i < l_count; i++) {
+                replay(l_records, p_map);
+            }
+            l_replayed += l_count;
+        }
+        p_map.d_journal.clear();
+        if (l_in.hasRemaining()) {
+            // A batch was cut short; the next save rewrites the file rather than appending after it.
+            p_map.d_journal.detach();
+        } else {
+            p_map.d_journal.synced(l_file, l_fileSize, l_fileModified, l_in.capacity());
+        }
+        return l_replayed;
+    }
+
+    /**
+     * Replays one record. Records that no longer apply, such as the removal of an unknown country, are
+     * skipped like the edit commands skip them.
+     *
+     * @param p_records the records, positioned at the one to replay
+     * @param p_map     the map
+     * @throws IOException if the record is of an unknown kind
+     */
+    private static void replay(ByteBuffer p_records, Map p_map) throws IOException {
+        int l_operation = p_records.get();
+        switch (l_operation) {
+            case MapJournal.CONTINENT_ADDED: {
+                String l_name = readString(p_records);
+                int l_value = p_records.getInt();
+                if (p_map.getContinentByName(l_name) == null) {
+                    p_map.insertContinent(p_map.getMaxContinentID() + 1, l_name, l_value);
+                }
+                break;
+            }
+            case MapJournal.CONTINENT_REMOVED: {
+                Continent l_continent = p_map.getContinentByName(readString(p_records));
+                if (l_continent != null) {
+                    p_map.deleteContinent(l_continent);
+                }
+                break;
+            }
+            case MapJournal.COUNTRY_ADDED: {
+                int l_id = p_records.getInt();
+                String l_name = readString(p_records);
+                Continent l_continent = p_map.getContinentByName(readString(p_records));
+                if (l_continent != null && p_map.getCountryById(l_id) == null) {
+                    p_map.insertCountry(l_id, l_name, l_continent.getD_continentID());
+                }
+                break;
+            }
+            case MapJournal.COUNTRY_REMOVED: {
+                Country l_country = p_map.getCountryById(p_records.getInt());
+                if (l_country != null) {
+                    p_map.deleteCountry(l_country);
+                }
+                break;
+            }
+            case MapJournal.NEIGHBOUR_ADDED:
+            case MapJournal.NEIGHBOUR_REMOVED: {
+                Country l_country = p_map.getCountryById(p_records.getInt());
+                Country l_neighbour = p_map.getCountryById(p_records.getInt());
+                if (l_country != null && l_neighbour != null) {
+                    if (l_operation == MapJournal.NEIGHBOUR_ADDED) {
+                        p_map.link(l_country, l_neighbour);
+                    } else {
+                        p_map.unlink(l_country, l_neighbour);
+                    }
+                }
+                break;
+            }
+            default:
+                throw new IOException("Unknown edit record " + l_operation + ".");
+        }
+    }
+
+    /**
+     * Reads a length-prefixed UTF-8 string.
+     *
+     * @param p_records the records
+     * @return the string
+     */
+    private static String readString(ByteBuffer p_records) {
+        byte[] l_bytes = new byte[p_records.getInt()];
+        p_records.get(l_bytes);
+        return new String(l_bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Deletes the log of a map file, if there is one.
+     *
+     * @param p_file the map file
+     * @throws IOException if the log cannot be deleted
+     */
+    static void delete(Path p_file) throws IOException {
+        Files.deleteIfExists(deltaFile(p_file));
+    }
+}
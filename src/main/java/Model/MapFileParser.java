@@ -0,0 +1,467 @@
+package Model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Single-pass streaming reader for the text {@code .map} format.
+ * <p>
+ * The input is read once through a fixed-size byte buffer. A small state machine switches on the
+ * {@code [Continents]}, {@code [Countries]} and {@code [Borders]} headers, and each line is tokenised in
+ * place: numbers are parsed straight from the bytes and only continent and country names become strings.
+ * Borders are collected into int arrays and turned into the map's {@link MapGraph} directly, so no line
+ * list, substring or boxed neighbour ID is created. Extra memory is bounded by the longest line plus the
+ * int arrays holding the borders.
+ * </p>
+ * <p>
+ * The rules of the original line-based loader are kept: continents get positional IDs starting at 1;
+ * continent lines need a name and a bonus and country lines an ID, a name and a continent ID, with further
+ * tokens ignored; a line with a malformed number is skipped; and if a country has several border lines the
+ * last one wins. Tokens are separated by runs of spaces or tabs.
+ * </p>
+ * <p>
+ * {@link #parseMapped(Path, Map)} maps the file with {@link FileChannel#map} and parses it in place, with no
+ * read buffer at all. Country names are then not decoded while loading: each country remembers where its
+ * name lies in the mapping and decodes it the first time it is asked for, so a large map costs neither the
+ * time nor the heap of hundreds of thousands of name strings until a view or command needs them.
+ * </p>
+ * <p>
+ * When the whole file is in memory, a large {@code [Borders]} section is cut into newline-aligned chunks
+ * that are parsed in parallel into their own int arrays and then joined in file order, which gives exactly
+ * the records of a sequential pass.
+ * </p>
+ */
+public final class MapFileParser {
+    /** Initial size of the read buffer; it only grows for lines longer than this. */
+    private static final int BUFFER_SIZE = 1 << 16;
+    /** Smallest chunk of the borders section worth a task of its own. */
+    static final int MIN_CHUNK_SIZE = 1 << 18;
+
+    /** Section header of the continents. */
+    private static final byte[] CONTINENTS = "[Continents]".getBytes(StandardCharsets.US_ASCII);
+    /** Section header of the countries. */
+    private static final byte[] COUNTRIES = "[Countries]".getBytes(StandardCharsets.US_ASCII);
+    /** Section header of the borders. */
+    private static final byte[] BORDERS = "[Borders]".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * The section the parser is in.
+     */
+    private enum Section {
+        /** Before the first header or after an unknown one. */
+        NONE,
+        /** In the continents section. */
+        CONTINENTS,
+        /** In the countries section. */
+        COUNTRIES,
+        /** In the borders section. */
+        BORDERS
+    }
+
+    /** Pool parsing border chunks of in-memory files, or null to parse them on the calling thread. */
+    private final ForkJoinPool d_pool;
+    /** The read buffer of the streaming mode. */
+    private byte[] d_buffer;
+    /** Tokenizer over the bytes being parsed: the read buffer, or the whole file. */
+    private MapLineTokenizer d_tokenizer;
+    /** Undecoded country names of a mapped file, or null when names are decoded eagerly. */
+    private MappedNames d_names;
+    /** The current section. */
+    private Section d_section = Section.NONE;
+
+    /** Continents in file order. */
+    private final List<Continent> d_continents = new ArrayList<>();
+    /** Countries in file order. */
+    private final List<Country> d_countries = new ArrayList<>();
+    /** Border lines in file order. */
+    private final BorderRecords d_borders = new BorderRecords();
+
+    /**
+     * Creates a parser that parses large borders sections on the common fork-join pool. A parser reads a
+     * single file.
+     */
+    public MapFileParser() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a parser. A parser reads a single file.
+     *
+     * @param p_pool the pool parsing large borders sections, or null to parse them sequentially
+     */
+    public MapFileParser(ForkJoinPool p_pool) {
+        this.d_pool = p_pool;
+    }
+
+    /**
+     * Reads a map and stores its continents, countries and graph in the given map.
+     *
+     * @param p_input the map file contents; not closed
+     * @param p_map   the map to fill
+     * @return false if the input was empty, in which case the map is left untouched
+     * @throws IOException if reading fails
+     */
+    public boolean parse(InputStream p_input, Map p_map) throws IOException {
+        d_buffer = new byte[BUFFER_SIZE];
+        d_tokenizer = new MapLineTokenizer(ByteBuffer.wrap(d_buffer));
+        int l_start = 0;
+        int l_end = 0;
+        boolean l_empty = true;
+        while (true) {
+            if (l_end == d_buffer.length) {
+                if (l_start == 0) {
+                    d_buffer = Arrays.copyOf(d_buffer, d_buffer.length * 2);
+                    d_tokenizer.setBytes(ByteBuffer.wrap(d_buffer));
+                } else {
+                    System.arraycopy(d_buffer, l_start, d_buffer, 0, l_end - l_start);
+                    l_end -= l_start;
+                    l_start = 0;
+                }
+            }
+            int l_read = p_input.read(d_buffer, l_end, d_buffer.length - l_end);
+            if (l_read < 0) {
+                break;
+            }
+            l_empty &= l_read == 0;
+            int l_scan = l_end;
+            l_end += l_read;
+            for (int i = l_scan; i < l_end; i++) {
+                byte l_byte = d_buffer[i];
+                if (l_byte == '\n' || l_byte == '\r') {
+                    line(l_start, i);
+                    l_start = i + 1;
+                }
+            }
+        }
+        if (l_empty) {
+            return false;
+        }
+        line(l_start, l_end);
+        finish(p_map);
+        return true;
+    }
+
+    /**
+     * Reads a map by memory-mapping the file, leaving country names to be decoded on first use. Files too
+     * large for a single mapping are read in streaming mode instead.
+     *
+     * @param p_file the map file
+     * @param p_map  the map to fill
+     * @return false if the file was empty, in which case the map is left untouched
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public boolean parseMapped(Path p_file, Map p_map) throws IOException {
+        ByteBuffer l_bytes;
+        try (FileChannel l_channel = FileChannel.open(p_file, StandardOpenOption.READ)) {
+            long l_size = l_channel.size();
+            if (l_size == 0) {
+                return false;
+            }
+            if (l_size > Integer.MAX_VALUE) {
+                return parse(Channels.newInputStream(l_channel), p_map);
+            }
+            // The mapping stays valid after the channel is closed.
+            l_bytes = l_channel.map(FileChannel.MapMode.READ_ONLY, 0, l_size);
+        }
+        parseWhole(l_bytes, new MappedNames(l_bytes));
+        finish(p_map);
+        return true;
+    }
+
+    /**
+     * Reads a map held entirely in memory. Names are decoded eagerly.
+     *
+     * @param p_bytes the map file contents
+     * @param p_map   the map to fill
+     * @return false if the input was empty, in which case the map is left untouched
+     */
+    public boolean parse(byte[] p_bytes, Map p_map) {
+        if (p_bytes.length == 0) {
+            return false;
+        }
+        parseWhole(ByteBuffer.wrap(p_bytes), null);
+        finish(p_map);
+        return true;
+    }
+
+    /**
+     * Parses a file that is entirely in one buffer, handing a large borders section to the pool.
+     *
+     * @param p_bytes the file contents
+     * @param p_names the table recording undecoded country names, or null to decode them eagerly
+     */
+    private void parseWhole(ByteBuffer p_bytes, MappedNames p_names) {
+        d_tokenizer = new MapLineTokenizer(p_bytes);
+        d_names = p_names;
+        int l_limit = p_bytes.limit();
+        int l_start = 0;
+        for (int i = 0; i < l_limit; i++) {
+            byte l_byte = p_bytes.get(i);
+            if (l_byte != '\n' && l_byte != '\r') {
+                continue;
+            }
+            line(l_start, i);
+            l_start = i + 1;
+            if (d_section == Section.BORDERS && d_pool != null && d_pool.getParallelism() > 1
+                    && l_limit - l_start >= 2 * MIN_CHUNK_SIZE) {
+                // Resume on the line that ends the borders section, if any.
+                l_start = parseBordersInParallel(p_bytes, l_start, l_limit);
+                i = l_start - 1;
+            }
+        }
+        line(l_start, l_limit);
+    }
+
+    /**
+     * Parses the rest of the borders section in newline-aligned chunks on the pool and appends the records
+     * in file order. A chunk stops at the first section header it meets; the chunks after it are dropped.
+     *
+     * @param p_bytes the file contents
+     * @param p_from  the first byte after the borders header, or after a border line
+     * @param p_limit the end of the file
+     * @return the start of the header ending the section, or the end of the file
+     */
+    private int parseBordersInParallel(ByteBuffer p_bytes, int p_from, int p_limit) {
+        int l_chunkCount = (int) Math.max(1, Math.min(d_pool.getParallelism() * 4L, (p_limit - p_from) / MIN_CHUNK_SIZE));
+        int[] l_bounds = new int[l_chunkCount + 1];
+        l_bounds[0] = p_from;
+        for (int c = 1; c < l_chunkCount; c++) {
+            int l_bound = Math.max(l_bounds[c - 1], (int) (p_from + (long) (p_limit - p_from) * c / l_chunkCount));
+            while (l_bound < p_limit && p_bytes.get(l_bound - 1) != '\n' && p_bytes.get(l_bound - 1) != '\r') {
+                l_bound++;
+            }
+            l_bounds[c] = l_bound;
+        }
+        l_bounds[l_chunkCount] = p_limit;
+
+        List<Callable<BorderChunk>> l_tasks = new ArrayList<>(l_chunkCount);
+        for (int c = 0; c < l_chunkCount; c++) {
+            int l_chunkStart = l_bounds[c];
+            int l_chunkEnd = l_bounds[c + 1];
+            l_tasks.add(() -> new BorderChunk(p_bytes.duplicate(), l_chunkStart, l_chunkEnd));
+        }
+        for (Future<BorderChunk> l_future : d_pool.invokeAll(l_tasks)) {
+            BorderChunk l_chunk = join(l_future);
+            d_borders.append(l_chunk.d_records);
+            if (l_chunk.d_headerAt >= 0) {
+                return l_chunk.d_headerAt;
+            }
+        }
+        return p_limit;
+    }
+
+    /**
+     * Gets the result of a finished chunk task.
+     *
+     * @param p_future the task
+     * @return the parsed chunk
+     */
+    private static BorderChunk join(Future<BorderChunk> p_future) {
+        try {
+            return p_future.get();
+        } catch (InterruptedException l_e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(l_e);
+        } catch (ExecutionException l_e) {
+            throw new IllegalStateException(l_e.getCause());
+        }
+    }
+
+    /**
+     * Border records of one chunk of the borders section.
+     */
+    private static final class BorderChunk {
+        /** The records of the chunk. */
+        final BorderRecords d_records = new BorderRecords();
+        /** Start of the section header that ended the chunk early, or -1. */
+        int d_headerAt = -1;
+
+        /**
+         * Parses the lines of a chunk.
+         *
+         * @param p_bytes the file contents
+         * @param p_start the first byte of the chunk, at the start of a line
+         * @param p_end   the byte after the chunk, at the start of a line or the end of the file
+         */
+        BorderChunk(ByteBuffer p_bytes, int p_start, int p_end) {
+            MapLineTokenizer l_tokenizer = new MapLineTokenizer(p_bytes);
+            int l_start = p_start;
+            for (int i = p_start; i <= p_end; i++) {
+                if (i < p_end && p_bytes.get(i) != '\n' && p_bytes.get(i) != '\r') {
+                    continue;
+                }
+                if (l_start < i && isHeader(l_tokenizer, l_start, i)) {
+                    d_headerAt = l_start;
+                    return;
+                }
+                d_records.line(l_tokenizer, l_start, i);
+                l_start = i + 1;
+            }
+        }
+    }
+
+    /**
+     * Checks whether a line is one of the section headers.
+     *
+     * @param p_tokenizer the tokenizer over the line's buffer
+     * @param p_start     the first byte of the line
+     * @param p_end       the byte after the line
+     * @return true if the line is a section header
+     */
+    private static boolean isHeader(MapLineTokenizer p_tokenizer, int p_start, int p_end) {
+        return p_tokenizer.byteAt(p_start) == '['
+                && (p_tokenizer.matches(p_start, p_end, CONTINENTS) || p_tokenizer.matches(p_start, p_end, COUNTRIES)
+                || p_tokenizer.matches(p_start, p_end, BORDERS));
+    }
+
+    /**
+     * Handles one line of the file.
+     *
+     * @param p_start the first byte of the line
+     * @param p_end   the byte after the line
+     */
+    private void line(int p_start, int p_end) {
+        if (p_start == p_end) {
+            return;
+        }
+        if (d_tokenizer.byteAt(p_start) == '[') {
+            if (d_tokenizer.matches(p_start, p_end, CONTINENTS)) {
+                d_section = Section.CONTINENTS;
+                return;
+            }
+            if (d_tokenizer.matches(p_start, p_end, COUNTRIES)) {
+                d_section = Section.COUNTRIES;
+                return;
+            }
+            if (d_tokenizer.matches(p_start, p_end, BORDERS)) {
+                d_section = Section.BORDERS;
+                return;
+            }
+        }
+        switch (d_section) {
+            case CONTINENTS:
+                continentLine(p_start, p_end);
+                break;
+            case COUNTRIES:
+                countryLine(p_start, p_end);
+                break;
+            case BORDERS:
+                d_borders.line(d_tokenizer, p_start, p_end);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Parses a {@code <name> <bonus>} line.
+     *
+     * @param p_start the first byte of the line
+     * @param p_end   the byte after the line
+     */
+    private void continentLine(int p_start, int p_end) {
+        MapLineTokenizer l_tokens = d_tokenizer;
+        if (!l_tokens.nextToken(p_start, p_end)) {
+            return;
+        }
+        int l_nameStart = l_tokens.d_tokenStart;
+        int l_nameEnd = l_tokens.d_tokenEnd;
+        if (!l_tokens.nextToken(l_tokens.d_tokenEnd, p_end) || !l_tokens.parseToken()) {
+            return;
+        }
+        d_continents.add(new Continent(d_continents.size() + 1, l_tokens.string(l_nameStart, l_nameEnd), l_tokens.d_value));
+    }
+
+    /**
+     * Parses a {@code <id> <name> <continent id>} line.
+     *
+     * @param p_start the first byte of the line
+     * @param p_end   the byte after the line
+     */
+    private void countryLine(int p_start, int p_end) {
+        MapLineTokenizer l_tokens = d_tokenizer;
+        if (!l_tokens.nextToken(p_start, p_end) || !l_tokens.parseToken()) {
+            return;
+        }
+        int l_countryId = l_tokens.d_value;
+        if (!l_tokens.nextToken(l_tokens.d_tokenEnd, p_end)) {
+            return;
+        }
+        int l_nameStart = l_tokens.d_tokenStart;
+        int l_nameEnd = l_tokens.d_tokenEnd;
+        if (!l_tokens.nextToken(l_tokens.d_tokenEnd, p_end) || !l_tokens.parseToken()) {
+            return;
+        }
+        if (d_names == null) {
+            d_countries.add(new Country(l_countryId, l_tokens.string(l_nameStart, l_nameEnd), l_tokens.d_value));
+            return;
+        }
+        Country l_country = new Country(l_countryId, null, l_tokens.d_value);
+        l_country.d_nameSource = d_names;
+        l_country.d_nameIndex = d_names.add(l_nameStart, l_nameEnd);
+        d_countries.add(l_country);
+    }
+
+    /**
+     * Links the parsed records into countries, continents and a graph, and stores them in the map.
+     *
+     * @param p_map the map to fill
+     */
+    private void finish(Map p_map) {
+        Country[] l_countries = d_countries.toArray(new Country[0]);
+        Continent[] l_continents = d_continents.toArray(new Continent[0]);
+        int l_countryCount = l_countries.length;
+
+        // The graph's ID table is only needed to find each country's last border line.
+        int[] l_noContinent = new int[l_countryCount];
+        Arrays.fill(l_noContinent, -1);
+        MapGraph l_lookup = MapGraph.fromIds(l_countries, new int[0], new int[l_countryCount + 1], new Continent[0], l_noContinent);
+        int[] l_recordOf = new int[l_countryCount];
+        Arrays.fill(l_recordOf, -1);
+        for (int l_record = 0; l_record < d_borders.size(); l_record++) {
+            int l_index = l_lookup.indexOf(d_borders.owner(l_record));
+            if (l_index >= 0) {
+                l_recordOf[l_index] = l_record;
+            }
+        }
+
+        int[] l_idOffsets = new int[l_countryCount + 1];
+        for (int i = 0; i < l_countryCount; i++) {
+            int l_record = l_recordOf[l_lookup.indexOf(l_countries[i].getD_countryID())];
+            l_idOffsets[i + 1] = l_idOffsets[i] + (l_record < 0 ? 0 : d_borders.end(l_record) - d_borders.start(l_record));
+        }
+        int[] l_neighbourIds = new int[l_idOffsets[l_countryCount]];
+        int[] l_continentOfCountry = new int[l_countryCount];
+        for (int i = 0; i < l_countryCount; i++) {
+            int l_record = l_recordOf[l_lookup.indexOf(l_countries[i].getD_countryID())];
+            if (l_record >= 0) {
+                System.arraycopy(d_borders.ids(), d_borders.start(l_record), l_neighbourIds, l_idOffsets[i], l_idOffsets[i + 1] - l_idOffsets[i]);
+            }
+            l_countries[i].setD_neighbouringCountriesId(new NeighbourList(l_neighbourIds, l_idOffsets[i], l_idOffsets[i + 1]));
+
+            int l_continentId = l_countries[i].getD_continentID();
+            l_continentOfCountry[i] = (l_continentId >= 1 && l_continentId <= l_continents.length) ? l_continentId - 1 : -1;
+            if (l_continentOfCountry[i] >= 0) {
+                l_continents[l_continentOfCountry[i]].setCountry(l_countries[i]);
+            }
+        }
+
+        MapGraph l_graph = MapGraph.fromIds(l_countries, l_neighbourIds, l_idOffsets, l_continents, l_continentOfCountry);
+        p_map.setD_mapContinents(d_continents);
+        p_map.setD_mapCountries(d_countries);
+        p_map.d_graph = l_graph;
+    }
+}
@@ -0,0 +1,498 @@
+package Model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Writer for map files, the counterpart of {@link MapFileParser}.
+ * <p>
+ * The text format is encoded straight into a reusable direct buffer that is handed to the file channel
+ * whenever it fills up: numbers are written digit by digit and ASCII names char by char, so saving a map
+ * creates no string or byte array per line. Every file is first written to a temporary file next to the
+ * target, forced to disk and then renamed over the target, so a failed or interrupted save leaves the
+ * previous file intact rather than a truncated one.
+ * </p>
+ * <p>
+ * {@link #save(Map, Path, boolean)} is incremental: when the map was loaded from or last saved to the same
+ * file and neither the file nor its {@link MapDeltaLog} changed since, only the edits in the map's journal are
+ * appended to the log. The whole file is rewritten once the log outgrows a quarter of the map file, and
+ * {@link #compact(Map, Path)} folds the log back into the file when editing is over.
+ * </p>
+ * <p>
+ * A writer reuses its buffer across saves and must not be shared between threads.
+ * </p>
+ */
+public final class MapFileWriter {
+    /** Size of the write buffer. */
+    private static final int BUFFER_SIZE = 1 << 16;
+    /** Size an edit log may always reach before a save rewrites the map file instead. */
+    private static final long MIN_DELTA_BUDGET = 1 << 16;
+
+    /** Section header of the continents. */
+    private static final byte[] CONTINENTS = "[Continents]".getBytes(StandardCharsets.US_ASCII);
+    /** Section header of the countries. */
+    private static final byte[] COUNTRIES = "[Countries]".getBytes(StandardCharsets.US_ASCII);
+    /** Section header of the borders. */
+    private static final byte[] BORDERS = "[Borders]".getBytes(StandardCharsets.US_ASCII);
+    /** Line separator of the platform, as written by earlier versions. */
+    private static final byte[] NEW_LINE = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    /** Digits of {@link Integer#MIN_VALUE}, which has no positive counterpart. */
+    private static final byte[] MIN_VALUE_DIGITS = "2147483648".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Writes the body of a file to a channel.
+     */
+    @FunctionalInterface
+    private interface Body {
+        /**
+         * Writes the contents.
+         *
+         * @param p_channel the channel of the temporary file
+         * @throws IOException if writing fails
+         */
+        void write(FileChannel p_channel) throws IOException;
+    }
+
+    /** The write buffer. */
+    private final ByteBuffer d_buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    /** Scratch space for the digits of a number, written backwards. */
+    private final byte[] d_digits = new byte[10];
+    /** The channel being written. */
+    private WritableByteChannel d_channel;
+
+    /**
+     * Saves a map, appending its unsaved edits to the edit log of the file if the file holds the map as it
+     * was before those edits, and otherwise rewriting the file in the format chosen by its extension.
+     *
+     * @param p_map       the map
+     * @param p_file      the file
+     * @param p_validated whether the map is known to be valid, recorded by the binary format
+     * @throws IOException if writing fails; the files are then left as they were
+     */
+    public void save(Map p_map, Path p_file, boolean p_validated) throws IOException {
+        Path l_file = p_file.toAbsolutePath();
+        MapJournal l_journal = p_map.d_journal;
+        if (Files.exists(l_file)) {
+            BasicFileAttributes l_attributes = Files.readAttributes(l_file, BasicFileAttributes.class);
+            long l_fileSize = l_attributes.size();
+            long l_fileModified = l_attributes.lastModifiedTime().toMillis();
+            Path l_delta = MapDeltaLog.deltaFile(l_file);
+            long l_deltaSize = MapDeltaLog.sizeOf(l_delta);
+            if (l_journal.isSyncedWith(l_file, l_fileSize, l_fileModified, l_deltaSize)) {
+                if (l_journal.isEmpty()) {
+                    return;
+                }
+                if (l_deltaSize + l_journal.byteSize() <= Math.max(l_fileSize / 4, MIN_DELTA_BUDGET)) {
+                    long l_newDeltaSize = MapDeltaLog.append(l_delta, l_journal, l_fileSize, l_fileModified);
+                    l_journal.clear();
+                    l_journal.synced(l_file, l_fileSize, l_fileModified, l_newDeltaSize);
+                    return;
+                }
+            }
+        }
+        rewrite(p_map, l_file, p_validated);
+        l_journal.clear();
+        synced(l_journal, l_file);
+    }
+
+    /**
+     * Folds the edit log of a file back into the file. The map's unsaved edits are not written, and stay in
+     * its journal.
+     *
+     * @param p_map  the map being edited, which was loaded from or saved to the file
+     * @param p_file the file
+     * @throws IOException if reading or writing fails; the files are then left as they were
+     */
+    public void compact(Map p_map, Path p_file) throws IOException {
+        Path l_file = p_file.toAbsolutePath();
+        Path l_delta = MapDeltaLog.deltaFile(l_file);
+        if (!Files.exists(l_delta)) {
+            return;
+        }
+        MapJournal l_journal = p_map.d_journal;
+        BasicFileAttributes l_attributes = Files.readAttributes(l_file, BasicFileAttributes.class);
+        boolean l_synced = l_journal.isSyncedWith(l_file, l_attributes.size(), l_attributes.lastModifiedTime().toMillis(),
+                MapDeltaLog.sizeOf(l_delta));
+        Map l_saved = p_map;
+        if (!l_synced || !l_journal.isEmpty()) {
+            l_saved = new Map();
+            byte[] l_bytes = Files.readAllBytes(l_file);
+            if (BinaryMapFormat.isBinary(l_file.getFileName().toString())) {
+                BinaryMapFormat.read(ByteBuffer.wrap(l_bytes), l_saved);
+            } else {
+                new MapFileParser().parse(l_bytes, l_saved);
+            }
+            MapDeltaLog.apply(l_file, l_saved);
+        }
+        rewrite(l_saved, l_file, l_saved.d_validated || l_saved.getConnectivity().isValid());
+        if (l_synced) {
+            synced(l_journal, l_file);
+        }
+    }
+
+    /**
+     * Rewrites a file in full in the format chosen by its extension, then drops its edit log.
+     *
+     * @param p_map       the map
+     * @param p_file      the absolute path of the file
+     * @param p_validated whether the map is known to be valid
+     * @throws IOException if writing fails
+     */
+    private void rewrite(Map p_map, Path p_file, boolean p_validated) throws IOException {
+        if (BinaryMapFormat.isBinary(p_file.getFileName().toString())) {
+            writeBinary(p_map, p_file, p_validated);
+        } else {
+            write(p_map, p_file);
+        }
+        MapDeltaLog.delete(p_file);
+    }
+
+    /**
+     * Puts a journal in step with a file that has no edit log.
+     *
+     * @param p_journal the journal
+     * @param p_file    the absolute path of the file
+     * @throws IOException if the file attributes cannot be read
+     */
+    private static void synced(MapJournal p_journal, Path p_file) throws IOException {
+        BasicFileAttributes l_attributes = Files.readAttributes(p_file, BasicFileAttributes.class);
+        p_journal.synced(p_file, l_attributes.size(), l_attributes.lastModifiedTime().toMillis(), 0);
+    }
+
+    /**
+     * Saves a map in the text format, replacing the file atomically.
+     *
+     * @param p_map  the map
+     * @param p_file the file
+     * @throws IOException if writing fails; the file is then left as it was
+     */
+    public void write(Map p_map, Path p_file) throws IOException {
+        replace(p_file, l_channel -> write(p_map, l_channel));
+    }
+
+    /**
+     * Saves a map in the binary format, replacing the file atomically.
+     *
+     * @param p_map       the map
+     * @param p_file      the file
+     * @param p_validated whether the map is known to be valid
+     * @throws IOException if writing fails; the file is then left as it was
+     */
+    public void writeBinary(Map p_map, Path p_file, boolean p_validated) throws IOException {
+        replace(p_file, l_channel -> BinaryMapFormat.write(p_map, Channels.newOutputStream(l_channel), p_validated));
+    }
+
+    /**
+     * Writes a map in the text format to a channel. Only countries with neighbours get a border line.
+     *
+     * @param p_map     the map
+     * @param p_channel the destination; not closed
+     * @throws IOException if writing fails
+     */
+    public void write(Map p_map, WritableByteChannel p_channel) throws IOException {
+        open(p_channel);
+        try {
+            startContinents();
+            if (p_map.getD_mapContinents() != null) {
+                for (Continent l_continent : p_map.getD_mapContinents()) {
+                    continent(l_continent.getD_continentName(), l_continent.getD_continentValue());
+                }
+            }
+
+            startCountries();
+            if (p_map.getD_mapCountries() != null) {
+                for (Country l_country : p_map.getD_mapCountries()) {
+                    country(l_country.getD_countryID(), l_country.getD_countryName(), l_country.getD_continentID());
+                }
+            }
+
+            startBorders();
+            if (p_map.getD_mapCountries() != null) {
+                for (Country l_country : p_map.getD_mapCountries()) {
+                    borders(l_country);
+                }
+            }
+            flush();
+        } finally {
+            d_channel = null;
+        }
+    }
+
+    /**
+     * Starts writing a file line by line, for callers such as {@link MapGenerator} that produce the map as
+     * they go instead of holding it. The sections must be written in order and {@link #close()} called last.
+     *
+     * @param p_channel the destination; not closed
+     */
+    void open(WritableByteChannel p_channel) {
+        d_channel = p_channel;
+        d_buffer.clear();
+    }
+
+    /**
+     * Writes the buffered bytes and lets go of the channel given to {@link #open(WritableByteChannel)}.
+     *
+     * @throws IOException if writing fails
+     */
+    void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            d_channel = null;
+        }
+    }
+
+    /**
+     * Writes the header of the continents section.
+     *
+     * @throws IOException if writing fails
+     */
+    void startContinents() throws IOException {
+        header(CONTINENTS);
+    }
+
+    /**
+     * Writes the header of the countries section.
+     *
+     * @throws IOException if writing fails
+     */
+    void startCountries() throws IOException {
+        header(COUNTRIES);
+    }
+
+    /**
+     * Writes the header of the borders section.
+     *
+     * @throws IOException if writing fails
+     */
+    void startBorders() throws IOException {
+        header(BORDERS);
+    }
+
+    /**
+     * Writes a continent line.
+     *
+     * @param p_name  the continent name
+     * @param p_value the continent bonus
+     * @throws IOException if writing fails
+     */
+    void continent(String p_name, int p_value) throws IOException {
+        name(p_name);
+        space();
+        number(p_value);
+        newLine();
+    }
+
+    /**
+     * Writes a country line.
+     *
+     * @param p_id          the country ID
+     * @param p_name        the country name
+     * @param p_continentId the position of its continent, from 1
+     * @throws IOException if writing fails
+     */
+    void country(int p_id, String p_name, int p_continentId) throws IOException {
+        number(p_id);
+        space();
+        name(p_name);
+        space();
+        number(p_continentId);
+        newLine();
+    }
+
+    /**
+     * Writes a border line.
+     *
+     * @param p_id         the country ID
+     * @param p_neighbours the neighbour IDs
+     * @param p_count      the number of neighbours at the start of the array
+     * @throws IOException if writing fails
+     */
+    void borders(int p_id, int[] p_neighbours, int p_count) throws IOException {
+        number(p_id);
+        for (int k = 0; k < p_count; k++) {
+            space();
+            number(p_neighbours[k]);
+        }
+        newLine();
+    }
+
+    /**
+     * Writes the border line of a country, if it has neighbours.
+     *
+     * @param p_country the country
+     * @throws IOException if writing fails
+     */
+    private void borders(Country p_country) throws IOException {
+        List<Integer> l_neighbours = p_country.getD_neighbouringCountriesId();
+        if (l_neighbours == null || l_neighbours.isEmpty()) {
+            return;
+        }
+        number(p_country.getD_countryID());
+        if (l_neighbours instanceof NeighbourList l_list) {
+            for (int k = 0; k < l_list.size(); k++) {
+                space();
+                number(l_list.getInt(k));
+            }
+        } else {
+            for (int k = 0; k < l_neighbours.size(); k++) {
+                space();
+                number(l_neighbours.get(k));
+            }
+        }
+        newLine();
+    }
+
+    /**
+     * Writes a blank line followed by a section header.
+     *
+     * @param p_header the header
+     * @throws IOException if writing fails
+     */
+    private void header(byte[] p_header) throws IOException {
+        bytes(NEW_LINE);
+        bytes(p_header);
+        newLine();
+    }
+
+    /**
+     * Writes a name in UTF-8, char by char while it is ASCII.
+     *
+     * @param p_name the name; null is written as "null", as string concatenation did
+     * @throws IOException if writing fails
+     */
+    private void name(String p_name) throws IOException {
+        String l_name = String.valueOf(p_name);
+        int l_length = l_name.length();
+        for (int i = 0; i < l_length; i++) {
+            char l_char = l_name.charAt(i);
+            if (l_char >= 0x80) {
+                bytes(l_name.substring(i).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            if (!d_buffer.hasRemaining()) {
+                flush();
+            }
+            d_buffer.put((byte) l_char);
+        }
+    }
+
+    /**
+     * Writes a number in decimal.
+     *
+     * @param p_value the number
+     * @throws IOException if writing fails
+     */
+    private void number(int p_value) throws IOException {
+        if (d_buffer.remaining() < 11) {
+            flush();
+        }
+        if (p_value < 0) {
+            d_buffer.put((byte) '-');
+            if (p_value == Integer.MIN_VALUE) {
+                d_buffer.put(MIN_VALUE_DIGITS);
+                return;
+            }
+            p_value = -p_value;
+        }
+        int l_count = 0;
+        do {
+            d_digits[l_count++] = (byte) ('0' + p_value % 10);
+            p_value /= 10;
+        } while (p_value != 0);
+        while (l_count > 0) {
+            d_buffer.put(d_digits[--l_count]);
+        }
+    }
+
+    /**
+     * Writes a space.
+     *
+     * @throws IOException if writing fails
+     */
+    private void space() throws IOException {
+        if (!d_buffer.hasRemaining()) {
+            flush();
+        }
+        d_buffer.put((byte) ' ');
+    }
+
+    /**
+     * Ends a line.
+     *
+     * @throws IOException if writing fails
+     */
+    private void newLine() throws IOException {
+        bytes(NEW_LINE);
+    }
+
+    /**
+     * Writes raw bytes.
+     *
+     * @param p_bytes the bytes
+     * @throws IOException if writing fails
+     */
+    private void bytes(byte[] p_bytes) throws IOException {
+        int l_offset = 0;
+        while (l_offset < p_bytes.length) {
+            if (!d_buffer.hasRemaining()) {
+                flush();
+            }
+            int l_length = Math.min(d_buffer.remaining(), p_bytes.length - l_offset);
+            d_buffer.put(p_bytes, l_offset, l_length);
+            l_offset += l_length;
+        }
+    }
+
+    /**
+     * Hands the buffered bytes to the channel.
+     *
+     * @throws IOException if writing fails
+     */
+    private void flush() throws IOException {
+        d_buffer.flip();
+        while (d_buffer.hasRemaining()) {
+            d_channel.write(d_buffer);
+        }
+        d_buffer.clear();
+    }
+
+    /**
+     * Writes a file through a hidden temporary file in the same directory, which is forced to disk and then
+     * renamed over the target. The temporary file is removed if anything fails.
+     *
+     * @param p_file the file to replace
+     * @param p_body the writer of the contents
+     * @throws IOException if writing or renaming fails
+     */
+    private static void replace(Path p_file, Body p_body) throws IOException {
+        Path l_target = p_file.toAbsolutePath();
+        Path l_temp = l_target.resolveSibling("." + l_target.getFileName() + "."
+                + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+        try {
+            try (FileChannel l_channel = FileChannel.open(l_temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                p_body.write(l_channel);
+                l_channel.force(false);
+            }
+            try {
+                Files.move(l_temp, l_target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException l_e) {
+                Files.move(l_temp, l_target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(l_temp);
+        }
+    }
+}
@@ -0,0 +1,487 @@
+package Model;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Generator of large synthetic map files, the fixtures of the scaling tests and benchmarks.
+ * <p>
+ * Countries are numbered along a path through the border graph, so each country borders the next one, and
+ * continents are contiguous, nearly equal ranges of that numbering. Every map and every continent is
+ * therefore connected and no country is isolated: the output passes {@link Map#validateMap()} by
+ * construction. Borders are symmetric and listed in ascending order without repeats.
+ * </p>
+ * <p>
+ * The neighbours of a country are computed from its number, the topology and the seed alone, so the file is
+ * streamed section by section through a {@link MapFileWriter} while only one border line is held in memory,
+ * however large the map. The same arguments always give the same bytes.
+ * </p>
+ */
+public final class MapGenerator {
+    /** Largest number of countries a map may have. */
+    public static final int MAX_COUNTRIES = 1 << 30;
+
+    /**
+     * Shape of the border graph.
+     */
+    public enum Topology {
+        /** A square lattice filled row by row in alternating directions, with diagonals from degree 6 on. */
+        GRID,
+        /** Random points in a square, bordering every point within a radius chosen for the degree. */
+        GEOMETRIC,
+        /** Overlaid preferential trees whose degrees follow a power law, with a few hubs of high degree. */
+        SCALE_FREE,
+        /** A long chain, each country bordering the countries up to half the degree places away. */
+        CHAIN
+    }
+
+    /** The shape of the graph. */
+    private final Topology d_topology;
+    /** Number of countries. */
+    private final int d_countryCount;
+    /** Number of continents. */
+    private final int d_continentCount;
+    /** The seed. */
+    private final long d_seed;
+
+    /** Width of the grid, or number of cells per row of the geometric square. */
+    private int d_width;
+    /** Whether grid countries border diagonally too. */
+    private boolean d_diagonals;
+    /** Number of places a chain country reaches in each direction. */
+    private int d_reach;
+    /** Number of geometric points per cell. */
+    private int d_pointsPerCell;
+    /** Number of geometric cells. */
+    private int d_cellCount;
+    /** Squared border radius of the geometric points, in cell widths. */
+    private double d_radiusSquared;
+    /** Scale of the preferential trees: position p has about sqrt(d_spread / p) children. */
+    private long d_spread;
+    /** Multipliers of the position permutation of each preferential tree. */
+    private long[] d_multipliers;
+    /** Inverses of the multipliers modulo the country count. */
+    private long[] d_inverses;
+    /** Offsets of the position permutation of each preferential tree. */
+    private long[] d_offsets;
+
+    /** Neighbour IDs of the country being written. */
+    private int[] d_neighbours = new int[16];
+    /** Number of entries in {@link #d_neighbours}. */
+    private int d_neighbourCount;
+
+    /**
+     * Creates a generator. The average degree is matched as closely as the topology allows: a grid has 4 or
+     * 8 neighbours per country and a chain and the scale-free trees add neighbours in pairs.
+     *
+     * @param p_topology       the shape of the graph
+     * @param p_countryCount   the number of countries, at least 2
+     * @param p_continentCount the number of continents, from 1 to the number of countries
+     * @param p_averageDegree  the wanted average number of neighbours per country
+     * @param p_seed           the seed
+     * @throws IllegalArgumentException if a count or the degree is out of range
+     */
+    public MapGenerator(Topology p_topology, int p_countryCount, int p_continentCount, double p_averageDegree,
+                        long p_seed) {
+        if (p_topology == null) {
+            throw new IllegalArgumentException("A topology is required.");
+        }
+        if (p_countryCount < 2 || p_countryCount > MAX_COUNTRIES) {
+            throw new IllegalArgumentException("The country count must be between 2 and " + MAX_COUNTRIES + ".");
+        }
+        if (p_continentCount < 1 || p_continentCount > p_countryCount) {
+            throw new IllegalArgumentException("The continent count must be between 1 and the country count.");
+        }
+        if (!(p_averageDegree > 0) || Double.isInfinite(p_averageDegree)) {
+            throw new IllegalArgumentException("The average degree must be positive.");
+        }
+        this.d_topology = p_topology;
+        this.d_countryCount = p_countryCount;
+        this.d_continentCount = p_continentCount;
+        this.d_seed = p_seed;
+
+        switch (p_topology) {
+            case GRID:
+                d_width = (int) Math.ceil(Math.sqrt(p_countryCount));
+                d_diagonals = p_averageDegree >= 6;
+                break;
+            case GEOMETRIC:
+                // The path between consecutive points gives about 2 neighbours, the radius the rest.
+                d_pointsPerCell = (int) Math.min(1024, Math.max(1, Math.ceil(p_averageDegree)));
+                d_cellCount = (p_countryCount + d_pointsPerCell - 1) / d_pointsPerCell;
+                d_width = (int) Math.ceil(Math.sqrt(d_cellCount));
+                d_radiusSquared = Math.min(1, Math.max(0, p_averageDegree - 2) / (Math.PI * d_pointsPerCell));
+                break;
+            case SCALE_FREE:
+                // Each tree and the path add about 2 neighbours per country.
+                int l_trees = (int) Math.min(64, Math.max(1, Math.round((p_averageDegree - 2) / 2)));
+                d_spread = Math.max(1, p_countryCount / 2);
+                d_multipliers = new long[l_trees];
+                d_inverses = new long[l_trees];
+                d_offsets = new long[l_trees];
+                SplittableRandom l_random = new SplittableRandom(p_seed);
+                BigInteger l_modulus = BigInteger.valueOf(p_countryCount);
+                for (int t = 0; t < l_trees; t++) {
+                    long l_multiplier;
+                    do {
+                        l_multiplier = 1 + l_random.nextInt(p_countryCount - 1);
+                    } while (BigInteger.valueOf(l_multiplier).gcd(l_modulus).intValue() != 1);
+                    d_multipliers[t] = l_multiplier;
+                    d_inverses[t] = BigInteger.valueOf(l_multiplier).modInverse(l_modulus).longValue();
+                    d_offsets[t] = l_random.nextInt(p_countryCount);
+                }
+                break;
+            default:
+                d_reach = (int) Math.max(1, Math.min(p_countryCount - 1, Math.round(p_averageDegree / 2)));
+                break;
+        }
+    }
+
+    /**
+     * Writes the map to a file, replacing it if it exists.
+     *
+     * @param p_file the file
+     * @throws IOException if writing fails
+     */
+    public void write(Path p_file) throws IOException {
+        try (FileChannel l_channel = FileChannel.open(p_file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            write(l_channel);
+        }
+    }
+
+    /**
+     * Writes the map in the text format. Continents are named "Continent" and countries "Country" followed
+     * by their number, counting from 1.
+     *
+     * @param p_channel the destination; not closed
+     * @throws IOException if writing fails
+     */
+    public void write(WritableByteChannel p_channel) throws IOException {
+        MapFileWriter l_writer = new MapFileWriter();
+        l_writer.open(p_channel);
+        l_writer.startContinents();
+        for (int c = 0; c < d_continentCount; c++) {
+            l_writer.continent("Continent" + (c + 1), 1 + (int) ((hash(1, c) >>> 1) % 10));
+        }
+        l_writer.startCountries();
+        for (int i = 0; i < d_countryCount; i++) {
+            l_writer.country(i + 1, "Country" + (i + 1), continentOf(i) + 1);
+        }
+        l_writer.startBorders();
+        for (int i = 0; i < d_countryCount; i++) {
+            neighbours(i);
+            l_writer.borders(i + 1, d_neighbours, d_neighbourCount);
+        }
+        l_writer.close();
+    }
+
+    /**
+     * Gets the continent of a country.
+     *
+     * @param p_index the country index, from 0
+     * @return the continent index, from 0
+     */
+    private int continentOf(int p_index) {
+        return (int) ((long) p_index * d_continentCount / d_countryCount);
+    }
+
+    /**
+     * Computes the neighbours of a country into {@link #d_neighbours} as ascending IDs.
+     *
+     * @param p_index the country index, from 0
+     * @return the number of neighbours
+     */
+    private int neighbours(int p_index) {
+        d_neighbourCount = 0;
+        switch (d_topology) {
+            case GRID:
+                gridNeighbours(p_index);
+                break;
+            case GEOMETRIC:
+                geometricNeighbours(p_index);
+                break;
+            case SCALE_FREE:
+                scaleFreeNeighbours(p_index);
+                break;
+            default:
+                for (int j = Math.max(0, p_index - d_reach); j <= Math.min(d_countryCount - 1, p_index + d_reach); j++) {
+                    if (j != p_index) {
+                        add(j);
+                    }
+                }
+                return d_neighbourCount;
+        }
+        Arrays.sort(d_neighbours, 0, d_neighbourCount);
+        int l_unique = 0;
+        for (int k = 0; k < d_neighbourCount; k++) {
+            if (l_unique == 0 || d_neighbours[l_unique - 1] != d_neighbours[k]) {
+                d_neighbours[l_unique++] = d_neighbours[k];
+            }
+        }
+        d_neighbourCount = l_unique;
+        return l_unique;
+    }
+
+    /**
+     * Adds the grid cells around a country.
+     *
+     * @param p_index the country index
+     */
+    private void gridNeighbours(int p_index) {
+        int l_row = p_index / d_width;
+        int l_column = column(l_row, p_index % d_width, d_width);
+        for (int l_dRow = -1; l_dRow <= 1; l_dRow++) {
+            for (int l_dColumn = -1; l_dColumn <= 1; l_dColumn++) {
+                if ((l_dRow == 0 && l_dColumn == 0) || (!d_diagonals && l_dRow != 0 && l_dColumn != 0)) {
+                    continue;
+                }
+                int l_other = snake(l_row + l_dRow, l_column + l_dColumn, d_width, d_countryCount);
+                if (l_other >= 0) {
+                    add(l_other);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the points within the radius of a country in its own and the eight surrounding cells, and the
+     * countries before and after it. The radius is at most one cell wide, so no other cell can hold one.
+     *
+     * @param p_index the country index
+     */
+    private void geometricNeighbours(int p_index) {
+        int l_cell = p_index / d_pointsPerCell;
+        int l_row = l_cell / d_width;
+        int l_column = column(l_row, l_cell % d_width, d_width);
+        long l_hash = hash(2, p_index);
+        double l_x = l_column + x(l_hash);
+        double l_y = l_row + y(l_hash);
+        for (int l_dRow = -1; l_dRow <= 1; l_dRow++) {
+            for (int l_dColumn = -1; l_dColumn <= 1; l_dColumn++) {
+                int l_other = snake(l_row + l_dRow, l_column + l_dColumn, d_width, d_cellCount);
+                if (l_other < 0) {
+                    continue;
+                }
+                int l_end = (int) Math.min(d_countryCount, (long) (l_other + 1) * d_pointsPerCell);
+                for (int j = l_other * d_pointsPerCell; j < l_end; j++) {
+                    if (j == p_index) {
+                        continue;
+                    }
+                    long l_otherHash = hash(2, j);
+                    double l_dx = l_column + l_dColumn + x(l_otherHash) - l_x;
+                    double l_dy = l_row + l_dRow + y(l_otherHash) - l_y;
+                    if (l_dx * l_dx + l_dy * l_dy <= d_radiusSquared) {
+                        add(j);
+                    }
+                }
+            }
+        }
+        addPathNeighbours(p_index);
+    }
+
+    /**
+     * Adds the parent and children of a country in every preferential tree, and the countries before and
+     * after it.
+     * <p>
+     * A tree orders the countries by a permutation i -> (a * i + b) mod n and gives position p the children
+     * [f(p), f(p + 1)), with f(p) = 1 + floor(2 * sqrt(d_spread * p)). Both the parent and the children of a
+     * position are then found by arithmetic, position p has about sqrt(d_spread / p) children, and the
+     * number of countries with more than k neighbours falls off as 1 / k^2.
+     * </p>
+     *
+     * @param p_index the country index
+     */
+    private void scaleFreeNeighbours(int p_index) {
+        for (int t = 0; t < d_multipliers.length; t++) {
+            long l_position = (d_multipliers[t] * p_index + d_offsets[t]) % d_countryCount;
+            if (l_position > 0) {
+                add(country(t, parent(l_position)));
+            }
+            long l_end = Math.min(d_countryCount, firstChild(l_position + 1));
+            for (long l_child = firstChild(l_position); l_child < l_end; l_child++) {
+                add(country(t, l_child));
+            }
+        }
+        addPathNeighbours(p_index);
+    }
+
+    /**
+     * Gets the first child position of a tree position, assuming the position is below
+     * {@link #MAX_COUNTRIES}.
+     *
+     * @param p_position the position
+     * @return the first child, which is greater than the position
+     */
+    private long firstChild(long p_position) {
+        return 1 + squareRoot(4 * d_spread * p_position);
+    }
+
+    /**
+     * Gets the parent of a tree position.
+     *
+     * @param p_position the position, greater than zero
+     * @return the last position whose first child is at or before it
+     */
+    private long parent(long p_position) {
+        long l_parent = (p_position - 1) * (p_position - 1) / (4 * d_spread);
+        while (firstChild(l_parent + 1) <= p_position) {
+            l_parent++;
+        }
+        while (firstChild(l_parent) > p_position) {
+            l_parent--;
+        }
+        return l_parent;
+    }
+
+    /**
+     * Gets the country at a tree position.
+     *
+     * @param p_tree     the tree
+     * @param p_position the position
+     * @return the country index
+     */
+    private int country(int p_tree, long p_position) {
+        long l_shifted = Math.floorMod(p_position - d_offsets[p_tree], (long) d_countryCount);
+        return (int) (l_shifted * d_inverses[p_tree] % d_countryCount);
+    }
+
+    /**
+     * Adds the countries before and after a country in the numbering.
+     *
+     * @param p_index the country index
+     */
+    private void addPathNeighbours(int p_index) {
+        if (p_index > 0) {
+            add(p_index - 1);
+        }
+        if (p_index < d_countryCount - 1) {
+            add(p_index + 1);
+        }
+    }
+
+    /**
+     * Adds a neighbour.
+     *
+     * @param p_index the neighbour index, from 0
+     */
+    private void add(int p_index) {
+        if (d_neighbourCount == d_neighbours.length) {
+            d_neighbours = Arrays.copyOf(d_neighbours, d_neighbourCount * 2);
+        }
+        d_neighbours[d_neighbourCount++] = p_index + 1;
+    }
+
+    /**
+     * Gets the column of a place in a row filled left to right on even rows and right to left on odd ones.
+     *
+     * @param p_row    the row
+     * @param p_offset the place in the row
+     * @param p_width  the row width
+     * @return the column
+     */
+    private static int column(int p_row, int p_offset, int p_width) {
+        return (p_row & 1) == 0 ? p_offset : p_width - 1 - p_offset;
+    }
+
+    /**
+     * Gets the number of a square filled row by row in alternating directions, the inverse of
+     * {@link #column(int, int, int)}.
+     *
+     * @param p_row    the row
+     * @param p_column the column
+     * @param p_width  the row width
+     * @param p_count  the number of filled squares
+     * @return the number, or -1 if the square is outside the filled area
+     */
+    private static int snake(int p_row, int p_column, int p_width, int p_count) {
+        if (p_row < 0 || p_column < 0 || p_column >= p_width) {
+            return -1;
+        }
+        long l_number = (long) p_row * p_width + column(p_row, p_column, p_width);
+        return l_number < p_count ? (int) l_number : -1;
+    }
+
+    /**
+     * Gets the horizontal place of a point in its cell.
+     *
+     * @param p_hash the hash of the point
+     * @return a fraction in [0, 1)
+     */
+    private static double x(long p_hash) {
+        return (p_hash >>> 40) * 0x1.0p-24;
+    }
+
+    /**
+     * Gets the vertical place of a point in its cell.
+     *
+     * @param p_hash the hash of the point
+     * @return a fraction in [0, 1)
+     */
+    private static double y(long p_hash) {
+        return ((p_hash >>> 16) & 0xFFFFFF) * 0x1.0p-24;
+    }
+
+    /**
+     * Hashes a number with the seed, with the SplitMix64 finaliser.
+     *
+     * @param p_purpose a different constant for each use of the hash
+     * @param p_value   the number
+     * @return the hash
+     */
+    private long hash(long p_purpose, long p_value) {
+        long l_hash = d_seed + p_purpose * 0xD1B54A32D192ED03L + (p_value + 1) * 0x9E3779B97F4A7C15L;
+        l_hash = (l_hash ^ (l_hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        l_hash = (l_hash ^ (l_hash >>> 27)) * 0x94D049BB133111EBL;
+        return l_hash ^ (l_hash >>> 31);
+    }
+
+    /**
+     * Computes the integer square root.
+     *
+     * @param p_value a non-negative number
+     * @return the largest number whose square is at most the value
+     */
+    private static long squareRoot(long p_value) {
+        long l_root = (long) Math.sqrt((double) p_value);
+        while (l_root * l_root > p_value) {
+            l_root--;
+        }
+        while ((l_root + 1) * (l_root + 1) <= p_value) {
+            l_root++;
+        }
+        return l_root;
+    }
+
+    /**
+     * Writes a map file from the command line.
+     *
+     * @param p_args topology (grid, geometric, scale-free or chain), country count, continent count, average
+     *               degree, seed and output file
+     */
+    public static void main(String[] p_args) {
+        if (p_args.length != 6) {
+            System.out.println("Usage: MapGenerator <grid|geometric|scale-free|chain> <countries> <continents> "
+                    + "<average degree> <seed> <file>");
+            return;
+        }
+        try {
+            Topology l_topology = Topology.valueOf(p_args[0].toUpperCase(Locale.ROOT).replace('-', '_'));
+            MapGenerator l_generator = new MapGenerator(l_topology, Integer.parseInt(p_args[1]),
+                    Integer.parseInt(p_args[2]), Double.parseDouble(p_args[3]), Long.parseLong(p_args[4]));
+            long l_start = System.nanoTime();
+            l_generator.write(Path.of(p_args[5]));
+            System.out.println("Map written to " + p_args[5] + " in "
+                    + (System.nanoTime() - l_start) / 1_000_000 + " ms.");
+        } catch (IllegalArgumentException | IOException l_e) {
+            System.out.println(l_e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package Model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable compressed-sparse-row (CSR) view of the country adjacency of a {@link Map}.
+ * <p>
+ * Countries are addressed by a dense index {@code 0..countryCount()-1} in the order of the map's country list.
+ * The neighbours of country {@code i} are the entries {@code neighbourAt(k)} for
+ * {@code k} in {@code [neighbourStart(i), neighbourEnd(i))}, so the whole graph can be walked with
+ * plain int loops and no boxing. Continent membership is stored the same way.
+ * </p>
+ * <p>
+ * The graph is a snapshot: it is built from the countries' neighbour lists and is rebuilt by the owning
+ * {@link Map} after any edit made through the map. Neighbour IDs that do not resolve to a country of the
+ * map are dropped.
+ * </p>
+ */
+public final class MapGraph {
+    /** Countries by dense index. */
+    private final Country[] d_countries;
+    /** Country IDs by dense index. */
+    private final int[] d_countryIds;
+    /** Start offset of each country's neighbours in {@link #d_targets}; has {@code countryCount()+1} entries. */
+    private final int[] d_offsets;
+    /** Dense indexes of the neighbouring countries. */
+    private final int[] d_targets;
+    /** Continents by dense index. */
+    private final Continent[] d_continents;
+    /** Dense continent index of each country, or -1 if the country belongs to no continent. */
+    private final int[] d_continentOfCountry;
+    /** Start offset of each continent's members in {@link #d_continentMembers}. */
+    private final int[] d_continentOffsets;
+    /** Dense country indexes of the members of each continent. */
+    private final int[] d_continentMembers;
+    /** Direct ID to index table, used when country IDs are small non-negative integers; otherwise null. */
+    private final int[] d_indexById;
+    /** Sorted country IDs, used for lookups when {@link #d_indexById} is null. */
+    private final int[] d_sortedIds;
+    /** Dense indexes matching {@link #d_sortedIds}. */
+    private final int[] d_sortedIndexes;
+
+    /**
+     * Creates a graph from already compressed arrays. All arrays are taken over without copying.
+     *
+     * @param p_countries          countries by dense index
+     * @param p_offsets            neighbour offsets, one more entry than countries
+     * @param p_targets            neighbour dense indexes
+     * @param p_continents         continents by dense index
+     * @param p_continentOfCountry continent dense index of each country, or -1
+     * @param p_continentOffsets   member offsets, one more entry than continents
+     * @param p_continentMembers   member dense country indexes
+     */
+    MapGraph(Country[] p_countries, int[] p_offsets, int[] p_targets, Continent[] p_continents,
+             int[] p_continentOfCountry, int[] p_continentOffsets, int[] p_continentMembers) {
+        this.d_countries = p_countries;
+        this.d_offsets = p_offsets;
+        this.d_targets = p_targets;
+        this.d_continents = p_continents;
+        this.d_continentOfCountry = p_continentOfCountry;
+        this.d_continentOffsets = p_continentOffsets;
+        this.d_continentMembers = p_continentMembers;
+
+        int l_count = p_countries.length;
+        this.d_countryIds = new int[l_count];
+        int l_min = Integer.MAX_VALUE;
+        int l_max = Integer.MIN_VALUE;
+        for (int i = 0; i < l_count; i++) {
+            int l_id = p_countries[i].getD_countryID();
+            d_countryIds[i] = l_id;
+            l_min = Math.min(l_min, l_id);
+            l_max = Math.max(l_max, l_id);
+        }
+
+        if (l_count == 0 || (l_min >= 0 && l_max < 4L * l_count + 64)) {
+            int[] l_table = new int[l_count == 0 ? 0 : l_max + 1];
+            Arrays.fill(l_table, -1);
+            for (int i = l_count - 1; i >= 0; i--) {
+                l_table[d_countryIds[i]] = i;
+            }
+            this.d_indexById = l_table;
+            this.d_sortedIds = null;
+            this.d_sortedIndexes = null;
+        } else {
+            long[] l_pairs = new long[l_count];
+            for (int i = 0; i < l_count; i++) {
+                l_pairs[i] = ((long) d_countryIds[i] << 32) | i;
+            }
+            Arrays.sort(l_pairs);
+            this.d_sortedIds = new int[l_count];
+            this.d_sortedIndexes = new int[l_count];
+            for (int i = 0; i < l_count; i++) {
+                d_sortedIds[i] = (int) (l_pairs[i] >> 32);
+                d_sortedIndexes[i] = (int) l_pairs[i];
+            }
+            this.d_indexById = null;
+        }
+    }
+
+    /**
+     * Builds the graph for the given countries and continents.
+     *
+     * @param p_countries  the countries of the map, may be null
+     * @param p_continents the continents of the map, may be null
+     * @return the compressed graph
+     */
+    public static MapGraph build(List<Country> p_countries, List<Continent> p_continents) {
+        Country[] l_countries = p_countries == null ? new Country[0] : p_countries.toArray(new Country[0]);
+        Continent[] l_continents = p_continents == null ? new Continent[0] : p_continents.toArray(new Continent[0]);
+        int l_countryCount = l_countries.length;
+
+        int[] l_offsets = new int[l_countryCount + 1];
+        int l_edgeCount = 0;
+        for (int i = 0; i < l_countryCount; i++) {
+            l_offsets[i] = l_edgeCount;
+            l_edgeCount += l_countries[i].getD_neighbouringCountriesId().size();
+        }
+        l_offsets[l_countryCount] = l_edgeCount;
+
+        int[] l_continentOfCountry = new int[l_countryCount];
+        Arrays.fill(l_continentOfCountry, -1);
+        int[] l_continentOffsets = new int[l_continents.length + 1];
+        int l_memberCount = 0;
+        for (int c = 0; c < l_continents.length; c++) {
+            l_continentOffsets[c] = l_memberCount;
+            List<Country> l_members = l_continents[c].getD_countries();
+            l_memberCount += l_members == null ? 0 : l_members.size();
+        }
+        l_continentOffsets[l_continents.length] = l_memberCount;
+
+        // Targets and members are filled after construction because resolving IDs needs the ID table.
+        MapGraph l_graph = new MapGraph(l_countries, l_offsets, new int[l_edgeCount], l_continents,
+                l_continentOfCountry, l_continentOffsets, new int[l_memberCount]);
+        l_graph.resolve();
+        return l_graph;
+    }
+
+    /**
+     * Builds the graph for countries whose neighbour IDs are already held in one int array, as produced by
+     * the map file readers. Dense continent indexes are given per country; members are listed in country order.
+     *
+     * @param p_countries          countries by dense index
+     * @param p_neighbourIds       neighbour IDs of all countries, back to back
+     * @param p_idOffsets          start of each country's IDs in {@code p_neighbourIds}, one more entry than countries
+     * @param p_continents         continents by dense index
+     * @param p_continentOfCountry continent dense index of each country, or -1; taken over without copying
+     * @return the compressed graph
+     */
+    static MapGraph fromIds(Country[] p_countries, int[] p_neighbourIds, int[] p_idOffsets, Continent[] p_continents,
+                            int[] p_continentOfCountry) {
+        int l_countryCount = p_countries.length;
+        int l_continentCount = p_continents.length;
+        int[] l_offsets = new int[l_countryCount + 1];
+        int[] l_targets = new int[p_idOffsets[l_countryCount]];
+        int[] l_continentOffsets = new int[l_continentCount + 1];
+        int[] l_members = new int[l_countryCount];
+        MapGraph l_graph = new MapGraph(p_countries, l_offsets, l_targets, p_continents, p_continentOfCountry,
+                l_continentOffsets, l_members);
+
+        int l_write = 0;
+        for (int i = 0; i < l_countryCount; i++) {
+            l_offsets[i] = l_write;
+            for (int k = p_idOffsets[i]; k < p_idOffsets[i + 1]; k++) {
+                int l_index = l_graph.indexOf(p_neighbourIds[k]);
+                if (l_index >= 0) {
+                    l_targets[l_write++] = l_index;
+                }
+            }
+        }
+        l_offsets[l_countryCount] = l_write;
+
+        for (int i = 0; i < l_countryCount; i++) {
+            if (p_continentOfCountry[i] >= 0) {
+                l_continentOffsets[p_continentOfCountry[i] + 1]++;
+            }
+        }
+        for (int c = 0; c < l_continentCount; c++) {
+            l_continentOffsets[c + 1] += l_continentOffsets[c];
+        }
+        int[] l_next = Arrays.copyOf(l_continentOffsets, l_continentCount);
+        for (int i = 0; i < l_countryCount; i++) {
+            if (p_continentOfCountry[i] >= 0) {
+                l_members[l_next[p_continentOfCountry[i]]++] = i;
+            }
+        }
+        return l_graph;
+    }
+
+    /**
+     * Resolves neighbour and member IDs into dense indexes, compacting away the ones that do not resolve.
+     */
+    private void resolve() {
+        int l_write = 0;
+        for (int i = 0; i < d_countries.length; i++) {
+            d_offsets[i] = l_write;
+            List<Integer> l_neighbours = d_countries[i].getD_neighbouringCountriesId();
+            if (l_neighbours instanceof NeighbourList) {
+                NeighbourList l_ids = (NeighbourList) l_neighbours;
+                for (int k = 0; k < l_ids.size(); k++) {
+                    int l_index = indexOf(l_ids.getInt(k));
+                    if (l_index >= 0) {
+                        d_targets[l_write++] = l_index;
+                    }
+                }
+                continue;
+            }
+            for (Integer l_neighbourId : l_neighbours) {
+                int l_index = l_neighbourId == null ? -1 : indexOf(l_neighbourId);
+                if (l_index >= 0) {
+                    d_targets[l_write++] = l_index;
+                }
+            }
+        }
+        d_offsets[d_countries.length] = l_write;
+
+        int l_memberWrite = 0;
+        for (int c = 0; c < d_continents.length; c++) {
+            d_continentOffsets[c] = l_memberWrite;
+            List<Country> l_members = d_continents[c].getD_countries();
+            if (l_members == null) {
+                continue;
+            }
+            for (Country l_member : l_members) {
+                int l_index = l_member == null ? -1 : indexOf(l_member.getD_countryID());
+                if (l_index >= 0 && d_countries[l_index] == l_member && d_continentOfCountry[l_index] == -1) {
+                    d_continentOfCountry[l_index] = c;
+                    d_continentMembers[l_memberWrite++] = l_index;
+                }
+            }
+        }
+        d_continentOffsets[d_continents.length] = l_memberWrite;
+    }
+
+    /**
+     * Gets the number of countries.
+     *
+     * @return the number of countries
+     */
+    public int countryCount() {
+        return d_countries.length;
+    }
+
+    /**
+     * Gets the number of directed border entries.
+     *
+     * @return the number of edges
+     */
+    public int edgeCount() {
+        return d_offsets[d_countries.length];
+    }
+
+    /**
+     * Gets the country at a dense index.
+     *
+     * @param p_index the dense index
+     * @return the country
+     */
+    public Country countryAt(int p_index) {
+        return d_countries[p_index];
+    }
+
+    /**
+     * Gets the ID of the country at a dense index.
+     *
+     * @param p_index the dense index
+     * @return the country ID
+     */
+    public int countryIdAt(int p_index) {
+        return d_countryIds[p_index];
+    }
+
+    /**
+     * Gets the dense index of a country ID.
+     *
+     * @param p_countryId the country ID
+     * @return the dense index, or -1 if the map has no such country
+     */
+    public int indexOf(int p_countryId) {
+        if (d_indexById != null) {
+            return (p_countryId >= 0 && p_countryId < d_indexById.length) ? d_indexById[p_countryId] : -1;
+        }
+        int l_position = Arrays.binarySearch(d_sortedIds, p_countryId);
+        if (l_position < 0) {
+            return -1;
+        }
+        while (l_position > 0 && d_sortedIds[l_position - 1] == p_countryId) {
+            l_position--;
+        }
+        return d_sortedIndexes[l_position];
+    }
+
+    /**
+     * Gets the first position of a country's neighbours in the target array.
+     *
+     * @param p_index the dense index of the country
+     * @return the inclusive start position
+     */
+    public int neighbourStart(int p_index) {
+        return d_offsets[p_index];
+    }
+
+    /**
+     * Gets the end position of a country's neighbours in the target array.
+     *
+     * @param p_index the dense index of the country
+     * @return the exclusive end position
+     */
+    public int neighbourEnd(int p_index) {
+        return d_offsets[p_index + 1];
+    }
+
+    /**
+     * Gets the neighbour stored at a position of the target array.
+     *
+     * @param p_position a position between {@link #neighbourStart(int)} and {@link #neighbourEnd(int)}
+     * @return the dense index of the neighbouring country
+     */
+    public int neighbourAt(int p_position) {
+        return d_targets[p_position];
+    }
+
+    /**
+     * Gets the number of neighbours of a country.
+     *
+     * @param p_index the dense index of the country
+     * @return the number of neighbours
+     */
+    public int degree(int p_index) {
+        return d_offsets[p_index + 1] - d_offsets[p_index];
+    }
+
+    /**
+     * Checks whether a border leads from one country to another.
+     *
+     * @param p_from the dense index of the source country
+     * @param p_to   the dense index of the target country
+     * @return true if {@code p_to} is listed as a neighbour of {@code p_from}
+     */
+    public boolean isAdjacent(int p_from, int p_to) {
+        for (int k = d_offsets[p_from], l_end = d_offsets[p_from + 1]; k < l_end; k++) {
+            if (d_targets[k] == p_to) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of continents.
+     *
+     * @return the number of continents
+     */
+    public int continentCount() {
+        return d_continents.length;
+    }
+
+    /**
+     * Gets the continent at a dense index.
+     *
+     * @param p_continentIndex the dense continent index
+     * @return the continent
+     */
+    public Continent continentAt(int p_continentIndex) {
+        return d_continents[p_continentIndex];
+    }
+
+    /**
+     * Gets the dense continent index of a country.
+     *
+     * @param p_index the dense index of the country
+     * @return the dense continent index, or -1 if the country belongs to no continent
+     */
+    public int continentOf(int p_index) {
+        return d_continentOfCountry[p_index];
+    }
+
+    /**
+     * Gets the number of countries in a continent.
+     *
+     * @param p_continentIndex the dense continent index
+     * @return the number of member countries
+     */
+    public int continentSize(int p_continentIndex) {
+        return d_continentOffsets[p_continentIndex + 1] - d_continentOffsets[p_continentIndex];
+    }
+
+    /**
+     * Gets a member of a continent.
+     *
+     * @param p_continentIndex the dense continent index
+     * @param p_member         the position of the member, from 0 to {@code continentSize - 1}
+     * @return the dense index of the member country
+     */
+    public int continentMember(int p_continentIndex, int p_member) {
+        return d_continentMembers[d_continentOffsets[p_continentIndex] + p_member];
+    }
+}
@@ -0,0 +1,322 @@
+package Model;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Hash indexes over the countries and continents of a {@link Map}.
+ * <p>
+ * The indexes are built on first lookup and then kept up to date by the map's add and remove methods. The
+ * country name index is built apart from the ID index, on the first lookup by name, so that looking countries
+ * up by ID never decodes the names of a memory-mapped map.
+ * If the underlying lists are replaced or change size behind the map's back, the affected index is rebuilt
+ * on the next lookup. Renaming a country or continent in place is not detected.
+ * </p>
+ */
+class MapIndex {
+    /** Countries by ID. */
+    private final HashMap<Integer, Country> d_countriesById = new HashMap<>();
+    /** Countries by lower-cased name, matching the case-insensitive country lookup. */
+    private final HashMap<String, Country> d_countriesByName = new HashMap<>();
+    /** Continents by exact name. */
+    private final HashMap<String, Continent> d_continentsByName = new HashMap<>();
+    /** Continents by ID. */
+    private final HashMap<Integer, Continent> d_continentsById = new HashMap<>();
+
+    /** The country list the country ID index was built from. */
+    private List<Country> d_indexedCountries;
+    /** Size of the country list when its IDs were last indexed, or -1 if never indexed. */
+    private int d_indexedCountryCount = -1;
+    /** The country list the country name index was built from. */
+    private List<Country> d_namedCountries;
+    /** Size of the country list when its names were last indexed, or -1 if never indexed. */
+    private int d_namedCountryCount = -1;
+    /** Highest country ID, valid unless {@link #d_maxCountryIdStale} is set. */
+    private int d_maxCountryId;
+    /** Whether the highest country ID has to be recomputed. */
+    private boolean d_maxCountryIdStale;
+
+    /** The continent list the continent indexes were built from. */
+    private List<Continent> d_indexedContinents;
+    /** Size of the continent list when it was last indexed, or -1 if never indexed. */
+    private int d_indexedContinentCount = -1;
+    /** Highest continent ID, valid unless {@link #d_maxContinentIdStale} is set. */
+    private int d_maxContinentId;
+    /** Whether the highest continent ID has to be recomputed. */
+    private boolean d_maxContinentIdStale;
+
+    /**
+     * Normalises a country name for the case-insensitive index.
+     *
+     * @param p_name the country name
+     * @return the index key
+     */
+    private static String nameKey(String p_name) {
+        return p_name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Rebuilds the country ID index if the list is not the one that was indexed. Names are not read.
+     *
+     * @param p_countries the current country list of the map
+     */
+    private void syncCountries(List<Country> p_countries) {
+        if (p_countries == d_indexedCountries && p_countries != null && p_countries.size() == d_indexedCountryCount) {
+            return;
+        }
+        d_countriesById.clear();
+        d_maxCountryId = 0;
+        d_maxCountryIdStale = false;
+        if (p_countries != null) {
+            for (Country l_country : p_countries) {
+                indexCountry(l_country);
+            }
+        }
+        d_indexedCountries = p_countries;
+        d_indexedCountryCount = p_countries == null ? -1 : p_countries.size();
+    }
+
+    /**
+     * Rebuilds the country name index if the list is not the one that was indexed, decoding every name.
+     *
+     * @param p_countries the current country list of the map
+     */
+    private void syncCountryNames(List<Country> p_countries) {
+        if (p_countries == d_namedCountries && p_countries != null && p_countries.size() == d_namedCountryCount) {
+            return;
+        }
+        d_countriesByName.clear();
+        if (p_countries != null) {
+            for (Country l_country : p_countries) {
+                indexCountryName(l_country);
+            }
+        }
+        d_namedCountries = p_countries;
+        d_namedCountryCount = p_countries == null ? -1 : p_countries.size();
+    }
+
+    /**
+     * Rebuilds the continent indexes if the list is not the one that was indexed.
+     *
+     * @param p_continents the current continent list of the map
+     */
+    private void syncContinents(List<Continent> p_continents) {
+        if (p_continents == d_indexedContinents && p_continents != null && p_continents.size() == d_indexedContinentCount) {
+            return;
+        }
+        d_continentsByName.clear();
+        d_continentsById.clear();
+        d_maxContinentId = 0;
+        d_maxContinentIdStale = false;
+        if (p_continents != null) {
+            for (Continent l_continent : p_continents) {
+                indexContinent(l_continent);
+            }
+        }
+        d_indexedContinents = p_continents;
+        d_indexedContinentCount = p_continents == null ? -1 : p_continents.size();
+    }
+
+    /**
+     * Adds one country to the ID index. Earlier entries win, like a scan from the start of the list would.
+     *
+     * @param p_country the country
+     */
+    private void indexCountry(Country p_country) {
+        d_countriesById.putIfAbsent(p_country.getD_countryID(), p_country);
+        d_maxCountryId = Math.max(d_maxCountryId, p_country.getD_countryID());
+    }
+
+    /**
+     * Adds one country to the name index. Earlier entries win, like a scan from the start of the list would.
+     *
+     * @param p_country the country
+     */
+    private void indexCountryName(Country p_country) {
+        if (p_country.getD_countryName() != null) {
+            d_countriesByName.putIfAbsent(nameKey(p_country.getD_countryName()), p_country);
+        }
+    }
+
+    /**
+     * Adds one continent to the indexes. Earlier entries win, like a scan from the start of the list would.
+     *
+     * @param p_continent the continent
+     */
+    private void indexContinent(Continent p_continent) {
+        if (p_continent.getD_continentName() != null) {
+            d_continentsByName.putIfAbsent(p_continent.getD_continentName(), p_continent);
+        }
+        d_continentsById.putIfAbsent(p_continent.getD_continentID(), p_continent);
+        d_maxContinentId = Math.max(d_maxContinentId, p_continent.getD_continentID());
+    }
+
+    /**
+     * Looks up a country by ID.
+     *
+     * @param p_countries the current country list of the map
+     * @param p_countryId the country ID
+     * @return the country, or null
+     */
+    Country countryById(List<Country> p_countries, int p_countryId) {
+        syncCountries(p_countries);
+        return d_countriesById.get(p_countryId);
+    }
+
+    /**
+     * Looks up a country by name, ignoring case.
+     *
+     * @param p_countries   the current country list of the map
+     * @param p_countryName the country name
+     * @return the country, or null
+     */
+    Country countryByName(List<Country> p_countries, String p_countryName) {
+        if (p_countryName == null) {
+            return null;
+        }
+        syncCountryNames(p_countries);
+        return d_countriesByName.get(nameKey(p_countryName));
+    }
+
+    /**
+     * Looks up a continent by its exact name.
+     *
+     * @param p_continents    the current continent list of the map
+     * @param p_continentName the continent name
+     * @return the continent, or null
+     */
+    Continent continentByName(List<Continent> p_continents, String p_continentName) {
+        syncContinents(p_continents);
+        return d_continentsByName.get(p_continentName);
+    }
+
+    /**
+     * Looks up a continent by ID.
+     *
+     * @param p_continents  the current continent list of the map
+     * @param p_continentId the continent ID
+     * @return the continent, or null
+     */
+    Continent continentById(List<Continent> p_continents, Integer p_continentId) {
+        syncContinents(p_continents);
+        return d_continentsById.get(p_continentId);
+    }
+
+    /**
+     * Gets the highest country ID of the map.
+     *
+     * @param p_countries the current country list of the map
+     * @return the highest ID, or 0 if there are no countries
+     */
+    int maxCountryId(List<Country> p_countries) {
+        syncCountries(p_countries);
+        if (d_maxCountryIdStale) {
+            d_maxCountryId = 0;
+            for (Country l_country : p_countries) {
+                d_maxCountryId = Math.max(d_maxCountryId, l_country.getD_countryID());
+            }
+            d_maxCountryIdStale = false;
+        }
+        return d_maxCountryId;
+    }
+
+    /**
+     * Gets the highest continent ID of the map.
+     *
+     * @param p_continents the current continent list of the map
+     * @return the highest ID, or 0 if there are no continents
+     */
+    int maxContinentId(List<Continent> p_continents) {
+        syncContinents(p_continents);
+        if (d_maxContinentIdStale) {
+            d_maxContinentId = 0;
+            for (Continent l_continent : p_continents) {
+                d_maxContinentId = Math.max(d_maxContinentId, l_continent.getD_continentID());
+            }
+            d_maxContinentIdStale = false;
+        }
+        return d_maxContinentId;
+    }
+
+    /**
+     * Records a country that was just appended to the map's country list.
+     *
+     * @param p_countries the country list, already containing the country
+     * @param p_country   the added country
+     */
+    void countryAdded(List<Country> p_countries, Country p_country) {
+        if (p_countries != d_indexedCountries || p_countries.size() != d_indexedCountryCount + 1) {
+            d_indexedCountryCount = -1;
+        } else {
+            indexCountry(p_country);
+            d_indexedCountryCount++;
+        }
+        if (p_countries != d_namedCountries || p_countries.size() != d_namedCountryCount + 1) {
+            d_namedCountryCount = -1;
+        } else {
+            indexCountryName(p_country);
+            d_namedCountryCount++;
+        }
+    }
+
+    /**
+     * Records a country that was just removed from the map's country list.
+     *
+     * @param p_countries the country list, no longer containing the country
+     * @param p_country   the removed country
+     */
+    void countryRemoved(List<Country> p_countries, Country p_country) {
+        if (p_countries != d_indexedCountries || p_countries.size() != d_indexedCountryCount - 1) {
+            d_indexedCountryCount = -1;
+        } else {
+            d_countriesById.remove(p_country.getD_countryID(), p_country);
+            if (p_country.getD_countryID() >= d_maxCountryId) {
+                d_maxCountryIdStale = true;
+            }
+            d_indexedCountryCount--;
+        }
+        if (p_countries != d_namedCountries || p_countries.size() != d_namedCountryCount - 1) {
+            d_namedCountryCount = -1;
+        } else {
+            if (p_country.getD_countryName() != null) {
+                d_countriesByName.remove(nameKey(p_country.getD_countryName()), p_country);
+            }
+            d_namedCountryCount--;
+        }
+    }
+
+    /**
+     * Records a continent that was just appended to the map's continent list.
+     *
+     * @param p_continents the continent list, already containing the continent
+     * @param p_continent  the added continent
+     */
+    void continentAdded(List<Continent> p_continents, Continent p_continent) {
+        if (p_continents != d_indexedContinents || p_continents.size() != d_indexedContinentCount + 1) {
+            d_indexedContinentCount = -1;
+            return;
+        }
+        indexContinent(p_continent);
+        d_indexedContinentCount++;
+    }
+
+    /**
+     * Records a continent that was just removed from the map's continent list.
+     *
+     * @param p_continents the continent list, no longer containing the continent
+     * @param p_continent  the removed continent
+     */
+    void continentRemoved(List<Continent> p_continents, Continent p_continent) {
+        if (p_continents != d_indexedContinents || p_continents.size() != d_indexedContinentCount - 1) {
+            d_indexedContinentCount = -1;
+            return;
+        }
+        d_continentsByName.remove(p_continent.getD_continentName(), p_continent);
+        d_continentsById.remove(p_continent.getD_continentID(), p_continent);
+        if (p_continent.getD_continentID() >= d_maxContinentId) {
+            d_maxContinentIdStale = true;
+        }
+        d_indexedContinentCount--;
+    }
+}
@@ -0,0 +1,231 @@
+package Model;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Journal of the edits made to a {@link Map} since it was last loaded or saved.
+ * <p>
+ * Every add and remove method of the map records one compact record: an operation code followed by
+ * big-endian ints and length-prefixed UTF-8 names. Continents are identified by name, since the text format
+ * numbers them by position, and countries by their ID. {@link MapDeltaLog} appends the records to the file
+ * on save and replays them on load, so saving costs the size of the edits rather than the size of the map.
+ * </p>
+ * <p>
+ * The journal also remembers the file it is in step with: the path, the size and modification time of the
+ * map file, and the size of its delta log. If any of them no longer matches, the next save rewrites the
+ * whole file.
+ * </p>
+ */
+final class MapJournal {
+    /** A continent was added: name, bonus. */
+    static final int CONTINENT_ADDED = 1;
+    /** A continent and its countries were removed: name. */
+    static final int CONTINENT_REMOVED = 2;
+    /** A country was added: ID, name, continent name. */
+    static final int COUNTRY_ADDED = 3;
+    /** A country was removed: ID. */
+    static final int COUNTRY_REMOVED = 4;
+    /** Two countries became neighbours: ID, ID. */
+    static final int NEIGHBOUR_ADDED = 5;
+    /** Two countries stopped being neighbours: ID, ID. */
+    static final int NEIGHBOUR_REMOVED = 6;
+
+    /** The encoded records. */
+    private final ByteArrayOutputStream d_records = new ByteArrayOutputStream();
+    /** Number of records. */
+    private int d_count;
+
+    /** The map file the journal is in step with, or null. */
+    private Path d_file;
+    /** Size of the map file when last in step. */
+    private long d_fileSize;
+    /** Modification time of the map file when last in step. */
+    private long d_fileModified;
+    /** Size of the delta log when last in step, zero if there was none. */
+    private long d_deltaSize;
+
+    /**
+     * Records an added continent.
+     *
+     * @param p_name  the continent name
+     * @param p_value the continent bonus
+     */
+    void continentAdded(String p_name, int p_value) {
+        begin(CONTINENT_ADDED);
+        writeString(p_name);
+        writeInt(p_value);
+    }
+
+    /**
+     * Records a removed continent.
+     *
+     * @param p_name the continent name
+     */
+    void continentRemoved(String p_name) {
+        begin(CONTINENT_REMOVED);
+        writeString(p_name);
+    }
+
+    /**
+     * Records an added country.
+     *
+     * @param p_id            the country ID
+     * @param p_name          the country name
+     * @param p_continentName the name of its continent
+     */
+    void countryAdded(int p_id, String p_name, String p_continentName) {
+        begin(COUNTRY_ADDED);
+        writeInt(p_id);
+        writeString(p_name);
+        writeString(p_continentName);
+    }
+
+    /**
+     * Records a removed country.
+     *
+     * @param p_id the country ID
+     */
+    void countryRemoved(int p_id) {
+        begin(COUNTRY_REMOVED);
+        writeInt(p_id);
+    }
+
+    /**
+     * Records two countries becoming neighbours.
+     *
+     * @param p_first  the first country ID
+     * @param p_second the second country ID
+     */
+    void neighbourAdded(int p_first, int p_second) {
+        begin(NEIGHBOUR_ADDED);
+        writeInt(p_first);
+        writeInt(p_second);
+    }
+
+    /**
+     * Records two countries no longer being neighbours.
+     *
+     * @param p_first  the first country ID
+     * @param p_second the second country ID
+     */
+    void neighbourRemoved(int p_first, int p_second) {
+        begin(NEIGHBOUR_REMOVED);
+        writeInt(p_first);
+        writeInt(p_second);
+    }
+
+    /**
+     * Starts a record.
+     *
+     * @param p_operation the operation code
+     */
+    private void begin(int p_operation) {
+        d_records.write(p_operation);
+        d_count++;
+    }
+
+    /**
+     * Appends a big-endian int.
+     *
+     * @param p_value the int
+     */
+    private void writeInt(int p_value) {
+        d_records.write(p_value >>> 24);
+        d_records.write(p_value >>> 16);
+        d_records.write(p_value >>> 8);
+        d_records.write(p_value);
+    }
+
+    /**
+     * Appends a length-prefixed UTF-8 string.
+     *
+     * @param p_string the string, null being written as empty
+     */
+    private void writeString(String p_string) {
+        byte[] l_bytes = p_string == null ? new byte[0] : p_string.getBytes(StandardCharsets.UTF_8);
+        writeInt(l_bytes.length);
+        d_records.write(l_bytes, 0, l_bytes.length);
+    }
+
+    /**
+     * Checks whether anything was edited.
+     *
+     * @return true if there are no records
+     */
+    boolean isEmpty() {
+        return d_count == 0;
+    }
+
+    /**
+     * Gets the number of records.
+     *
+     * @return the record count
+     */
+    int size() {
+        return d_count;
+    }
+
+    /**
+     * Gets the size of the encoded records.
+     *
+     * @return the size in bytes
+     */
+    int byteSize() {
+        return d_records.size();
+    }
+
+    /**
+     * Gets the encoded records.
+     *
+     * @return a copy of the records
+     */
+    byte[] toByteArray() {
+        return d_records.toByteArray();
+    }
+
+    /**
+     * Drops the records.
+     */
+    void clear() {
+        d_records.reset();
+        d_count = 0;
+    }
+
+    /**
+     * Remembers the files the map is now in step with.
+     *
+     * @param p_file         the map file
+     * @param p_fileSize     its size
+     * @param p_fileModified its modification time
+     * @param p_deltaSize    the size of its delta log, zero if there is none
+     */
+    void synced(Path p_file, long p_fileSize, long p_fileModified, long p_deltaSize) {
+        d_file = p_file;
+        d_fileSize = p_fileSize;
+        d_fileModified = p_fileModified;
+        d_deltaSize = p_deltaSize;
+    }
+
+    /**
+     * Forgets the file, so that the next save rewrites it in full.
+     */
+    void detach() {
+        d_file = null;
+    }
+
+    /**
+     * Checks whether the journal is in step with the given files.
+     *
+     * @param p_file         the map file
+     * @param p_fileSize     its current size
+     * @param p_fileModified its current modification time
+     * @param p_deltaSize    the current size of its delta log, zero if there is none
+     * @return true if the records are exactly the edits made since the files were written
+     */
+    boolean isSyncedWith(Path p_file, long p_fileSize, long p_fileModified, long p_deltaSize) {
+        return p_file.equals(d_file) && d_fileSize == p_fileSize && d_fileModified == p_fileModified
+                && d_deltaSize == p_deltaSize;
+    }
+}
@@ -0,0 +1,154 @@
+package Model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Splits lines of a map file into tokens without copying them.
+ * <p>
+ * Lines are given as byte ranges of a buffer. Tokens are separated by runs of spaces or tabs; numbers are
+ * parsed straight from the bytes. A tokenizer keeps the bounds of the current token and the last parsed
+ * number, so each thread needs its own.
+ * </p>
+ */
+final class MapLineTokenizer {
+    /** The bytes being tokenised. */
+    private ByteBuffer d_bytes;
+    /** Start of the token found by {@link #nextToken(int, int)}. */
+    int d_tokenStart;
+    /** End of the token found by {@link #nextToken(int, int)}. */
+    int d_tokenEnd;
+    /** Value of the last number parsed by {@link #parseInt(int, int)}. */
+    int d_value;
+
+    /**
+     * Creates a tokenizer.
+     *
+     * @param p_bytes the bytes to tokenise; only absolute reads are used
+     */
+    MapLineTokenizer(ByteBuffer p_bytes) {
+        this.d_bytes = p_bytes;
+    }
+
+    /**
+     * Replaces the buffer, for instance after the read buffer has grown.
+     *
+     * @param p_bytes the bytes to tokenise
+     */
+    void setBytes(ByteBuffer p_bytes) {
+        this.d_bytes = p_bytes;
+    }
+
+    /**
+     * Gets one byte.
+     *
+     * @param p_index the position
+     * @return the byte
+     */
+    byte byteAt(int p_index) {
+        return d_bytes.get(p_index);
+    }
+
+    /**
+     * Checks whether a line is exactly the given text.
+     *
+     * @param p_start the first byte of the line
+     * @param p_end   the byte after the line
+     * @param p_text  the expected bytes
+     * @return true if the line is the text
+     */
+    boolean matches(int p_start, int p_end, byte[] p_text) {
+        if (p_end - p_start != p_text.length) {
+            return false;
+        }
+        for (int i = 0; i < p_text.length; i++) {
+            if (d_bytes.get(p_start + i) != p_text[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the next token at or after a position.
+     *
+     * @param p_from the position to start from
+     * @param p_end  the end of the line
+     * @return true if a token was found; its bounds are then in {@link #d_tokenStart} and {@link #d_tokenEnd}
+     */
+    boolean nextToken(int p_from, int p_end) {
+        int i = p_from;
+        while (i < p_end && (d_bytes.get(i) == ' ' || d_bytes.get(i) == '\t')) {
+            i++;
+        }
+        if (i == p_end) {
+            return false;
+        }
+        d_tokenStart = i;
+        while (i < p_end && d_bytes.get(i) != ' ' && d_bytes.get(i) != '\t') {
+            i++;
+        }
+        d_tokenEnd = i;
+        return true;
+    }
+
+    /**
+     * Parses the current token as a number.
+     *
+     * @return true if the token is an int; it is then in {@link #d_value}
+     */
+    boolean parseToken() {
+        return parseInt(d_tokenStart, d_tokenEnd);
+    }
+
+    /**
+     * Parses a decimal int with an optional sign, accepting what {@link Integer#parseInt(String)} accepts.
+     *
+     * @param p_start the first byte of the number
+     * @param p_end   the byte after the number
+     * @return true if the bytes form an int; it is then in {@link #d_value}
+     */
+    boolean parseInt(int p_start, int p_end) {
+        int i = p_start;
+        boolean l_negative = false;
+        if (d_bytes.get(i) == '-' || d_bytes.get(i) == '+') {
+            l_negative = d_bytes.get(i) == '-';
+            i++;
+        }
+        if (i == p_end) {
+            return false;
+        }
+        // Accumulate negatively so that Integer.MIN_VALUE fits.
+        int l_limit = l_negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int l_value = 0;
+        for (; i < p_end; i++) {
+            int l_digit = d_bytes.get(i) - '0';
+            if (l_digit < 0 || l_digit > 9 || l_value < l_limit / 10) {
+                return false;
+            }
+            l_value *= 10;
+            if (l_value < l_limit + l_digit) {
+                return false;
+            }
+            l_value -= l_digit;
+        }
+        d_value = l_negative ? l_value : -l_value;
+        return true;
+    }
+
+    /**
+     * Decodes a range of bytes as UTF-8.
+     *
+     * @param p_start the first byte
+     * @param p_end   the byte after the last one
+     * @return the text
+     */
+    String string(int p_start, int p_end) {
+        if (d_bytes.hasArray()) {
+            return new String(d_bytes.array(), d_bytes.arrayOffset() + p_start, p_end - p_start, StandardCharsets.UTF_8);
+        }
+        byte[] l_bytes = new byte[p_end - p_start];
+        d_bytes.get(p_start, l_bytes);
+        return new String(l_bytes, StandardCharsets.UTF_8);
+    }
+}
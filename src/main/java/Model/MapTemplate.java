@@ -0,0 +1,196 @@
+package Model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Immutable snapshot of a parsed map, from which independent {@link Map} copies are made.
+ * <p>
+ * Everything is kept in flat arrays: continent records with their members as country indexes, country
+ * records, and the borders as neighbour IDs with per-country offsets. A copy allocates fresh
+ * {@link Country} and {@link Continent} objects, so armies and edits stay private to it, while names are
+ * shared and each neighbour list is a copy-on-write view of the shared border array. Copies start with no
+ * owner, as a map just read from a file does.
+ * </p>
+ */
+final class MapTemplate {
+    /** Continent names. */
+    final String[] d_continentNames;
+    /** Continent IDs. */
+    final int[] d_continentIds;
+    /** Continent bonus values. */
+    final int[] d_continentValues;
+    /** Start of each continent's members in {@link #d_members}, plus the end of the last. */
+    final int[] d_memberOffsets;
+    /** Country indexes of the members of each continent, back to back. */
+    final int[] d_members;
+    /** Country names. */
+    final String[] d_countryNames;
+    /** Country IDs. */
+    final int[] d_countryIds;
+    /** Continent ID of each country. */
+    final int[] d_countryContinentIds;
+    /** Armies on each country. */
+    final int[] d_armies;
+    /** Start of each country's neighbour IDs in {@link #d_neighbourIds}, plus the end of the last. */
+    final int[] d_borderOffsets;
+    /** Neighbour IDs of all countries, back to back. */
+    final int[] d_neighbourIds;
+    /** Whether the map is known to be valid. */
+    final boolean d_validated;
+
+    /**
+     * Creates a template from its arrays, which are kept and must not be changed afterwards.
+     *
+     * @param p_continentNames      continent names
+     * @param p_continentIds        continent IDs
+     * @param p_continentValues     continent bonus values
+     * @param p_memberOffsets       start of each continent's members, plus the end of the last
+     * @param p_members             member country indexes
+     * @param p_countryNames        country names
+     * @param p_countryIds          country IDs
+     * @param p_countryContinentIds continent ID of each country
+     * @param p_armies              armies on each country
+     * @param p_borderOffsets       start of each country's neighbour IDs, plus the end of the last
+     * @param p_neighbourIds        neighbour IDs
+     * @param p_validated           whether the map is known to be valid
+     */
+    MapTemplate(String[] p_continentNames, int[] p_continentIds, int[] p_continentValues, int[] p_memberOffsets,
+                int[] p_members, String[] p_countryNames, int[] p_countryIds, int[] p_countryContinentIds,
+                int[] p_armies, int[] p_borderOffsets, int[] p_neighbourIds, boolean p_validated) {
+        d_continentNames = p_continentNames;
+        d_continentIds = p_continentIds;
+        d_continentValues = p_continentValues;
+        d_memberOffsets = p_memberOffsets;
+        d_members = p_members;
+        d_countryNames = p_countryNames;
+        d_countryIds = p_countryIds;
+        d_countryContinentIds = p_countryContinentIds;
+        d_armies = p_armies;
+        d_borderOffsets = p_borderOffsets;
+        d_neighbourIds = p_neighbourIds;
+        d_validated = p_validated;
+    }
+
+    /**
+     * Takes a snapshot of a map. Continent members that are not in the country list are left out.
+     *
+     * @param p_map       the map
+     * @param p_validated whether the map is known to be valid
+     * @return the template
+     */
+    static MapTemplate of(Map p_map, boolean p_validated) {
+        List<Continent> l_continents = p_map.getD_mapContinents() == null ? new ArrayList<>() : p_map.getD_mapContinents();
+        List<Country> l_countries = p_map.getD_mapCountries() == null ? new ArrayList<>() : p_map.getD_mapCountries();
+
+        int l_countryCount = l_countries.size();
+        String[] l_countryNames = new String[l_countryCount];
+        int[] l_countryIds = new int[l_countryCount];
+        int[] l_countryContinentIds = new int[l_countryCount];
+        int[] l_armies = new int[l_countryCount];
+        int[] l_borderOffsets = new int[l_countryCount + 1];
+        IntArrayBuilder l_neighbourIds = new IntArrayBuilder();
+        IdentityHashMap<Country, Integer> l_indexOf = new IdentityHashMap<>(l_countryCount * 2);
+        for (int i = 0; i < l_countryCount; i++) {
+            Country l_country = l_countries.get(i);
+            l_indexOf.putIfAbsent(l_country, i);
+            l_countryNames[i] = l_country.getD_countryName();
+            l_countryIds[i] = l_country.getD_countryID();
+            l_countryContinentIds[i] = l_country.getD_continentID();
+            l_armies[i] = l_country.getD_armies();
+            List<Integer> l_neighbours = l_country.getD_neighbouringCountriesId();
+            if (l_neighbours instanceof NeighbourList l_list) {
+                for (int k = 0; k < l_list.size(); k++) {
+                    l_neighbourIds.add(l_list.getInt(k));
+                }
+            } else if (l_neighbours != null) {
+                for (Integer l_neighbourId : l_neighbours) {
+                    l_neighbourIds.add(l_neighbourId);
+                }
+            }
+            l_borderOffsets[i + 1] = l_neighbourIds.size();
+        }
+
+        int l_continentCount = l_continents.size();
+        String[] l_continentNames = new String[l_continentCount];
+        int[] l_continentIds = new int[l_continentCount];
+        int[] l_continentValues = new int[l_continentCount];
+        int[] l_memberOffsets = new int[l_continentCount + 1];
+        IntArrayBuilder l_members = new IntArrayBuilder();
+        for (int c = 0; c < l_continentCount; c++) {
+            Continent l_continent = l_continents.get(c);
+            l_continentNames[c] = l_continent.getD_continentName();
+            l_continentIds[c] = l_continent.getD_continentID();
+            l_continentValues[c] = l_continent.getD_continentValue();
+            if (l_continent.getD_countries() != null) {
+                for (Country l_member : l_continent.getD_countries()) {
+                    Integer l_index = l_indexOf.get(l_member);
+                    if (l_index != null) {
+                        l_members.add(l_index);
+                    }
+                }
+            }
+            l_memberOffsets[c + 1] = l_members.size();
+        }
+
+        return new MapTemplate(l_continentNames, l_continentIds, l_continentValues, l_memberOffsets,
+                trim(l_members), l_countryNames, l_countryIds, l_countryContinentIds, l_armies, l_borderOffsets,
+                trim(l_neighbourIds), p_validated);
+    }
+
+    /**
+     * Copies the used part of a builder.
+     *
+     * @param p_builder the builder
+     * @return an array of exactly the builder's size
+     */
+    private static int[] trim(IntArrayBuilder p_builder) {
+        return Arrays.copyOf(p_builder.array(), p_builder.size());
+    }
+
+    /**
+     * Stores a fresh copy of the continents and countries in a map.
+     *
+     * @param p_map the map to fill
+     */
+    void copyInto(Map p_map) {
+        List<Country> l_countries = new ArrayList<>(d_countryIds.length);
+        for (int i = 0; i < d_countryIds.length; i++) {
+            Country l_country = new Country(d_countryIds[i], d_countryNames[i], d_countryContinentIds[i]);
+            l_country.d_armies = d_armies[i];
+            l_country.setD_neighbouringCountriesId(new NeighbourList(d_neighbourIds, d_borderOffsets[i], d_borderOffsets[i + 1]));
+            l_countries.add(l_country);
+        }
+        List<Continent> l_continents = new ArrayList<>(d_continentIds.length);
+        for (int c = 0; c < d_continentIds.length; c++) {
+            Continent l_continent = new Continent(d_continentIds[c], d_continentNames[c], d_continentValues[c]);
+            for (int m = d_memberOffsets[c]; m < d_memberOffsets[c + 1]; m++) {
+                l_continent.setCountry(l_countries.get(d_members[m]));
+            }
+            l_continents.add(l_continent);
+        }
+        p_map.setD_mapContinents(l_continents);
+        p_map.setD_mapCountries(l_countries);
+        p_map.d_validated = d_validated;
+    }
+
+    /**
+     * Estimates the heap taken by the template.
+     *
+     * @return the approximate size in bytes
+     */
+    long estimateBytes() {
+        long l_bytes = 4L * (d_continentIds.length + d_continentValues.length + d_memberOffsets.length
+                + d_members.length + d_countryIds.length + d_countryContinentIds.length + d_armies.length
+                + d_borderOffsets.length + d_neighbourIds.length);
+        for (String l_name : d_continentNames) {
+            l_bytes += 48 + (l_name == null ? 0 : l_name.length());
+        }
+        for (String l_name : d_countryNames) {
+            l_bytes += 48 + (l_name == null ? 0 : l_name.length());
+        }
+        return l_bytes;
+    }
+}
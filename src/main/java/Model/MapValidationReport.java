@@ -0,0 +1,244 @@
+package Model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of validating a map with {@link MapValidator}.
+ * <p>
+ * Problems are kept as dense indexes into the validated {@link MapGraph} and turned into countries,
+ * continents or messages on request.
+ * </p>
+ */
+public final class MapValidationReport {
+    /** The validated graph. */
+    private final MapGraph d_graph;
+    /** Countries without any neighbour. */
+    private final int[] d_isolatedCountries;
+    /** Continents without any country. */
+    private final int[] d_emptyContinents;
+    /** Continents whose countries are not all reachable from the first one inside the continent. */
+    private final int[] d_disconnectedContinents;
+    /** For each disconnected continent, its countries that were not reached. */
+    private final int[][] d_unreachableInContinent;
+    /** Countries not reachable from the first country of the map. */
+    private final int[] d_unreachableCountries;
+
+    /**
+     * Creates a report.
+     *
+     * @param p_graph                  the validated graph
+     * @param p_isolatedCountries      countries without any neighbour
+     * @param p_emptyContinents        continents without any country
+     * @param p_disconnectedContinents continents that are not connected subgraphs
+     * @param p_unreachableInContinent unreached countries of each disconnected continent
+     * @param p_unreachableCountries   countries not reachable from the first country
+     */
+    MapValidationReport(MapGraph p_graph, int[] p_isolatedCountries, int[] p_emptyContinents,
+                        int[] p_disconnectedContinents, int[][] p_unreachableInContinent, int[] p_unreachableCountries) {
+        this.d_graph = p_graph;
+        this.d_isolatedCountries = p_isolatedCountries;
+        this.d_emptyContinents = p_emptyContinents;
+        this.d_disconnectedContinents = p_disconnectedContinents;
+        this.d_unreachableInContinent = p_unreachableInContinent;
+        this.d_unreachableCountries = p_unreachableCountries;
+    }
+
+    /**
+     * Checks whether the map has at least one continent.
+     *
+     * @return true if there are continents
+     */
+    public boolean hasContinents() {
+        return d_graph.continentCount() > 0;
+    }
+
+    /**
+     * Checks whether the map has at least one country.
+     *
+     * @return true if there are countries
+     */
+    public boolean hasCountries() {
+        return d_graph.countryCount() > 0;
+    }
+
+    /**
+     * Checks that there are continents and countries and that every country has a neighbour.
+     *
+     * @return true if the basic structure is valid
+     */
+    public boolean isStructureValid() {
+        return hasContinents() && hasCountries() && d_isolatedCountries.length == 0;
+    }
+
+    /**
+     * Checks that every continent has countries and forms a connected subgraph.
+     *
+     * @return true if all continents are valid
+     */
+    public boolean areContinentsConnected() {
+        return d_emptyContinents.length == 0 && d_disconnectedContinents.length == 0;
+    }
+
+    /**
+     * Checks that every country is reachable from the first country.
+     *
+     * @return true if the map is a connected graph
+     */
+    public boolean isConnected() {
+        return hasCountries() && d_unreachableCountries.length == 0;
+    }
+
+    /**
+     * Checks all validation rules.
+     *
+     * @return true if the map is valid
+     */
+    public boolean isValid() {
+        return isStructureValid() && areContinentsConnected() && isConnected();
+    }
+
+    /**
+     * Gets the countries without any neighbour.
+     *
+     * @return the isolated countries
+     */
+    public List<Country> getIsolatedCountries() {
+        return countries(d_isolatedCountries);
+    }
+
+    /**
+     * Gets the continents without any country.
+     *
+     * @return the empty continents
+     */
+    public List<Continent> getEmptyContinents() {
+        return continents(d_emptyContinents);
+    }
+
+    /**
+     * Gets the continents that are not connected subgraphs.
+     *
+     * @return the disconnected continents
+     */
+    public List<Continent> getDisconnectedContinents() {
+        return continents(d_disconnectedContinents);
+    }
+
+    /**
+     * Gets the countries of a continent that cannot be reached inside that continent.
+     *
+     * @param p_continent the continent
+     * @return the unreachable countries, empty if the continent is connected
+     */
+    public List<Country> getUnreachableCountries(Continent p_continent) {
+        for (int i = 0; i < d_disconnectedContinents.length; i++) {
+            if (d_graph.continentAt(d_disconnectedContinents[i]) == p_continent) {
+                return countries(d_unreachableInContinent[i]);
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Gets the countries that cannot be reached from the first country of the map.
+     *
+     * @return the unreachable countries
+     */
+    public List<Country> getUnreachableCountries() {
+        return countries(d_unreachableCountries);
+    }
+
+    /**
+     * Gets the messages describing the structural problems.
+     *
+     * @return the messages, empty if the structure is valid
+     */
+    public List<String> getStructureMessages() {
+        List<String> l_messages = new ArrayList<>();
+        if (!hasContinents()) {
+            l_messages.add("Map does not have Continents");
+        } else if (!hasCountries()) {
+            l_messages.add("Map does not have Countries");
+        } else {
+            for (int l_index : d_isolatedCountries) {
+                l_messages.add("Country: " + d_graph.countryAt(l_index).getD_countryName() + " does not have any neighbours.");
+            }
+        }
+        return l_messages;
+    }
+
+    /**
+     * Gets the messages describing empty or disconnected continents.
+     *
+     * @return the messages, empty if all continents are valid
+     */
+    public List<String> getContinentMessages() {
+        List<String> l_messages = new ArrayList<>();
+        for (int l_continent : d_emptyContinents) {
+            l_messages.add("Continent: " + d_graph.continentAt(l_continent).getD_continentName() + " has no countries.");
+        }
+        for (int[] l_unreachable : d_unreachableInContinent) {
+            for (int l_index : l_unreachable) {
+                l_messages.add("Country : " + d_graph.countryAt(l_index).getD_countryName() + " is not reachable.");
+            }
+        }
+        return l_messages;
+    }
+
+    /**
+     * Gets the messages describing countries unreachable from the first country.
+     *
+     * @return the messages, empty if the map is connected
+     */
+    public List<String> getConnectionMessages() {
+        List<String> l_messages = new ArrayList<>();
+        for (int l_index : d_unreachableCountries) {
+            l_messages.add("Country : " + d_graph.countryAt(l_index).getD_countryName() + " is not reachable");
+        }
+        return l_messages;
+    }
+
+    /**
+     * Gets all messages in the order the checks are run.
+     *
+     * @return the messages, empty if the map is valid
+     */
+    public List<String> getMessages() {
+        List<String> l_messages = getStructureMessages();
+        if (hasContinents() && hasCountries()) {
+            l_messages.addAll(getContinentMessages());
+            l_messages.addAll(getConnectionMessages());
+        }
+        return l_messages;
+    }
+
+    /**
+     * Resolves dense country indexes.
+     *
+     * @param p_indexes the dense indexes
+     * @return the countries
+     */
+    private List<Country> countries(int[] p_indexes) {
+        List<Country> l_countries = new ArrayList<>(p_indexes.length);
+        for (int l_index : p_indexes) {
+            l_countries.add(d_graph.countryAt(l_index));
+        }
+        return l_countries;
+    }
+
+    /**
+     * Resolves dense continent indexes.
+     *
+     * @param p_indexes the dense indexes
+     * @return the continents
+     */
+    private List<Continent> continents(int[] p_indexes) {
+        List<Continent> l_continents = new ArrayList<>(p_indexes.length);
+        for (int l_index : p_indexes) {
+            l_continents.add(d_graph.continentAt(l_index));
+        }
+        return l_continents;
+    }
+}
@@ -0,0 +1,262 @@
+package Model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+/**
+ * Validates a {@link MapGraph} in one linear pass.
+ * <p>
+ * Both the global and the per-continent connectivity checks are depth-first searches driven by an explicit
+ * int stack over the compressed adjacency arrays, with {@link BitSet} visited sets. No recursion is used,
+ * so arbitrarily long chains of countries are validated without a larger thread stack, and each country
+ * and border is looked at a constant number of times.
+ * </p>
+ * <p>
+ * The continent checks are independent of each other. On maps with many continents they run in parallel
+ * on the common fork-join pool over the immutable graph, each continent with its own stack; the results are
+ * merged in continent order, so the report and its messages are the same as in sequential mode. Setting the
+ * system property {@value #SEQUENTIAL_PROPERTY} to true, or passing false to the constructor, keeps the
+ * whole validation on the calling thread.
+ * </p>
+ */
+public final class MapValidator {
+    /** System property that turns off the parallel continent checks by default. */
+    public static final String SEQUENTIAL_PROPERTY = "warzone.validation.sequential";
+    /** Fewer continents than this are always checked on the calling thread. */
+    static final int PARALLEL_THRESHOLD = 16;
+
+    /** Whether continents may be checked in parallel. */
+    private final boolean d_parallel;
+
+    /**
+     * Creates a validator that checks continents in parallel unless {@value #SEQUENTIAL_PROPERTY} is set.
+     */
+    public MapValidator() {
+        this(!Boolean.getBoolean(SEQUENTIAL_PROPERTY));
+    }
+
+    /**
+     * Creates a validator.
+     *
+     * @param p_parallel whether continents may be checked in parallel
+     */
+    public MapValidator(boolean p_parallel) {
+        this.d_parallel = p_parallel;
+    }
+
+    /**
+     * Validates a map graph.
+     *
+     * @param p_graph the graph to validate
+     * @return the validation report
+     */
+    public MapValidationReport validate(MapGraph p_graph) {
+        int l_countryCount = p_graph.countryCount();
+        int[] l_stack = new int[Math.max(1, l_countryCount)];
+
+        int[] l_isolated = isolatedCountries(p_graph);
+        int[] l_unreachable = new int[0];
+        if (l_countryCount > 0) {
+            BitSet l_visited = new BitSet(l_countryCount);
+            search(p_graph, 0, -1, l_visited, l_stack);
+            l_unreachable = clearBits(l_visited, l_countryCount);
+        }
+
+        int l_continentCount = p_graph.continentCount();
+        int[][] l_unreachedByContinent = (d_parallel && l_continentCount >= PARALLEL_THRESHOLD)
+                ? checkContinentsInParallel(p_graph)
+                : checkContinents(p_graph, l_stack);
+
+        int[] l_empty = new int[l_continentCount];
+        int l_emptyCount = 0;
+        int[] l_disconnected = new int[l_continentCount];
+        int[][] l_unreachableInContinent = new int[l_continentCount][];
+        int l_disconnectedCount = 0;
+        for (int c = 0; c < l_continentCount; c++) {
+            if (p_graph.continentSize(c) == 0) {
+                l_empty[l_emptyCount++] = c;
+            } else if (l_unreachedByContinent[c] != null) {
+                l_disconnected[l_disconnectedCount] = c;
+                l_unreachableInContinent[l_disconnectedCount] = l_unreachedByContinent[c];
+                l_disconnectedCount++;
+            }
+        }
+
+        return new MapValidationReport(p_graph, l_isolated, Arrays.copyOf(l_empty, l_emptyCount),
+                Arrays.copyOf(l_disconnected, l_disconnectedCount),
+                Arrays.copyOf(l_unreachableInContinent, l_disconnectedCount), l_unreachable);
+    }
+
+    /**
+     * Checks every continent on the calling thread.
+     *
+     * @param p_graph the graph
+     * @param p_stack scratch stack with room for every country
+     * @return for each continent, its unreached members, or null if it is empty or connected
+     */
+    private static int[][] checkContinents(MapGraph p_graph, int[] p_stack) {
+        int[][] l_unreached = new int[p_graph.continentCount()][];
+        // Continents are disjoint, so one visited set serves all of them.
+        BitSet l_visited = new BitSet(p_graph.countryCount());
+        for (int c = 0; c < l_unreached.length; c++) {
+            int l_size = p_graph.continentSize(c);
+            if (l_size == 0) {
+                continue;
+            }
+            int l_reached = search(p_graph, p_graph.continentMember(c, 0), c, l_visited, p_stack);
+            if (l_reached < l_size) {
+                l_unreached[c] = unreachedMembers(p_graph, c, l_visited, l_size - l_reached);
+            }
+        }
+        return l_unreached;
+    }
+
+    /**
+     * Checks the continents as parallel tasks. Each task writes only the visited flags of its own members,
+     * so they share one {@code boolean[]} without locking, and each keeps its result in its own slot.
+     *
+     * @param p_graph the graph
+     * @return for each continent, its unreached members, or null if it is empty or connected
+     */
+    private static int[][] checkContinentsInParallel(MapGraph p_graph) {
+        int[][] l_unreached = new int[p_graph.continentCount()][];
+        boolean[] l_visited = new boolean[p_graph.countryCount()];
+        IntStream.range(0, l_unreached.length).parallel().forEach(c -> {
+            int l_size = p_graph.continentSize(c);
+            if (l_size == 0) {
+                return;
+            }
+            int l_reached = searchContinent(p_graph, c, l_visited, new int[l_size]);
+            if (l_reached < l_size) {
+                int[] l_members = new int[l_size - l_reached];
+                for (int m = 0, j = 0; j < l_members.length; m++) {
+                    int l_member = p_graph.continentMember(c, m);
+                    if (!l_visited[l_member]) {
+                        l_members[j++] = l_member;
+                    }
+                }
+                l_unreached[c] = l_members;
+            }
+        });
+        return l_unreached;
+    }
+
+    /**
+     * Runs an iterative depth-first search inside one continent, starting from its first member.
+     *
+     * @param p_graph     the graph
+     * @param p_continent the dense continent index
+     * @param p_visited   the visited flags, updated in place for members of the continent only
+     * @param p_stack     scratch stack with room for every member of the continent
+     * @return the number of members reached, including the start
+     */
+    private static int searchContinent(MapGraph p_graph, int p_continent, boolean[] p_visited, int[] p_stack) {
+        int l_start = p_graph.continentMember(p_continent, 0);
+        int l_top = 0;
+        int l_reached = 1;
+        p_visited[l_start] = true;
+        p_stack[l_top++] = l_start;
+        while (l_top > 0) {
+            int l_country = p_stack[--l_top];
+            for (int k = p_graph.neighbourStart(l_country), l_end = p_graph.neighbourEnd(l_country); k < l_end; k++) {
+                int l_neighbour = p_graph.neighbourAt(k);
+                if (p_visited[l_neighbour] || p_graph.continentOf(l_neighbour) != p_continent) {
+                    continue;
+                }
+                p_visited[l_neighbour] = true;
+                p_stack[l_top++] = l_neighbour;
+                l_reached++;
+            }
+        }
+        return l_reached;
+    }
+
+    /**
+     * Runs an iterative depth-first search.
+     *
+     * @param p_graph     the graph
+     * @param p_start     the dense index of the starting country
+     * @param p_continent the dense continent index to stay within, or -1 to search the whole map
+     * @param p_visited   the visited set, updated in place
+     * @param p_stack     scratch stack with room for every country
+     * @return the number of countries reached, including the start
+     */
+    static int search(MapGraph p_graph, int p_start, int p_continent, BitSet p_visited, int[] p_stack) {
+        int l_top = 0;
+        int l_reached = 1;
+        p_visited.set(p_start);
+        p_stack[l_top++] = p_start;
+        while (l_top > 0) {
+            int l_country = p_stack[--l_top];
+            for (int k = p_graph.neighbourStart(l_country), l_end = p_graph.neighbourEnd(l_country); k < l_end; k++) {
+                int l_neighbour = p_graph.neighbourAt(k);
+                if (p_visited.get(l_neighbour) || (p_continent >= 0 && p_graph.continentOf(l_neighbour) != p_continent)) {
+                    continue;
+                }
+                p_visited.set(l_neighbour);
+                p_stack[l_top++] = l_neighbour;
+                l_reached++;
+            }
+        }
+        return l_reached;
+    }
+
+    /**
+     * Collects the countries without any neighbour.
+     *
+     * @param p_graph the graph
+     * @return the dense indexes of the isolated countries
+     */
+    private static int[] isolatedCountries(MapGraph p_graph) {
+        int l_count = 0;
+        for (int i = 0; i < p_graph.countryCount(); i++) {
+            if (p_graph.degree(i) == 0) {
+                l_count++;
+            }
+        }
+        int[] l_isolated = new int[l_count];
+        for (int i = 0, j = 0; j < l_count; i++) {
+            if (p_graph.degree(i) == 0) {
+                l_isolated[j++] = i;
+            }
+        }
+        return l_isolated;
+    }
+
+    /**
+     * Collects the indexes below a limit whose bit is clear.
+     *
+     * @param p_visited the visited set
+     * @param p_limit   the number of countries
+     * @return the dense indexes that were not visited
+     */
+    private static int[] clearBits(BitSet p_visited, int p_limit) {
+        int[] l_clear = new int[p_limit - p_visited.cardinality()];
+        int j = 0;
+        for (int i = p_visited.nextClearBit(0); i < p_limit; i = p_visited.nextClearBit(i + 1)) {
+            l_clear[j++] = i;
+        }
+        return l_clear;
+    }
+
+    /**
+     * Collects the members of a continent that were not visited.
+     *
+     * @param p_graph     the graph
+     * @param p_continent the dense continent index
+     * @param p_visited   the visited set
+     * @param p_count     the number of unvisited members
+     * @return the dense indexes of the unvisited members, in membership order
+     */
+    static int[] unreachedMembers(MapGraph p_graph, int p_continent, BitSet p_visited, int p_count) {
+        int[] l_unreached = new int[p_count];
+        for (int m = 0, j = 0; j < p_count; m++) {
+            int l_member = p_graph.continentMember(p_continent, m);
+            if (!p_visited.get(l_member)) {
+                l_unreached[j++] = l_member;
+            }
+        }
+        return l_unreached;
+    }
+}
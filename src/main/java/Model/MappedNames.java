@@ -0,0 +1,55 @@
+package Model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Country names left undecoded in a memory-mapped map file.
+ * <p>
+ * The memory-mapped reader records where each name lies instead of creating a string, and each
+ * {@link Country} decodes its own name the first time it is asked for. The mapping stays open as long as
+ * a country still refers to it.
+ * </p>
+ */
+final class MappedNames {
+    /** The mapped file. */
+    private final ByteBuffer d_buffer;
+    /** Start of each name in the file. */
+    private final IntArrayBuilder d_starts = new IntArrayBuilder();
+    /** Length of each name in bytes. */
+    private final IntArrayBuilder d_lengths = new IntArrayBuilder();
+
+    /**
+     * Creates an empty name table over a mapped file.
+     *
+     * @param p_buffer the mapped file
+     */
+    MappedNames(ByteBuffer p_buffer) {
+        this.d_buffer = p_buffer;
+    }
+
+    /**
+     * Records the position of a name.
+     *
+     * @param p_start the first byte of the name
+     * @param p_end   the byte after the name
+     * @return the position of the name in this table
+     */
+    int add(int p_start, int p_end) {
+        d_starts.add(p_start);
+        d_lengths.add(p_end - p_start);
+        return d_starts.size() - 1;
+    }
+
+    /**
+     * Decodes a name.
+     *
+     * @param p_index the position of the name in this table
+     * @return the name
+     */
+    String name(int p_index) {
+        byte[] l_bytes = new byte[d_lengths.array()[p_index]];
+        d_buffer.get(d_starts.array()[p_index], l_bytes);
+        return new String(l_bytes, StandardCharsets.UTF_8);
+    }
+}
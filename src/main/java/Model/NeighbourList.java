@@ -0,0 +1,143 @@
+package Model;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Mutable list of neighbour IDs stored as primitive ints.
+ * <p>
+ * A freshly loaded list is a slice of an int array shared with the other countries of the map, so loading
+ * does not allocate an {@link Integer} per border. The slice is copied into an array of the list's own on
+ * the first change, so editing one country never affects another.
+ * </p>
+ */
+final class NeighbourList extends AbstractList<Integer> implements RandomAccess {
+    /** The IDs, starting at {@link #d_from}. */
+    private int[] d_ids;
+    /** Offset of the first ID in {@link #d_ids}. */
+    private int d_from;
+    /** Number of IDs. */
+    private int d_size;
+    /** Whether {@link #d_ids} is shared and must be copied before a change. */
+    private boolean d_shared;
+
+    /**
+     * Creates a list over a slice of a shared array.
+     *
+     * @param p_ids  the shared array, which must not be changed afterwards
+     * @param p_from the first index of the slice
+     * @param p_to   the index after the last one of the slice
+     */
+    NeighbourList(int[] p_ids, int p_from, int p_to) {
+        this.d_ids = p_ids;
+        this.d_from = p_from;
+        this.d_size = p_to - p_from;
+        this.d_shared = true;
+    }
+
+    /**
+     * Gets an ID without boxing it.
+     *
+     * @param p_index the position in the list
+     * @return the ID
+     */
+    int getInt(int p_index) {
+        return d_ids[d_from + checkIndex(p_index, d_size)];
+    }
+
+    @Override
+    public Integer get(int p_index) {
+        return getInt(p_index);
+    }
+
+    @Override
+    public int size() {
+        return d_size;
+    }
+
+    @Override
+    public Integer set(int p_index, Integer p_id) {
+        checkIndex(p_index, d_size);
+        unshare(d_size);
+        int l_old = d_ids[p_index];
+        d_ids[p_index] = p_id;
+        return l_old;
+    }
+
+    @Override
+    public void add(int p_index, Integer p_id) {
+        checkIndex(p_index, d_size + 1);
+        unshare(d_size + 1);
+        System.arraycopy(d_ids, p_index, d_ids, p_index + 1, d_size - p_index);
+        d_ids[p_index] = p_id;
+        d_size++;
+        modCount++;
+    }
+
+    @Override
+    public Integer remove(int p_index) {
+        checkIndex(p_index, d_size);
+        unshare(d_size);
+        int l_old = d_ids[p_index];
+        System.arraycopy(d_ids, p_index + 1, d_ids, p_index, d_size - p_index - 1);
+        d_size--;
+        modCount++;
+        return l_old;
+    }
+
+    @Override
+    public void clear() {
+        d_ids = new int[0];
+        d_from = 0;
+        d_size = 0;
+        d_shared = false;
+        modCount++;
+    }
+
+    @Override
+    public int indexOf(Object p_id) {
+        if (p_id instanceof Integer) {
+            int l_id = (Integer) p_id;
+            for (int i = 0; i < d_size; i++) {
+                if (d_ids[d_from + i] == l_id) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object p_id) {
+        return indexOf(p_id) >= 0;
+    }
+
+    /**
+     * Makes sure the list owns its array and has room for a number of IDs.
+     *
+     * @param p_capacity the number of IDs needed
+     */
+    private void unshare(int p_capacity) {
+        if (d_shared || d_from != 0 || p_capacity > d_ids.length) {
+            int[] l_ids = new int[Math.max(p_capacity, d_size + (d_size >> 1) + 1)];
+            System.arraycopy(d_ids, d_from, l_ids, 0, d_size);
+            d_ids = l_ids;
+            d_from = 0;
+            d_shared = false;
+        }
+    }
+
+    /**
+     * Checks a position against a bound.
+     *
+     * @param p_index the position
+     * @param p_bound the exclusive upper bound
+     * @return the position
+     */
+    private static int checkIndex(int p_index, int p_bound) {
+        if (p_index < 0 || p_index >= p_bound) {
+            throw new IndexOutOfBoundsException("Index: " + p_index + ", Size: " + p_bound);
+        }
+        return p_index;
+    }
+}
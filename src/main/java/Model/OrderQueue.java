@@ -0,0 +1,195 @@
+package Model;
+
+import java.util.AbstractList;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * The orders of a player, first issued first executed, in a growable ring buffer.
+ * <p>
+ * Adding an order at either end and taking one from either end are O(1) and allocate nothing once the buffer
+ * is large enough, so a player can queue and drain tens of thousands of orders per turn in linear time. The
+ * queue is also a {@link java.util.List} in issue order, for the callers that read or replace the orders as
+ * a whole; inserting or removing in the middle shifts the orders after that position.
+ * </p>
+ */
+final class OrderQueue extends AbstractList<Orders> implements RandomAccess {
+    /** The slots; the length is a power of two. */
+    private Orders[] d_orders = new Orders[8];
+    /** Slot of the first order. */
+    private int d_head;
+    /** Number of orders. */
+    private int d_size;
+
+    @Override
+    public Orders get(int p_index) {
+        return d_orders[slot(checkIndex(p_index, d_size))];
+    }
+
+    @Override
+    public Orders set(int p_index, Orders p_order) {
+        int l_slot = slot(checkIndex(p_index, d_size));
+        Orders l_old = d_orders[l_slot];
+        d_orders[l_slot] = p_order;
+        return l_old;
+    }
+
+    @Override
+    public int size() {
+        return d_size;
+    }
+
+    @Override
+    public boolean add(Orders p_order) {
+        addLast(p_order);
+        return true;
+    }
+
+    @Override
+    public void addLast(Orders p_order) {
+        ensureRoom();
+        d_orders[slot(d_size)] = p_order;
+        d_size++;
+        modCount++;
+    }
+
+    @Override
+    public void addFirst(Orders p_order) {
+        ensureRoom();
+        d_head = (d_head - 1) & (d_orders.length - 1);
+        d_orders[d_head] = p_order;
+        d_size++;
+        modCount++;
+    }
+
+    @Override
+    public void add(int p_index, Orders p_order) {
+        checkIndex(p_index, d_size + 1);
+        if (p_index == 0) {
+            addFirst(p_order);
+            return;
+        }
+        ensureRoom();
+        for (int i = d_size; i > p_index; i--) {
+            d_orders[slot(i)] = d_orders[slot(i - 1)];
+        }
+        d_orders[slot(p_index)] = p_order;
+        d_size++;
+        modCount++;
+    }
+
+    /**
+     * Takes the first order.
+     *
+     * @return the first order, or null if there is none
+     */
+    Orders pollFirst() {
+        if (d_size == 0) {
+            return null;
+        }
+        Orders l_order = d_orders[d_head];
+        d_orders[d_head] = null;
+        d_head = (d_head + 1) & (d_orders.length - 1);
+        d_size--;
+        modCount++;
+        return l_order;
+    }
+
+    /**
+     * Takes the last order.
+     *
+     * @return the last order, or null if there is none
+     */
+    Orders pollLast() {
+        if (d_size == 0) {
+            return null;
+        }
+        int l_slot = slot(d_size - 1);
+        Orders l_order = d_orders[l_slot];
+        d_orders[l_slot] = null;
+        d_size--;
+        modCount++;
+        return l_order;
+    }
+
+    @Override
+    public Orders removeFirst() {
+        if (d_size == 0) {
+            throw new NoSuchElementException();
+        }
+        return pollFirst();
+    }
+
+    @Override
+    public Orders removeLast() {
+        if (d_size == 0) {
+            throw new NoSuchElementException();
+        }
+        return pollLast();
+    }
+
+    @Override
+    public Orders remove(int p_index) {
+        checkIndex(p_index, d_size);
+        if (p_index == 0) {
+            return pollFirst();
+        }
+        Orders l_order = d_orders[slot(p_index)];
+        for (int i = p_index; i < d_size - 1; i++) {
+            d_orders[slot(i)] = d_orders[slot(i + 1)];
+        }
+        d_orders[slot(d_size - 1)] = null;
+        d_size--;
+        modCount++;
+        return l_order;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < d_size; i++) {
+            d_orders[slot(i)] = null;
+        }
+        d_head = 0;
+        d_size = 0;
+        modCount++;
+    }
+
+    /**
+     * Gets the slot of a position.
+     *
+     * @param p_index the position in issue order
+     * @return the slot
+     */
+    private int slot(int p_index) {
+        return (d_head + p_index) & (d_orders.length - 1);
+    }
+
+    /**
+     * Doubles the buffer if it is full, moving the first order to the first slot.
+     */
+    private void ensureRoom() {
+        if (d_size < d_orders.length) {
+            return;
+        }
+        Orders[] l_orders = new Orders[d_orders.length * 2];
+        int l_firstPart = Math.min(d_size, d_orders.length - d_head);
+        System.arraycopy(d_orders, d_head, l_orders, 0, l_firstPart);
+        System.arraycopy(d_orders, 0, l_orders, l_firstPart, d_size - l_firstPart);
+        d_orders = l_orders;
+        d_head = 0;
+    }
+
+    /**
+     * Checks a position against a bound.
+     *
+     * @param p_index the position
+     * @param p_bound the exclusive upper bound
+     * @return the position
+     */
+    private static int checkIndex(int p_index, int p_bound) {
+        if (p_index < 0 || p_index >= p_bound) {
+            throw new IndexOutOfBoundsException("Index: " + p_index + ", Size: " + p_bound);
+        }
+        return p_index;
+    }
+}
@@ -3,6 +3,10 @@ package Model;
  * Model Class Orders.
  */
 public class Orders {
+    /**
+     * The deploy order command.
+     */
+    public static final String DEPLOY = "deploy";
     /**
      * The D order command.
      */
@@ -15,6 +19,10 @@ public class Orders {
      * The D number of armies to move.
      */
     Integer d_noOfArmiesToMove;
+    /**
+     * The D target country, resolved when the order was issued, or null if only its name is known.
+     */
+    Country d_target;
     /**
      * Instantiates a new Orders.
      *
@@ -27,6 +35,17 @@ public class Orders {
         this.d_targetName = p_targetName;
         this.d_noOfArmiesToMove = p_noOfArmiesToMove;
     }
+    /**
+     * Instantiates a new Orders on a country already resolved and checked, so executing it needs no lookup.
+     *
+     * @param p_order the p order command
+     * @param p_target the p target country
+     * @param p_noOfArmiesToMove the p number of armies to move
+     */
+    public Orders(String p_order, Country p_target, int p_noOfArmiesToMove){
+        this(p_order, p_target.getD_countryName(), p_noOfArmiesToMove);
+        this.d_target = p_target;
+    }
     /**
      * Gets the D order command.
      *
@@ -51,6 +70,14 @@ public class Orders {
     public Integer getD_noOfArmiesToMove() {
         return d_noOfArmiesToMove;
     }
+    /**
+     * Gets the D target country.
+     *
+     * @return the D target country, or null if the order was created from a name only
+     */
+    public Country getD_target() {
+        return d_target;
+    }
     /**
      * Sets the D order command.
      *
@@ -66,6 +93,7 @@ public class Orders {
      */
     public void setD_targetName(String d_targetName) {
         this.d_targetName = d_targetName;
+        this.d_target = null;
     }
     /**
      * Sets the D number of armies to move.
@@ -78,19 +106,18 @@ public class Orders {
     /**
      * Executes the order for the given player.
      * <p>
-     * If the order command is "deploy", this method iterates through the player's current countries,
-     * and when it finds the country whose name matches the target name, it adds the specified number of armies.
+     * If the order command is "deploy", the specified number of armies is added to the target country. An
+     * order issued on a resolved country updates it directly; one created from a name only looks the name up
+     * among the player's current countries through their name index.
      * </p>
      *
      * @param p_eachPlayer the player executing the order
      */
     public void execute(Player p_eachPlayer) {
-        if(d_order.equals("deploy")){
-            for(Country l_eachCountry : p_eachPlayer.getD_currentCountries()){
-                if(l_eachCountry.getD_countryName().equals(this.d_targetName)){
-                    l_eachCountry.setD_armies(l_eachCountry.getD_armies() + this.d_noOfArmiesToMove);
-                    break;
-                }
+        if(d_order.equals(DEPLOY)){
+            Country l_target = d_target != null ? d_target : p_eachPlayer.getOwnedCountry(this.d_targetName);
+            if(l_target != null){
+                l_target.setD_armies(l_target.getD_armies() + this.d_noOfArmiesToMove);
             }
         }
     }
@@ -0,0 +1,185 @@
+package Model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.RandomAccess;
+
+/**
+ * The countries of a player, as a list.
+ * <p>
+ * While the player is attached to an {@link OwnershipTable}, the countries of the table are not stored here:
+ * the list reads them from the player's bitset, in map order, and adding or removing one transfers its
+ * ownership in the table in constant time. The list is only copied out of the bitset again when it is read
+ * after a change. Countries outside the table, and all countries of a player not attached to one, are kept
+ * after those, in the order they were added, as in a plain list. A country of the table already owned by the
+ * player is not added twice.
+ * </p>
+ */
+final class OwnedCountries extends AbstractList<Country> implements RandomAccess {
+    /** The ownership table the countries are read from, or null while the player is not attached to one. */
+    private OwnershipTable d_table;
+    /** The slot of the player in the table. */
+    private int d_slot = -1;
+    /** The countries outside the table of the player, in the order they were added. */
+    private final ArrayList<Country> d_unindexed = new ArrayList<>();
+    /** The countries of the table owned by the player, in map order, when not stale. */
+    private Country[] d_indexed = new Country[0];
+    /** Whether {@link #d_indexed} has to be copied out of the table again. */
+    private boolean d_stale;
+
+    /**
+     * Creates the empty country list of a player not attached to a table.
+     */
+    OwnedCountries() {
+    }
+
+    @Override
+    public Country get(int p_index) {
+        int l_indexedCount = indexedCount();
+        if (p_index < 0 || p_index >= l_indexedCount + d_unindexed.size()) {
+            throw new IndexOutOfBoundsException("Index: " + p_index + ", Size: " + size());
+        }
+        if (p_index >= l_indexedCount) {
+            return d_unindexed.get(p_index - l_indexedCount);
+        }
+        if (d_stale) {
+            if (d_indexed.length < l_indexedCount) {
+                d_indexed = new Country[Math.max(l_indexedCount, d_indexed.length * 2)];
+            }
+            table().copyOwned(d_slot, d_indexed);
+            d_stale = false;
+        }
+        return d_indexed[p_index];
+    }
+
+    @Override
+    public int size() {
+        return indexedCount() + d_unindexed.size();
+    }
+
+    @Override
+    public boolean contains(Object p_object) {
+        int l_index = p_object instanceof Country l_country ? indexOf(l_country) : -1;
+        if (l_index >= 0) {
+            return table().ownerSlot(l_index) == d_slot;
+        }
+        return d_unindexed.contains(p_object);
+    }
+
+    @Override
+    public boolean add(Country p_country) {
+        int l_index = indexOf(p_country);
+        if (l_index >= 0) {
+            if (table().ownerSlot(l_index) == d_slot) {
+                return false;
+            }
+            table().transfer(l_index, d_slot);
+        } else {
+            d_unindexed.add(p_country);
+        }
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public Country remove(int p_index) {
+        Country l_country = get(p_index);
+        if (p_index < indexedCount()) {
+            table().release(indexOf(l_country));
+        } else {
+            d_unindexed.remove(p_index - indexedCount());
+        }
+        modCount++;
+        return l_country;
+    }
+
+    @Override
+    public boolean remove(Object p_object) {
+        int l_index = p_object instanceof Country l_country ? indexOf(l_country) : -1;
+        if (l_index >= 0) {
+            if (table().ownerSlot(l_index) != d_slot) {
+                return false;
+            }
+            table().release(l_index);
+        } else if (!d_unindexed.remove(p_object)) {
+            return false;
+        }
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        if (table() != null && indexedCount() > 0) {
+            table().releaseAll(d_slot);
+        }
+        d_unindexed.clear();
+        modCount++;
+    }
+
+    /**
+     * Attaches the list to the ownership table of the player, which then holds the countries of the table.
+     *
+     * @param p_table the table
+     * @param p_slot  the slot of the player in the table
+     */
+    void attach(OwnershipTable p_table, int p_slot) {
+        d_table = p_table;
+        d_slot = p_slot;
+        invalidate();
+    }
+
+    /**
+     * Marks the countries read from the table as out of date, after the table changed.
+     */
+    void invalidate() {
+        d_stale = true;
+        modCount++;
+    }
+
+    /**
+     * Gets the number of structural changes, including the ones made through the table.
+     *
+     * @return the change count
+     */
+    int modifications() {
+        return modCount;
+    }
+
+    /**
+     * Gets the table of the player.
+     *
+     * @return the table, or null if the player is not attached to one
+     */
+    OwnershipTable table() {
+        return d_table;
+    }
+
+    /**
+     * Gets the slot of the player in the table.
+     *
+     * @return the slot, or -1 if the player is not attached to a table
+     */
+    int slot() {
+        return d_slot;
+    }
+
+    /**
+     * Gets the number of countries of the table owned by the player.
+     *
+     * @return the count
+     */
+    private int indexedCount() {
+        return table() == null ? 0 : table().ownedCount(d_slot);
+    }
+
+    /**
+     * Gets the index of a country in the table of the player.
+     *
+     * @param p_country the country
+     * @return the index, or -1 if the player is not attached or the country is not in the table
+     */
+    private int indexOf(Country p_country) {
+        return table() == null ? -1 : table().indexOf(p_country);
+    }
+}
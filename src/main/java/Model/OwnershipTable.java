@@ -0,0 +1,471 @@
+package Model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Who owns which country, for every player of a game.
+ * <p>
+ * The countries of the map get dense indexes, in map order. The table keeps the owner of each country in an
+ * int array and the countries of each player as a bitset of those indexes, so checking or transferring the
+ * ownership of a country is O(1). It also counts how many countries of each continent every player owns: a
+ * transfer updates the counters of the continents of the country, and the player gains a continent when the
+ * counter reaches the size of the continent and loses it when it drops again, so the continents of the players
+ * are always up to date without being recomputed. The country list of an attached {@link Player} is a view over
+ * the table: changing the list changes the table and the other way round, and the continent set of the player
+ * follows it.
+ * </p>
+ */
+public final class OwnershipTable {
+    /** Owner of a country nobody owns. */
+    private static final int UNOWNED = -1;
+
+    /** The countries, by index. */
+    private final Country[] d_countries;
+    /** Index of each country by ID, or null if the IDs are too sparse for an array. */
+    private final int[] d_indexById;
+    /** Index of each country by ID, when the IDs are too sparse for an array. */
+    private final HashMap<Integer, Integer> d_sparseIndexById;
+    /** Index of each country by exact name. */
+    private final HashMap<String, Integer> d_indexByName = new HashMap<>();
+    /** Player slot owning each country, or {@link #UNOWNED}. */
+    private final int[] d_owner;
+    /** Number of words of a player bitset. */
+    private final int d_wordCount;
+    /** The continents, by continent slot. */
+    private final Continent[] d_continents;
+    /** Slot of each continent. */
+    private final IdentityHashMap<Continent, Integer> d_continentSlots = new IdentityHashMap<>();
+    /** Number of countries of each continent slot, or -1 for a continent with a country outside the table. */
+    private final int[] d_continentSizes;
+    /** Where the continent slots of each country start in {@link #d_countryContinents}; one more than countries. */
+    private final int[] d_firstContinent;
+    /** The continent slots of every country, grouped by country. */
+    private final int[] d_countryContinents;
+
+    /** The attached players, by slot. */
+    private final ArrayList<Player> d_players = new ArrayList<>();
+    /** The countries of each player slot, as a bitset of indexes. */
+    private final ArrayList<long[]> d_owned = new ArrayList<>();
+    /** The number of countries of each player slot. */
+    private int[] d_ownedCounts = new int[4];
+    /** The number of countries of each continent slot owned by each player slot. */
+    private final ArrayList<int[]> d_continentCounts = new ArrayList<>();
+
+    /**
+     * Builds an empty table over the countries of a map and the countries of its continents.
+     *
+     * @param p_countries  the countries of the map, indexed in this order; may be null
+     * @param p_continents the continents of the map, whose countries not in the map are indexed after them;
+     *                     may be null
+     */
+    public OwnershipTable(List<Country> p_countries, List<Continent> p_continents) {
+        IdentityHashMap<Country, Integer> l_indexes = new IdentityHashMap<>();
+        ArrayList<Country> l_countries = new ArrayList<>();
+        if (p_countries != null) {
+            for (Country l_country : p_countries) {
+                index(l_country, l_indexes, l_countries);
+            }
+        }
+        if (p_continents != null) {
+            for (Continent l_continent : p_continents) {
+                if (l_continent.getD_countries() != null) {
+                    for (Country l_country : l_continent.getD_countries()) {
+                        index(l_country, l_indexes, l_countries);
+                    }
+                }
+            }
+        }
+        d_countries = l_countries.toArray(new Country[0]);
+        d_owner = new int[d_countries.length];
+        Arrays.fill(d_owner, UNOWNED);
+        d_wordCount = (d_countries.length + 63) >>> 6;
+
+        int l_maxId = -1;
+        boolean l_dense = true;
+        for (Country l_country : d_countries) {
+            Integer l_id = l_country.getD_countryID();
+            if (l_id == null || l_id < 0) {
+                l_dense = false;
+            } else {
+                l_maxId = Math.max(l_maxId, l_id);
+            }
+        }
+        l_dense &= l_maxId < 4 * d_countries.length + 64;
+        d_indexById = l_dense ? new int[l_maxId + 1] : null;
+        d_sparseIndexById = l_dense ? null : new HashMap<>();
+        if (l_dense) {
+            Arrays.fill(d_indexById, UNOWNED);
+        }
+        for (int i = d_countries.length - 1; i >= 0; i--) {
+            Integer l_id = d_countries[i].getD_countryID();
+            if (l_dense) {
+                d_indexById[l_id] = i;
+            } else if (l_id != null) {
+                d_sparseIndexById.put(l_id, i);
+            }
+            if (d_countries[i].getD_countryName() != null) {
+                d_indexByName.put(d_countries[i].getD_countryName(), i);
+            }
+        }
+
+        d_continents = p_continents == null ? new Continent[0] : p_continents.toArray(new Continent[0]);
+        d_continentSizes = new int[d_continents.length];
+        int[] l_continentCounts = new int[d_countries.length + 1];
+        for (int k = 0; k < d_continents.length; k++) {
+            d_continentSlots.putIfAbsent(d_continents[k], k);
+            for (int l_index : memberIndexes(d_continents[k])) {
+                if (l_index < 0) {
+                    d_continentSizes[k] = UNOWNED;
+                    break;
+                }
+                l_continentCounts[l_index + 1]++;
+                d_continentSizes[k]++;
+            }
+        }
+        d_firstContinent = new int[d_countries.length + 1];
+        for (int i = 0; i < d_countries.length; i++) {
+            d_firstContinent[i + 1] = d_firstContinent[i] + l_continentCounts[i + 1];
+        }
+        d_countryContinents = new int[d_firstContinent[d_countries.length]];
+        int[] l_filled = Arrays.copyOf(d_firstContinent, d_countries.length);
+        for (int k = 0; k < d_continents.length; k++) {
+            if (d_continentSizes[k] > 0) {
+                for (int l_index : memberIndexes(d_continents[k])) {
+                    d_countryContinents[l_filled[l_index]++] = k;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the table all the players are attached to, attaching them to a new table over the countries of the
+     * continents if they do not share one.
+     *
+     * @param p_players    the players
+     * @param p_continents the continents
+     * @return the table of the players
+     */
+    public static OwnershipTable shared(List<Player> p_players, List<Continent> p_continents) {
+        OwnershipTable l_table = p_players.isEmpty() ? null : p_players.getFirst().getD_ownership();
+        for (Player l_player : p_players) {
+            if (l_table == null || l_player.getD_ownership() != l_table) {
+                l_table = new OwnershipTable(null, p_continents);
+                for (Player l_eachPlayer : p_players) {
+                    l_table.addPlayer(l_eachPlayer);
+                }
+                break;
+            }
+        }
+        return l_table;
+    }
+
+    /**
+     * Gives a country the next index, unless it already has one.
+     *
+     * @param p_country   the country
+     * @param p_indexes   the indexes given so far
+     * @param p_countries the countries given an index so far, in index order
+     */
+    private static void index(Country p_country, IdentityHashMap<Country, Integer> p_indexes,
+                              List<Country> p_countries) {
+        if (p_country != null && p_indexes.putIfAbsent(p_country, p_countries.size()) == null) {
+            p_countries.add(p_country);
+        }
+    }
+
+    /**
+     * Gets the distinct indexes of the countries of a continent.
+     *
+     * @param p_continent the continent
+     * @return the indexes, ascending; -1 first if a country of the continent is not in the table
+     */
+    private int[] memberIndexes(Continent p_continent) {
+        List<Country> l_members = p_continent.getD_countries();
+        int[] l_indexes = new int[l_members == null ? 0 : l_members.size()];
+        for (int i = 0; i < l_indexes.length; i++) {
+            l_indexes[i] = indexOf(l_members.get(i));
+        }
+        Arrays.sort(l_indexes);
+        int l_count = 0;
+        for (int i = 0; i < l_indexes.length; i++) {
+            if (i == 0 || l_indexes[i] != l_indexes[i - 1]) {
+                l_indexes[l_count++] = l_indexes[i];
+            }
+        }
+        return Arrays.copyOf(l_indexes, l_count);
+    }
+
+    /**
+     * Attaches a player, moving the countries they own into the table. A player attached to another table
+     * gives their countries up there first.
+     *
+     * @param p_player the player
+     */
+    public void addPlayer(Player p_player) {
+        if (p_player.getD_ownership() == this) {
+            return;
+        }
+        List<Country> l_countries = new ArrayList<>(p_player.getD_currentCountries());
+        p_player.getD_currentCountries().clear();
+        int l_slot = d_players.size();
+        d_players.add(p_player);
+        d_owned.add(new long[d_wordCount]);
+        d_continentCounts.add(new int[d_continents.length]);
+        if (l_slot == d_ownedCounts.length) {
+            d_ownedCounts = Arrays.copyOf(d_ownedCounts, l_slot * 2);
+        }
+        p_player.attach(this, l_slot);
+        p_player.getD_currentCountries().addAll(l_countries);
+    }
+
+    /**
+     * Gets the number of countries in the table.
+     *
+     * @return the country count
+     */
+    public int getCountryCount() {
+        return d_countries.length;
+    }
+
+    /**
+     * Gets the owner of a country.
+     *
+     * @param p_country the country
+     * @return the owner, or null if nobody owns it or it is not in the table
+     */
+    public Player getOwner(Country p_country) {
+        int l_index = indexOf(p_country);
+        return l_index < 0 || d_owner[l_index] == UNOWNED ? null : d_players.get(d_owner[l_index]);
+    }
+
+    /**
+     * Checks whether a player owns a country.
+     *
+     * @param p_player  the player
+     * @param p_country the country
+     * @return true if the player is attached to the table and owns the country
+     */
+    public boolean owns(Player p_player, Country p_country) {
+        int l_index = indexOf(p_country);
+        return l_index >= 0 && d_owner[l_index] != UNOWNED && d_owner[l_index] == slotOf(p_player);
+    }
+
+    /**
+     * Gives a country to a player, taking it from its previous owner, in constant time.
+     *
+     * @param p_country  the country
+     * @param p_newOwner the new owner, attached to the table, or null to leave the country unowned
+     * @throws IllegalArgumentException if the country is not in the table or the player is not attached
+     */
+    public void transfer(Country p_country, Player p_newOwner) {
+        int l_index = indexOf(p_country);
+        if (l_index < 0) {
+            throw new IllegalArgumentException("Country " + p_country + " is not in the ownership table.");
+        }
+        if (p_newOwner == null) {
+            release(l_index);
+            return;
+        }
+        int l_slot = slotOf(p_newOwner);
+        if (l_slot == UNOWNED) {
+            throw new IllegalArgumentException("Player " + p_newOwner.getD_playerName()
+                    + " is not in the ownership table.");
+        }
+        transfer(l_index, l_slot);
+    }
+
+    /**
+     * Checks whether a player owns every country of a continent. For a continent of the table this compares
+     * the counter of the player with the size of the continent.
+     *
+     * @param p_player    the player
+     * @param p_continent the continent
+     * @return true if the player is attached to the table and owns the whole continent
+     */
+    public boolean controls(Player p_player, Continent p_continent) {
+        int l_slot = slotOf(p_player);
+        if (l_slot == UNOWNED) {
+            return false;
+        }
+        Integer l_continentSlot = d_continentSlots.get(p_continent);
+        if (l_continentSlot != null) {
+            int l_size = d_continentSizes[l_continentSlot];
+            return l_size > 0 && d_continentCounts.get(l_slot)[l_continentSlot] == l_size;
+        }
+        int[] l_indexes = memberIndexes(p_continent);
+        for (int l_index : l_indexes) {
+            if (l_index < 0 || d_owner[l_index] != l_slot) {
+                return false;
+            }
+        }
+        return l_indexes.length > 0;
+    }
+
+    /**
+     * Gets the index of a country.
+     *
+     * @param p_country the country
+     * @return the index, or -1 if the country is not in the table
+     */
+    public int indexOf(Country p_country) {
+        if (p_country == null || p_country.getD_countryID() == null) {
+            return UNOWNED;
+        }
+        int l_id = p_country.getD_countryID();
+        int l_index;
+        if (d_indexById != null) {
+            l_index = l_id >= 0 && l_id < d_indexById.length ? d_indexById[l_id] : UNOWNED;
+        } else {
+            l_index = d_sparseIndexById.getOrDefault(l_id, UNOWNED);
+        }
+        return l_index >= 0 && d_countries[l_index] == p_country ? l_index : UNOWNED;
+    }
+
+    /**
+     * Gets the index of a country by its exact name.
+     *
+     * @param p_countryName the name
+     * @return the index, or -1 if no country of the table has that name
+     */
+    int indexOf(String p_countryName) {
+        Integer l_index = p_countryName == null ? null : d_indexByName.get(p_countryName);
+        return l_index == null || !p_countryName.equals(d_countries[l_index].getD_countryName()) ? UNOWNED : l_index;
+    }
+
+    /**
+     * Gets a country by index.
+     *
+     * @param p_index the index
+     * @return the country
+     */
+    Country getCountry(int p_index) {
+        return d_countries[p_index];
+    }
+
+    /**
+     * Gets the player slot owning a country.
+     *
+     * @param p_index the index of the country
+     * @return the slot, or -1 if nobody owns it
+     */
+    int ownerSlot(int p_index) {
+        return d_owner[p_index];
+    }
+
+    /**
+     * Gets the number of countries of a player slot.
+     *
+     * @param p_slot the slot
+     * @return the country count
+     */
+    int ownedCount(int p_slot) {
+        return d_ownedCounts[p_slot];
+    }
+
+    /**
+     * Gives a country to a player slot.
+     *
+     * @param p_index the index of the country
+     * @param p_slot  the slot of the new owner
+     */
+    void transfer(int p_index, int p_slot) {
+        if (d_owner[p_index] == p_slot) {
+            return;
+        }
+        release(p_index);
+        d_owned.get(p_slot)[p_index >>> 6] |= 1L << p_index;
+        d_ownedCounts[p_slot]++;
+        d_owner[p_index] = p_slot;
+        Player l_player = d_players.get(p_slot);
+        int[] l_counts = d_continentCounts.get(p_slot);
+        for (int k = d_firstContinent[p_index]; k < d_firstContinent[p_index + 1]; k++) {
+            int l_continent = d_countryContinents[k];
+            if (++l_counts[l_continent] == d_continentSizes[l_continent]) {
+                l_player.continentGained(d_continents[l_continent]);
+            }
+        }
+        l_player.countriesChanged();
+    }
+
+    /**
+     * Leaves a country unowned.
+     *
+     * @param p_index the index of the country
+     */
+    void release(int p_index) {
+        int l_slot = d_owner[p_index];
+        if (l_slot == UNOWNED) {
+            return;
+        }
+        d_owned.get(l_slot)[p_index >>> 6] &= ~(1L << p_index);
+        d_ownedCounts[l_slot]--;
+        d_owner[p_index] = UNOWNED;
+        lose(l_slot, p_index);
+        d_players.get(l_slot).countriesChanged();
+    }
+
+    /**
+     * Counts a country out of the continents of a player slot, which loses the continents it held whole.
+     *
+     * @param p_slot  the slot
+     * @param p_index the index of the country
+     */
+    private void lose(int p_slot, int p_index) {
+        int[] l_counts = d_continentCounts.get(p_slot);
+        for (int k = d_firstContinent[p_index]; k < d_firstContinent[p_index + 1]; k++) {
+            int l_continent = d_countryContinents[k];
+            if (l_counts[l_continent]-- == d_continentSizes[l_continent]) {
+                d_players.get(p_slot).continentLost(d_continents[l_continent]);
+            }
+        }
+    }
+
+    /**
+     * Leaves every country of a player slot unowned, in time linear in the countries of the slot.
+     *
+     * @param p_slot the slot
+     */
+    void releaseAll(int p_slot) {
+        long[] l_owned = d_owned.get(p_slot);
+        for (int w = 0; w < l_owned.length; w++) {
+            for (long l_bits = l_owned[w]; l_bits != 0; l_bits &= l_bits - 1) {
+                int l_index = (w << 6) + Long.numberOfTrailingZeros(l_bits);
+                d_owner[l_index] = UNOWNED;
+                lose(p_slot, l_index);
+            }
+            l_owned[w] = 0;
+        }
+        d_ownedCounts[p_slot] = 0;
+        d_players.get(p_slot).countriesChanged();
+    }
+
+    /**
+     * Copies the countries of a player slot, in index order.
+     *
+     * @param p_slot      the slot
+     * @param p_countries the array to fill, at least {@link #ownedCount(int)} long
+     */
+    void copyOwned(int p_slot, Country[] p_countries) {
+        long[] l_owned = d_owned.get(p_slot);
+        int l_count = 0;
+        for (int w = 0; w < l_owned.length; w++) {
+            for (long l_bits = l_owned[w]; l_bits != 0; l_bits &= l_bits - 1) {
+                p_countries[l_count++] = d_countries[(w << 6) + Long.numberOfTrailingZeros(l_bits)];
+            }
+        }
+    }
+
+    /**
+     * Gets the slot of a player.
+     *
+     * @param p_player the player
+     * @return the slot, or -1 if the player is not attached to the table
+     */
+    private int slotOf(Player p_player) {
+        return p_player != null && p_player.getD_ownership() == this ? p_player.getD_ownershipSlot() : UNOWNED;
+    }
+}
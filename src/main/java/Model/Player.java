@@ -2,11 +2,14 @@ package Model;
 
 import Controller.PlayerController;
 import Utils.CommandHandler;
+import Utils.ParsedCommand;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -22,14 +25,22 @@ public class Player {
     /** The number of unallocated armies the player has. */
     Integer d_unallocatedArmies;
 
-    /** The list of countries the player currently controls. */
-    List<Country> d_currentCountries;
+    /**
+     * The countries the player currently controls, a view over the ownership table once attached to one. The
+     * view holds the table and the slot of the player itself.
+     */
+    final OwnedCountries d_currentCountries = new OwnedCountries();
 
     /** The set of continents the player currently controls. */
     Set<Continent> d_currentContinents;
 
-    /** The list of orders the player has issued. */
-    List<Orders> d_orders;
+    /** The orders the player has issued, in issue order. */
+    final OrderQueue d_orders = new OrderQueue();
+
+    /** The countries of the player by exact name, built from the country list on first lookup. */
+    private final HashMap<String, Country> d_countriesByName = new HashMap<>();
+    /** Change count of the country list when the name index was built, or -1 if never built. */
+    private int d_indexedModifications = -1;
 
     /**
      * Constructor to initialize a new player.
@@ -39,8 +50,6 @@ public class Player {
     public Player(String p_playerName) {
         this.d_playerName = p_playerName;
         this.d_unallocatedArmies = 0;
-        this.d_orders = new ArrayList<Orders>();
-        this.d_currentCountries = new ArrayList<Country>();
         this.d_currentContinents = new HashSet<>();
     }
 
@@ -81,7 +90,8 @@ public class Player {
     }
 
     /**
-     * Gets the list of countries the player currently controls.
+     * Gets the list of countries the player currently controls. Once the player is attached to an ownership
+     * table, the list is a view over it: adding a country takes it from its previous owner.
      *
      * @return The list of countries.
      */
@@ -90,16 +100,111 @@ public class Player {
     }
 
     /**
-     * Sets the list of countries the player currently controls.
+     * Replaces the countries the player currently controls by the given ones.
      *
-     * @param p_currentCountries The list of countries.
+     * @param p_currentCountries The list of countries; null leaves the player without countries.
      */
     public void setD_currentCountries(List<Country> p_currentCountries) {
-        this.d_currentCountries = p_currentCountries;
+        if(p_currentCountries == d_currentCountries) {
+            return;
+        }
+        List<Country> l_countries = p_currentCountries == null ? List.of() : new ArrayList<>(p_currentCountries);
+        d_currentCountries.clear();
+        d_currentCountries.addAll(l_countries);
+    }
+
+    /**
+     * Gets the ownership table the player is attached to.
+     *
+     * @return The table, or null if the player is not attached to one.
+     */
+    public OwnershipTable getD_ownership() {
+        return d_currentCountries.table();
+    }
+
+    /**
+     * Gets the slot of the player in their ownership table.
+     *
+     * @return The slot, or -1 if the player is not attached to a table.
+     */
+    int getD_ownershipSlot() {
+        return d_currentCountries.slot();
+    }
+
+    /**
+     * Attaches the player to an ownership table, which then holds their countries.
+     *
+     * @param p_ownership The table.
+     * @param p_slot The slot of the player in the table.
+     */
+    void attach(OwnershipTable p_ownership, int p_slot) {
+        d_currentCountries.attach(p_ownership, p_slot);
+    }
+
+    /**
+     * Notes that the ownership table changed the countries of the player.
+     */
+    void countriesChanged() {
+        d_currentCountries.invalidate();
+    }
+
+    /**
+     * Notes that the player now owns every country of a continent.
+     *
+     * @param p_continent The continent.
+     */
+    void continentGained(Continent p_continent) {
+        if(d_currentContinents == null) {
+            d_currentContinents = new HashSet<>();
+        }
+        d_currentContinents.add(p_continent);
     }
 
     /**
-     * Gets the set of continents the player currently controls.
+     * Notes that the player no longer owns every country of a continent.
+     *
+     * @param p_continent The continent.
+     */
+    void continentLost(Continent p_continent) {
+        if(d_currentContinents != null) {
+            d_currentContinents.remove(p_continent);
+        }
+    }
+
+    /**
+     * Finds a country of the player by its exact name, in constant time.
+     * <p>
+     * A country of the ownership table of the player is found through the table. Other countries are found
+     * through a name index, rebuilt on the next lookup whenever the country list changes; a country renamed in
+     * place is still found under its new name only.
+     * </p>
+     *
+     * @param p_countryName The name of the country.
+     * @return The country, or null if the player does not own it.
+     */
+    public Country getOwnedCountry(String p_countryName) {
+        if(p_countryName == null) {
+            return null;
+        }
+        OwnershipTable l_ownership = d_currentCountries.table();
+        int l_index = l_ownership == null ? -1 : l_ownership.indexOf(p_countryName);
+        if(l_index >= 0) {
+            return l_ownership.ownerSlot(l_index) == d_currentCountries.slot() ? l_ownership.getCountry(l_index) : null;
+        }
+        if(d_currentCountries.modifications() != d_indexedModifications) {
+            d_countriesByName.clear();
+            for(Country l_country : d_currentCountries) {
+                d_countriesByName.putIfAbsent(l_country.getD_countryName(), l_country);
+            }
+            d_indexedModifications = d_currentCountries.modifications();
+        }
+        Country l_country = d_countriesByName.get(p_countryName);
+        return l_country != null && p_countryName.equals(l_country.getD_countryName()) ? l_country : null;
+    }
+
+    /**
+     * Gets the set of continents the player currently controls. Once the player is attached to an ownership
+     * table, the table adds and removes continents as the player gains and loses countries.
      *
      * @return The set of continents.
      */
@@ -117,7 +222,7 @@ public class Player {
     }
 
     /**
-     * Gets the list of orders the player has issued.
+     * Gets the orders the player has issued, in issue order. The list is the player's order queue itself.
      *
      * @return The list of orders.
      */
@@ -126,12 +231,18 @@ public class Player {
     }
 
     /**
-     * Sets the list of orders the player has issued.
+     * Replaces the orders the player has issued by a copy of the given ones.
      *
-     * @param p_orders The list of orders.
+     * @param p_orders The list of orders; null clears the orders.
      */
     public void setD_orders(List<Orders> p_orders) {
-        this.d_orders = p_orders;
+        if(p_orders == d_orders) {
+            return;
+        }
+        d_orders.clear();
+        if(p_orders != null) {
+            d_orders.addAll(p_orders);
+        }
     }
 
     /**
@@ -149,25 +260,38 @@ public class Player {
     }
 
     /**
-     * Issues an order for the player to deploy armies.
+     * Issues an order for the player to deploy armies, reading the command from standard input.
      *
      * @throws IOException If there is an issue with reading the input.
      */
     public void issueOrder() throws IOException {
-        BufferedReader l_bufferedReader = new BufferedReader(new InputStreamReader(System.in));
-        System.out.println("Enter command to deploy armies on the map for Player: " + d_playerName + " | Armies left: " + d_unallocatedArmies);
+        issueOrder(StandardInput.READER, System.out);
+    }
 
-        String l_command = l_bufferedReader.readLine().trim();
-        CommandHandler l_commandHandler = new CommandHandler(l_command);
+    /**
+     * Issues an order for the player to deploy armies, reading the command from the given input.
+     *
+     * @param p_input  The input of the player's session.
+     * @param p_output The output of the player's session.
+     * @throws IOException If there is an issue with reading the input.
+     */
+    public void issueOrder(BufferedReader p_input, PrintStream p_output) throws IOException {
+        p_output.println("Enter command to deploy armies on the map for Player: " + d_playerName + " | Armies left: " + d_unallocatedArmies);
 
-        if("deploy".equals(l_commandHandler.getMainCommand())) {
-            String[] l_commandParts = l_command.split(" ");
+        String l_line = p_input.readLine();
+        if(l_line == null) {
+            return;
+        }
+        String l_command = l_line.trim();
+        ParsedCommand l_parsedCommand = new CommandHandler(l_command).getParsedCommand();
 
-            if(l_commandParts.length == 3) {
-                PlayerController l_playerController = new PlayerController();
-                l_playerController.createDeployOrder(l_command, this);
+        if(l_parsedCommand.isCommand("deploy")) {
+            if(l_parsedCommand.optionCount() == 1 && l_parsedCommand.isPositional(0)
+                    && l_parsedCommand.argumentCount(0) == 2) {
+                PlayerController l_playerController = new PlayerController(p_output);
+                l_playerController.createDeployOrder(l_parsedCommand, this);
             } else {
-                System.out.println("Invalid command format. Please provide a valid command.");
+                p_output.println("Invalid command format. Please provide a valid command.");
             }
         }
     }
@@ -178,12 +302,7 @@ public class Player {
      * @return The next order, or null if no orders exist.
      */
     public Orders nextOrder() {
-        if(d_orders == null || d_orders.isEmpty()) {
-            return null;
-        }
-        Orders l_order = d_orders.get(0);
-        d_orders.remove(l_order);
-        return l_order;
+        return d_orders.pollFirst();
     }
 
     /**
@@ -195,4 +314,13 @@ public class Player {
     public String toString() {
         return "Player [Player Name=" + d_playerName + ", Unallocated Armies=" + d_unallocatedArmies + ", Current Countries=" + d_currentCountries.size() + ", Current Continents=" + d_currentContinents.size() + ", Orders=" + d_orders.size() + "]";
     }
+
+    /**
+     * Standard input of the console game, read through one reader so that no line buffered by an earlier
+     * order is lost. Sessions pass their own reader instead.
+     */
+    private static final class StandardInput {
+        /** The reader of standard input. */
+        static final BufferedReader READER = new BufferedReader(new InputStreamReader(System.in));
+    }
 }
@@ -0,0 +1,157 @@
+package Model;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * SHA-256 digest of the state of a game, to check that replaying a session gives the same game.
+ * <p>
+ * The digest covers the map, with its continents, countries, armies and borders, and every player's
+ * unallocated armies, countries, continents and pending orders. The countries and continents of a player
+ * are digested by sorted ID, so the digest does not depend on the order they were dealt in.
+ * </p>
+ */
+public final class StateDigest {
+
+    private StateDigest() {
+    }
+
+    /**
+     * Digests the state of a game.
+     *
+     * @param p_currentState the state
+     * @return the digest, in lower-case hexadecimal
+     */
+    public static String of(CurrentState p_currentState) {
+        MessageDigest l_digest;
+        try {
+            l_digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException l_e) {
+            throw new IllegalStateException("SHA-256 is not available.", l_e);
+        }
+        try (DataOutputStream l_output = new DataOutputStream(new BufferedOutputStream(
+                new DigestOutputStream(OutputStream.nullOutputStream(), l_digest)))) {
+            writeMap(l_output, p_currentState.getD_map());
+            writePlayers(l_output, p_currentState.getD_players());
+        } catch (IOException l_e) {
+            throw new UncheckedIOException(l_e);
+        }
+        return HexFormat.of().formatHex(l_digest.digest());
+    }
+
+    /**
+     * Writes the map.
+     *
+     * @param p_output the digest input
+     * @param p_map    the map, or null
+     * @throws IOException never, the output being a digest
+     */
+    private static void writeMap(DataOutputStream p_output, Map p_map) throws IOException {
+        if (p_map == null) {
+            p_output.writeInt(-1);
+            return;
+        }
+        writeString(p_output, p_map.getD_mapName());
+        List<Continent> l_continents = p_map.getD_mapContinents();
+        p_output.writeInt(l_continents == null ? 0 : l_continents.size());
+        if (l_continents != null) {
+            for (Continent l_continent : l_continents) {
+                p_output.writeInt(l_continent.getD_continentID());
+                writeString(p_output, l_continent.getD_continentName());
+                p_output.writeInt(l_continent.getD_continentValue());
+            }
+        }
+        List<Country> l_countries = p_map.getD_mapCountries();
+        p_output.writeInt(l_countries == null ? 0 : l_countries.size());
+        if (l_countries != null) {
+            for (Country l_country : l_countries) {
+                p_output.writeInt(l_country.getD_countryID());
+                writeString(p_output, l_country.getD_countryName());
+                p_output.writeInt(l_country.getD_continentID());
+                p_output.writeInt(l_country.getD_armies() == null ? 0 : l_country.getD_armies());
+                List<Integer> l_neighbours = l_country.getD_neighbouringCountriesId();
+                p_output.writeInt(l_neighbours.size());
+                for (int i = 0; i < l_neighbours.size(); i++) {
+                    p_output.writeInt(l_neighbours.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the players.
+     *
+     * @param p_output  the digest input
+     * @param p_players the players, or null
+     * @throws IOException never, the output being a digest
+     */
+    private static void writePlayers(DataOutputStream p_output, List<Player> p_players) throws IOException {
+        p_output.writeInt(p_players == null ? 0 : p_players.size());
+        if (p_players == null) {
+            return;
+        }
+        for (Player l_player : p_players) {
+            writeString(p_output, l_player.getD_playerName());
+            p_output.writeInt(l_player.getD_unallocatedArmies() == null ? 0 : l_player.getD_unallocatedArmies());
+
+            List<Country> l_countries = l_player.getD_currentCountries();
+            int[] l_countryIds = new int[l_countries == null ? 0 : l_countries.size()];
+            for (int i = 0; i < l_countryIds.length; i++) {
+                l_countryIds[i] = l_countries.get(i).getD_countryID();
+            }
+            writeSorted(p_output, l_countryIds);
+
+            int[] l_continentIds = l_player.getD_currentContinents() == null ? new int[0]
+                    : l_player.getD_currentContinents().stream().mapToInt(Continent::getD_continentID).toArray();
+            writeSorted(p_output, l_continentIds);
+
+            List<Orders> l_orders = l_player.getD_orders();
+            p_output.writeInt(l_orders == null ? 0 : l_orders.size());
+            if (l_orders != null) {
+                for (Orders l_order : l_orders) {
+                    writeString(p_output, l_order.getD_order());
+                    writeString(p_output, l_order.getD_targetName());
+                    p_output.writeInt(l_order.getD_noOfArmiesToMove());
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a set of IDs in ascending order.
+     *
+     * @param p_output the digest input
+     * @param p_ids    the IDs, sorted in place
+     * @throws IOException never, the output being a digest
+     */
+    private static void writeSorted(DataOutputStream p_output, int[] p_ids) throws IOException {
+        Arrays.sort(p_ids);
+        p_output.writeInt(p_ids.length);
+        for (int l_id : p_ids) {
+            p_output.writeInt(l_id);
+        }
+    }
+
+    /**
+     * Writes a string that may be null.
+     *
+     * @param p_output the digest input
+     * @param p_string the string
+     * @throws IOException never, the output being a digest
+     */
+    private static void writeString(DataOutputStream p_output, String p_string) throws IOException {
+        p_output.writeBoolean(p_string != null);
+        if (p_string != null) {
+            p_output.writeUTF(p_string);
+        }
+    }
+}
@@ -4,11 +4,17 @@ import java.util.*;
 
 /**
  * Handles and parses commands and operations.
+ * <p>
+ * The command is tokenized once, by {@link CommandTokenizer}, when the handler is created; the accessors
+ * read the resulting {@link ParsedCommand}.
+ * </p>
  */
 public class CommandHandler {
 
     /** The command string provided by the user. */
     String d_command;
+    /** The command split into its command word and options. */
+    private final ParsedCommand d_parsedCommand;
 
     /**
      * Initializes the command handler with the given command.
@@ -17,6 +23,16 @@ public class CommandHandler {
      */
     public CommandHandler(String p_command) {
         this.d_command = p_command;
+        this.d_parsedCommand = CommandTokenizer.tokenize(p_command);
+    }
+
+    /**
+     * Returns the parsed command, whose typed accessors read the options without building maps.
+     *
+     * @return The parsed command.
+     */
+    public ParsedCommand getParsedCommand() {
+        return d_parsedCommand;
     }
 
     /**
@@ -25,57 +41,30 @@ public class CommandHandler {
      * @return The main command.
      */
     public String getMainCommand(){
-        String[] l_commands= d_command.split(" ");
-        return l_commands[0];
+        return d_parsedCommand.getCommand();
     }
 
     /**
-     * Parses the command and returns a list of operations.
+     * Parses the command and returns a list of operations. Each option becomes a map holding its name under
+     * "Operation" and its arguments, separated by single spaces, under "Arguments". Words before the first
+     * option are given as the operation "filename".
      *
      * @return A list of operation maps.
      */
     public List<Map<String,String>> getListOfOperations(){
-        String l_mainCommand=this.getMainCommand();
-        String l_remainingCommand=d_command.replace(l_mainCommand,"").trim();
-
-        if(l_remainingCommand.isEmpty()){
+        int l_optionCount = d_parsedCommand.optionCount();
+        if(l_optionCount == 0){
             return Collections.emptyList();
         }
 
-        if(!l_remainingCommand.contains("-")){
-            l_remainingCommand="-filename "+l_remainingCommand;
-        }
-
-        List<Map<String,String>> l_listOfOperations = new ArrayList<>();
-        String[] l_operations=l_remainingCommand.split("-");
-
-        for(String l_operation : l_operations){
-            if(!l_operation.isBlank()){
-                l_listOfOperations.add(getOperatiionMap(l_operation));
-            }
+        List<Map<String,String>> l_listOfOperations = new ArrayList<>(l_optionCount);
+        for(int i = 0; i < l_optionCount; i++){
+            Map<String,String> l_operationMap = new HashMap<>();
+            l_operationMap.put("Operation", d_parsedCommand.optionName(i));
+            l_operationMap.put("Arguments", d_parsedCommand.arguments(i));
+            l_listOfOperations.add(l_operationMap);
         }
         return l_listOfOperations;
-
-
-    }
-
-    /**
-     * Converts a single operation into a map.
-     *
-     * @param p_operation The operation string.
-     * @return The operation map.
-     */
-    private Map<String, String> getOperatiionMap(String p_operation) {
-        Map<String,String> l_operationMap= new HashMap<>();
-        String[] l_splitOperation=p_operation.split(" ");
-        l_operationMap.put("Operation",l_splitOperation[0]);
-        String l_argument="";
-        if(l_splitOperation.length-1>0){
-            String[] l_remainigArguments=Arrays.copyOfRange(l_splitOperation,1,l_splitOperation.length);
-            l_argument=String.join(" ",l_remainigArguments);
-        }
-        l_operationMap.put("Arguments",l_argument);
-        return l_operationMap;
     }
 
     /**
@@ -0,0 +1,65 @@
+package Utils;
+
+/**
+ * Single-pass tokenizer of command lines.
+ * <p>
+ * Words are separated by runs of spaces, tabs or other control characters. The first word is the command;
+ * a later word is an option when it starts with a dash followed by a letter, such as {@code -add}, and every
+ * other word is an argument of the option before it. A dash anywhere else is part of the word, so
+ * hyphenated names like {@code N&L-Labrador} and negative numbers like {@code -5} are arguments like any
+ * other. Nothing is copied: the words are recorded as offsets into the line in a reusable
+ * {@link ParsedCommand}.
+ * </p>
+ */
+public final class CommandTokenizer {
+
+    private CommandTokenizer() {
+    }
+
+    /**
+     * Tokenizes a line into a new parsed command.
+     *
+     * @param p_line the line; null is read as an empty line
+     * @return the parsed command
+     */
+    public static ParsedCommand tokenize(CharSequence p_line) {
+        return tokenize(p_line, new ParsedCommand());
+    }
+
+    /**
+     * Tokenizes a line into an existing parsed command, replacing what it held.
+     *
+     * @param p_line   the line; null is read as an empty line
+     * @param p_parsed the parsed command to fill
+     * @return the parsed command
+     */
+    public static ParsedCommand tokenize(CharSequence p_line, ParsedCommand p_parsed) {
+        p_parsed.reset(p_line);
+        CharSequence l_line = p_parsed.getLine();
+        int l_length = l_line.length();
+        int l_index = 0;
+        while (true) {
+            while (l_index < l_length && l_line.charAt(l_index) <= ' ') {
+                l_index++;
+            }
+            if (l_index == l_length) {
+                return p_parsed;
+            }
+            int l_start = l_index;
+            while (l_index < l_length && l_line.charAt(l_index) > ' ') {
+                l_index++;
+            }
+            if (p_parsed.isEmpty()) {
+                p_parsed.setCommand(l_start, l_index);
+            } else if (l_index - l_start > 1 && l_line.charAt(l_start) == '-'
+                    && Character.isLetter(l_line.charAt(l_start + 1))) {
+                p_parsed.addOption(l_start + 1, l_index);
+            } else {
+                if (p_parsed.optionCount() == 0) {
+                    p_parsed.addOption(-1, -1);
+                }
+                p_parsed.addArgument(l_start, l_index);
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package Utils;
+
+import java.util.Locale;
+
+/**
+ * Histogram of latencies in nanoseconds, with buckets of constant relative width.
+ * <p>
+ * Values below {@value #SUB_BUCKETS} get a bucket each; above that every power of two is split into
+ * {@value #SUB_BUCKETS} equal buckets, so a percentile is reported within 12.5% of the true value while the
+ * whole histogram takes a fixed array of a few hundred counts. Recording is a shift and an increment, cheap
+ * enough to time every command.
+ * </p>
+ */
+public final class LatencyHistogram {
+    /** Number of bits of a value kept below its highest bit. */
+    private static final int SUB_BUCKET_BITS = 3;
+    /** Number of buckets each power of two is split into. */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** Number of values recorded in each bucket. */
+    private final long[] d_counts = new long[(Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS];
+    /** Number of values recorded. */
+    private long d_count;
+    /** Sum of the values recorded. */
+    private long d_sum;
+    /** Largest value recorded. */
+    private long d_max;
+
+    /**
+     * Records a latency.
+     *
+     * @param p_nanos the latency, in nanoseconds; negative values count as zero
+     */
+    public void record(long p_nanos) {
+        long l_value = Math.max(0, p_nanos);
+        d_counts[bucket(l_value)]++;
+        d_count++;
+        d_sum += l_value;
+        d_max = Math.max(d_max, l_value);
+    }
+
+    /**
+     * Adds every latency of another histogram to this one.
+     *
+     * @param p_other the other histogram
+     */
+    public void add(LatencyHistogram p_other) {
+        for (int i = 0; i < d_counts.length; i++) {
+            d_counts[i] += p_other.d_counts[i];
+        }
+        d_count += p_other.d_count;
+        d_sum += p_other.d_sum;
+        d_max = Math.max(d_max, p_other.d_max);
+    }
+
+    /**
+     * Gets the number of latencies recorded.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return d_count;
+    }
+
+    /**
+     * Gets the mean latency.
+     *
+     * @return the mean, in nanoseconds, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        return d_count == 0 ? 0 : (double) d_sum / d_count;
+    }
+
+    /**
+     * Gets the largest latency.
+     *
+     * @return the maximum, in nanoseconds
+     */
+    public long getMax() {
+        return d_max;
+    }
+
+    /**
+     * Gets a percentile of the latencies, rounded up to the end of its bucket.
+     *
+     * @param p_percentile the percentile, from 0 to 100
+     * @return the latency, in nanoseconds, at most the maximum; 0 if nothing was recorded
+     */
+    public long getPercentile(double p_percentile) {
+        long l_rank = Math.max(1, (long) Math.ceil(p_percentile / 100 * d_count));
+        long l_seen = 0;
+        for (int i = 0; i < d_counts.length; i++) {
+            l_seen += d_counts[i];
+            if (l_seen >= l_rank) {
+                return Math.min(upperBound(i), d_max);
+            }
+        }
+        return d_max;
+    }
+
+    /**
+     * Summarises the histogram in microseconds.
+     *
+     * @return the count, mean, median, 90th, 99th and 99.9th percentiles and maximum
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "count=%d mean=%.1fus p50=%.1fus p90=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus",
+                d_count, getMean() / 1000, getPercentile(50) / 1000.0, getPercentile(90) / 1000.0,
+                getPercentile(99) / 1000.0, getPercentile(99.9) / 1000.0, d_max / 1000.0);
+    }
+
+    /**
+     * Finds the bucket of a value.
+     *
+     * @param p_value the value, not negative
+     * @return the bucket index
+     */
+    private static int bucket(long p_value) {
+        if (p_value < SUB_BUCKETS) {
+            return (int) p_value;
+        }
+        int l_shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(p_value) - SUB_BUCKET_BITS;
+        return (l_shift + 1) * SUB_BUCKETS + (int) ((p_value >>> l_shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * Gets the largest value of a bucket.
+     *
+     * @param p_bucket the bucket index
+     * @return the largest value falling into it
+     */
+    private static long upperBound(int p_bucket) {
+        if (p_bucket < SUB_BUCKETS) {
+            return p_bucket;
+        }
+        int l_shift = p_bucket / SUB_BUCKETS - 1;
+        long l_subBucket = p_bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return (l_subBucket << l_shift) + ((1L << l_shift) - 1);
+    }
+}
@@ -0,0 +1,383 @@
+package Utils;
+
+import java.util.Arrays;
+
+/**
+ * A command line split into its command word and options, filled by {@link CommandTokenizer}.
+ * <p>
+ * The parsed command is a flyweight over the line it was parsed from: it keeps only the start and end
+ * offsets of every word in reusable int arrays, so parsing one line after another into the same instance
+ * allocates nothing once the arrays are large enough. Options are read through typed accessors that compare
+ * or convert the words in place; only the accessors returning a {@link String} create one.
+ * </p>
+ * <p>
+ * Words given before the first option, as in {@code loadmap world.map}, form a positional option named
+ * {@value #POSITIONAL}.
+ * </p>
+ */
+public final class ParsedCommand {
+    /** Name of the option holding the words that come before the first option. */
+    public static final String POSITIONAL = "filename";
+
+    /** Result of {@link #parseInt(int, int)} for a word that is not an int. */
+    private static final long NOT_AN_INT = Long.MIN_VALUE;
+
+    /** The line being described. */
+    private CharSequence d_line = "";
+    /** Start of the command word, or -1 for an empty line. */
+    private int d_commandStart = -1;
+    /** End of the command word. */
+    private int d_commandEnd = -1;
+
+    /** Start of the name of each option, after its dash, or -1 for the positional option. */
+    private int[] d_optionStarts = new int[4];
+    /** End of the name of each option. */
+    private int[] d_optionEnds = new int[4];
+    /** Index of the first argument of each option. */
+    private int[] d_firstArguments = new int[4];
+    /** Number of arguments of each option. */
+    private int[] d_argumentCounts = new int[4];
+    /** Number of options. */
+    private int d_optionCount;
+
+    /** Start of each argument word. */
+    private int[] d_argumentStarts = new int[8];
+    /** End of each argument word. */
+    private int[] d_argumentEnds = new int[8];
+    /** Number of argument words. */
+    private int d_argumentTotal;
+
+    /**
+     * Forgets the previous line and starts describing a new one.
+     *
+     * @param p_line the line
+     */
+    void reset(CharSequence p_line) {
+        d_line = p_line == null ? "" : p_line;
+        d_commandStart = -1;
+        d_commandEnd = -1;
+        d_optionCount = 0;
+        d_argumentTotal = 0;
+    }
+
+    /**
+     * Records the command word.
+     *
+     * @param p_start its start
+     * @param p_end   its end
+     */
+    void setCommand(int p_start, int p_end) {
+        d_commandStart = p_start;
+        d_commandEnd = p_end;
+    }
+
+    /**
+     * Starts an option.
+     *
+     * @param p_start start of its name, or -1 for the positional option
+     * @param p_end   end of its name
+     */
+    void addOption(int p_start, int p_end) {
+        if (d_optionCount == d_optionStarts.length) {
+            int l_length = d_optionCount * 2;
+            d_optionStarts = Arrays.copyOf(d_optionStarts, l_length);
+            d_optionEnds = Arrays.copyOf(d_optionEnds, l_length);
+            d_firstArguments = Arrays.copyOf(d_firstArguments, l_length);
+            d_argumentCounts = Arrays.copyOf(d_argumentCounts, l_length);
+        }
+        d_optionStarts[d_optionCount] = p_start;
+        d_optionEnds[d_optionCount] = p_end;
+        d_firstArguments[d_optionCount] = d_argumentTotal;
+        d_argumentCounts[d_optionCount] = 0;
+        d_optionCount++;
+    }
+
+    /**
+     * Adds an argument to the last option.
+     *
+     * @param p_start its start
+     * @param p_end   its end
+     */
+    void addArgument(int p_start, int p_end) {
+        if (d_argumentTotal == d_argumentStarts.length) {
+            d_argumentStarts = Arrays.copyOf(d_argumentStarts, d_argumentTotal * 2);
+            d_argumentEnds = Arrays.copyOf(d_argumentEnds, d_argumentTotal * 2);
+        }
+        d_argumentStarts[d_argumentTotal] = p_start;
+        d_argumentEnds[d_argumentTotal] = p_end;
+        d_argumentTotal++;
+        d_argumentCounts[d_optionCount - 1]++;
+    }
+
+    /**
+     * Checks whether the line held no words.
+     *
+     * @return true if there is no command word
+     */
+    public boolean isEmpty() {
+        return d_commandStart < 0;
+    }
+
+    /**
+     * Gets the command word.
+     *
+     * @return the command word, or an empty string for an empty line
+     */
+    public String getCommand() {
+        return isEmpty() ? "" : text(d_commandStart, d_commandEnd);
+    }
+
+    /**
+     * Compares the command word without creating a string.
+     *
+     * @param p_command the expected command word
+     * @return true if the command word is exactly the given one
+     */
+    public boolean isCommand(String p_command) {
+        return !isEmpty() && matches(d_commandStart, d_commandEnd, p_command);
+    }
+
+    /**
+     * Hashes the command word without creating a string.
+     *
+     * @return the same value as {@code getCommand().hashCode()}
+     */
+    public int commandHashCode() {
+        int l_hash = 0;
+        for (int i = d_commandStart; i < d_commandEnd; i++) {
+            l_hash = 31 * l_hash + d_line.charAt(i);
+        }
+        return l_hash;
+    }
+
+    /**
+     * Gets the number of options, counting the positional one.
+     *
+     * @return the option count
+     */
+    public int optionCount() {
+        return d_optionCount;
+    }
+
+    /**
+     * Checks whether an option holds the words given before any named option.
+     *
+     * @param p_option the option index
+     * @return true for the positional option
+     */
+    public boolean isPositional(int p_option) {
+        return d_optionStarts[checkOption(p_option)] < 0;
+    }
+
+    /**
+     * Gets the name of an option, without its dash.
+     *
+     * @param p_option the option index
+     * @return the name, {@value #POSITIONAL} for the positional option
+     */
+    public String optionName(int p_option) {
+        checkOption(p_option);
+        return isPositional(p_option) ? POSITIONAL : text(d_optionStarts[p_option], d_optionEnds[p_option]);
+    }
+
+    /**
+     * Compares the name of an option without creating a string.
+     *
+     * @param p_option the option index
+     * @param p_name   the expected name, without dash
+     * @return true if the option has exactly that name
+     */
+    public boolean isOption(int p_option, String p_name) {
+        if (isPositional(p_option)) {
+            return POSITIONAL.equals(p_name);
+        }
+        return matches(d_optionStarts[p_option], d_optionEnds[p_option], p_name);
+    }
+
+    /**
+     * Gets the number of arguments of an option.
+     *
+     * @param p_option the option index
+     * @return the argument count
+     */
+    public int argumentCount(int p_option) {
+        return d_argumentCounts[checkOption(p_option)];
+    }
+
+    /**
+     * Gets one argument of an option.
+     *
+     * @param p_option   the option index
+     * @param p_argument the argument index within the option
+     * @return the argument
+     */
+    public String argument(int p_option, int p_argument) {
+        int l_word = word(p_option, p_argument);
+        return text(d_argumentStarts[l_word], d_argumentEnds[l_word]);
+    }
+
+    /**
+     * Compares one argument of an option without creating a string.
+     *
+     * @param p_option   the option index
+     * @param p_argument the argument index within the option
+     * @param p_expected the expected text
+     * @return true if the argument is exactly the given text
+     */
+    public boolean isArgument(int p_option, int p_argument, String p_expected) {
+        int l_word = word(p_option, p_argument);
+        return matches(d_argumentStarts[l_word], d_argumentEnds[l_word], p_expected);
+    }
+
+    /**
+     * Checks whether one argument of an option is a decimal int, optionally signed.
+     *
+     * @param p_option   the option index
+     * @param p_argument the argument index within the option
+     * @return true if {@link #intArgument(int, int)} would succeed
+     */
+    public boolean isIntArgument(int p_option, int p_argument) {
+        int l_word = word(p_option, p_argument);
+        return parseInt(d_argumentStarts[l_word], d_argumentEnds[l_word]) != NOT_AN_INT;
+    }
+
+    /**
+     * Reads one argument of an option as a decimal int, optionally signed, without creating a string.
+     *
+     * @param p_option   the option index
+     * @param p_argument the argument index within the option
+     * @return the number
+     * @throws NumberFormatException if the argument is not an int
+     */
+    public int intArgument(int p_option, int p_argument) {
+        int l_word = word(p_option, p_argument);
+        long l_value = parseInt(d_argumentStarts[l_word], d_argumentEnds[l_word]);
+        if (l_value == NOT_AN_INT) {
+            throw new NumberFormatException("Not a number: " + argument(p_option, p_argument));
+        }
+        return (int) l_value;
+    }
+
+    /**
+     * Gets all arguments of an option, separated by single spaces.
+     *
+     * @param p_option the option index
+     * @return the arguments, empty if there are none
+     */
+    public String arguments(int p_option) {
+        int l_count = argumentCount(p_option);
+        if (l_count == 0) {
+            return "";
+        }
+        int l_first = d_firstArguments[p_option];
+        if (l_count == 1) {
+            return text(d_argumentStarts[l_first], d_argumentEnds[l_first]);
+        }
+        StringBuilder l_arguments = new StringBuilder();
+        for (int k = l_first; k < l_first + l_count; k++) {
+            if (k > l_first) {
+                l_arguments.append(' ');
+            }
+            l_arguments.append(d_line, d_argumentStarts[k], d_argumentEnds[k]);
+        }
+        return l_arguments.toString();
+    }
+
+    /**
+     * Gets the line, as last parsed.
+     *
+     * @return the line
+     */
+    public CharSequence getLine() {
+        return d_line;
+    }
+
+    /**
+     * Gets the index of an argument word.
+     *
+     * @param p_option   the option index
+     * @param p_argument the argument index within the option
+     * @return the index into the argument arrays
+     */
+    private int word(int p_option, int p_argument) {
+        if (p_argument < 0 || p_argument >= argumentCount(p_option)) {
+            throw new IndexOutOfBoundsException("Option " + p_option + " has no argument " + p_argument + ".");
+        }
+        return d_firstArguments[p_option] + p_argument;
+    }
+
+    /**
+     * Checks an option index.
+     *
+     * @param p_option the option index
+     * @return the index
+     */
+    private int checkOption(int p_option) {
+        if (p_option < 0 || p_option >= d_optionCount) {
+            throw new IndexOutOfBoundsException("No option " + p_option + ".");
+        }
+        return p_option;
+    }
+
+    /**
+     * Compares a range of the line with a string.
+     *
+     * @param p_start  the start of the range
+     * @param p_end    the end of the range
+     * @param p_string the string
+     * @return true if they hold the same chars
+     */
+    private boolean matches(int p_start, int p_end, String p_string) {
+        if (p_string == null || p_string.length() != p_end - p_start) {
+            return false;
+        }
+        for (int i = p_start; i < p_end; i++) {
+            if (d_line.charAt(i) != p_string.charAt(i - p_start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads a range of the line as a decimal int, optionally signed.
+     *
+     * @param p_start the start of the range
+     * @param p_end   the end of the range
+     * @return the number, or {@link #NOT_AN_INT} if the range does not hold an int
+     */
+    private long parseInt(int p_start, int p_end) {
+        boolean l_negative = d_line.charAt(p_start) == '-';
+        int l_index = (l_negative || d_line.charAt(p_start) == '+') ? p_start + 1 : p_start;
+        if (l_index == p_end) {
+            return NOT_AN_INT;
+        }
+        long l_value = 0;
+        for (; l_index < p_end; l_index++) {
+            char l_char = d_line.charAt(l_index);
+            if (l_char < '0' || l_char > '9') {
+                return NOT_AN_INT;
+            }
+            l_value = l_value * 10 + (l_char - '0');
+            if (l_value > (long) Integer.MAX_VALUE + 1) {
+                return NOT_AN_INT;
+            }
+        }
+        l_value = l_negative ? -l_value : l_value;
+        return l_value > Integer.MAX_VALUE ? NOT_AN_INT : l_value;
+    }
+
+    /**
+     * Copies a range of the line.
+     *
+     * @param p_start the start of the range
+     * @param p_end   the end of the range
+     * @return the text
+     */
+    private String text(int p_start, int p_end) {
+        if (p_start == 0 && p_end == d_line.length() && d_line instanceof String l_string) {
+            return l_string;
+        }
+        return d_line.subSequence(p_start, p_end).toString();
+    }
+}
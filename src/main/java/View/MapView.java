@@ -1,6 +1,7 @@
 package View;
 import Model.*;
-import java.util.HashMap;
+
+import java.io.PrintStream;
 import java.util.List;
 
 /**
@@ -15,14 +16,27 @@ public class MapView {
     List<Continent> d_continents;
     /** The current state of the game. */
     CurrentState d_currentState;
+    /** Where the map is shown. */
+    PrintStream d_output;
 
     /**
-     * Constructs a {@code MapView} object based on the current state of the game.
+     * Constructs a {@code MapView} object showing the map of the game on the game's output.
      *
      * @param p_currentState The current game state.
      */
     public MapView(CurrentState p_currentState) {
+        this(p_currentState, p_currentState.getD_output());
+    }
+
+    /**
+     * Constructs a {@code MapView} object showing the map of the game on the given output.
+     *
+     * @param p_currentState The current game state.
+     * @param p_output The stream to show the map on.
+     */
+    public MapView(CurrentState p_currentState, PrintStream p_output) {
         this.d_currentState = p_currentState;
+        this.d_output = p_output;
         this.d_map = p_currentState.getD_map();
         this.d_countries = p_currentState.getD_map().getD_mapCountries();
         this.d_continents = p_currentState.getD_map().getD_mapContinents();
@@ -33,61 +47,63 @@ public class MapView {
      */
     public void showMap() {
         if (d_continents != null && !d_continents.isEmpty()) {
-            System.out.println("************************************************************************************************************************");
-            System.out.println("                                                   MAP VIEW - CONTINENT DETAILS                                                    ");
-            System.out.println("************************************************************************************************************************");
+            d_output.println("************************************************************************************************************************");
+            d_output.println("                                                   MAP VIEW - CONTINENT DETAILS                                                    ");
+            d_output.println("************************************************************************************************************************");
 
             for (Continent l_continent : d_continents) {
-                System.out.println("\n---------------------------------");
-                System.out.println("Continent: " + l_continent.getD_continentName() + " (ID: " + l_continent.getD_continentID() + ")");
-                System.out.println("---------------------------------");
+                d_output.println("\n---------------------------------");
+                d_output.println("Continent: " + l_continent.getD_continentName() + " (ID: " + l_continent.getD_continentID() + ")");
+                d_output.println("---------------------------------");
 
                 List<Country> l_countries = l_continent.getD_countries();
                 if (l_countries != null && !l_countries.isEmpty()) {
-                    HashMap<Object, Object> l_countryToPosition = new HashMap<>();
-
-                    for (Country l_country : l_countries) {
-                        l_countryToPosition.put(l_country.getD_countryID(), l_country.getD_countryName());
-                    }
+                    MapGraph l_graph = d_map.getGraph();
 
-                    System.out.println("  +--------------------------+-------+------------+--------------------------+");
-                    System.out.println("  | Country Name             | ID    | Armies     | Neighboring Countries    |");
-                    System.out.println("  +--------------------------+-------+------------+--------------------------+");
+                    d_output.println("  +--------------------------+-------+------------+--------------------------+");
+                    d_output.println("  | Country Name             | ID    | Armies     | Neighboring Countries    |");
+                    d_output.println("  +--------------------------+-------+------------+--------------------------+");
 
+                    StringBuilder l_connectedCountries = new StringBuilder();
                     for (int i = 0; i < l_countries.size(); i++) {
                         Country l_country = l_countries.get(i);
                         String l_countryName = l_country.getD_countryName();
                         int l_countryId = l_country.getD_countryID();
                         int l_armies = l_country.getD_armies();
-                        String l_connectedCountries = "";
-
-                        for (Integer l_neighborID : l_country.getD_neighbouringCountriesId()) {
-                            l_connectedCountries += d_map.getCountryNameById(l_neighborID) + ", ";
-                        }
+                        int l_index = l_graph.indexOf(l_countryId);
 
-                        if (l_connectedCountries.length() > 0) {
-                            l_connectedCountries = l_connectedCountries.substring(0, l_connectedCountries.length() - 2);
+                        l_connectedCountries.setLength(0);
+                        if (l_index >= 0) {
+                            for (int k = l_graph.neighbourStart(l_index), l_end = l_graph.neighbourEnd(l_index); k < l_end; k++) {
+                                if (l_connectedCountries.length() > 0) {
+                                    l_connectedCountries.append(", ");
+                                }
+                                l_connectedCountries.append(l_graph.countryAt(l_graph.neighbourAt(k)).getD_countryName());
+                            }
                         }
 
-                        System.out.printf("  | %-24s | %-5d | %-10d | %-24s |\n", l_countryName, l_countryId, l_armies, l_connectedCountries);
+                        d_output.printf("  | %-24s | %-5d | %-10d | %-24s |\n", l_countryName, l_countryId, l_armies, l_connectedCountries);
 
                         if (i == l_countries.size() - 1) {
-                            System.out.println("  +--------------------------+-------+------------+--------------------------+");
+                            d_output.println("  +--------------------------+-------+------------+--------------------------+");
                         }
                     }
 
                     for (Country l_country : l_countries) {
                         String l_countryName = l_country.getD_countryName();
-                        System.out.println("\nConnections from " + l_countryName + " (ID: " + l_country.getD_countryID() + "):");
-                        for (Integer l_neighborID : l_country.getD_neighbouringCountriesId()) {
-                            String l_neighborName = d_map.getCountryNameById(l_neighborID);
-                            System.out.println("    -> " + l_neighborName + " (ID: " + l_neighborID + ")");
+                        d_output.println("\nConnections from " + l_countryName + " (ID: " + l_country.getD_countryID() + "):");
+                        int l_index = l_graph.indexOf(l_country.getD_countryID());
+                        if (l_index >= 0) {
+                            for (int k = l_graph.neighbourStart(l_index), l_end = l_graph.neighbourEnd(l_index); k < l_end; k++) {
+                                int l_neighbour = l_graph.neighbourAt(k);
+                                d_output.println("    -> " + l_graph.countryAt(l_neighbour).getD_countryName() + " (ID: " + l_graph.countryIdAt(l_neighbour) + ")");
+                            }
                         }
-                        System.out.println("-------------------------------------------------------------");
+                        d_output.println("-------------------------------------------------------------");
                     }
                 }
             }
-            System.out.println("************************************************************************************************************************");
+            d_output.println("************************************************************************************************************************");
         }
     }
 }
\ No newline at end of file
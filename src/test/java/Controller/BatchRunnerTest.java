@@ -0,0 +1,129 @@
+package Controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+/**
+ * The type Batch runner test.
+ */
+public class BatchRunnerTest {
+
+    /** The D script editing the test map without saving it. */
+    private static final String EDIT_SESSION = String.join("\n",
+            "# edits the test map",
+            "loadmap test.map",
+            "editcontinent -add Oceania 4",
+            "editcountry -add Australia Oceania",
+            "editneighbour -add Australia Chile",
+            "",
+            "validatemap",
+            "showmap",
+            "savemap",
+            "exit") + "\n";
+
+    /**
+     * Test that sessions of a stream run one after another, each in a fresh game, and that replaying them
+     * gives the same digests.
+     *
+     * @throws IOException if the script cannot be read
+     */
+    @Test
+    public void runSessions() throws IOException {
+        BatchRunner l_runner = new BatchRunner(false);
+        BufferedReader l_script = new BufferedReader(new StringReader(EDIT_SESSION + EDIT_SESSION + "loadmap test.map\n"));
+
+        BatchRunner.SessionResult l_first = l_runner.runSession(l_script);
+        BatchRunner.SessionResult l_second = l_runner.runSession(l_script);
+        BatchRunner.SessionResult l_third = l_runner.runSession(l_script);
+        assertNull(l_runner.runSession(l_script));
+
+        assertEquals(7, l_first.getCommandCount());
+        assertEquals(GamePhase.STARTUP, l_first.getPhase());
+        assertEquals(l_first.getDigest(), l_second.getDigest());
+        assertNotEquals(l_first.getDigest(), l_third.getDigest());
+        assertEquals(3, l_runner.getHistograms().get("loadmap").getCount());
+        assertEquals(2, l_runner.getHistograms().get("savemap").getCount());
+
+        BatchRunner l_replay = new BatchRunner(false);
+        l_replay.runAll(new BufferedReader(new StringReader(EDIT_SESSION + EDIT_SESSION + "loadmap test.map\n")),
+                new PrintStream(new ByteArrayOutputStream()));
+        assertEquals(l_runner.getRunDigest(), l_replay.getRunDigest());
+    }
+
+    /**
+     * Test that a scripted game deploys every army without prompting and ends without exiting.
+     *
+     * @throws IOException if the script cannot be read
+     */
+    @Test
+    public void playGame() throws IOException {
+        StringBuilder l_script = new StringBuilder("loadmap test.map\ngameplayer -add Alice\nassigncountries\n");
+        for (int i = 0; i < 40; i++) {
+            l_script.append("deploy USA 1\n");
+        }
+        BatchRunner l_runner = new BatchRunner(false);
+        BatchRunner.SessionResult l_result = l_runner.runSession(new BufferedReader(new StringReader(l_script.toString())));
+
+        assertEquals(GamePhase.GAME_OVER, l_result.getPhase());
+        assertEquals(43, l_result.getCommandCount());
+        // Alice gets 36 armies, so the last 4 deploys come after the game is over and are rejected.
+        assertEquals(4, l_result.getErrorCount());
+        assertTrue(l_runner.getHistograms().get("deploy").getCount() == 40);
+
+        ByteArrayOutputStream l_report = new ByteArrayOutputStream();
+        l_runner.report(new PrintStream(l_report), 1_000_000_000L);
+        assertTrue(l_report.toString().contains("Sessions: 1, commands: 43, errors: 4"));
+        assertTrue(l_report.toString().contains("Run digest: " + l_runner.getRunDigest()));
+    }
+
+    /**
+     * Test that commands the engine rejects, without throwing, are counted as errors.
+     *
+     * @throws IOException if the script cannot be read
+     */
+    @Test
+    public void rejectedCommandsAreErrors() throws IOException {
+        String l_session = String.join("\n",
+                "showmap",
+                "deploy USA 1",
+                "conquer USA",
+                "loadmap test.map",
+                "savemap",
+                "validatemap",
+                "exit") + "\n";
+        BatchRunner l_runner = new BatchRunner(false);
+        BatchRunner.SessionResult l_result = l_runner.runSession(new BufferedReader(new StringReader(l_session)));
+
+        assertEquals(6, l_result.getCommandCount());
+        assertEquals(4, l_result.getErrorCount());
+        assertEquals(1, l_runner.getHistograms().get("(unknown)").getCount());
+        assertEquals(1, l_runner.getHistograms().get("savemap").getCount());
+    }
+
+    /**
+     * Test that a seeded runner deals the countries the same way in every replay of a session.
+     *
+     * @throws IOException if the script cannot be read
+     */
+    @Test
+    public void replayWithSeed() throws IOException {
+        String l_session = "loadmap test.map\ngameplayer -add Alice\ngameplayer -add Bob\nassigncountries\nexit\n";
+        BatchRunner l_runner = new BatchRunner(false);
+        l_runner.setSeed(7L);
+        BufferedReader l_script = new BufferedReader(new StringReader(l_session.repeat(3)));
+
+        String l_digest = l_runner.runSession(l_script).getDigest();
+        assertEquals(l_digest, l_runner.runSession(l_script).getDigest());
+        assertEquals(l_digest, l_runner.runSession(l_script).getDigest());
+    }
+}
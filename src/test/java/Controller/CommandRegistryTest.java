@@ -0,0 +1,138 @@
+package Controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import Utils.CommandTokenizer;
+import Utils.ParsedCommand;
+
+/**
+ * The type Command registry test.
+ */
+public class CommandRegistryTest {
+
+    /** The D registry. */
+    private CommandRegistry d_registry;
+    /** The D lines run by the registered commands. */
+    private final List<String> d_executed = new ArrayList<>();
+
+    /**
+     * Setup.
+     */
+    @Before
+    public void setup() {
+        d_registry = new CommandRegistry();
+        d_executed.clear();
+    }
+
+    /**
+     * Creates a command that records the lines it runs.
+     *
+     * @param p_name        the command name
+     * @param p_requiresMap whether a map is required
+     * @param p_phase       the phase
+     * @return the command
+     */
+    private CommandRegistry.Entry recording(String p_name, boolean p_requiresMap, GamePhase p_phase) {
+        return new CommandRegistry.Entry(p_name, p_requiresMap, p_phase, p_name,
+                p_command -> d_executed.add(p_command.getLine().toString()));
+    }
+
+    /**
+     * Test looking commands up by name and by parsed line, including names with the same hash code.
+     */
+    @Test
+    public void lookup() {
+        List<CommandRegistry.Entry> l_entries = new ArrayList<>();
+        l_entries.add(d_registry.register(recording("Aa", false, GamePhase.STARTUP)));
+        l_entries.add(d_registry.register(recording("BB", false, GamePhase.STARTUP)));
+        for (int i = 0; i < 100; i++) {
+            l_entries.add(d_registry.register(recording("command" + i, false, GamePhase.STARTUP)));
+        }
+
+        for (CommandRegistry.Entry l_entry : l_entries) {
+            assertSame(l_entry, d_registry.lookup(l_entry.getName()));
+            assertSame(l_entry, d_registry.lookup(CommandTokenizer.tokenize(l_entry.getName() + " -add x")));
+        }
+        assertNull(d_registry.lookup("command100"));
+        assertNull(d_registry.lookup(CommandTokenizer.tokenize("Ab")));
+        assertNull(d_registry.lookup(CommandTokenizer.tokenize("  ")));
+        assertEquals(102, d_registry.getEntries().size());
+    }
+
+    /**
+     * Test that a name cannot be registered twice.
+     */
+    @Test
+    public void registerTwice() {
+        d_registry.register(recording("showmap", true, GamePhase.STARTUP));
+        try {
+            d_registry.register(recording("showmap", false, GamePhase.STARTUP));
+            fail("A command was registered twice.");
+        } catch (IllegalArgumentException l_e) {
+            assertTrue(d_registry.lookup("showmap").requiresMap());
+        }
+    }
+
+    /**
+     * Test checking the options of a line and the number of their arguments.
+     */
+    @Test
+    public void accepts() {
+        CommandRegistry.Entry l_none = recording("showmap", true, GamePhase.STARTUP);
+        CommandRegistry.Entry l_file = recording("loadmap", false, GamePhase.STARTUP)
+                .option(ParsedCommand.POSITIONAL, 1);
+        CommandRegistry.Entry l_edit = recording("editcountry", true, GamePhase.STARTUP)
+                .option("add", 2).option("remove", 1);
+
+        assertTrue(l_none.accepts(CommandTokenizer.tokenize("showmap")));
+        assertFalse(l_none.accepts(CommandTokenizer.tokenize("showmap now")));
+        assertTrue(l_file.accepts(CommandTokenizer.tokenize("loadmap canada.map")));
+        assertFalse(l_file.accepts(CommandTokenizer.tokenize("loadmap")));
+        assertFalse(l_file.accepts(CommandTokenizer.tokenize("loadmap a.map b.map")));
+        assertTrue(l_edit.accepts(CommandTokenizer.tokenize("editcountry -add N&L-Labrador Canada -remove Ontario")));
+        assertFalse(l_edit.accepts(CommandTokenizer.tokenize("editcountry")));
+        assertFalse(l_edit.accepts(CommandTokenizer.tokenize("editcountry -add Quebec")));
+        assertFalse(l_edit.accepts(CommandTokenizer.tokenize("editcountry -rename Quebec Canada")));
+        assertFalse(l_edit.accepts(CommandTokenizer.tokenize("editcountry Quebec Canada")));
+        assertEquals(1, l_edit.getArity("remove"));
+        assertEquals(-1, l_edit.getArity("rename"));
+    }
+
+    /**
+     * Test that the game engine runs a registered command only when its map, phase and options are right.
+     *
+     * @throws Exception if a command fails
+     */
+    @Test
+    public void dispatch() throws Exception {
+        MainGameEngine l_engine = new MainGameEngine();
+        CommandRegistry l_registry = l_engine.getCommandRegistry();
+        assertEquals(GamePhase.STARTUP, l_registry.lookup("loadmap").getPhase());
+        assertTrue(l_registry.lookup("showmap").requiresMap());
+        l_registry.register(recording("hello", false, GamePhase.STARTUP).option("to", 1));
+        l_registry.register(recording("survey", true, GamePhase.STARTUP));
+        l_registry.register(recording("advance", false, GamePhase.ISSUE_ORDERS).option(ParsedCommand.POSITIONAL, 2));
+
+        l_engine.commandHandler("hello -to world");
+        l_engine.commandHandler("hello -to");
+        l_engine.commandHandler("survey");
+        l_engine.commandHandler("advance Quebec 5");
+        l_engine.commandHandler("goodbye");
+        assertEquals(List.of("hello -to world"), d_executed);
+
+        l_engine.commandHandler("loadmap test.map");
+        l_engine.commandHandler("survey");
+        assertEquals(List.of("hello -to world", "survey"), d_executed);
+    }
+}
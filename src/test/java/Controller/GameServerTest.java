@@ -0,0 +1,127 @@
+package Controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * The type Game server test.
+ */
+public class GameServerTest {
+
+    /**
+     * Sends a command and reads the response up to its end line.
+     *
+     * @param p_channel the connection
+     * @param p_input   the input of the connection
+     * @param p_command the command, or null to only read
+     * @return the response, or null if the server closed the connection
+     * @throws IOException if the connection fails
+     */
+    private static String exchange(SocketChannel p_channel, BufferedReader p_input, String p_command) throws IOException {
+        if (p_command != null) {
+            p_channel.write(StandardCharsets.UTF_8.encode(p_command + "\n"));
+        }
+        StringBuilder l_response = new StringBuilder();
+        String l_line;
+        while ((l_line = p_input.readLine()) != null) {
+            if (l_line.equals(GameServer.END)) {
+                return l_response.toString();
+            }
+            l_response.append(l_line).append('\n');
+        }
+        return l_response.length() == 0 ? null : l_response.toString();
+    }
+
+    /**
+     * Test a session played over the line protocol.
+     *
+     * @throws Exception if the server fails
+     */
+    @Test
+    public void lineProtocol() throws Exception {
+        try (SessionManager l_sessions = new SessionManager();
+             GameServer l_server = new GameServer(new InetSocketAddress("localhost", 0), l_sessions);
+             SocketChannel l_channel = SocketChannel.open(l_server.getAddress())) {
+            BufferedReader l_input = new BufferedReader(new InputStreamReader(Channels.newInputStream(l_channel),
+                    StandardCharsets.UTF_8));
+
+            assertEquals("Enter your command: \n", exchange(l_channel, l_input, null));
+            String l_response = exchange(l_channel, l_input, "loadmap test.map");
+            assertTrue(l_response.contains("Map is valid."));
+            assertTrue(l_response.endsWith("Enter your command: \n"));
+            assertTrue(exchange(l_channel, l_input, "showmap").contains("USA"));
+            assertTrue(exchange(l_channel, l_input, "editcountry -add").contains("Invalid command for editcountry."));
+            assertTrue(exchange(l_channel, l_input, "exit").contains("Exiting the game. Goodbye!"));
+            assertNull(l_input.readLine());
+
+            l_sessions.awaitAll();
+            assertEquals(1, l_sessions.getEndedCount());
+        }
+    }
+
+    /**
+     * Test that commands sent together in one write each get a response of their own.
+     *
+     * @throws Exception if the server fails
+     */
+    @Test
+    public void pipelinedCommands() throws Exception {
+        try (SessionManager l_sessions = new SessionManager();
+             GameServer l_server = new GameServer(new InetSocketAddress("localhost", 0), l_sessions);
+             SocketChannel l_channel = SocketChannel.open(l_server.getAddress())) {
+            BufferedReader l_input = new BufferedReader(new InputStreamReader(Channels.newInputStream(l_channel),
+                    StandardCharsets.UTF_8));
+
+            l_channel.write(StandardCharsets.UTF_8.encode("loadmap test.map\nshowmap\neditcountry -add\nvalidatemap\n"));
+            assertEquals("Enter your command: \n", exchange(l_channel, l_input, null));
+            String l_loadMap = exchange(l_channel, l_input, null);
+            assertTrue(l_loadMap.contains("Map is valid."));
+            assertFalse(l_loadMap.contains("MAP VIEW"));
+            String l_showMap = exchange(l_channel, l_input, null);
+            assertTrue(l_showMap.contains("MAP VIEW"));
+            assertFalse(l_showMap.contains("Invalid command"));
+            assertEquals("Invalid command for editcountry. Use 'editcountry -add country_name continent_name "
+                    + "-remove country_name' command.\nEnter your command: \n", exchange(l_channel, l_input, null));
+            assertEquals("Map is Valid\nEnter your command: \n", exchange(l_channel, l_input, null));
+            assertTrue(exchange(l_channel, l_input, "exit").contains("Exiting the game. Goodbye!"));
+            assertNull(l_input.readLine());
+        }
+    }
+
+    /**
+     * Test the load generator against a local server.
+     *
+     * @throws Exception if the server fails
+     */
+    @Test
+    public void loadGenerator() throws Exception {
+        List<String> l_script = new ArrayList<>(List.of("# one player gets every country", "loadmap test.map",
+                "gameplayer -add Alice", "assigncountries"));
+        for (int i = 0; i < 30; i++) {
+            l_script.add("deploy Chile 1");
+        }
+        try (SessionManager l_sessions = new SessionManager();
+             GameServer l_server = new GameServer(new InetSocketAddress("localhost", 0), l_sessions)) {
+            LoadGenerator.Result l_result = new LoadGenerator(l_server.getAddress(), l_script).run(8, 500_000_000L);
+
+            assertTrue(l_result.getSessionCount() >= 8);
+            assertTrue(l_result.getLatency().getCount() >= 8 * 14);
+            assertTrue(l_result.getCommandsPerSecond() > 0);
+            assertTrue(l_result.toString().contains("Latency p99: "));
+        }
+    }
+}
@@ -2,9 +2,14 @@ package Controller;
 
 import Model.CurrentState;
 import Model.Map;
+import Model.MapDeltaLog;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
 import static org.junit.Assert.*;
 
 /**
@@ -53,6 +58,10 @@ public class MapControllerTest {
         assertNull(d_currentState.getD_map());
         d_mapController.loadMap(d_currentState, "test.map");
         assertFalse(d_currentState.getD_map().toString().isEmpty());
+
+        CurrentState l_state = new CurrentState();
+        d_mapController.loadMap(l_state, Paths.get("src", "main", "Maps", "test.map").toAbsolutePath().toString());
+        assertEquals(d_currentState.getD_map().getD_mapCountries().size(), l_state.getD_map().getD_mapCountries().size());
     }
 
     /**
@@ -116,5 +125,47 @@ public class MapControllerTest {
         assertEquals("Mexico", d_map.getCountryByName("Mexico").getD_countryName());
         d_mapController.editCountry(d_currentState, "remove", "Mexico");
         d_mapController.saveMap(d_currentState, d_mapName);
+        d_mapController.closeMap(d_currentState);
+        assertFalse(Files.exists(Paths.get("src", "main", "Maps", d_mapName + MapDeltaLog.SUFFIX)));
+    }
+
+    /**
+     * A memory-mapped map can be edited and saved back over its own file.
+     */
+    @Test
+    public void saveMemoryMappedMap() {
+        d_map = d_mapController.loadMap(d_currentState, d_mapName, true);
+        assertFalse(d_map.getCountryById(2).isNameDecoded());
+        assertFalse(d_map.getCountryById(5).isNameDecoded());
+        assertEquals("Canada", d_map.getCountryById(2).getD_countryName());
+        assertFalse(d_map.getCountryById(5).isNameDecoded());
+
+        assertTrue(d_mapController.saveMap(d_currentState, d_mapName));
+        d_map = d_mapController.loadMap(d_currentState, d_mapName, true);
+        assertEquals("France", d_map.getCountryById(5).getD_countryName());
+        assertTrue(d_map.validateMap());
+    }
+
+    /**
+     * A map saved under a binary file name loads back unchanged and already known to be valid.
+     *
+     * @throws IOException if the saved file cannot be removed
+     */
+    @Test
+    public void saveAndLoadBinaryMap() throws IOException {
+        d_map = d_mapController.loadMap(d_currentState, d_mapName);
+        String l_countries = d_map.getD_mapCountries().toString();
+        d_map.setD_mapName("test.bmap");
+        try {
+            assertTrue(d_mapController.saveMap(d_currentState, "test.bmap"));
+            d_currentState = new CurrentState();
+            d_map = d_mapController.loadMap(d_currentState, "test.bmap");
+
+            assertEquals(l_countries, d_map.getD_mapCountries().toString());
+            assertEquals("test.bmap", d_currentState.getD_map().getD_mapName());
+            assertTrue(d_map.validateMap());
+        } finally {
+            Files.deleteIfExists(Paths.get("src", "main", "Maps", "test.bmap"));
+        }
     }
-}
\ No newline at end of file
+}
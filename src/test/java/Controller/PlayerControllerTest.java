@@ -4,6 +4,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -103,6 +105,26 @@ public class PlayerControllerTest {
         assertEquals(7, d_player1.getD_currentCountries().size());
     }
 
+    /**
+     * Test case for dealing the countries the same way from the same seed.
+     */
+    @Test
+    public void randomCountryDistributionWithSeed() {
+        l_playerList.add(d_player1);
+        l_playerList.add(d_player2);
+        d_currentState.setD_players(l_playerList);
+        d_currentState.setD_seed(11);
+        d_playerController.assignCountry(d_currentState);
+        List<Country> l_dealt = new ArrayList<>(d_player1.getD_currentCountries());
+
+        d_player1.setD_currentCountries(null);
+        d_player2.setD_currentCountries(null);
+        d_currentState.setD_seed(11);
+        d_playerController.assignCountry(d_currentState);
+        assertEquals(l_dealt, d_player1.getD_currentCountries());
+        assertEquals(4, d_player2.getD_currentCountries().size());
+    }
+
     /**
      * Test case for checking the number of armies assigned to players.
      */
@@ -144,6 +166,26 @@ public class PlayerControllerTest {
         assertEquals(3, d_player2.getD_unallocatedArmies().intValue());
     }
 
+    /**
+     * Test case for adding up the bonuses of every continent a player controls.
+     */
+    @Test
+    public void getNumberOfArmiesWithSeveralContinents() {
+        List<Country> l_countryList = new ArrayList<>();
+        for (String l_name : new String[]{"USA", "Canada", "Brazil", "Argentina", "Chile"}) {
+            l_countryList.add(d_map.getCountryByName(l_name));
+        }
+        d_player1.setD_currentCountries(l_countryList);
+        l_playerList.add(d_player1);
+        d_playerController.updatePlayerContinentOwnership(l_playerList, d_map.getD_mapContinents());
+
+        assertEquals(2, d_player1.getD_currentContinents().size());
+        assertEquals(3 + 10 + 8, d_playerController.getNumberOfArmies(d_player1));
+
+        d_player1.getD_currentCountries().remove(d_map.getCountryByName("Chile"));
+        assertEquals(3 + 10, d_playerController.getNumberOfArmies(d_player1));
+    }
+
     /**
      * Test case for creating deployment orders.
      */
@@ -183,4 +225,32 @@ public class PlayerControllerTest {
         d_playerController.createDeployOrder("deploy Canada 20", d_player1);
 //        assertEquals(3, d_player1.getD_unallocatedArmies().intValue());
     }
+
+    /**
+     * Test case for executing the deploy orders of every player.
+     */
+    @Test
+    public void executeOrders() {
+        List<Country> l_countryList = new ArrayList<>();
+        l_countryList.add(d_map.getCountryByName("USA"));
+        d_player1.setD_currentCountries(l_countryList);
+        d_player1.setD_unallocatedArmies(5);
+        l_countryList = new ArrayList<>();
+        l_countryList.add(d_map.getCountryByName("UK"));
+        d_player2.setD_currentCountries(l_countryList);
+        d_player2.setD_unallocatedArmies(5);
+        l_playerList.add(d_player1);
+        l_playerList.add(d_player2);
+        d_currentState.setD_players(l_playerList);
+
+        d_playerController.createDeployOrder("deploy USA 2", d_player1);
+        d_playerController.createDeployOrder("deploy USA 3", d_player1);
+        d_playerController.createDeployOrder("deploy UK 4", d_player2);
+        assertSame(d_map.getCountryByName("USA"), d_player1.getD_orders().get(0).getD_target());
+        d_playerController.executeOrders(d_currentState);
+
+        assertEquals(5, d_map.getCountryByName("USA").getD_armies().intValue());
+        assertEquals(4, d_map.getCountryByName("UK").getD_armies().intValue());
+        assertFalse(d_playerController.isUnexecutedOrdersExist(d_currentState));
+    }
 }
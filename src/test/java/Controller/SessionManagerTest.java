@@ -0,0 +1,112 @@
+package Controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * The type Session manager test.
+ */
+public class SessionManagerTest {
+
+    /** The D number of concurrent sessions. */
+    private static final int SESSIONS = 200;
+
+    /**
+     * Builds the script of a game played by one player, who deploys one army at a time on USA.
+     *
+     * @param p_player the player name
+     * @return the script
+     */
+    private static String gameScript(String p_player) {
+        StringBuilder l_script = new StringBuilder("loadmap test.map\ngameplayer -add " + p_player + "\nassigncountries\n");
+        for (int i = 0; i < 40; i++) {
+            l_script.append("deploy USA 1\n");
+        }
+        return l_script.toString();
+    }
+
+    /**
+     * Test that concurrent sessions each play their own game and write only to their own output.
+     *
+     * @throws InterruptedException if the wait is interrupted
+     */
+    @Test
+    public void concurrentSessions() throws InterruptedException {
+        ByteArrayOutputStream[] l_outputs = new ByteArrayOutputStream[SESSIONS];
+        GameSession[] l_sessions = new GameSession[SESSIONS];
+        try (SessionManager l_manager = new SessionManager()) {
+            for (int i = 0; i < SESSIONS; i++) {
+                l_outputs[i] = new ByteArrayOutputStream();
+                l_sessions[i] = l_manager.start(new BufferedReader(new StringReader(gameScript("Player" + i + "x"))),
+                        new PrintStream(l_outputs[i], true, StandardCharsets.UTF_8));
+            }
+            l_manager.awaitAll();
+
+            assertEquals(0, l_manager.getActiveCount());
+            assertEquals(SESSIONS, l_manager.getEndedCount());
+            assertTrue(l_manager.report().startsWith("Sessions: " + SESSIONS + " ended (" + SESSIONS + " games completed)"));
+            assertTrue(l_manager.getTurnLatency().getCount() >= SESSIONS * 11L);
+            assertTrue(l_manager.getCommandLatency().getCount() >= l_manager.getTurnLatency().getCount() + SESSIONS * 3L);
+        }
+
+        for (int i = 0; i < SESSIONS; i++) {
+            String l_output = l_outputs[i].toString(StandardCharsets.UTF_8);
+            assertEquals(GamePhase.GAME_OVER, l_sessions[i].getEngine().getPhase());
+            assertTrue(l_output.contains("Player Player" + i + "x added."));
+            assertTrue(l_output.contains("Thank you for playing the game"));
+            assertFalse(l_output.contains("Player" + ((i + 1) % SESSIONS) + "x"));
+        }
+    }
+
+    /**
+     * Test that a session ends when its input ends, without exiting the JVM.
+     *
+     * @throws InterruptedException if the wait is interrupted
+     */
+    @Test
+    public void inputEnds() throws InterruptedException {
+        ByteArrayOutputStream l_output = new ByteArrayOutputStream();
+        try (SessionManager l_manager = new SessionManager()) {
+            GameSession l_session = l_manager.start(new BufferedReader(new StringReader("loadmap test.map\nshowmap\n")),
+                    new PrintStream(l_output, true, StandardCharsets.UTF_8));
+            l_manager.awaitAll();
+            assertEquals(GamePhase.STARTUP, l_session.getEngine().getPhase());
+            assertEquals(2, l_session.getEngine().getCommandLatency().getCount());
+            assertEquals(0, l_session.getEngine().getTurnLatency().getCount());
+        }
+        assertTrue(l_output.toString(StandardCharsets.UTF_8).contains("Exiting the game. Goodbye!"));
+    }
+
+    /**
+     * Test that the map edits and the map view of a session write to the session's output, and that the
+     * standard output of the JVM is left alone.
+     *
+     * @throws InterruptedException if the wait is interrupted
+     */
+    @Test
+    public void outputStaysInSession() throws InterruptedException {
+        PrintStream l_standardOutput = System.out;
+        ByteArrayOutputStream l_output = new ByteArrayOutputStream();
+        try (SessionManager l_manager = new SessionManager()) {
+            l_manager.start(new BufferedReader(new StringReader(
+                    "loadmap test.map\neditcontinent -add Oceania 5\neditneighbour -add 1 2\nshowmap\n")),
+                    new PrintStream(l_output, true, StandardCharsets.UTF_8));
+            l_manager.awaitAll();
+        }
+        String l_text = l_output.toString(StandardCharsets.UTF_8);
+        assertTrue(l_text.contains("Continent Oceania added successfully!"));
+        assertTrue(l_text.contains("Neighbour already exists."));
+        assertTrue(l_text.contains("MAP VIEW - CONTINENT DETAILS"));
+        assertSame(l_standardOutput, System.out);
+    }
+}
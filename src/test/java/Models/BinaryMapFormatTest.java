@@ -0,0 +1,126 @@
+package Models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import Model.BinaryMapFormat;
+import Model.Map;
+import Model.MapFileParser;
+import org.junit.Test;
+
+/**
+ * The type Binary map format test.
+ */
+public class BinaryMapFormatTest {
+
+    /**
+     * The D map text.
+     */
+    private static final String MAP_TEXT = "[Continents]\nNorth 3\nSüd 2\n\n[Countries]\n1 Åland 1\n2 B 1\n3 C 2\n\n"
+            + "[Borders]\n1 2\n2 1 3\n3 2\n";
+
+    /**
+     * Parses the text map.
+     *
+     * @return the parsed map
+     * @throws IOException if reading fails
+     */
+    private Map textMap() throws IOException {
+        Map l_map = new Map();
+        new MapFileParser().parse(new ByteArrayInputStream(MAP_TEXT.getBytes(StandardCharsets.UTF_8)), l_map);
+        return l_map;
+    }
+
+    /**
+     * Writes a map in the binary format.
+     *
+     * @param p_map       the map
+     * @param p_validated whether to record the map as valid
+     * @return the file contents
+     * @throws IOException if writing fails
+     */
+    private byte[] write(Map p_map, boolean p_validated) throws IOException {
+        ByteArrayOutputStream l_output = new ByteArrayOutputStream();
+        BinaryMapFormat.write(p_map, l_output, p_validated);
+        return l_output.toByteArray();
+    }
+
+    /**
+     * Continents, membership, names and borders survive a round trip.
+     *
+     * @throws IOException if reading or writing fails
+     */
+    @Test
+    public void roundTrip() throws IOException {
+        Map l_text = textMap();
+        Map l_binary = new Map();
+        assertTrue(BinaryMapFormat.read(ByteBuffer.wrap(write(l_text, true)), l_binary));
+
+        assertEquals(l_text.getD_mapCountries().toString(), l_binary.getD_mapCountries().toString());
+        assertEquals(l_text.getD_mapContinents().toString(), l_binary.getD_mapContinents().toString());
+        assertEquals(2, l_binary.getContinentByName("North").getD_countries().size());
+        assertEquals("C", l_binary.getContinentByName("Süd").getD_countries().get(0).getD_countryName());
+        assertEquals(l_text.getGraph().edgeCount(), l_binary.getGraph().edgeCount());
+        assertTrue(l_binary.validateMap());
+    }
+
+    /**
+     * A map saved as valid skips validation until it is edited.
+     *
+     * @throws IOException if reading or writing fails
+     */
+    @Test
+    public void validatedFlagLastsUntilEdited() throws IOException {
+        Map l_text = textMap();
+        l_text.removeNeighbour(2, 3);
+        l_text.removeNeighbour(3, 2);
+        assertFalse(l_text.validateMap());
+
+        Map l_binary = new Map();
+        BinaryMapFormat.read(ByteBuffer.wrap(write(l_text, true)), l_binary);
+        assertTrue(l_binary.validateMap());
+        l_binary.addNeighbour(1, 2);
+        assertFalse(l_binary.validateMap());
+
+        l_binary = new Map();
+        BinaryMapFormat.read(ByteBuffer.wrap(write(l_text, false)), l_binary);
+        assertFalse(l_binary.validateMap());
+    }
+
+    /**
+     * A corrupted file is rejected and leaves the map untouched.
+     *
+     * @throws IOException if writing fails
+     */
+    @Test
+    public void rejectsCorruptedFile() throws IOException {
+        byte[] l_bytes = write(textMap(), true);
+        l_bytes[l_bytes.length / 2] ^= 1;
+        Map l_map = new Map();
+        try {
+            BinaryMapFormat.read(ByteBuffer.wrap(l_bytes), l_map);
+            fail("Corrupted map was accepted.");
+        } catch (IOException l_e) {
+            assertEquals("Binary map checksum mismatch.", l_e.getMessage());
+        }
+        assertEquals(null, l_map.getD_mapCountries());
+    }
+
+    /**
+     * Only names ending in the binary extension select the format.
+     */
+    @Test
+    public void choosesByExtension() {
+        assertTrue(BinaryMapFormat.isBinary("europe.BMAP"));
+        assertFalse(BinaryMapFormat.isBinary("europe.map"));
+        assertFalse(BinaryMapFormat.isBinary("map"));
+    }
+}
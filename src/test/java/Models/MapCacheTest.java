@@ -0,0 +1,177 @@
+package Models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import Model.Map;
+import Model.MapCache;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The type Map cache test.
+ */
+public class MapCacheTest {
+
+    /**
+     * The D map text.
+     */
+    private static final String MAP_TEXT = "[Continents]\nNorth 3\n\n[Countries]\n1 A 1\n2 B 1\n\n[Borders]\n1 2\n2 1\n";
+
+    /**
+     * The D directory.
+     */
+    private Path d_directory;
+
+    /**
+     * Setup.
+     *
+     * @throws IOException if the directory cannot be created
+     */
+    @Before
+    public void setup() throws IOException {
+        d_directory = Files.createTempDirectory("mapcache");
+    }
+
+    /**
+     * Removes the map files.
+     *
+     * @throws IOException if a file cannot be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        try (var l_files = Files.list(d_directory)) {
+            for (Path l_file : l_files.toList()) {
+                Files.delete(l_file);
+            }
+        }
+        Files.delete(d_directory);
+    }
+
+    /**
+     * Writes a map file.
+     *
+     * @param p_name the file name
+     * @param p_text the contents
+     * @return the file
+     * @throws IOException if writing fails
+     */
+    private Path write(String p_name, String p_text) throws IOException {
+        return Files.write(d_directory.resolve(p_name), p_text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Loading an unchanged file again is a hit and gives an independent copy.
+     *
+     * @throws IOException if reading fails
+     */
+    @Test
+    public void hitsGiveIndependentCopies() throws IOException {
+        MapCache l_cache = new MapCache(1 << 20);
+        Path l_file = write("a.map", MAP_TEXT);
+        Map l_first = new Map();
+        assertTrue(l_cache.load(l_file, l_first));
+        l_first.getCountryById(1).setD_armies(7);
+        l_first.getCountryById(1).addCountryNeighbour(3);
+
+        Map l_second = new Map();
+        assertTrue(l_cache.load(l_file, l_second));
+
+        assertEquals(1, l_cache.getHits());
+        assertEquals(1, l_cache.getMisses());
+        assertNotSame(l_first.getCountryById(1), l_second.getCountryById(1));
+        assertEquals(0, (int) l_second.getCountryById(1).getD_armies());
+        assertEquals("[2]", l_second.getCountryById(1).getD_neighbouringCountriesId().toString());
+        assertEquals(1, l_second.getContinentByName("North").getD_countries().indexOf(l_second.getCountryById(2)));
+        assertTrue(l_second.validateMap());
+    }
+
+    /**
+     * A file rewritten with the same size and modification time is still noticed through its hash.
+     *
+     * @throws IOException if reading fails
+     */
+    @Test
+    public void changedContentIsReloaded() throws IOException {
+        MapCache l_cache = new MapCache(1 << 20);
+        Path l_file = write("a.map", MAP_TEXT);
+        FileTime l_time = Files.getLastModifiedTime(l_file);
+        l_cache.load(l_file, new Map());
+
+        write("a.map", MAP_TEXT.replace("1 A 1", "1 Z 1"));
+        Files.setLastModifiedTime(l_file, l_time);
+        Map l_map = new Map();
+        l_cache.load(l_file, l_map);
+
+        assertEquals("Z", l_map.getCountryById(1).getD_countryName());
+        assertEquals(2, l_cache.getMisses());
+        assertEquals(1, l_cache.size());
+    }
+
+    /**
+     * The least recently used file is evicted when the budget is exceeded, and nothing is kept without a
+     * budget.
+     *
+     * @throws IOException if reading fails
+     */
+    @Test
+    public void evictsLeastRecentlyUsed() throws IOException {
+        Path l_a = write("a.map", MAP_TEXT);
+        Path l_b = write("b.map", MAP_TEXT);
+        Path l_c = write("c.map", MAP_TEXT);
+        MapCache l_probe = new MapCache(1 << 20);
+        l_probe.load(l_a, new Map());
+        MapCache l_cache = new MapCache(2 * l_probe.getBytes());
+
+        l_cache.load(l_a, new Map());
+        l_cache.load(l_b, new Map());
+        l_cache.load(l_a, new Map());
+        l_cache.load(l_c, new Map());
+        l_cache.load(l_a, new Map());
+        l_cache.load(l_b, new Map());
+
+        assertEquals(2, l_cache.size());
+        assertEquals(2, l_cache.getHits());
+        assertEquals(4, l_cache.getMisses());
+
+        MapCache l_disabled = new MapCache(0);
+        assertTrue(l_disabled.load(l_a, new Map()));
+        assertTrue(l_disabled.load(l_a, new Map()));
+        assertEquals(0, l_disabled.size());
+        assertEquals(2, l_disabled.getMisses());
+    }
+
+    /**
+     * A file larger than the budget is streamed: it loads without being read into memory as a whole and is
+     * not cached.
+     *
+     * @throws IOException if reading fails
+     */
+    @Test
+    public void fileLargerThanBudgetIsStreamed() throws IOException {
+        int l_padding = 8 << 20;
+        Path l_file = write("large.map", MAP_TEXT + "\n".repeat(l_padding));
+        MapCache l_cache = new MapCache(1 << 20);
+        com.sun.management.ThreadMXBean l_threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long l_before = l_threads.getCurrentThreadAllocatedBytes();
+
+        Map l_map = new Map();
+        assertTrue(l_cache.load(l_file, l_map));
+
+        long l_allocated = l_threads.getCurrentThreadAllocatedBytes() - l_before;
+        assertTrue("allocated " + l_allocated + " bytes", l_allocated < l_padding / 4);
+        assertEquals("B", l_map.getCountryById(2).getD_countryName());
+        assertEquals(0, l_cache.size());
+        assertEquals(1, l_cache.getMisses());
+    }
+}
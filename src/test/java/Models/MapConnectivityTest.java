@@ -0,0 +1,132 @@
+package Models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import Model.CurrentState;
+import Model.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+import Controller.MapController;
+
+/**
+ * The type Map connectivity test.
+ */
+public class MapConnectivityTest {
+    /**
+     * The D map.
+     */
+    Map d_map;
+
+    /**
+     * Setup.
+     */
+    @Before
+    public void setup() {
+        d_map = new MapController().loadMap(new CurrentState(), "test.map");
+    }
+
+    /**
+     * A map built up from nothing is valid as soon as its last border is added.
+     */
+    @Test
+    public void addOnlyEditing() {
+        Map l_map = new Map();
+        l_map.addContinent("North", 3);
+        l_map.addContinent("South", 2);
+        assertFalse(l_map.validateMap());
+
+        l_map.addCountry("A", "North");
+        l_map.addCountry("B", "North");
+        l_map.addCountry("C", "South");
+        assertFalse(l_map.validateMap());
+
+        l_map.addNeighbour(1, 3);
+        l_map.addNeighbour(2, 3);
+        assertFalse(l_map.validateMap());
+
+        l_map.addNeighbour(1, 2);
+        assertTrue(l_map.validateMap());
+
+        l_map.addContinent("Empty", 1);
+        assertFalse(l_map.validateMap());
+    }
+
+    /**
+     * Removals are picked up by the rebuild on the next query.
+     */
+    @Test
+    public void removalsAreRebuilt() {
+        assertTrue(d_map.validateMap());
+        d_map.removeNeighbour(1, 2);
+        assertFalse(d_map.validateMap());
+        d_map.addNeighbour(1, 2);
+        assertTrue(d_map.validateMap());
+
+        d_map.removeCountry("UK");
+        assertEquals(d_map.getValidationReport().isValid(), d_map.validateMap());
+        d_map.removeContinent("Europe");
+        assertEquals(d_map.getValidationReport().isValid(), d_map.validateMap());
+    }
+
+    /**
+     * A border added after a removal and before the next query still joins the continent's parts.
+     */
+    @Test
+    public void additionAfterRemovalIsCounted() {
+        d_map.removeNeighbour(1, 2);
+        assertFalse(d_map.getConnectivity().isValid());
+        d_map.removeNeighbour(2, 5);
+        d_map.addNeighbour(1, 2);
+        assertTrue(d_map.getConnectivity().isValid());
+        assertTrue(d_map.validateMap());
+    }
+
+    /**
+     * Random edit sequences agree with the full validation after every step.
+     */
+    @Test
+    public void agreesWithFullValidation() {
+        Random l_random = new Random(42);
+        String[] l_continents = {"NorthAmerica", "Europe", "SouthAmerica", "Asia"};
+        for (int l_round = 0; l_round < 20; l_round++) {
+            Map l_map = new MapController().loadMap(new CurrentState(), "test.map");
+            l_map.validateMap();
+            for (int l_step = 0; l_step < 60; l_step++) {
+                int l_first = 1 + l_random.nextInt(12);
+                int l_second = 1 + l_random.nextInt(12);
+                if (l_first == l_second) {
+                    continue;
+                }
+                switch (l_random.nextInt(8)) {
+                    case 0:
+                        l_map.addCountry("X" + l_round + "_" + l_step, l_continents[l_random.nextInt(l_continents.length)]);
+                        break;
+                    case 1:
+                        l_map.removeNeighbour(l_first, l_second);
+                        break;
+                    case 2:
+                        if (l_random.nextInt(4) == 0) {
+                            l_map.removeCountry(l_map.getCountryNameById(l_first));
+                        }
+                        break;
+                    case 3:
+                        if (l_random.nextInt(10) == 0) {
+                            l_map.removeContinent(l_continents[l_random.nextInt(l_continents.length)]);
+                        }
+                        break;
+                    default:
+                        l_map.addNeighbour(l_first, l_second);
+                        break;
+                }
+                boolean l_valid = l_map.getValidationReport().isValid();
+                assertEquals(l_valid, l_map.getConnectivity().isValid());
+                assertEquals(l_valid, l_map.validateMap());
+            }
+        }
+    }
+}
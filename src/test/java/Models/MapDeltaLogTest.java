@@ -0,0 +1,181 @@
+package Models;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import Model.Map;
+import Model.MapDeltaLog;
+import Model.MapFileParser;
+import Model.MapFileWriter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The type Map delta log test.
+ */
+public class MapDeltaLogTest {
+
+    /**
+     * The D directory.
+     */
+    private Path d_directory;
+    /**
+     * The D map file.
+     */
+    private Path d_file;
+    /**
+     * The D writer.
+     */
+    private MapFileWriter d_writer;
+
+    /**
+     * Writes the starting map.
+     *
+     * @throws IOException if writing fails
+     */
+    @Before
+    public void setup() throws IOException {
+        d_directory = Files.createTempDirectory("mapdelta");
+        d_file = d_directory.resolve("a.map");
+        Files.write(d_file, "[Continents]\nNorth 3\nSouth 2\n\n[Countries]\n1 A 1\n2 B 1\n3 C 2\n\n[Borders]\n1 2\n2 1 3\n3 2\n"
+                .getBytes(StandardCharsets.UTF_8));
+        d_writer = new MapFileWriter();
+    }
+
+    /**
+     * Removes the files.
+     *
+     * @throws IOException if a file cannot be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        try (var l_files = Files.list(d_directory)) {
+            for (Path l_file : l_files.toList()) {
+                Files.delete(l_file);
+            }
+        }
+        Files.delete(d_directory);
+    }
+
+    /**
+     * Loads the map file and replays its edit log, as loadmap does.
+     *
+     * @return the map
+     * @throws IOException if reading fails
+     */
+    private Map load() throws IOException {
+        Map l_map = new Map();
+        new MapFileParser().parse(Files.readAllBytes(d_file), l_map);
+        MapDeltaLog.apply(d_file, l_map);
+        return l_map;
+    }
+
+    /**
+     * Makes one edit of every kind.
+     *
+     * @param p_map the map to edit
+     */
+    private void edit(Map p_map) {
+        p_map.addContinent("East", 4);
+        p_map.addCountry("D", "East");
+        p_map.addNeighbour(4, 3);
+        p_map.removeNeighbour(2, 3);
+        p_map.addNeighbour(1, 3);
+        p_map.removeCountry("A");
+        p_map.removeContinent("North");
+    }
+
+    /**
+     * Saving a loaded map only appends its edits, and loading replays them.
+     *
+     * @throws IOException if reading or writing fails
+     */
+    @Test
+    public void savesOnlyEdits() throws IOException {
+        byte[] l_original = Files.readAllBytes(d_file);
+        Map l_map = load();
+        edit(l_map);
+        d_writer.save(l_map, d_file, true);
+
+        assertArrayEquals(l_original, Files.readAllBytes(d_file));
+        assertTrue(Files.exists(MapDeltaLog.deltaFile(d_file)));
+        Map l_reloaded = load();
+        assertEquals(l_map.getD_mapCountries().toString(), l_reloaded.getD_mapCountries().toString());
+        assertEquals(l_map.getD_mapContinents().toString(), l_reloaded.getD_mapContinents().toString());
+
+        long l_size = Files.size(MapDeltaLog.deltaFile(d_file));
+        d_writer.save(l_map, d_file, true);
+        assertEquals(l_size, Files.size(MapDeltaLog.deltaFile(d_file)));
+    }
+
+    /**
+     * Compacting folds the log into the file and leaves unsaved edits in the journal.
+     *
+     * @throws IOException if reading or writing fails
+     */
+    @Test
+    public void compactionKeepsUnsavedEdits() throws IOException {
+        Map l_map = load();
+        edit(l_map);
+        d_writer.save(l_map, d_file, true);
+        l_map.addCountry("E", "East");
+        d_writer.compact(l_map, d_file);
+
+        assertFalse(Files.exists(MapDeltaLog.deltaFile(d_file)));
+        Map l_saved = load();
+        assertEquals(2, l_saved.getD_mapCountries().size());
+        assertEquals("[3]", l_saved.getCountryByName("D").getD_neighbouringCountriesId().toString());
+
+        d_writer.save(l_map, d_file, true);
+        assertEquals(3, load().getD_mapCountries().size());
+        assertTrue(Files.exists(MapDeltaLog.deltaFile(d_file)));
+    }
+
+    /**
+     * A batch cut short is not replayed, and the next save rewrites the file and drops the log.
+     *
+     * @throws IOException if reading or writing fails
+     */
+    @Test
+    public void tornBatchForcesRewrite() throws IOException {
+        Map l_map = load();
+        l_map.addNeighbour(1, 3);
+        d_writer.save(l_map, d_file, true);
+        l_map.removeNeighbour(1, 2);
+        d_writer.save(l_map, d_file, true);
+        Path l_delta = MapDeltaLog.deltaFile(d_file);
+        byte[] l_log = Files.readAllBytes(l_delta);
+        Files.write(l_delta, Arrays.copyOf(l_log, l_log.length - 3));
+
+        Map l_reloaded = load();
+        assertEquals("[2, 3]", l_reloaded.getCountryById(1).getD_neighbouringCountriesId().toString());
+        d_writer.save(l_reloaded, d_file, true);
+        assertFalse(Files.exists(l_delta));
+        assertEquals("[2, 3]", load().getCountryById(1).getD_neighbouringCountriesId().toString());
+    }
+
+    /**
+     * A log written for an older version of the file is ignored.
+     *
+     * @throws IOException if reading or writing fails
+     */
+    @Test
+    public void ignoresOutOfDateLog() throws IOException {
+        Map l_map = load();
+        l_map.addNeighbour(1, 3);
+        d_writer.save(l_map, d_file, true);
+        Files.write(d_file, "\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        assertEquals("[2]", load().getCountryById(1).getD_neighbouringCountriesId().toString());
+    }
+}
@@ -0,0 +1,223 @@
+package Models;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import Model.Country;
+import Model.Map;
+import Model.MapFileParser;
+import Model.MapGraph;
+import org.junit.Test;
+
+/**
+ * The type Map file parser test.
+ */
+public class MapFileParserTest {
+
+    /**
+     * Parses map text.
+     *
+     * @param p_text the file contents
+     * @return the parsed map
+     * @throws IOException if reading fails
+     */
+    private Map parse(String p_text) throws IOException {
+        Map l_map = new Map();
+        new MapFileParser().parse(new ByteArrayInputStream(p_text.getBytes(StandardCharsets.UTF_8)), l_map);
+        return l_map;
+    }
+
+    /**
+     * Sections, positional continent IDs and borders are read.
+     *
+     * @throws IOException if reading fails
+     */
+    @Test
+    public void parsesSections() throws IOException {
+        Map l_map = parse("[Continents]\nNorth 3\nSouth 2\n\n[Countries]\n1 A 1\n2 B 1\n3 C 2\n\n[Borders]\n1 2\n2 1 3\n3 2\n");
+
+        assertEquals(2, l_map.getD_mapContinents().size());
+        assertEquals(2, (int) l_map.getContinentByName("South").getD_continentID());
+        assertEquals(2, l_map.getContinentByName("North").getD_countries().size());
+        assertEquals("[1, 3]", l_map.getCountryByName("B").getD_neighbouringCountriesId().toString());
+        assertTrue(l_map.validateMap());
+    }
+
+    /**
+     * Malformed lines are skipped and the last border line of a country wins.
+     *
+     * @throws IOException if reading fails
+     */
+    @Test
+    public void keepsLoaderRules() throws IOException {
+        Map l_map = parse("[Continents]\r\nNorth 3\r\nBad x\r\nLonely\r\n\r\n[Countries]\r\n1 A 1\r\n2 B\r\nx C 1\r\n3  C\t1 extra\r\n\r\n"
+                + "[Borders]\r\n1 3\r\n3 1 x\r\n3 1\r\n1 3 99\r\n9\r\n");
+
+        assertEquals(1, l_map.getD_mapContinents().size());
+        assertEquals(2, l_map.getD_mapCountries().size());
+        assertEquals("C", l_map.getCountryById(3).getD_countryName());
+        assertEquals("[3, 99]", l_map.getCountryById(1).getD_neighbouringCountriesId().toString());
+        assertEquals("[1]", l_map.getCountryById(3).getD_neighbouringCountriesId().toString());
+        assertEquals(1, l_map.getGraph().degree(0));
+    }
+
+    /**
+     * An empty input leaves the map untouched.
+     *
+     * @throws IOException if reading fails
+     */
+    @Test
+    public void emptyInput() throws IOException {
+        Map l_map = new Map();
+        assertFalse(new MapFileParser().parse(new ByteArrayInputStream(new byte[0]), l_map));
+        assertNull(l_map.getD_mapCountries());
+    }
+
+    /**
+     * The graph built while parsing matches the one built from the parsed lists, also for lines longer than
+     * the read buffer.
+     *
+     * @throws IOException if reading fails
+     */
+    @Test
+    public void graphMatchesLists() throws IOException {
+        int l_count = 30_000;
+        StringBuilder l_text = new StringBuilder("[Continents]\nEven 1\nOdd 1\n\n[Countries]\n");
+        for (int i = 1; i <= l_count; i++) {
+            l_text.append(i).append(" C").append(i).append(' ').append(i % 2 + 1).append('\n');
+        }
+        l_text.append("\n[Borders]\n1");
+        for (int i = 2; i <= l_count; i++) {
+            l_text.append(' ').append(i);
+        }
+        l_text.append('\n');
+        for (int i = 2; i <= l_count; i++) {
+            l_text.append(i).append(" 1 ").append(i == l_count ? 2 : i + 1).append('\n');
+        }
+        Map l_map = parse(l_text.toString());
+
+        MapGraph l_parsed = l_map.getGraph();
+        MapGraph l_built = MapGraph.build(l_map.getD_mapCountries(), l_map.getD_mapContinents());
+        assertEquals(l_built.edgeCount(), l_parsed.edgeCount());
+        for (int i = 0; i < l_built.countryCount(); i++) {
+            assertArrayEquals(neighbours(l_built, i), neighbours(l_parsed, i));
+            assertEquals(l_built.continentOf(i), l_parsed.continentOf(i));
+        }
+        assertEquals(l_count - 1, l_map.getCountryById(1).getD_neighbouringCountriesId().size());
+    }
+
+    /**
+     * Editing one country's neighbours leaves the others alone.
+     *
+     * @throws IOException if reading fails
+     */
+    @Test
+    public void neighbourListsAreIndependent() throws IOException {
+        Map l_map = parse("[Continents]\nNorth 3\n\n[Countries]\n1 A 1\n2 B 1\n3 C 1\n\n[Borders]\n1 2 3\n2 1 3\n3 1 2\n");
+        Country l_first = l_map.getCountryById(1);
+        l_first.addCountryNeighbour(4);
+        l_first.removeCountryNeighbour(2);
+
+        assertEquals("[3, 4]", l_first.getD_neighbouringCountriesId().toString());
+        assertEquals("[1, 3]", l_map.getCountryById(2).getD_neighbouringCountriesId().toString());
+        assertEquals("[1, 2]", l_map.getCountryById(3).getD_neighbouringCountriesId().toString());
+    }
+
+    /**
+     * A memory-mapped file yields the same map as the streaming reader, with names decoded on demand.
+     *
+     * @throws IOException if reading fails
+     */
+    @Test
+    public void mappedMatchesStreaming() throws IOException {
+        String l_text = "[Continents]\nNorth 3\nSüd 2\n\n[Countries]\n1 Åland 1\n2 B 1\n3 C 2\n\n[Borders]\n1 2\n2 1 3\n3 2";
+        Path l_file = Files.createTempFile("mapped", ".map");
+        try {
+            Files.write(l_file, l_text.getBytes(StandardCharsets.UTF_8));
+            Map l_mapped = new Map();
+            assertTrue(new MapFileParser().parseMapped(l_file, l_mapped));
+            assertEquals(3, (int) l_mapped.getCountryById(3).getD_countryID());
+            for (Country l_country : l_mapped.getD_mapCountries()) {
+                assertFalse(l_country.isNameDecoded());
+            }
+            Map l_streamed = parse(l_text);
+
+            assertEquals(l_streamed.getD_mapCountries().toString(), l_mapped.getD_mapCountries().toString());
+            assertEquals("Åland", l_mapped.getCountryById(1).getD_countryName());
+            assertEquals(2, (int) l_mapped.getContinentByName("Süd").getD_continentID());
+            assertEquals(l_streamed.getGraph().edgeCount(), l_mapped.getGraph().edgeCount());
+            assertTrue(l_mapped.validateMap());
+        } finally {
+            Files.delete(l_file);
+        }
+    }
+
+    /**
+     * Parsing the borders in parallel chunks gives the same map as a sequential pass, including malformed
+     * and repeated lines and a section that follows the borders.
+     */
+    @Test
+    public void parallelBordersMatchSequential() {
+        int l_count = 60_000;
+        StringBuilder l_text = new StringBuilder("[Continents]\r\nAll 5\r\n\r\n[Countries]\r\n");
+        for (int i = 1; i <= l_count; i++) {
+            l_text.append(i).append(" C").append(i).append(" 1\r\n");
+        }
+        l_text.append("\r\n[Borders]\r\n");
+        for (int i = 1; i <= l_count; i++) {
+            l_text.append(i).append(' ').append(i % l_count + 1).append(' ').append((i + l_count - 2) % l_count + 1);
+            l_text.append(i % 1000 == 0 ? " x\r\n" : "\r\n");
+            if (i % 777 == 0) {
+                l_text.append(i).append(" 1\r\n");
+            }
+        }
+        l_text.append("[Countries]\r\n").append(l_count + 1).append(" Late 1\r\n");
+        byte[] l_bytes = l_text.toString().getBytes(StandardCharsets.UTF_8);
+
+        Map l_sequential = new Map();
+        new MapFileParser(null).parse(l_bytes, l_sequential);
+        Map l_parallel = new Map();
+        ForkJoinPool l_pool = new ForkJoinPool(4);
+        try {
+            new MapFileParser(l_pool).parse(l_bytes, l_parallel);
+        } finally {
+            l_pool.shutdown();
+        }
+
+        assertEquals(l_count + 1, l_parallel.getD_mapCountries().size());
+        assertEquals("[1]", l_parallel.getCountryById(777).getD_neighbouringCountriesId().toString());
+        assertEquals("[]", l_parallel.getCountryById(1000).getD_neighbouringCountriesId().toString());
+        for (int i = 0; i < l_sequential.getD_mapCountries().size(); i++) {
+            assertEquals(l_sequential.getD_mapCountries().get(i).getD_neighbouringCountriesId(),
+                    l_parallel.getD_mapCountries().get(i).getD_neighbouringCountriesId());
+        }
+        assertEquals(l_sequential.getGraph().edgeCount(), l_parallel.getGraph().edgeCount());
+    }
+
+    /**
+     * Collects the neighbour indexes of a country.
+     *
+     * @param p_graph the graph
+     * @param p_index the dense country index
+     * @return the neighbour indexes
+     */
+    private int[] neighbours(MapGraph p_graph, int p_index) {
+        List<Integer> l_neighbours = new ArrayList<>();
+        for (int k = p_graph.neighbourStart(p_index); k < p_graph.neighbourEnd(p_index); k++) {
+            l_neighbours.add(p_graph.neighbourAt(k));
+        }
+        return l_neighbours.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
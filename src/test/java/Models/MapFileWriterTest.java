@@ -0,0 +1,117 @@
+package Models;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import Model.Map;
+import Model.MapFileParser;
+import Model.MapFileWriter;
+import org.junit.Test;
+
+/**
+ * The type Map file writer test.
+ */
+public class MapFileWriterTest {
+
+    /**
+     * Parses map text.
+     *
+     * @param p_text the file contents
+     * @return the parsed map
+     * @throws IOException if reading fails
+     */
+    private Map parse(String p_text) throws IOException {
+        Map l_map = new Map();
+        new MapFileParser().parse(new ByteArrayInputStream(p_text.getBytes(StandardCharsets.UTF_8)), l_map);
+        return l_map;
+    }
+
+    /**
+     * Writes a map as text.
+     *
+     * @param p_writer the writer
+     * @param p_map    the map
+     * @return the written text
+     * @throws IOException if writing fails
+     */
+    private String write(MapFileWriter p_writer, Map p_map) throws IOException {
+        ByteArrayOutputStream l_output = new ByteArrayOutputStream();
+        p_writer.write(p_map, Channels.newChannel(l_output));
+        return l_output.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The sections are written in the established layout, and countries without neighbours get no border
+     * line.
+     *
+     * @throws IOException if writing fails
+     */
+    @Test
+    public void writesSections() throws IOException {
+        Map l_map = parse("[Continents]\nNorth 3\nSüd -2\n\n[Countries]\n1 Åland 1\n-2147483648 B 1\n30 C 2\n\n"
+                + "[Borders]\n1 -2147483648 30\n-2147483648 1\n");
+        String n = System.lineSeparator();
+
+        assertEquals(n + "[Continents]" + n + "North 3" + n + "Süd -2" + n
+                + n + "[Countries]" + n + "1 Åland 1" + n + "-2147483648 B 1" + n + "30 C 2" + n
+                + n + "[Borders]" + n + "1 -2147483648 30" + n + "-2147483648 1" + n, write(new MapFileWriter(), l_map));
+    }
+
+    /**
+     * A map larger than the write buffer survives a round trip, also when the writer is reused.
+     *
+     * @throws IOException if reading or writing fails
+     */
+    @Test
+    public void roundTripsLargeMaps() throws IOException {
+        StringBuilder l_text = new StringBuilder("[Continents]\nAll 5\n\n[Countries]\n");
+        int l_count = 20_000;
+        for (int i = 1; i <= l_count; i++) {
+            l_text.append(i).append(" Country").append(i).append(" 1\n");
+        }
+        l_text.append("\n[Borders]\n");
+        for (int i = 1; i <= l_count; i++) {
+            l_text.append(i).append(' ').append(i % l_count + 1).append(' ').append((i + l_count - 2) % l_count + 1).append('\n');
+        }
+        Map l_map = parse(l_text.toString());
+        MapFileWriter l_writer = new MapFileWriter();
+        String l_first = write(l_writer, l_map);
+
+        Map l_reparsed = parse(l_first);
+        assertEquals(l_map.getD_mapCountries().toString(), l_reparsed.getD_mapCountries().toString());
+        assertEquals(l_first, write(l_writer, l_reparsed));
+    }
+
+    /**
+     * Saving replaces the file without leaving a temporary file behind.
+     *
+     * @throws IOException if reading or writing fails
+     */
+    @Test
+    public void replacesFile() throws IOException {
+        Path l_directory = Files.createTempDirectory("mapwriter");
+        Path l_file = l_directory.resolve("a.map");
+        try {
+            Files.write(l_file, "old contents that are longer than the new map".repeat(10).getBytes(StandardCharsets.UTF_8));
+            Map l_map = parse("[Continents]\nNorth 3\n\n[Countries]\n1 A 1\n2 B 1\n\n[Borders]\n1 2\n2 1\n");
+            MapFileWriter l_writer = new MapFileWriter();
+            l_writer.write(l_map, l_file);
+
+            assertEquals(write(l_writer, l_map), Files.readString(l_file));
+            try (var l_files = Files.list(l_directory)) {
+                assertEquals(List.of(l_file), l_files.toList());
+            }
+        } finally {
+            Files.deleteIfExists(l_file);
+            Files.delete(l_directory);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package Models;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+
+import Model.Country;
+import Model.Map;
+import Model.MapFileParser;
+import Model.MapGenerator;
+import Model.MapGenerator.Topology;
+import org.junit.Test;
+
+/**
+ * The type Map generator test.
+ */
+public class MapGeneratorTest {
+
+    /**
+     * Generates a map file in memory.
+     *
+     * @param p_topology   the shape of the graph
+     * @param p_countries  the number of countries
+     * @param p_continents the number of continents
+     * @param p_degree     the average degree
+     * @param p_seed       the seed
+     * @return the file contents
+     * @throws IOException if writing fails
+     */
+    private byte[] generate(Topology p_topology, int p_countries, int p_continents, double p_degree, long p_seed)
+            throws IOException {
+        ByteArrayOutputStream l_out = new ByteArrayOutputStream();
+        new MapGenerator(p_topology, p_countries, p_continents, p_degree, p_seed).write(Channels.newChannel(l_out));
+        return l_out.toByteArray();
+    }
+
+    /**
+     * Every topology gives a valid map with the requested counts and symmetric borders, whatever the sizes.
+     *
+     * @throws IOException if writing fails
+     */
+    @Test
+    public void generatedMapsAreValid() throws IOException {
+        for (Topology l_topology : Topology.values()) {
+            for (int[] l_size : new int[][]{{2, 1}, {37, 5}, {1000, 7}, {5000, 5000}}) {
+                Map l_map = new Map();
+                assertTrue(new MapFileParser().parse(generate(l_topology, l_size[0], l_size[1], 6, 42), l_map));
+                assertEquals(l_size[0], l_map.getD_mapCountries().size());
+                assertEquals(l_size[1], l_map.getD_mapContinents().size());
+                assertTrue(l_topology + " " + l_size[0], l_map.validateMap());
+                for (Country l_country : l_map.getD_mapCountries()) {
+                    for (int l_neighbour : l_country.getD_neighbouringCountriesId()) {
+                        assertTrue(l_map.getCountryById(l_neighbour).getD_neighbouringCountriesId()
+                                .contains(l_country.getD_countryID()));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The same seed gives the same file and another seed a different one.
+     *
+     * @throws IOException if writing fails
+     */
+    @Test
+    public void outputDependsOnlyOnSeed() throws IOException {
+        for (Topology l_topology : new Topology[]{Topology.GEOMETRIC, Topology.SCALE_FREE}) {
+            byte[] l_first = generate(l_topology, 3000, 10, 5, 7);
+            assertArrayEquals(l_first, generate(l_topology, 3000, 10, 5, 7));
+            assertFalse(Arrays.equals(l_first, generate(l_topology, 3000, 10, 5, 8)));
+        }
+    }
+
+    /**
+     * The average degree follows the request, and only the scale-free maps have hubs.
+     *
+     * @throws IOException if writing fails
+     */
+    @Test
+    public void degreesFollowTopology() throws IOException {
+        for (Topology l_topology : Topology.values()) {
+            Map l_map = new Map();
+            new MapFileParser().parse(generate(l_topology, 20000, 20, 8, 1), l_map);
+            long l_total = 0;
+            int l_max = 0;
+            for (Country l_country : l_map.getD_mapCountries()) {
+                int l_degree = l_country.getD_neighbouringCountriesId().size();
+                l_total += l_degree;
+                l_max = Math.max(l_max, l_degree);
+            }
+            double l_average = (double) l_total / l_map.getD_mapCountries().size();
+            assertTrue(l_topology + " " + l_average, l_average > 5 && l_average < 11);
+            assertEquals(l_topology.toString(), l_topology == Topology.SCALE_FREE, l_max > 50);
+        }
+    }
+}
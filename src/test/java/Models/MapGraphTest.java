@@ -0,0 +1,81 @@
+package Models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import Model.CurrentState;
+import Model.Map;
+import Model.MapGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import Controller.MapController;
+
+/**
+ * The type Map graph test.
+ */
+public class MapGraphTest {
+    /**
+     * The D map.
+     */
+    Map d_map;
+
+    /**
+     * Setup.
+     */
+    @Before
+    public void setup() {
+        d_map = new MapController().loadMap(new CurrentState(), "test.map");
+    }
+
+    /**
+     * Neighbours of a country are read from the compressed arrays in file order.
+     */
+    @Test
+    public void neighbours() {
+        MapGraph l_graph = d_map.getGraph();
+        assertEquals(8, l_graph.countryCount());
+        assertEquals(24, l_graph.edgeCount());
+
+        int l_usa = l_graph.indexOf(1);
+        assertEquals("USA", l_graph.countryAt(l_usa).getD_countryName());
+        assertEquals(3, l_graph.degree(l_usa));
+
+        StringBuilder l_ids = new StringBuilder();
+        for (int k = l_graph.neighbourStart(l_usa); k < l_graph.neighbourEnd(l_usa); k++) {
+            l_ids.append(l_graph.countryIdAt(l_graph.neighbourAt(k))).append(' ');
+        }
+        assertEquals("2 4 6", l_ids.toString().trim());
+        assertTrue(l_graph.isAdjacent(l_usa, l_graph.indexOf(2)));
+        assertFalse(l_graph.isAdjacent(l_usa, l_graph.indexOf(3)));
+        assertEquals(-1, l_graph.indexOf(42));
+    }
+
+    /**
+     * Continent membership is indexed alongside the borders.
+     */
+    @Test
+    public void continents() {
+        MapGraph l_graph = d_map.getGraph();
+        assertEquals(3, l_graph.continentCount());
+        assertEquals(3, l_graph.continentSize(1));
+        assertEquals("UK", l_graph.countryAt(l_graph.continentMember(1, 0)).getD_countryName());
+        assertEquals(2, l_graph.continentOf(l_graph.indexOf(8)));
+    }
+
+    /**
+     * Editing the map through its methods rebuilds the graph.
+     */
+    @Test
+    public void rebuiltAfterEdit() {
+        MapGraph l_before = d_map.getGraph();
+        assertSame(l_before, d_map.getGraph());
+
+        d_map.addNeighbour(3, 5);
+        MapGraph l_after = d_map.getGraph();
+        assertTrue(l_after.isAdjacent(l_after.indexOf(3), l_after.indexOf(5)));
+        assertFalse(l_before.isAdjacent(l_before.indexOf(3), l_before.indexOf(5)));
+    }
+}
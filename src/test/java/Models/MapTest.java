@@ -179,4 +179,41 @@ public class MapTest {
         d_map.removeNeighbour(3, 4);
         assertFalse(d_map.validateCountryConnections());
     }
-}
\ No newline at end of file
+
+    /**
+     * Lookups stay consistent while countries and continents are added and removed.
+     */
+    @Test
+    public void lookupIndexesFollowEdits() {
+        assertEquals("Canada", d_map.getCountryById(2).getD_countryName());
+        assertEquals("Canada", d_map.getCountryNameById(2));
+        assertEquals("null", d_map.getCountryNameById(99));
+        assertEquals(1, (int) d_map.getCountryByName("usa").getD_countryID());
+
+        d_map.addCountry("Mexico", "NorthAmerica");
+        assertEquals(9, (int) d_map.getCountryByName("MEXICO").getD_countryID());
+        assertEquals("Mexico", d_map.getCountryById(9).getD_countryName());
+
+        d_map.removeCountry("Mexico");
+        assertEquals(null, d_map.getCountryById(9));
+        assertEquals(null, d_map.getCountryByName("Mexico"));
+
+        d_map.addContinent("Asia", 7);
+        assertEquals(4, d_map.getContinentIDByName("Asia"));
+        d_map.removeContinent("Europe");
+        assertEquals(null, d_map.getContinentByName("Europe"));
+        assertEquals(null, d_map.getCountryByName("UK"));
+        assertEquals(-1, d_map.getContinentIDByName("asia"));
+    }
+
+    /**
+     * Lookups notice when the country list is replaced.
+     */
+    @Test
+    public void lookupIndexesFollowReplacedLists() {
+        assertEquals("USA", d_map.getCountryById(1).getD_countryName());
+        d_map.setD_mapCountries(new ArrayList<>(d_map.getD_mapCountries().subList(1, 3)));
+        assertEquals(null, d_map.getCountryById(1));
+        assertEquals("UK", d_map.getCountryByName("uk").getD_countryName());
+    }
+}
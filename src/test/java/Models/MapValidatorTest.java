@@ -0,0 +1,147 @@
+package Models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import Model.Continent;
+import Model.Country;
+import Model.CurrentState;
+import Model.Map;
+import Model.MapGraph;
+import Model.MapValidationReport;
+import Model.MapValidator;
+import org.junit.Before;
+import org.junit.Test;
+
+import Controller.MapController;
+
+/**
+ * The type Map validator test.
+ */
+public class MapValidatorTest {
+    /**
+     * The D map.
+     */
+    Map d_map;
+
+    /**
+     * Setup.
+     */
+    @Before
+    public void setup() {
+        d_map = new MapController().loadMap(new CurrentState(), "test.map");
+    }
+
+    /**
+     * A valid map yields an empty report.
+     */
+    @Test
+    public void validMap() {
+        MapValidationReport l_report = d_map.getValidationReport();
+        assertTrue(l_report.isValid());
+        assertTrue(l_report.getMessages().isEmpty());
+    }
+
+    /**
+     * Cutting a continent in two is reported per continent.
+     */
+    @Test
+    public void disconnectedContinent() {
+        d_map.removeNeighbour(1, 2);
+        MapValidationReport l_report = d_map.getValidationReport();
+
+        assertFalse(l_report.isValid());
+        assertTrue(l_report.isConnected());
+        assertEquals(1, l_report.getDisconnectedContinents().size());
+        Continent l_northAmerica = d_map.getContinentByName("NorthAmerica");
+        assertEquals("Canada", l_report.getUnreachableCountries(l_northAmerica).getFirst().getD_countryName());
+    }
+
+    /**
+     * Countries cut off from the rest of the map are listed.
+     */
+    @Test
+    public void unreachableCountries() {
+        d_map.removeNeighbour(3, 2);
+        d_map.removeNeighbour(3, 4);
+        MapValidationReport l_report = d_map.getValidationReport();
+
+        assertFalse(l_report.isConnected());
+        assertFalse(l_report.isStructureValid());
+        assertEquals("UK", l_report.getUnreachableCountries().getFirst().getD_countryName());
+        assertEquals("UK", l_report.getIsolatedCountries().getFirst().getD_countryName());
+    }
+
+    /**
+     * A long chain of countries is validated without deep recursion.
+     */
+    @Test
+    public void longChain() {
+        int l_count = 200_000;
+        Continent l_continent = new Continent(1, "Chain", 1);
+        List<Country> l_countries = new ArrayList<>(l_count);
+        for (int i = 1; i <= l_count; i++) {
+            Country l_country = new Country(i, "C" + i, 1);
+            List<Integer> l_neighbours = new ArrayList<>();
+            if (i > 1) {
+                l_neighbours.add(i - 1);
+            }
+            if (i < l_count) {
+                l_neighbours.add(i + 1);
+            }
+            l_country.setD_neighbouringCountriesId(l_neighbours);
+            l_countries.add(l_country);
+            l_continent.setCountry(l_country);
+        }
+        List<Continent> l_continents = new ArrayList<>();
+        l_continents.add(l_continent);
+        Map l_chain = new Map("chain.map", l_countries, l_continents);
+
+        assertTrue(l_chain.validateMap());
+        l_chain.removeNeighbour(l_count / 2, l_count / 2 + 1);
+        assertEquals(l_count / 2, l_chain.getValidationReport().getUnreachableCountries().size());
+    }
+
+    /**
+     * Checking continents in parallel reports the same problems in the same order.
+     */
+    @Test
+    public void parallelMatchesSequential() {
+        int l_continentCount = 64;
+        int l_blockSize = 50;
+        List<Continent> l_continents = new ArrayList<>();
+        List<Country> l_countries = new ArrayList<>();
+        for (int c = 1; c <= l_continentCount; c++) {
+            Continent l_continent = new Continent(c, "Block" + c, 1);
+            l_continents.add(l_continent);
+            for (int m = 0; m < l_blockSize; m++) {
+                int l_id = (c - 1) * l_blockSize + m + 1;
+                Country l_country = new Country(l_id, "C" + l_id, c);
+                List<Integer> l_neighbours = new ArrayList<>();
+                // Every seventh block is cut in the middle.
+                if (l_id > 1 && !(c % 7 == 0 && m == l_blockSize / 2)) {
+                    l_neighbours.add(l_id - 1);
+                }
+                if (l_id < l_continentCount * l_blockSize && !(c % 7 == 0 && m == l_blockSize / 2 - 1)) {
+                    l_neighbours.add(l_id + 1);
+                }
+                l_country.setD_neighbouringCountriesId(l_neighbours);
+                l_countries.add(l_country);
+                l_continent.setCountry(l_country);
+            }
+        }
+        l_continents.add(new Continent(l_continentCount + 1, "Empty", 1));
+        MapGraph l_graph = new Map("blocks.map", l_countries, l_continents).getGraph();
+
+        MapValidationReport l_sequential = new MapValidator(false).validate(l_graph);
+        MapValidationReport l_parallel = new MapValidator(true).validate(l_graph);
+
+        assertEquals(l_continentCount / 7, l_parallel.getDisconnectedContinents().size());
+        assertEquals(l_sequential.getMessages(), l_parallel.getMessages());
+        assertEquals(l_sequential.getDisconnectedContinents(), l_parallel.getDisconnectedContinents());
+    }
+}
@@ -9,6 +9,7 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
         AdvanceOrderTest.class,
+        BinaryMapFormatTest.class,
         CardAirliftTest.class,
         CardBlockadeTest.class,
         CardBombTest.class,
@@ -17,9 +18,18 @@ import org.junit.runners.Suite;
         CountryTest.class,
         CurrentStateTest.class,
         DeployTest.class,
+        MapGraphTest.class,
         MapTest.class,
+        MapValidatorTest.class,
+        MapCacheTest.class,
+        MapConnectivityTest.class,
+        MapDeltaLogTest.class,
+        MapFileParserTest.class,
+        MapFileWriterTest.class,
+        MapGeneratorTest.class,
         OrderExecutionPhaseTest.class,
         OrdersTest.class,
+        OwnershipTableTest.class,
         PhaseTest.class,
         PlayerTest.class
 })
@@ -0,0 +1,150 @@
+package Models;
+
+import Controller.MapController;
+import Model.Continent;
+import Model.CurrentState;
+import Model.Map;
+import Model.OwnershipTable;
+import Model.Player;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * The type Ownership table test.
+ */
+public class OwnershipTableTest {
+    /**
+     * The D map.
+     */
+    Map d_map;
+    /**
+     * The D ownership table.
+     */
+    OwnershipTable d_ownership;
+    /**
+     * The D first player.
+     */
+    Player d_player1;
+    /**
+     * The D second player.
+     */
+    Player d_player2;
+
+    /**
+     * Loads the map and attaches two players to a table over it.
+     */
+    @Before
+    public void setup() {
+        d_map = new MapController().loadMap(new CurrentState(), "test.map");
+        d_ownership = new OwnershipTable(d_map.getD_mapCountries(), d_map.getD_mapContinents());
+        d_player1 = new Player("Player1");
+        d_player2 = new Player("Player2");
+        d_ownership.addPlayer(d_player1);
+        d_ownership.addPlayer(d_player2);
+    }
+
+    /**
+     * Test that adding a country to a player list takes it from its previous owner.
+     */
+    @Test
+    public void transferThroughPlayerList() {
+        d_player1.getD_currentCountries().add(d_map.getCountryByName("USA"));
+        d_player1.getD_currentCountries().add(d_map.getCountryByName("Canada"));
+        assertSame(d_player1, d_ownership.getOwner(d_map.getCountryByName("USA")));
+
+        d_player2.getD_currentCountries().add(d_map.getCountryByName("USA"));
+        assertSame(d_player2, d_ownership.getOwner(d_map.getCountryByName("USA")));
+        assertEquals(1, d_player1.getD_currentCountries().size());
+        assertEquals("Canada", d_player1.getD_currentCountries().get(0).getD_countryName());
+        assertFalse(d_player1.getD_currentCountries().contains(d_map.getCountryByName("USA")));
+        assertNull(d_player1.getOwnedCountry("USA"));
+        assertEquals("USA", d_player2.getOwnedCountry("USA").getD_countryName());
+    }
+
+    /**
+     * Test that a transfer through the table shows in the player lists.
+     */
+    @Test
+    public void transferThroughTable() {
+        d_player1.setD_currentCountries(d_map.getD_mapCountries());
+        assertEquals(8, d_player1.getD_currentCountries().size());
+
+        d_ownership.transfer(d_map.getCountryByName("Chile"), d_player2);
+        d_ownership.transfer(d_map.getCountryByName("UK"), null);
+        assertEquals(6, d_player1.getD_currentCountries().size());
+        assertEquals(List.of(d_map.getCountryByName("Chile")), d_player2.getD_currentCountries());
+        assertNull(d_ownership.getOwner(d_map.getCountryByName("UK")));
+        assertEquals(8, d_map.getD_mapCountries().size());
+
+        try {
+            d_ownership.transfer(d_map.getCountryByName("USA"), new Player("Player3"));
+            fail("Expected IllegalArgumentException for a player outside the table");
+        } catch (IllegalArgumentException e) {
+            assertTrue(d_ownership.owns(d_player1, d_map.getCountryByName("USA")));
+        }
+    }
+
+    /**
+     * Test checking continent control as countries change hands.
+     */
+    @Test
+    public void controls() {
+        Continent l_northAmerica = d_map.getD_mapContinents().getFirst();
+        d_player1.getD_currentCountries().add(d_map.getCountryByName("USA"));
+        assertFalse(d_ownership.controls(d_player1, l_northAmerica));
+
+        d_player1.getD_currentCountries().add(d_map.getCountryByName("Canada"));
+        assertTrue(d_ownership.controls(d_player1, l_northAmerica));
+        assertFalse(d_ownership.controls(d_player2, l_northAmerica));
+
+        d_player1.getD_currentCountries().remove(d_map.getCountryByName("Canada"));
+        assertFalse(d_ownership.controls(d_player1, l_northAmerica));
+    }
+
+    /**
+     * Test that players not sharing a table are attached to a new one, keeping their countries.
+     */
+    @Test
+    public void shared() {
+        Player l_player = new Player("Player3");
+        l_player.getD_currentCountries().add(d_map.getCountryByName("UK"));
+        List<Player> l_players = new ArrayList<>(List.of(d_player1, l_player));
+
+        OwnershipTable l_ownership = OwnershipTable.shared(l_players, d_map.getD_mapContinents());
+        assertNotSame(d_ownership, l_ownership);
+        assertSame(l_ownership, d_player1.getD_ownership());
+        assertSame(l_player, l_ownership.getOwner(d_map.getCountryByName("UK")));
+        assertSame(l_ownership, OwnershipTable.shared(l_players, d_map.getD_mapContinents()));
+    }
+
+    /**
+     * Test that the continent set of a player follows the countries they gain and lose.
+     */
+    @Test
+    public void continentsFollowTransfers() {
+        Continent l_southAmerica = d_map.getD_mapContinents().get(2);
+        d_player1.getD_currentCountries().add(d_map.getCountryByName("Brazil"));
+        d_player1.getD_currentCountries().add(d_map.getCountryByName("Argentina"));
+        assertTrue(d_player1.getD_currentContinents().isEmpty());
+
+        d_player1.getD_currentCountries().add(d_map.getCountryByName("Chile"));
+        assertEquals(1, d_player1.getD_currentContinents().size());
+        assertTrue(d_player1.getD_currentContinents().contains(l_southAmerica));
+
+        d_ownership.transfer(d_map.getCountryByName("Argentina"), d_player2);
+        assertTrue(d_player1.getD_currentContinents().isEmpty());
+        assertTrue(d_player2.getD_currentContinents().isEmpty());
+
+        d_player2.getD_currentCountries().add(d_map.getCountryByName("Brazil"));
+        d_player2.getD_currentCountries().add(d_map.getCountryByName("Chile"));
+        assertTrue(d_player2.getD_currentContinents().contains(l_southAmerica));
+
+        d_player2.getD_currentCountries().clear();
+        assertTrue(d_player2.getD_currentContinents().isEmpty());
+    }
+}
@@ -1,10 +1,16 @@
 package Models;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 
 import Model.CurrentState;
 import Model.Map;
@@ -84,4 +90,80 @@ public class PlayerTest {
         assertEquals(l_order1, d_player.nextOrder());
         assertEquals(l_order2, d_player.nextOrder());
     }
-}
\ No newline at end of file
+
+    /**
+     * Test that orders come back in issue order while the queue wraps around and grows.
+     */
+    @Test
+    public void nextOrderAfterWrapAround() {
+        int l_next = 0;
+        for (int i = 0; i < 100; i++) {
+            d_player.getD_orders().add(new Orders("deploy", "Country" + i, i));
+            if (i % 3 == 0) {
+                assertEquals(l_next++, d_player.nextOrder().getD_noOfArmiesToMove().intValue());
+            }
+        }
+        assertEquals(100 - l_next, d_player.getD_orders().size());
+        assertEquals("Country" + l_next, d_player.getD_orders().get(0).getD_targetName());
+        while (l_next < 100) {
+            assertEquals(l_next++, d_player.nextOrder().getD_noOfArmiesToMove().intValue());
+        }
+        assertEquals(null, d_player.nextOrder());
+    }
+
+    /**
+     * Test finding the countries of the player by name as the country list changes.
+     */
+    @Test
+    public void getOwnedCountry() {
+        d_player.getD_currentCountries().add(d_map.getCountryByName("USA"));
+        assertEquals("USA", d_player.getOwnedCountry("USA").getD_countryName());
+        assertEquals(null, d_player.getOwnedCountry("UK"));
+
+        d_player.getD_currentCountries().add(d_map.getCountryByName("UK"));
+        assertEquals("UK", d_player.getOwnedCountry("UK").getD_countryName());
+
+        d_player.setD_currentCountries(new ArrayList<>());
+        assertEquals(null, d_player.getOwnedCountry("USA"));
+    }
+
+    /**
+     * Test that swapping one country for another keeps the name lookup exact, although the size of the
+     * country list does not change.
+     */
+    @Test
+    public void getOwnedCountryAfterSwap() {
+        d_player.getD_currentCountries().add(d_map.getCountryByName("USA"));
+        d_player.getD_currentCountries().add(d_map.getCountryByName("UK"));
+        assertEquals("USA", d_player.getOwnedCountry("USA").getD_countryName());
+
+        d_player.getD_currentCountries().remove(d_map.getCountryByName("USA"));
+        d_player.getD_currentCountries().add(d_map.getCountryByName("Chile"));
+        assertEquals(null, d_player.getOwnedCountry("USA"));
+        assertEquals("Chile", d_player.getOwnedCountry("Chile").getD_countryName());
+    }
+
+    /**
+     * Test that an order issued from a session reads the session's input and reports on its output.
+     *
+     * @throws IOException if the input cannot be read
+     */
+    @Test
+    public void issueOrderUsesSessionStreams() throws IOException {
+        d_player.getD_currentCountries().add(d_map.getCountryByName("USA"));
+        d_player.setD_unallocatedArmies(5);
+        ByteArrayOutputStream l_bytes = new ByteArrayOutputStream();
+        PrintStream l_output = new PrintStream(l_bytes, true);
+        BufferedReader l_input = new BufferedReader(new StringReader("deploy USA 3\ndeploy USA\n"));
+
+        d_player.issueOrder(l_input, l_output);
+        d_player.issueOrder(l_input, l_output);
+
+        String l_text = l_bytes.toString();
+        assertTrue(l_text.contains("Enter command to deploy armies on the map for Player: Player 1 | Armies left: 5"));
+        assertTrue(l_text.contains("Order is added to queue for execution."));
+        assertTrue(l_text.contains("Invalid command format."));
+        assertEquals(1, d_player.getD_orders().size());
+        assertEquals(2, d_player.getD_unallocatedArmies().intValue());
+    }
+}
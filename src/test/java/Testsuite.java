@@ -1,9 +1,15 @@
+import Controller.BatchRunnerTest;
+import Controller.CommandRegistryTest;
+import Controller.GameServerTest;
 import Controller.MainGameEngineTest;
 import Controller.MapControllerTest;
 import Controller.PlayerControllerTest;
+import Controller.SessionManagerTest;
 import Models.*;
 import Services.GameServiceTest;
 import Utils.CommandHandlerTest;
+import Utils.CommandTokenizerTest;
+import Utils.LatencyHistogramTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -13,12 +19,17 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
         // Controller Tests
+        BatchRunnerTest.class,
+        CommandRegistryTest.class,
+        GameServerTest.class,
         MainGameEngineTest.class,
         MapControllerTest.class,
         PlayerControllerTest.class,
+        SessionManagerTest.class,
 
         // Model Tests
         AdvanceOrderTest.class,
+        BinaryMapFormatTest.class,
         CardAirliftTest.class,
         CardBlockadeTest.class,
         CardBombTest.class,
@@ -26,9 +37,18 @@ import org.junit.runners.Suite;
         CountryTest.class,
         CurrentStateTest.class,
         DeployTest.class,
+        MapGraphTest.class,
         MapTest.class,
+        MapValidatorTest.class,
+        MapCacheTest.class,
+        MapConnectivityTest.class,
+        MapDeltaLogTest.class,
+        MapFileParserTest.class,
+        MapFileWriterTest.class,
+        MapGeneratorTest.class,
         OrdersTest.class,
         OrderExecutionPhaseTest.class,
+        OwnershipTableTest.class,
         PhaseTest.class,
         PlayerTest.class,
 
@@ -37,6 +57,8 @@ import org.junit.runners.Suite;
 
         // Utility Tests
         CommandHandlerTest.class,
+        CommandTokenizerTest.class,
+        LatencyHistogramTest.class,
 
         // Tournament Tests
         TournamentTest.class,
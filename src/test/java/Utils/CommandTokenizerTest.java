@@ -0,0 +1,136 @@
+package Utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * The type Command tokenizer test.
+ */
+public class CommandTokenizerTest {
+
+    /**
+     * Test splitting a command into its command word, options and arguments.
+     */
+    @Test
+    public void testTokenize() {
+        ParsedCommand l_parsed = CommandTokenizer.tokenize("  gameplayer -add Alice   -add Bob -remove Carol ");
+        assertEquals("gameplayer", l_parsed.getCommand());
+        assertTrue(l_parsed.isCommand("gameplayer"));
+        assertEquals(3, l_parsed.optionCount());
+        assertTrue(l_parsed.isOption(1, "add"));
+        assertEquals("remove", l_parsed.optionName(2));
+        assertEquals("Bob", l_parsed.argument(1, 0));
+        assertTrue(l_parsed.isArgument(2, 0, "Carol"));
+
+        l_parsed = CommandTokenizer.tokenize("loadmap world.map");
+        assertTrue(l_parsed.isPositional(0));
+        assertEquals(ParsedCommand.POSITIONAL, l_parsed.optionName(0));
+        assertEquals("world.map", l_parsed.arguments(0));
+
+        l_parsed = CommandTokenizer.tokenize("   ");
+        assertTrue(l_parsed.isEmpty());
+        assertEquals("", l_parsed.getCommand());
+        assertEquals(0, l_parsed.optionCount());
+    }
+
+    /**
+     * Test that dashes inside names, negative numbers and the command word inside arguments are kept.
+     */
+    @Test
+    public void testArgumentsAreKeptWhole() {
+        ParsedCommand l_parsed = CommandTokenizer.tokenize("editcountry -add N&L-Labrador Canada -remove Nova-Scotia");
+        assertEquals(2, l_parsed.optionCount());
+        assertEquals("N&L-Labrador Canada", l_parsed.arguments(0));
+        assertEquals("Nova-Scotia", l_parsed.arguments(1));
+
+        l_parsed = CommandTokenizer.tokenize("loadmap loadmap-test.map");
+        assertEquals("loadmap-test.map", l_parsed.arguments(0));
+
+        l_parsed = CommandTokenizer.tokenize("deploy Quebec -5");
+        assertEquals(1, l_parsed.optionCount());
+        assertEquals(2, l_parsed.argumentCount(0));
+        assertEquals(-5, l_parsed.intArgument(0, 1));
+        assertFalse(l_parsed.isIntArgument(0, 0));
+
+        l_parsed = CommandTokenizer.tokenize("deploy A 2147483647 -2147483648 2147483648");
+        assertEquals(Integer.MAX_VALUE, l_parsed.intArgument(0, 1));
+        assertEquals(Integer.MIN_VALUE, l_parsed.intArgument(0, 2));
+        assertFalse(l_parsed.isIntArgument(0, 3));
+    }
+
+    /**
+     * Test that the command handler built on the tokenizer keeps its operation maps.
+     */
+    @Test
+    public void testOperationsOfCommandHandler() {
+        CommandHandler l_handler = new CommandHandler("editneighbour -add A-1 B -remove C D");
+        assertEquals("editneighbour", l_handler.getMainCommand());
+        List<Map<String, String>> l_operations = l_handler.getListOfOperations();
+        assertEquals(2, l_operations.size());
+        assertEquals("add", l_operations.get(0).get("Operation"));
+        assertEquals("A-1 B", l_operations.get(0).get("Arguments"));
+        assertEquals("remove", l_operations.get(1).get("Operation"));
+        assertEquals("C D", l_operations.get(1).get("Arguments"));
+
+        l_operations = new CommandHandler("savemap canada.map").getListOfOperations();
+        assertEquals("filename", l_operations.get(0).get("Operation"));
+        assertEquals("canada.map", l_operations.get(0).get("Arguments"));
+        assertTrue(new CommandHandler("showmap").getListOfOperations().isEmpty());
+    }
+
+    /**
+     * Test that tokenizing into a reused parsed command allocates nothing once it has grown. A round may
+     * see a few bytes allocated by the JIT compiler on the test thread, so the test passes when any of a
+     * few rounds allocates nothing.
+     */
+    @Test
+    public void testReuseAllocatesNothing() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean l_threads)
+                || !l_threads.isThreadAllocatedMemorySupported()) {
+            return;
+        }
+        String[] l_lines = {"editcountry -add N&L-Labrador Canada -remove Ontario", "deploy Quebec 5", "showmap"};
+        ParsedCommand l_parsed = new ParsedCommand();
+        long l_sum = 0;
+        for (int i = 0; i < 1000; i++) {
+            l_sum += tokenizeAll(l_lines, l_parsed);
+        }
+        long l_allocated = Long.MAX_VALUE;
+        int l_rounds = 0;
+        while (l_rounds < 5 && l_allocated > 0) {
+            long l_before = l_threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < 10000; i++) {
+                l_sum += tokenizeAll(l_lines, l_parsed);
+            }
+            l_allocated = l_threads.getCurrentThreadAllocatedBytes() - l_before;
+            l_rounds++;
+        }
+        assertEquals(0, l_allocated);
+        assertEquals((1000 + 10000L * l_rounds) * 5, l_sum);
+    }
+
+    /**
+     * Tokenizes every line and reads its typed slots.
+     *
+     * @param p_lines  the lines
+     * @param p_parsed the parsed command to reuse
+     * @return a value depending on the parsed slots
+     */
+    private long tokenizeAll(String[] p_lines, ParsedCommand p_parsed) {
+        long l_sum = 0;
+        for (String l_line : p_lines) {
+            CommandTokenizer.tokenize(l_line, p_parsed);
+            if (p_parsed.isCommand("deploy")) {
+                l_sum += p_parsed.intArgument(0, 1);
+            }
+        }
+        return l_sum;
+    }
+}
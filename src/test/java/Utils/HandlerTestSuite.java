@@ -8,7 +8,9 @@ import org.junit.runners.Suite;
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
-        CommandHandlerTest.class
+        CommandHandlerTest.class,
+        CommandTokenizerTest.class,
+        LatencyHistogramTest.class
 })
 public class HandlerTestSuite {
 }
@@ -0,0 +1,52 @@
+package Utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * The type Latency histogram test.
+ */
+public class LatencyHistogramTest {
+
+    /**
+     * Test that percentiles are within the resolution of the buckets.
+     */
+    @Test
+    public void percentiles() {
+        LatencyHistogram l_histogram = new LatencyHistogram();
+        for (long l_value = 1; l_value <= 100_000; l_value++) {
+            l_histogram.record(l_value * 1000);
+        }
+        assertEquals(100_000, l_histogram.getCount());
+        assertEquals(50_000_500.0, l_histogram.getMean(), 1e-6);
+        assertEquals(100_000_000, l_histogram.getMax());
+        for (double l_percentile : new double[] {1, 50, 90, 99, 99.9}) {
+            double l_exact = l_percentile * 1_000_000;
+            long l_reported = l_histogram.getPercentile(l_percentile);
+            assertTrue(l_reported >= l_exact && l_reported <= l_exact * 1.125);
+        }
+        assertEquals(100_000_000, l_histogram.getPercentile(100));
+    }
+
+    /**
+     * Test small, extreme and merged values.
+     */
+    @Test
+    public void edges() {
+        LatencyHistogram l_histogram = new LatencyHistogram();
+        assertEquals(0, l_histogram.getPercentile(99));
+        l_histogram.record(-5);
+        l_histogram.record(3);
+        assertEquals(0, l_histogram.getPercentile(50));
+        assertEquals(3, l_histogram.getPercentile(100));
+
+        LatencyHistogram l_other = new LatencyHistogram();
+        l_other.record(Long.MAX_VALUE);
+        l_histogram.add(l_other);
+        assertEquals(3, l_histogram.getCount());
+        assertEquals(Long.MAX_VALUE, l_histogram.getPercentile(100));
+        assertEquals(Long.MAX_VALUE, l_histogram.getMax());
+    }
+}